@@ -2,8 +2,10 @@ package com.dhs.platform.security_token_service;
 
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.scheduling.annotation.EnableScheduling;
 
 @SpringBootApplication
+@EnableScheduling
 public class SecurityTokenServiceApplication {
 
     public static void main(String[] args) {
@@ -0,0 +1,53 @@
+package com.dhs.platform.security_token_service.adapters.in.grpc;
+
+import com.dhs.platform.security_token_service.domain.service.RateLimitService;
+import com.dhs.platform.security_token_service.util.LogThrottle;
+import io.grpc.Grpc;
+import io.grpc.Metadata;
+import io.grpc.ServerCall;
+import io.grpc.ServerCallHandler;
+import io.grpc.ServerInterceptor;
+import io.grpc.Status;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.net.InetSocketAddress;
+import java.net.SocketAddress;
+
+/**
+ * Aplica o mesmo rate limit por IP do REST às chamadas gRPC (uma verificação por chamada)
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class GrpcRateLimitInterceptor implements ServerInterceptor {
+
+    private static final LogThrottle REJECTION_THROTTLE = LogThrottle.perMinute(log, "chamada gRPC rejeitada por rate limit", 20);
+
+    private final RateLimitService rateLimitService;
+
+    @Override
+    public <ReqT, RespT> ServerCall.Listener<ReqT> interceptCall(ServerCall<ReqT, RespT> call, Metadata headers,
+                                                                 ServerCallHandler<ReqT, RespT> next) {
+        String clientIp = clientIp(call.getAttributes().get(Grpc.TRANSPORT_ATTR_REMOTE_ADDR));
+
+        if (rateLimitService.isRateLimited(clientIp)) {
+            if (REJECTION_THROTTLE.tryAcquire()) {
+                log.warn("Rate limit excedido para chamada gRPC: IP {} - Método: {}",
+                        clientIp, call.getMethodDescriptor().getFullMethodName());
+            }
+            call.close(Status.RESOURCE_EXHAUSTED.withDescription("Rate limit exceeded. Try again later."), new Metadata());
+            return new ServerCall.Listener<>() {
+            };
+        }
+        return next.startCall(call, headers);
+    }
+
+    private String clientIp(SocketAddress address) {
+        if (address instanceof InetSocketAddress inetAddress) {
+            return inetAddress.getAddress().getHostAddress();
+        }
+        return "unknown";
+    }
+}
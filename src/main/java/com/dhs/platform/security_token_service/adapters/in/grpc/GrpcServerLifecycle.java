@@ -0,0 +1,104 @@
+package com.dhs.platform.security_token_service.adapters.in.grpc;
+
+import io.grpc.Server;
+import io.grpc.ServerInterceptors;
+import io.grpc.netty.shaded.io.grpc.netty.NettyServerBuilder;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Servidor gRPC em porta própria, iniciado e parado junto com o contexto Spring
+ *
+ * Conexões HTTP/2 de longa duração: keepalive do servidor e pings dos clientes
+ * (sidecars) permitidos mesmo sem chamadas ativas.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class GrpcServerLifecycle implements SmartLifecycle {
+
+    private final TokenGrpcService tokenGrpcService;
+    private final GrpcRateLimitInterceptor rateLimitInterceptor;
+
+    @Value("${grpc.server.enabled:true}")
+    private boolean enabled;
+
+    @Value("${grpc.server.port:9090}")
+    private int port;
+
+    @Value("${grpc.server.keepalive-time-seconds:60}")
+    private long keepAliveTimeSeconds;
+
+    @Value("${grpc.server.permit-keepalive-time-seconds:20}")
+    private long permitKeepAliveTimeSeconds;
+
+    @Value("${grpc.server.max-inbound-message-size:1048576}")
+    private int maxInboundMessageSize;
+
+    @Value("${grpc.server.shutdown-grace-period-seconds:10}")
+    private long shutdownGracePeriodSeconds;
+
+    private volatile Server server;
+
+    @Override
+    public void start() {
+        if (!enabled) {
+            log.info("Servidor gRPC desabilitado");
+            return;
+        }
+
+        try {
+            server = NettyServerBuilder.forPort(port)
+                    .addService(ServerInterceptors.intercept(tokenGrpcService, rateLimitInterceptor))
+                    .keepAliveTime(keepAliveTimeSeconds, TimeUnit.SECONDS)
+                    .permitKeepAliveTime(permitKeepAliveTimeSeconds, TimeUnit.SECONDS)
+                    .permitKeepAliveWithoutCalls(true)
+                    .maxInboundMessageSize(maxInboundMessageSize)
+                    .build()
+                    .start();
+            log.info("Servidor gRPC iniciado na porta {}", server.getPort());
+        } catch (IOException e) {
+            throw new UncheckedIOException("Falha ao iniciar servidor gRPC na porta " + port, e);
+        }
+    }
+
+    @Override
+    public void stop() {
+        Server current = server;
+        if (current == null) {
+            return;
+        }
+
+        current.shutdown();
+        try {
+            if (!current.awaitTermination(shutdownGracePeriodSeconds, TimeUnit.SECONDS)) {
+                current.shutdownNow();
+            }
+        } catch (InterruptedException e) {
+            current.shutdownNow();
+            Thread.currentThread().interrupt();
+        }
+        server = null;
+        log.info("Servidor gRPC parado");
+    }
+
+    @Override
+    public boolean isRunning() {
+        return server != null;
+    }
+
+    /**
+     * Porta efetiva (útil com grpc.server.port=0); -1 se o servidor não estiver ativo
+     */
+    public int getPort() {
+        Server current = server;
+        return current != null ? current.getPort() : -1;
+    }
+}
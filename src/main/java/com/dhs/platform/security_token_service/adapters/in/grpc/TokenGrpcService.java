@@ -0,0 +1,140 @@
+package com.dhs.platform.security_token_service.adapters.in.grpc;
+
+import com.dhs.platform.security_token_service.adapters.in.grpc.proto.BatchValidateRequest;
+import com.dhs.platform.security_token_service.adapters.in.grpc.proto.BatchValidateResponse;
+import com.dhs.platform.security_token_service.adapters.in.grpc.proto.IssueTokenRequest;
+import com.dhs.platform.security_token_service.adapters.in.grpc.proto.IssueTokenResponse;
+import com.dhs.platform.security_token_service.adapters.in.grpc.proto.TokenServiceGrpc;
+import com.dhs.platform.security_token_service.adapters.in.grpc.proto.ValidateRequest;
+import com.dhs.platform.security_token_service.adapters.in.grpc.proto.ValidateResponse;
+import com.dhs.platform.security_token_service.adapters.in.http.dto.LoginRequestDTO;
+import com.dhs.platform.security_token_service.adapters.in.http.dto.TokenResponseDTO;
+import com.dhs.platform.security_token_service.adapters.in.http.dto.TokenValidationResponseDTO;
+import com.dhs.platform.security_token_service.domain.port.in.service.IAuthenticationService;
+import com.dhs.platform.security_token_service.domain.service.LoginFailureService;
+import io.grpc.Status;
+import io.grpc.stub.StreamObserver;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.authentication.BadCredentialsException;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.Set;
+
+/**
+ * Adapter de entrada gRPC: Validate, BatchValidate e IssueToken sobre o mesmo IAuthenticationService do REST
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class TokenGrpcService extends TokenServiceGrpc.TokenServiceImplBase {
+
+    private static final String BEARER_PREFIX = "Bearer ";
+
+    private final IAuthenticationService authenticationService;
+    private final Validator validator;
+
+    @Value("${grpc.server.max-batch-size:500}")
+    private int maxBatchSize;
+
+    @Override
+    public void validate(ValidateRequest request, StreamObserver<ValidateResponse> responseObserver) {
+        responseObserver.onNext(validate(request.getToken()));
+        responseObserver.onCompleted();
+    }
+
+    @Override
+    public void batchValidate(BatchValidateRequest request, StreamObserver<BatchValidateResponse> responseObserver) {
+        if (request.getTokensCount() > maxBatchSize) {
+            responseObserver.onError(Status.INVALID_ARGUMENT
+                    .withDescription("Lote excede o máximo de " + maxBatchSize + " tokens")
+                    .asRuntimeException());
+            return;
+        }
+
+        BatchValidateResponse.Builder response = BatchValidateResponse.newBuilder();
+        for (String token : request.getTokensList()) {
+            response.addResults(validate(token));
+        }
+        responseObserver.onNext(response.build());
+        responseObserver.onCompleted();
+    }
+
+    @Override
+    public void issueToken(IssueTokenRequest request, StreamObserver<IssueTokenResponse> responseObserver) {
+        LoginRequestDTO loginRequest = new LoginRequestDTO(
+                emptyToNull(request.getClientId()),
+                emptyToNull(request.getClientSecret()),
+                request.getGrantType().isEmpty() ? LoginRequestDTO.GRANT_CLIENT_CREDENTIALS : request.getGrantType(),
+                emptyToNull(request.getRefreshToken()));
+
+        // Mesmas validações do @Valid no endpoint REST
+        Set<ConstraintViolation<LoginRequestDTO>> violations = validator.validate(loginRequest);
+        if (!violations.isEmpty()) {
+            responseObserver.onError(Status.INVALID_ARGUMENT
+                    .withDescription(violations.iterator().next().getMessage())
+                    .asRuntimeException());
+            return;
+        }
+
+        try {
+            TokenResponseDTO token = authenticationService.authenticate(loginRequest);
+
+            IssueTokenResponse.Builder response = IssueTokenResponse.newBuilder()
+                    .setAccessToken(token.getAccessToken())
+                    .setTokenType(token.getTokenType())
+                    .setExpiresAt(toEpochSeconds(token.getExpiresAt()));
+            if (token.getRefreshToken() != null) {
+                response.setRefreshToken(token.getRefreshToken());
+            }
+
+            responseObserver.onNext(response.build());
+            responseObserver.onCompleted();
+
+        } catch (LoginFailureService.ClientLockedException e) {
+            responseObserver.onError(Status.RESOURCE_EXHAUSTED.withDescription(e.getMessage()).asRuntimeException());
+        } catch (BadCredentialsException e) {
+            responseObserver.onError(Status.UNAUTHENTICATED.withDescription(e.getMessage()).asRuntimeException());
+        } catch (Exception e) {
+            log.error("Erro ao emitir token via gRPC: {}", e.getMessage());
+            responseObserver.onError(Status.INTERNAL.withDescription("Erro interno do servidor").asRuntimeException());
+        }
+    }
+
+    private ValidateResponse validate(String token) {
+        // O serviço espera o valor do header Authorization
+        String authorization = token.startsWith(BEARER_PREFIX) ? token : BEARER_PREFIX + token;
+        TokenValidationResponseDTO validation = authenticationService.validateToken(authorization);
+
+        ValidateResponse.Builder response = ValidateResponse.newBuilder()
+                .setValid(validation.isValid())
+                .setIssuedAt(toEpochSeconds(validation.getIssuedAt()))
+                .setExpiresAt(toEpochSeconds(validation.getExpiresAt()));
+        if (validation.getClientId() != null) {
+            response.setClientId(validation.getClientId());
+        }
+        if (validation.getClientName() != null) {
+            response.setClientName(validation.getClientName());
+        }
+        if (validation.getScopes() != null) {
+            response.addAllScopes(validation.getScopes());
+        }
+        if (validation.getMessage() != null) {
+            response.setMessage(validation.getMessage());
+        }
+        return response.build();
+    }
+
+    private static long toEpochSeconds(LocalDateTime dateTime) {
+        return dateTime != null ? dateTime.atZone(ZoneId.systemDefault()).toEpochSecond() : 0;
+    }
+
+    private static String emptyToNull(String value) {
+        return value.isEmpty() ? null : value;
+    }
+}
@@ -1,17 +1,31 @@
 package com.dhs.platform.security_token_service.adapters.in.http;
 
+import com.dhs.platform.security_token_service.config.InMemoryTraceExporter;
+import com.dhs.platform.security_token_service.config.Tracing;
+import com.dhs.platform.security_token_service.domain.model.BulkItemResult;
+import com.dhs.platform.security_token_service.domain.model.ClientState;
+import com.dhs.platform.security_token_service.domain.model.LoginFailureState;
 import com.dhs.platform.security_token_service.domain.service.ClientCacheService;
+import com.dhs.platform.security_token_service.domain.service.ClientStateCacheService;
+import com.dhs.platform.security_token_service.domain.service.LoginFailureService;
 import com.dhs.platform.security_token_service.domain.service.RateLimitService;
+import com.dhs.platform.security_token_service.domain.service.RevocationService;
 import com.dhs.platform.security_token_service.domain.service.TokenCacheService;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import java.io.IOException;
 import java.time.Duration;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.function.Function;
 
 @RestController
 @RequestMapping("/api/v1/admin")
@@ -22,7 +36,12 @@ public class AdminController {
 
     private final TokenCacheService tokenCacheService;
     private final ClientCacheService clientCacheService;
+    private final ClientStateCacheService clientStateCacheService;
     private final RateLimitService rateLimitService;
+    private final LoginFailureService loginFailureService;
+    private final RevocationService revocationService;
+    private final BulkRequestProcessor bulkRequestProcessor;
+    private final InMemoryTraceExporter inMemoryTraceExporter;
 
     @PostMapping("/cache/tokens/clear")
     public ResponseEntity<Map<String, String>> clearTokenCache() {
@@ -54,12 +73,52 @@ public class AdminController {
         return ResponseEntity.ok(response);
     }
 
+    @GetMapping("/login-failures/{clientId}")
+    public ResponseEntity<Map<String, Object>> getLoginFailures(@PathVariable String clientId) {
+        long now = System.currentTimeMillis();
+        LoginFailureState state = loginFailureService.getState(clientId);
+
+        Map<String, Object> response = new HashMap<>();
+        response.put("clientId", clientId);
+        response.put("failures", state.failures());
+        response.put("blocked", state.isBlocked(now));
+        response.put("retryAfterSeconds", state.retryAfterSeconds(now));
+        return ResponseEntity.ok(response);
+    }
+
+    @PostMapping("/login-failures/{clientId}/reset")
+    public ResponseEntity<Map<String, String>> resetLoginFailures(@PathVariable String clientId) {
+        loginFailureService.reset(clientId);
+        log.info("Falhas de login zeradas para cliente: {} via admin endpoint", clientId);
+
+        Map<String, String> response = new HashMap<>();
+        response.put("message", "Falhas de login zeradas para cliente: " + clientId);
+        return ResponseEntity.ok(response);
+    }
+
+    /**
+     * Traces mantidos pela amostragem por cauda neste pod, mais recentes primeiro
+     */
+    @GetMapping("/traces")
+    public ResponseEntity<List<List<Tracing.SpanData>>> getRecentTraces(
+            @RequestParam(defaultValue = "20") int limit) {
+        return ResponseEntity.ok(inMemoryTraceExporter.recent(Math.max(0, Math.min(limit, 200))));
+    }
+
+    @GetMapping("/traces/{traceId}")
+    public ResponseEntity<List<Tracing.SpanData>> getTrace(@PathVariable String traceId) {
+        return inMemoryTraceExporter.find(traceId)
+                .map(ResponseEntity::ok)
+                .orElseGet(() -> ResponseEntity.notFound().build());
+    }
+
     @PostMapping("/tokens/{token}/blacklist")
     public ResponseEntity<Map<String, String>> blacklistToken(
             @PathVariable String token,
             @RequestParam(defaultValue = "3600") int durationMinutes) {
 
-        tokenCacheService.blacklistToken("Bearer " + token, Duration.ofMinutes(durationMinutes));
+        // Mesmo hash usado na validação (token sem o prefixo Bearer); o evento vai para o feed de revogações
+        revocationService.revokeToken(token, Duration.ofMinutes(durationMinutes));
         log.warn("Token adicionado à blacklist via admin endpoint por {} minutos", durationMinutes);
 
         Map<String, String> response = new HashMap<>();
@@ -80,7 +139,7 @@ public class AdminController {
     @PostMapping("/cache/invalidate/client/{clientId}")
     public ResponseEntity<Map<String, String>> invalidateClientCache(@PathVariable String clientId) {
         clientCacheService.invalidateClientCache(clientId);
-        tokenCacheService.invalidateClientToken(clientId);
+        revocationService.revokeClientTokens(clientId);
         log.info("Cache e token invalidados para cliente: {} via admin endpoint", clientId);
 
         Map<String, String> response = new HashMap<>();
@@ -90,7 +149,7 @@ public class AdminController {
 
     @PostMapping("/client/{clientId}/revoke-token")
     public ResponseEntity<Map<String, String>> revokeClientToken(@PathVariable String clientId) {
-        tokenCacheService.invalidateClientToken(clientId);
+        revocationService.revokeClientTokens(clientId);
         log.info("Token revogado para cliente: {} via admin endpoint", clientId);
 
         Map<String, String> response = new HashMap<>();
@@ -98,6 +157,60 @@ public class AdminController {
         return ResponseEntity.ok(response);
     }
 
+    /**
+     * Corpo: array JSON ou NDJSON de tokens (strings ou {"token": "..."}).
+     * Resposta NDJSON por item, sem ecoar o token, e uma linha final de resumo.
+     */
+    @PostMapping(value = "/bulk/tokens/blacklist",
+            consumes = {MediaType.APPLICATION_JSON_VALUE, BulkRequestProcessor.NDJSON},
+            produces = BulkRequestProcessor.NDJSON)
+    public void bulkBlacklistTokens(
+            @RequestParam(defaultValue = "3600") int durationMinutes,
+            HttpServletRequest request,
+            HttpServletResponse response) throws IOException {
+
+        Duration duration = Duration.ofMinutes(durationMinutes);
+        BulkRequestProcessor.Summary summary = processBulk(request, response, "token", false,
+                tokens -> revocationService.revokeTokens(tokens, duration));
+        log.warn("{} tokens adicionados à blacklist em lote via admin endpoint por {} minutos ({} falhas)",
+                summary.getSucceeded(), durationMinutes, summary.getTotal() - summary.getSucceeded());
+    }
+
+    /**
+     * Corpo: array JSON ou NDJSON de client IDs (strings ou {"clientId": "..."})
+     */
+    @PostMapping(value = "/bulk/clients/revoke-token",
+            consumes = {MediaType.APPLICATION_JSON_VALUE, BulkRequestProcessor.NDJSON},
+            produces = BulkRequestProcessor.NDJSON)
+    public void bulkRevokeClientTokens(HttpServletRequest request, HttpServletResponse response) throws IOException {
+        BulkRequestProcessor.Summary summary = processBulk(request, response, "clientId", true,
+                revocationService::revokeClientsTokens);
+        log.info("Tokens revogados em lote para {} clientes via admin endpoint ({} falhas)",
+                summary.getSucceeded(), summary.getTotal() - summary.getSucceeded());
+    }
+
+    @PostMapping(value = "/bulk/clients/invalidate",
+            consumes = {MediaType.APPLICATION_JSON_VALUE, BulkRequestProcessor.NDJSON},
+            produces = BulkRequestProcessor.NDJSON)
+    public void bulkInvalidateClients(HttpServletRequest request, HttpServletResponse response) throws IOException {
+        BulkRequestProcessor.Summary summary = processBulk(request, response, "clientId", true, clientIds -> {
+            clientCacheService.invalidateClientCaches(clientIds);
+            return revocationService.revokeClientsTokens(clientIds);
+        });
+        log.info("Cache e token invalidados em lote para {} clientes via admin endpoint ({} falhas)",
+                summary.getSucceeded(), summary.getTotal() - summary.getSucceeded());
+    }
+
+    private BulkRequestProcessor.Summary processBulk(
+            HttpServletRequest request, HttpServletResponse response, String field, boolean echoClientId,
+            Function<List<String>, List<BulkItemResult>> operation)
+            throws IOException {
+        response.setContentType(BulkRequestProcessor.NDJSON);
+        response.setCharacterEncoding("UTF-8");
+        return bulkRequestProcessor.process(request.getInputStream(), response.getOutputStream(),
+                field, echoClientId, operation);
+    }
+
     @GetMapping("/debug/cache/{clientId}")
     public ResponseEntity<Map<String, Object>> debugTokenCache(@PathVariable String clientId) {
         Map<String, Object> debug = new HashMap<>();
@@ -107,6 +220,11 @@ public class AdminController {
             boolean hasValidToken = tokenCacheService.getValidTokenForClient(clientId).isPresent();
             debug.put("hasValidToken", hasValidToken);
 
+            // Estado consolidado usado pelo login
+            java.util.Optional<ClientState> clientState = clientStateCacheService.getClientState(clientId);
+            debug.put("hasClientState", clientState.isPresent());
+            debug.put("hasReusableStateToken", clientState.map(ClientState::hasReusableToken).orElse(false));
+
             // Informações gerais
             debug.put("clientId", clientId);
             debug.put("timestamp", java.time.LocalDateTime.now());
@@ -1,14 +1,28 @@
 package com.dhs.platform.security_token_service.adapters.in.http;
 
 import com.dhs.platform.security_token_service.adapters.in.http.dto.LoginRequestDTO;
+import com.dhs.platform.security_token_service.adapters.in.http.dto.RevocationFeedDTO;
 import com.dhs.platform.security_token_service.adapters.in.http.dto.TokenResponseDTO;
-import com.dhs.platform.security_token_service.adapters.in.http.dto.TokenValidationResponseDTO;
+import com.dhs.platform.security_token_service.domain.model.AuthorizationDecision;
+import com.dhs.platform.security_token_service.domain.model.RevocationPage;
+import com.dhs.platform.security_token_service.domain.model.SerializedValidation;
 import com.dhs.platform.security_token_service.domain.port.in.service.IAuthenticationService;
+import com.dhs.platform.security_token_service.domain.service.AuthorizationService;
+import com.dhs.platform.security_token_service.domain.service.RevocationService;
+import com.dhs.platform.security_token_service.util.LogSampler;
+import com.dhs.platform.security_token_service.util.LogThrottle;
+import jakarta.servlet.http.HttpServletResponse;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
 
 @RestController
 @RequestMapping("/api/v1/auth")
@@ -16,7 +30,21 @@ import org.springframework.web.bind.annotation.*;
 @Slf4j
 public class AuthController {
 
+    // Sucesso é amostrado e falhas repetitivas são limitadas para não pesar sob ataque
+    private static final LogSampler VALID_TOKEN_SAMPLER = LogSampler.oneIn(100);
+    private static final LogThrottle INVALID_TOKEN_THROTTLE = LogThrottle.perMinute(log, "token inválido", 20);
+
+    private static final byte[] ALLOWED_BODY = "{\"allowed\":true}".getBytes(StandardCharsets.UTF_8);
+    private static final byte[] INSUFFICIENT_SCOPE_BODY =
+            "{\"allowed\":false,\"error\":\"insufficient_scope\"}".getBytes(StandardCharsets.UTF_8);
+    private static final byte[] INVALID_TOKEN_BODY =
+            "{\"allowed\":false,\"error\":\"invalid_token\"}".getBytes(StandardCharsets.UTF_8);
+    private static final String[] NO_SCOPES = new String[0];
+
     private final IAuthenticationService IAuthenticationService;
+    private final AuthorizationService authorizationService;
+    private final RevocationService revocationService;
+    private final RevocationEventBroadcaster revocationEventBroadcaster;
 
     @PostMapping("/token")
     public ResponseEntity<TokenResponseDTO> authenticate(@Valid @RequestBody LoginRequestDTO request) {
@@ -24,14 +52,84 @@ public class AuthController {
         return ResponseEntity.ok(response);
     }
 
+    /**
+     * O corpo da resposta já vem serializado (do cache ou gerado uma única vez)
+     * e é escrito direto na saída do servlet, sem passar pelo Jackson
+     */
     @GetMapping("/validate")
-    public ResponseEntity<TokenValidationResponseDTO> validateToken(@RequestHeader("Authorization") String authorizationHeader) {
-        TokenValidationResponseDTO response = IAuthenticationService.validateToken(authorizationHeader);
-        if (response.isValid()) {
-            log.info("Token validado com sucesso para cliente: {}", response.getClientId());
-            return ResponseEntity.ok(response);
+    public void validateToken(@RequestHeader("Authorization") String authorizationHeader,
+                              HttpServletResponse response) throws IOException {
+        SerializedValidation validation = IAuthenticationService.validateTokenSerialized(authorizationHeader);
+        if (validation.valid()) {
+            if (log.isInfoEnabled() && VALID_TOKEN_SAMPLER.sample()) {
+                log.info("Token validado com sucesso para cliente: {} (amostrado)", validation.clientId());
+            }
+        } else if (INVALID_TOKEN_THROTTLE.tryAcquire()) {
+            log.warn("Tentativa de validação de token inválido: {}", validation.message());
+        }
+
+        byte[] body = validation.body().getBytes(StandardCharsets.UTF_8);
+        response.setStatus(validation.valid() ? HttpServletResponse.SC_OK : HttpServletResponse.SC_UNAUTHORIZED);
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        response.setContentLength(body.length);
+        response.getOutputStream().write(body);
+    }
+
+    /**
+     * Permite ou nega o acesso conforme os escopos exigidos (?scope=read&scope=write ou ?scope=read,write)
+     * 200 permitido, 403 escopo insuficiente, 401 token inválido
+     */
+    @GetMapping("/authorize")
+    public void authorize(@RequestHeader("Authorization") String authorizationHeader,
+                          @RequestParam(name = "scope", required = false) String[] scopes,
+                          HttpServletResponse response) throws IOException {
+        AuthorizationDecision decision = authorizationService.authorize(authorizationHeader,
+                scopes != null ? scopes : NO_SCOPES);
+
+        byte[] body = switch (decision) {
+            case ALLOW -> ALLOWED_BODY;
+            case INSUFFICIENT_SCOPE -> INSUFFICIENT_SCOPE_BODY;
+            case INVALID_TOKEN -> INVALID_TOKEN_BODY;
+        };
+        response.setStatus(switch (decision) {
+            case ALLOW -> HttpServletResponse.SC_OK;
+            case INSUFFICIENT_SCOPE -> HttpServletResponse.SC_FORBIDDEN;
+            case INVALID_TOKEN -> HttpServletResponse.SC_UNAUTHORIZED;
+        });
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        response.setContentLength(body.length);
+        response.getOutputStream().write(body);
+    }
+
+    /**
+     * Eventos de revogação com sequência maior que after, consumidos pela biblioteca cliente
+     */
+    @GetMapping("/revocations")
+    public ResponseEntity<RevocationFeedDTO> getRevocations(@RequestParam(defaultValue = "0") long after) {
+        RevocationPage page = revocationService.readPage(after);
+        return ResponseEntity.ok(RevocationFeedDTO.builder()
+                .events(page.events())
+                .latestSequence(page.latestSequence())
+                .truncated(page.truncated())
+                .reset(page.reset())
+                .oldestRetainedAt(page.oldestRetainedAt())
+                .build());
+    }
+
+    /**
+     * Mesmos eventos via SSE; reconexões retomam a partir do header Last-Event-ID
+     */
+    @GetMapping(value = "/revocations/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public ResponseEntity<SseEmitter> streamRevocations(
+            @RequestHeader(value = "Last-Event-ID", required = false) Long lastEventId,
+            @RequestParam(defaultValue = "0") long after) {
+
+        if (!revocationEventBroadcaster.hasCapacity()) {
+            log.warn("Limite de assinantes do stream de revogações atingido: {}",
+                    revocationEventBroadcaster.getSubscriberCount());
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).build();
         }
-        log.warn("Tentativa de validação de token inválido: {}", response.getMessage());
-        return ResponseEntity.status(401).body(response);
+
+        return ResponseEntity.ok(revocationEventBroadcaster.subscribe(lastEventId != null ? lastEventId : after));
     }
 }
@@ -0,0 +1,195 @@
+package com.dhs.platform.security_token_service.adapters.in.http;
+
+import com.dhs.platform.security_token_service.adapters.in.http.dto.BulkItemResultDTO;
+import com.dhs.platform.security_token_service.domain.model.BulkItemResult;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletionService;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.function.Function;
+
+/**
+ * Processa operações administrativas em lote com entrada e saída em streaming
+ *
+ * A entrada é um array JSON ou NDJSON, com strings ou objetos contendo o campo do item.
+ * Os itens são agrupados em lotes de batch-size, executados em um pool compartilhado com no
+ * máximo parallelism lotes em andamento por requisição (a leitura da entrada espera quando o
+ * limite é atingido). Cada item gera uma linha NDJSON assim que seu lote termina; a ordem
+ * entre lotes não é garantida, por isso cada linha traz o índice do item na entrada.
+ */
+@Component
+@Slf4j
+public class BulkRequestProcessor {
+
+    public static final String NDJSON = "application/x-ndjson";
+
+    private static final byte[] NEWLINE = {'\n'};
+
+    private final ObjectMapper objectMapper;
+    private final ExecutorService executor;
+    private final int batchSize;
+    private final int parallelism;
+    private final int maxItems;
+
+    public BulkRequestProcessor(
+            ObjectMapper objectMapper,
+            @Value("${admin.bulk.batch-size:500}") int batchSize,
+            @Value("${admin.bulk.parallelism:4}") int parallelism,
+            @Value("${admin.bulk.max-items:100000}") int maxItems
+    ) {
+        this.objectMapper = objectMapper;
+        this.batchSize = batchSize;
+        this.parallelism = parallelism;
+        this.maxItems = maxItems;
+        this.executor = Executors.newFixedThreadPool(parallelism, runnable -> {
+            Thread thread = new Thread(runnable, "admin-bulk");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * @param field        campo lido quando o item é um objeto (ex.: "clientId")
+     * @param echoClientId se o item volta na resposta como clientId (false para tokens)
+     * @param operation    executa um lote; resultados na ordem dos itens
+     */
+    public Summary process(InputStream input, OutputStream output, String field, boolean echoClientId,
+                           Function<List<String>, List<BulkItemResult>> operation) throws IOException {
+        CompletionService<Batch> completion = new ExecutorCompletionService<>(executor);
+        Summary summary = new Summary();
+        int inFlight = 0;
+        int index = 0;
+        List<String> items = new ArrayList<>(batchSize);
+
+        try (MappingIterator<JsonNode> iterator = objectMapper.readerFor(JsonNode.class).readValues(input)) {
+            while (iterator.hasNextValue()) {
+                if (index >= maxItems) {
+                    writeLine(output, Map.of("error", "Limite de " + maxItems + " itens por requisição atingido"));
+                    break;
+                }
+
+                items.add(extract(iterator.nextValue(), field));
+                index++;
+
+                if (items.size() == batchSize) {
+                    submit(completion, operation, index - items.size(), items);
+                    items = new ArrayList<>(batchSize);
+                    if (++inFlight >= parallelism) {
+                        write(output, take(completion), echoClientId, summary);
+                        inFlight--;
+                    }
+                }
+            }
+        } catch (JsonProcessingException e) {
+            // Itens já lidos ainda são processados; o restante da entrada é descartado
+            writeLine(output, Map.of("error", "Entrada inválida após o item " + index + ": " + e.getOriginalMessage()));
+        }
+
+        if (!items.isEmpty()) {
+            submit(completion, operation, index - items.size(), items);
+            inFlight++;
+        }
+        while (inFlight > 0) {
+            write(output, take(completion), echoClientId, summary);
+            inFlight--;
+        }
+
+        writeLine(output, Map.of("total", summary.total, "succeeded", summary.succeeded,
+                "failed", summary.total - summary.succeeded));
+        output.flush();
+        return summary;
+    }
+
+    private String extract(JsonNode node, String field) {
+        if (node.isTextual()) {
+            return node.asText();
+        }
+        JsonNode value = node.get(field);
+        return value != null && value.isTextual() ? value.asText() : null;
+    }
+
+    private void submit(CompletionService<Batch> completion, Function<List<String>, List<BulkItemResult>> operation,
+                        int firstIndex, List<String> items) {
+        completion.submit(() -> {
+            try {
+                return new Batch(firstIndex, items, operation.apply(items));
+            } catch (Exception e) {
+                log.error("Erro ao processar lote administrativo de {} itens: {}", items.size(), e.getMessage());
+                return new Batch(firstIndex, items,
+                        items.stream().map(item -> BulkItemResult.failed("Erro no lote: " + e.getMessage())).toList());
+            }
+        });
+    }
+
+    private Batch take(CompletionService<Batch> completion) throws IOException {
+        try {
+            return completion.take().get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Processamento em lote interrompido", e);
+        } catch (ExecutionException e) {
+            throw new IOException("Erro no processamento em lote", e.getCause());
+        }
+    }
+
+    private void write(OutputStream output, Batch batch, boolean echoClientId, Summary summary)
+            throws IOException {
+        for (int i = 0; i < batch.items().size(); i++) {
+            BulkItemResult result = batch.results().get(i);
+            writeLine(output, BulkItemResultDTO.builder()
+                    .index(batch.firstIndex() + i)
+                    .clientId(echoClientId ? batch.items().get(i) : null)
+                    .status(result.success() ? "ok" : "error")
+                    .seq(result.seq() > 0 ? result.seq() : null)
+                    .message(result.message())
+                    .build());
+            summary.total++;
+            if (result.success()) {
+                summary.succeeded++;
+            }
+        }
+        output.flush();
+    }
+
+    private void writeLine(OutputStream output, Object value) throws IOException {
+        output.write(objectMapper.writeValueAsBytes(value));
+        output.write(NEWLINE);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+
+    private record Batch(int firstIndex, List<String> items, List<BulkItemResult> results) {
+    }
+
+    public static final class Summary {
+        private int total;
+        private int succeeded;
+
+        public int getTotal() {
+            return total;
+        }
+
+        public int getSucceeded() {
+            return succeeded;
+        }
+    }
+}
@@ -0,0 +1,211 @@
+package com.dhs.platform.security_token_service.adapters.in.http;
+
+import com.dhs.platform.security_token_service.domain.model.RevocationEvent;
+import com.dhs.platform.security_token_service.domain.model.RevocationPage;
+import com.dhs.platform.security_token_service.domain.service.RevocationService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Distribui os eventos do log de revogações para as conexões SSE abertas
+ *
+ * Uma única leitura do log por instância, a cada poll-interval-ms, independente do número
+ * de assinantes. Cada assinante começa com o replay a partir da sua última sequência
+ * (Last-Event-ID) e só então passa a receber os eventos do poll; a sequência é usada para
+ * descartar duplicatas entre os dois caminhos.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class RevocationEventBroadcaster {
+
+    private final RevocationService revocationService;
+    private final ObjectMapper objectMapper;
+
+    private final Set<Subscriber> subscribers = ConcurrentHashMap.newKeySet();
+    private volatile long cursor = -1;
+
+    @Value("${revocation.stream.max-subscribers:1000}")
+    private int maxSubscribers;
+
+    @Value("${revocation.stream.timeout-ms:1800000}")
+    private long timeoutMillis;
+
+    public boolean hasCapacity() {
+        return subscribers.size() < maxSubscribers;
+    }
+
+    public int getSubscriberCount() {
+        return subscribers.size();
+    }
+
+    /**
+     * Abre a conexão e envia os eventos posteriores a afterSeq antes de entrar no fluxo ao vivo
+     */
+    public SseEmitter subscribe(long afterSeq) {
+        SseEmitter emitter = new SseEmitter(timeoutMillis);
+        Subscriber subscriber = new Subscriber(emitter, afterSeq);
+
+        emitter.onCompletion(() -> subscribers.remove(subscriber));
+        emitter.onTimeout(() -> subscribers.remove(subscriber));
+        emitter.onError(e -> subscribers.remove(subscriber));
+
+        subscribers.add(subscriber);
+        try {
+            subscriber.replay();
+        } catch (Exception e) {
+            log.debug("Falha no replay de revogações para assinante SSE: {}", e.getMessage());
+            subscribers.remove(subscriber);
+            emitter.completeWithError(e);
+        }
+        return emitter;
+    }
+
+    @Scheduled(fixedDelayString = "${revocation.stream.poll-interval-ms:500}")
+    public void poll() {
+        if (subscribers.isEmpty()) {
+            cursor = -1;
+            return;
+        }
+
+        try {
+            if (cursor < 0) {
+                // Eventos anteriores chegam aos assinantes pelo replay
+                cursor = revocationService.getLatestSequence();
+                return;
+            }
+
+            List<RevocationEvent> events;
+            do {
+                events = revocationService.getEventsAfter(cursor, revocationService.getMaxBatch());
+                if (events.isEmpty()) {
+                    break;
+                }
+                cursor = events.get(events.size() - 1).seq();
+                for (Subscriber subscriber : subscribers) {
+                    subscriber.deliver(events);
+                }
+            } while (events.size() >= revocationService.getMaxBatch());
+
+            if (events.isEmpty() && revocationService.getLatestSequence() < cursor) {
+                // Log reiniciado no Redis: assinantes reconectam e recebem reset no replay
+                log.warn("Sequência do log de revogações retrocedeu; encerrando {} conexões SSE", subscribers.size());
+                cursor = -1;
+                closeAll();
+            }
+
+        } catch (Exception e) {
+            log.error("Erro ao ler log de revogações para o stream: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Comentário periódico para manter a conexão aberta em proxies e detectar clientes desconectados
+     */
+    @Scheduled(fixedDelayString = "${revocation.stream.heartbeat-interval-ms:15000}")
+    public void heartbeat() {
+        for (Subscriber subscriber : subscribers) {
+            subscriber.heartbeat();
+        }
+    }
+
+    @PreDestroy
+    public void closeAll() {
+        for (Subscriber subscriber : subscribers) {
+            subscribers.remove(subscriber);
+            subscriber.emitter.complete();
+        }
+    }
+
+    private final class Subscriber {
+
+        private final SseEmitter emitter;
+        private long lastSeq;
+        private boolean replaying = true;
+
+        private Subscriber(SseEmitter emitter, long afterSeq) {
+            this.emitter = emitter;
+            this.lastSeq = afterSeq;
+        }
+
+        /**
+         * As páginas do replay são enviadas fora do lock para não travar o poll dos demais
+         * assinantes; a última leitura é feita com o lock, já que o poll ignora este
+         * assinante enquanto o replay não termina
+         */
+        void replay() throws IOException {
+            RevocationPage page = revocationService.readPage(lastSeq);
+            if (page.reset()) {
+                lastSeq = 0;
+                emitter.send(SseEmitter.event()
+                        .name("reset")
+                        .data(objectMapper.writeValueAsString(Map.of(
+                                "latestSequence", page.latestSequence(),
+                                "oldestRetainedAt", page.oldestRetainedAt()))));
+            }
+            send(page.events());
+
+            while (page.truncated()) {
+                page = revocationService.readPage(lastSeq);
+                send(page.events());
+            }
+
+            synchronized (this) {
+                do {
+                    page = revocationService.readPage(lastSeq);
+                    send(page.events());
+                } while (page.truncated());
+                replaying = false;
+            }
+        }
+
+        synchronized void deliver(List<RevocationEvent> events) {
+            if (replaying) {
+                return;
+            }
+            try {
+                send(events);
+            } catch (IOException | IllegalStateException e) {
+                subscribers.remove(this);
+                emitter.completeWithError(e);
+            }
+        }
+
+        synchronized void heartbeat() {
+            if (replaying) {
+                return;
+            }
+            try {
+                emitter.send(SseEmitter.event().comment("keepalive"));
+            } catch (IOException | IllegalStateException e) {
+                subscribers.remove(this);
+                emitter.completeWithError(e);
+            }
+        }
+
+        private void send(List<RevocationEvent> events) throws IOException {
+            for (RevocationEvent event : events) {
+                if (event.seq() <= lastSeq) {
+                    continue;
+                }
+                emitter.send(SseEmitter.event()
+                        .id(Long.toString(event.seq()))
+                        .name("revocation")
+                        .data(objectMapper.writeValueAsString(event)));
+                lastSeq = event.seq();
+            }
+        }
+    }
+}
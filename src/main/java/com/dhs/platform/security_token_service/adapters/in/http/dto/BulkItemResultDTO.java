@@ -0,0 +1,28 @@
+package com.dhs.platform.security_token_service.adapters.in.http.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Linha NDJSON com o resultado de um item das operações administrativas em lote
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class BulkItemResultDTO {
+    private int index;
+
+    /**
+     * Só nas operações por cliente; tokens não são devolvidos na resposta
+     */
+    private String clientId;
+
+    private String status;
+    private Long seq;
+    private String message;
+}
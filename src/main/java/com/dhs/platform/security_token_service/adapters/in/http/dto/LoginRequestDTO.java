@@ -1,18 +1,53 @@
 package com.dhs.platform.security_token_service.adapters.in.http.dto;
 
-import jakarta.validation.constraints.NotBlank;
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import jakarta.validation.constraints.AssertTrue;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
+import org.springframework.util.StringUtils;
 
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
 public class LoginRequestDTO {
 
-    @NotBlank(message = "Client ID é obrigatório")
+    public static final String GRANT_CLIENT_CREDENTIALS = "client_credentials";
+    public static final String GRANT_REFRESH_TOKEN = "refresh_token";
+
     private String clientId;
 
-    @NotBlank(message = "Client Secret é obrigatório")
     private String clientSecret;
+
+    private String grantType = GRANT_CLIENT_CREDENTIALS;
+
+    private String refreshToken;
+
+    public LoginRequestDTO(String clientId, String clientSecret) {
+        this.clientId = clientId;
+        this.clientSecret = clientSecret;
+    }
+
+    @JsonIgnore
+    public boolean isRefreshGrant() {
+        return GRANT_REFRESH_TOKEN.equals(grantType);
+    }
+
+    @JsonIgnore
+    @AssertTrue(message = "Client ID e Client Secret são obrigatórios")
+    public boolean isClientCredentialsPresent() {
+        return isRefreshGrant() || (StringUtils.hasText(clientId) && StringUtils.hasText(clientSecret));
+    }
+
+    @JsonIgnore
+    @AssertTrue(message = "Refresh token é obrigatório")
+    public boolean isRefreshTokenPresent() {
+        return !isRefreshGrant() || StringUtils.hasText(refreshToken);
+    }
+
+    @JsonIgnore
+    @AssertTrue(message = "grantType deve ser client_credentials ou refresh_token")
+    public boolean isGrantTypeSupported() {
+        return grantType == null || GRANT_CLIENT_CREDENTIALS.equals(grantType) || isRefreshGrant();
+    }
 }
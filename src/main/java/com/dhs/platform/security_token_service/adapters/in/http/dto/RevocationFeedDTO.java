@@ -0,0 +1,30 @@
+package com.dhs.platform.security_token_service.adapters.in.http.dto;
+
+import com.dhs.platform.security_token_service.domain.model.RevocationEvent;
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * Página do feed de revogações
+ * - truncated: há mais eventos; consultar de novo a partir da última seq recebida
+ * - reset: eventos após a seq informada já saíram do log; caches locais devem ser descartados
+ *   e tokens emitidos antes de oldestRetainedAt não têm status de revogação conhecido
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class RevocationFeedDTO {
+
+    private List<RevocationEvent> events;
+    private long latestSequence;
+    private boolean truncated;
+    private boolean reset;
+    private Long oldestRetainedAt;
+}
@@ -1,5 +1,6 @@
 package com.dhs.platform.security_token_service.adapters.in.http.dto;
 
+import com.fasterxml.jackson.annotation.JsonInclude;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
@@ -13,4 +14,13 @@ public class TokenResponseDTO {
     private String accessToken;
     private String tokenType = "Bearer";
     private LocalDateTime expiresAt;
-}
\ No newline at end of file
+
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private String refreshToken;
+
+    public TokenResponseDTO(String accessToken, String tokenType, LocalDateTime expiresAt) {
+        this.accessToken = accessToken;
+        this.tokenType = tokenType;
+        this.expiresAt = expiresAt;
+    }
+}
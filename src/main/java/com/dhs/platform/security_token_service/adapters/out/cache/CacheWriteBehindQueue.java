@@ -0,0 +1,277 @@
+package com.dhs.platform.security_token_service.adapters.out.cache;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Profile;
+import org.springframework.data.redis.connection.RedisStringCommands;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.types.Expiration;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Fila de escrita assíncrona (write-behind) para população de cache.
+ *
+ * Escritas para a mesma chave são coalescidas (vale a última) e enviadas ao Redis
+ * em lotes via pipeline, quando o lote atinge cache.write-behind.batch-size ou a
+ * cada cache.write-behind.flush-interval-ms. A fila é limitada: acima de
+ * cache.write-behind.max-pending novas chaves são descartadas.
+ * Com Redis particionado (redis.topology=sharded), cada lote vira um pipeline por shard.
+ *
+ * Uma escrita só sai da fila depois de enviada, e apenas se ainda for a mesma (comparação por
+ * identidade). Se a chave foi cancelada (removida do cache) enquanto o lote estava em voo, o
+ * SET pode ter chegado ao Redis depois do DEL de quem removeu: o DEL é repetido ao fim do lote.
+ */
+@Component
+@Profile("!memory")
+@Slf4j
+public class CacheWriteBehindQueue {
+
+    private record PendingWrite(String value, long expiresAtMillis) {
+    }
+
+    private final ConcurrentHashMap<String, PendingWrite> pending = new ConcurrentHashMap<>();
+    private final AtomicBoolean flushRequested = new AtomicBoolean(false);
+    private final ScheduledExecutorService flusher = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "cache-write-behind");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    private final RedisShardRouter shardRouter;
+    private final RedisCircuitBreaker circuitBreaker;
+    private final LocalCacheStore localCacheStore;
+
+    private final Counter enqueuedCounter;
+    private final Counter coalescedCounter;
+    private final Counter droppedCounter;
+    private final Counter flushedCounter;
+    private final Counter failedCounter;
+    private final Timer flushTimer;
+
+    @Value("${cache.write-behind.enabled:true}")
+    private boolean enabled;
+
+    @Value("${cache.write-behind.max-pending:10000}")
+    private int maxPending;
+
+    @Value("${cache.write-behind.batch-size:100}")
+    private int batchSize;
+
+    @Value("${cache.write-behind.flush-interval-ms:50}")
+    private long flushIntervalMillis;
+
+    public CacheWriteBehindQueue(RedisShardRouter shardRouter,
+                                 RedisCircuitBreaker circuitBreaker,
+                                 LocalCacheStore localCacheStore,
+                                 MeterRegistry meterRegistry) {
+        this.shardRouter = shardRouter;
+        this.circuitBreaker = circuitBreaker;
+        this.localCacheStore = localCacheStore;
+
+        this.enqueuedCounter = meterRegistry.counter("sts.cache.writebehind.enqueued");
+        this.coalescedCounter = meterRegistry.counter("sts.cache.writebehind.coalesced");
+        this.droppedCounter = meterRegistry.counter("sts.cache.writebehind.dropped");
+        this.flushedCounter = meterRegistry.counter("sts.cache.writebehind.flushed");
+        this.failedCounter = meterRegistry.counter("sts.cache.writebehind.failed");
+        this.flushTimer = meterRegistry.timer("sts.cache.writebehind.flush");
+        Gauge.builder("sts.cache.writebehind.pending", pending, ConcurrentHashMap::size).register(meterRegistry);
+    }
+
+    @PostConstruct
+    public void start() {
+        flusher.scheduleWithFixedDelay(this::flushAll, flushIntervalMillis, flushIntervalMillis, TimeUnit.MILLISECONDS);
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Agenda a escrita. Retorna false se a fila estiver cheia e a escrita for descartada.
+     */
+    public boolean enqueue(String key, String value, Duration ttl) {
+        if (pending.size() >= maxPending && !pending.containsKey(key)) {
+            droppedCounter.increment();
+            log.trace("Fila write-behind cheia, escrita descartada: key={}", key);
+            return false;
+        }
+
+        PendingWrite previous = pending.put(key, new PendingWrite(value, System.currentTimeMillis() + ttl.toMillis()));
+        enqueuedCounter.increment();
+        if (previous != null) {
+            coalescedCounter.increment();
+        }
+
+        if (pending.size() >= batchSize && flushRequested.compareAndSet(false, true)) {
+            flusher.execute(() -> {
+                flushRequested.set(false);
+                flushAll();
+            });
+        }
+        return true;
+    }
+
+    /**
+     * Valor ainda não enviado ao Redis, para leitura consistente com escritas recentes
+     */
+    public Optional<String> getPending(String key) {
+        PendingWrite write = pending.get(key);
+        if (write == null || write.expiresAtMillis() <= System.currentTimeMillis()) {
+            return Optional.empty();
+        }
+        return Optional.of(write.value());
+    }
+
+    /**
+     * Descarta uma escrita pendente (usado quando a chave é removida). Se a escrita já estiver
+     * em voo, o flush percebe a remoção e apaga a chave de novo ao terminar.
+     */
+    public void cancel(String key) {
+        pending.remove(key);
+    }
+
+    private void flushAll() {
+        try {
+            while (!pending.isEmpty()) {
+                if (flushBatch() == 0) {
+                    return;
+                }
+            }
+        } catch (Exception e) {
+            log.error("Erro no flush da fila write-behind: {}", e.getMessage());
+        }
+    }
+
+    private int flushBatch() {
+        List<String> keys = new ArrayList<>(batchSize);
+        Map<String, PendingWrite> writes = new HashMap<>(batchSize * 2);
+        long now = System.currentTimeMillis();
+
+        int expired = 0;
+        Iterator<Map.Entry<String, PendingWrite>> iterator = pending.entrySet().iterator();
+        while (iterator.hasNext() && keys.size() < batchSize) {
+            Map.Entry<String, PendingWrite> entry = iterator.next();
+            PendingWrite write = entry.getValue();
+            if (write.expiresAtMillis() > now) {
+                keys.add(entry.getKey());
+                writes.put(entry.getKey(), write);
+            } else if (pending.remove(entry.getKey(), write)) {
+                expired++;
+            }
+        }
+
+        if (keys.isEmpty()) {
+            return expired;
+        }
+
+        if (!circuitBreaker.allowRequest()) {
+            writeLocally(keys, writes, now);
+            complete(keys, writes, false);
+            return keys.size();
+        }
+
+        try {
+            flushTimer.record(() -> shardRouter.partition(keys).forEach((shard, shardKeys) ->
+                    shard.template().executePipelined((RedisCallback<Object>) connection -> {
+                        for (String key : shardKeys) {
+                            PendingWrite write = writes.get(key);
+                            long ttlMillis = Math.max(1, write.expiresAtMillis() - now);
+                            connection.stringCommands().set(
+                                    key.getBytes(StandardCharsets.UTF_8),
+                                    write.value().getBytes(StandardCharsets.UTF_8),
+                                    Expiration.milliseconds(ttlMillis),
+                                    RedisStringCommands.SetOption.UPSERT);
+                        }
+                        return null;
+                    })));
+            circuitBreaker.recordSuccess();
+            flushedCounter.increment(keys.size());
+            log.trace("Write-behind: {} escritas enviadas em pipeline", keys.size());
+            complete(keys, writes, true);
+
+        } catch (Exception e) {
+            circuitBreaker.recordFailure(e);
+            failedCounter.increment(keys.size());
+            log.error("Erro ao enviar lote write-behind ({} chaves): {}", keys.size(), e.getMessage());
+            writeLocally(keys, writes, now);
+            complete(keys, writes, false);
+        }
+        return keys.size();
+    }
+
+    /**
+     * Retira da fila as escritas enviadas que ainda são as atuais. Chaves canceladas durante o
+     * envio são apagadas de novo; chaves reescritas ficam para o próximo lote.
+     */
+    private void complete(List<String> keys, Map<String, PendingWrite> writes, boolean sentToRedis) {
+        List<String> cancelled = new ArrayList<>();
+        for (String key : keys) {
+            PendingWrite write = writes.get(key);
+            boolean[] removed = new boolean[1];
+            PendingWrite current = pending.computeIfPresent(key, (k, value) -> {
+                if (value == write) {
+                    removed[0] = true;
+                    return null;
+                }
+                return value;
+            });
+            if (current == null && !removed[0]) {
+                cancelled.add(key);
+            }
+        }
+
+        if (cancelled.isEmpty()) {
+            return;
+        }
+        cancelled.forEach(localCacheStore::delete);
+        if (!sentToRedis) {
+            return;
+        }
+        try {
+            shardRouter.partition(cancelled).forEach((shard, shardKeys) -> shard.template().delete(shardKeys));
+            log.trace("Write-behind: {} chaves removidas durante o envio apagadas de novo", cancelled.size());
+        } catch (Exception e) {
+            circuitBreaker.recordFailure(e);
+            log.error("Erro ao reapagar chaves canceladas durante o write-behind ({} chaves): {}",
+                    cancelled.size(), e.getMessage());
+        }
+    }
+
+    private void writeLocally(List<String> keys, Map<String, PendingWrite> writes, long now) {
+        for (String key : keys) {
+            PendingWrite write = writes.get(key);
+            localCacheStore.set(key, write.value(), Duration.ofMillis(write.expiresAtMillis() - now));
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        flusher.shutdown();
+        try {
+            flusher.awaitTermination(2, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        flushAll();
+    }
+}
@@ -3,18 +3,22 @@ package com.dhs.platform.security_token_service.adapters.out.cache;
 import com.dhs.platform.security_token_service.domain.model.Client;
 import com.dhs.platform.security_token_service.domain.port.out.cache.ICacheRepository;
 import com.dhs.platform.security_token_service.domain.port.out.cache.IClientCacheRepository;
-import com.fasterxml.jackson.databind.ObjectMapper;
+import com.dhs.platform.security_token_service.domain.port.out.cache.IClientStateCacheRepository;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Repository;
 
 import java.time.Duration;
+import java.util.Collection;
+import java.util.HashSet;
 import java.util.Optional;
 import java.util.Set;
+import java.util.function.Supplier;
 
 /**
  * Adapter de saída para cache de clientes usando Redis
+ * Entradas são gravadas no envelope do EarlyRefreshCache (renovação antecipada XFetch)
  */
 @Repository
 @RequiredArgsConstructor
@@ -22,7 +26,8 @@ import java.util.Set;
 public class ClientCacheAdapter implements IClientCacheRepository {
 
     private final ICacheRepository cacheRepository;
-    private final ObjectMapper objectMapper;
+    private final IClientStateCacheRepository clientStateCacheRepository;
+    private final EarlyRefreshCache earlyRefreshCache;
 
     @Value("${cache.client.ttl-minutes:15}")
     private int clientCacheTtlMinutes;
@@ -38,14 +43,41 @@ public class ClientCacheAdapter implements IClientCacheRepository {
             return Optional.empty();
         }
 
+        return readEntry(clientId).map(EarlyRefreshCache.Entry::value);
+    }
+
+    @Override
+    public Optional<Client> getOrLoadClient(String clientId, Supplier<Optional<Client>> loader) {
+        if (!clientCacheEnabled) {
+            return loader.get();
+        }
+
+        Optional<EarlyRefreshCache.Entry<Client>> cached = readEntry(clientId);
+        if (cached.isPresent()) {
+            // Renovação antecipada em segundo plano; o valor atual continua sendo servido
+            if (earlyRefreshCache.shouldRefreshEarly(cached.get())) {
+                earlyRefreshCache.refreshAsync(CLIENT_CACHE_PREFIX + clientId, () -> loadAndCache(clientId, loader, true));
+            }
+            return Optional.of(cached.get().value());
+        }
+
+        return loadAndCache(clientId, loader, false);
+    }
+
+    @Override
+    public void cacheClient(Client client) {
+        writeEntry(client, 0);
+    }
+
+    private Optional<EarlyRefreshCache.Entry<Client>> readEntry(String clientId) {
         try {
             String cacheKey = CLIENT_CACHE_PREFIX + clientId;
-            Optional<String> cachedJson = cacheRepository.get(cacheKey);
+            Optional<String> cachedJson = cacheRepository.getFromReplica(cacheKey);
 
             if (cachedJson.isPresent()) {
-                Client client = objectMapper.readValue(cachedJson.get(), Client.class);
+                Optional<EarlyRefreshCache.Entry<Client>> entry = earlyRefreshCache.unwrap(cachedJson.get(), Client.class);
                 log.debug("Cliente encontrado no cache: {}", clientId);
-                return Optional.of(client);
+                return entry;
             }
 
         } catch (Exception e) {
@@ -55,17 +87,31 @@ public class ClientCacheAdapter implements IClientCacheRepository {
         return Optional.empty();
     }
 
-    @Override
-    public void cacheClient(Client client) {
+    private Optional<Client> loadAndCache(String clientId, Supplier<Optional<Client>> loader, boolean refreshing) {
+        long start = System.nanoTime();
+        Optional<Client> loaded = loader.get();
+        long computeMillis = Math.max(1, (System.nanoTime() - start) / 1_000_000);
+
+        if (loaded.isPresent()) {
+            writeEntry(loaded.get(), computeMillis);
+        } else if (refreshing) {
+            // Cliente removido da origem desde o último cálculo
+            invalidateClientCache(clientId);
+        }
+        return loaded;
+    }
+
+    private void writeEntry(Client client, long computeMillis) {
         if (!clientCacheEnabled || client == null) {
             return;
         }
 
         try {
             String cacheKey = CLIENT_CACHE_PREFIX + client.getClientId();
-            String jsonValue = objectMapper.writeValueAsString(client);
+            Duration ttl = Duration.ofMinutes(clientCacheTtlMinutes);
+            String jsonValue = earlyRefreshCache.wrap(client, computeMillis, ttl);
 
-            cacheRepository.set(cacheKey, jsonValue, Duration.ofMinutes(clientCacheTtlMinutes));
+            cacheRepository.setAsync(cacheKey, jsonValue, ttl);
             log.debug("Cliente armazenado no cache por {} minutos: {}", clientCacheTtlMinutes, client.getClientId());
 
         } catch (Exception e) {
@@ -78,6 +124,8 @@ public class ClientCacheAdapter implements IClientCacheRepository {
         try {
             String cacheKey = CLIENT_CACHE_PREFIX + clientId;
             cacheRepository.delete(cacheKey);
+            // O estado consolidado também contém o registro do cliente
+            clientStateCacheRepository.invalidateClientState(clientId);
             log.debug("Cache do cliente invalidado: {}", clientId);
 
         } catch (Exception e) {
@@ -85,6 +133,20 @@ public class ClientCacheAdapter implements IClientCacheRepository {
         }
     }
 
+    @Override
+    public void invalidateClientCaches(Collection<String> clientIds) {
+        try {
+            Set<String> keys = new HashSet<>();
+            clientIds.forEach(clientId -> keys.add(CLIENT_CACHE_PREFIX + clientId));
+            cacheRepository.delete(keys);
+            clientStateCacheRepository.invalidateClientStates(clientIds);
+            log.debug("Cache de {} clientes invalidado", keys.size());
+
+        } catch (Exception e) {
+            log.error("Erro ao invalidar cache de clientes: {}", e.getMessage());
+        }
+    }
+
     @Override
     public void refreshClient(Client client) {
         if (client != null) {
@@ -99,6 +161,7 @@ public class ClientCacheAdapter implements IClientCacheRepository {
         try {
             Set<String> keys = cacheRepository.keys(CLIENT_CACHE_PREFIX + "*");
             cacheRepository.delete(keys);
+            clientStateCacheRepository.clearAllClientStates();
             log.info("Cache de clientes limpo completamente");
         } catch (Exception e) {
             log.error("Erro ao limpar cache de clientes: {}", e.getMessage());
@@ -0,0 +1,187 @@
+package com.dhs.platform.security_token_service.adapters.out.cache;
+
+import com.dhs.platform.security_token_service.config.Tracing;
+import com.dhs.platform.security_token_service.domain.model.ClientState;
+import com.dhs.platform.security_token_service.domain.port.out.cache.ICacheRepository;
+import com.dhs.platform.security_token_service.domain.port.out.cache.IClientStateCacheRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Repository;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+
+/**
+ * Adapter de saída para o estado consolidado de clientes usando Redis
+ *
+ * O estado fica em uma única chave (client_state:{clientId}) e é lido por um
+ * script Lua que, na mesma ida ao servidor, verifica expiração e blacklist do token.
+ * Como o script acessa a chave de blacklist derivada do estado (fora de KEYS), não é
+ * compatível com Redis Cluster nem com redis.topology=sharded: a blacklist pode estar em outro
+ * nó. Nessas topologias o adapter se desliga na inicialização e o login volta às chaves
+ * separadas de cliente e token, com a blacklist consultada no nó certo.
+ *
+ * O estado é gravado de forma síncrona: com write-behind o script de login não veria o token
+ * recém-emitido até a descarga da fila. A associação client_token:{clientId} é gravada junto,
+ * para que invalidação e reuso pelas chaves separadas continuem encontrando o token atual.
+ */
+@Repository
+@RequiredArgsConstructor
+@Slf4j
+public class ClientStateCacheAdapter implements IClientStateCacheRepository {
+
+    private static final String CLIENT_STATE_PREFIX = "client_state:";
+    private static final String TOKEN_BLACKLIST_PREFIX = "token_blacklist:";
+    private static final String CLIENT_TOKEN_PREFIX = "client_token:";
+
+    private static final String LOOKUP_SCRIPT = """
+            local raw = redis.call('GET', KEYS[1])
+            if not raw then
+                return {}
+            end
+            local state = cjson.decode(raw)
+            local hash = state['tokenHash']
+            local expiresAt = tonumber(state['tokenExpiresAt'])
+            if type(hash) ~= 'string' or not expiresAt then
+                return {raw, 'no_token'}
+            end
+            if expiresAt <= tonumber(ARGV[2]) then
+                return {raw, 'expired'}
+            end
+            if redis.call('EXISTS', ARGV[1] .. hash) == 1 then
+                return {raw, 'blacklisted'}
+            end
+            return {raw, 'valid'}
+            """;
+
+    private final ICacheRepository cacheRepository;
+    private final ObjectMapper objectMapper;
+
+    @Value("${cache.client-state.enabled:true}")
+    private boolean clientStateEnabled;
+
+    @Value("${cache.client.ttl-minutes:15}")
+    private int clientCacheTtlMinutes;
+
+    @Value("${redis.topology:standalone}")
+    private String redisTopology;
+
+    @PostConstruct
+    void disableOnPartitionedTopology() {
+        if (clientStateEnabled && ("cluster".equalsIgnoreCase(redisTopology) || "sharded".equalsIgnoreCase(redisTopology))) {
+            clientStateEnabled = false;
+            log.warn("cache.client-state desabilitado: o script de login não é compatível com redis.topology={}", redisTopology);
+        }
+    }
+
+    @Override
+    public boolean isEnabled() {
+        return clientStateEnabled;
+    }
+
+    @Override
+    public Optional<ClientState> getClientState(String clientId) {
+        if (!clientStateEnabled) {
+            return Optional.empty();
+        }
+
+        try {
+            List<String> result = cacheRepository.executeScript(LOOKUP_SCRIPT,
+                    List.of(CLIENT_STATE_PREFIX + clientId),
+                    List.of(TOKEN_BLACKLIST_PREFIX, String.valueOf(System.currentTimeMillis())));
+
+            if (result.size() < 2) {
+                return Optional.empty();
+            }
+
+            ClientState state;
+            try (Tracing.Span ignored = Tracing.span("json deserialize").attribute("json.type", "ClientState")) {
+                state = objectMapper.readValue(result.get(0), ClientState.class);
+            }
+            if (!"valid".equals(result.get(1))) {
+                log.debug("Token do estado do cliente descartado ({}): {}", result.get(1), clientId);
+                state.setToken(null);
+                state.setTokenHash(null);
+                state.setTokenExpiresAt(null);
+                state.setValidation(null);
+            }
+            return Optional.of(state);
+
+        } catch (Exception e) {
+            log.error("Erro ao recuperar estado do cliente: {} - {}", clientId, e.getMessage());
+            return Optional.empty();
+        }
+    }
+
+    @Override
+    public void saveClientState(ClientState state, Duration ttl) {
+        if (!clientStateEnabled || state == null || state.getClient() == null) {
+            return;
+        }
+
+        try {
+            if (state.getToken() != null && state.getTokenHash() == null) {
+                state.setTokenHash(TokenHasher.hash(state.getToken()));
+            }
+
+            // O registro do cliente não deve ficar mais tempo que o cache de clientes
+            Duration clientTtl = Duration.ofMinutes(clientCacheTtlMinutes);
+            Duration effectiveTtl = ttl.compareTo(clientTtl) < 0 ? ttl : clientTtl;
+
+            String clientId = state.getClient().getClientId();
+            String json;
+            try (Tracing.Span ignored = Tracing.span("json serialize").attribute("json.type", "ClientState")) {
+                json = objectMapper.writeValueAsString(state);
+            }
+            cacheRepository.set(CLIENT_STATE_PREFIX + clientId, json, effectiveTtl);
+            if (state.getToken() != null) {
+                // A associação vive enquanto o token, não apenas enquanto o registro do cliente
+                cacheRepository.set(CLIENT_TOKEN_PREFIX + clientId, state.getToken(), ttl);
+            }
+            log.debug("Estado do cliente armazenado por {} segundos: {}", effectiveTtl.toSeconds(), clientId);
+
+        } catch (Exception e) {
+            log.error("Erro ao armazenar estado do cliente: {}", e.getMessage());
+        }
+    }
+
+    @Override
+    public void invalidateClientState(String clientId) {
+        try {
+            cacheRepository.delete(CLIENT_STATE_PREFIX + clientId);
+            log.debug("Estado do cliente invalidado: {}", clientId);
+        } catch (Exception e) {
+            log.error("Erro ao invalidar estado do cliente: {} - {}", clientId, e.getMessage());
+        }
+    }
+
+    @Override
+    public void invalidateClientStates(Collection<String> clientIds) {
+        try {
+            Set<String> keys = new HashSet<>();
+            clientIds.forEach(clientId -> keys.add(CLIENT_STATE_PREFIX + clientId));
+            cacheRepository.delete(keys);
+            log.debug("Estado de {} clientes invalidado", keys.size());
+        } catch (Exception e) {
+            log.error("Erro ao invalidar estado de clientes: {}", e.getMessage());
+        }
+    }
+
+    @Override
+    public void clearAllClientStates() {
+        try {
+            Set<String> keys = cacheRepository.keys(CLIENT_STATE_PREFIX + "*");
+            cacheRepository.delete(keys);
+            log.info("Estado consolidado de clientes limpo completamente");
+        } catch (Exception e) {
+            log.error("Erro ao limpar estado de clientes: {}", e.getMessage());
+        }
+    }
+}
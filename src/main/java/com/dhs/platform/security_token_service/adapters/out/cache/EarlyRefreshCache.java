@@ -0,0 +1,154 @@
+package com.dhs.platform.security_token_service.adapters.out.cache;
+
+import com.dhs.platform.security_token_service.config.Tracing;
+import com.dhs.platform.security_token_service.domain.port.out.cache.ICacheRepository;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Renovação antecipada probabilística (XFetch) para entradas de cache
+ *
+ * Cada entrada é gravada em um envelope com o custo de cálculo (delta) e a expiração:
+ * {"delta": ms, "expiresAt": epoch ms, "value": {...}}
+ *
+ * Na leitura, a entrada é renovada antes do TTL com probabilidade crescente à medida que
+ * a expiração se aproxima (now - delta * beta * ln(rand) >= expiresAt). O valor antigo
+ * continua sendo servido e um lock distribuído garante que apenas um nó renove a chave.
+ * O lock guarda um token da aquisição e só é removido por quem o tem: uma renovação que
+ * passar do lock-ttl-ms não apaga o lock já obtido por outro nó.
+ */
+@Component
+@Slf4j
+public class EarlyRefreshCache {
+
+    private static final String LOCK_PREFIX = "refresh_lock:";
+
+    private static final String RELEASE_SCRIPT = """
+            if redis.call('GET', KEYS[1]) == ARGV[1] then
+                redis.call('DEL', KEYS[1])
+                return {'1'}
+            end
+            return {'0'}
+            """;
+
+    private final ICacheRepository cacheRepository;
+    private final ObjectMapper objectMapper;
+    private final String nodeId = UUID.randomUUID().toString();
+    private final AtomicLong lockSequence = new AtomicLong();
+    private final ThreadPoolExecutor refreshExecutor;
+
+    @Value("${cache.early-refresh.enabled:true}")
+    private boolean enabled;
+
+    @Value("${cache.early-refresh.beta:1.0}")
+    private double beta;
+
+    @Value("${cache.early-refresh.lock-ttl-ms:5000}")
+    private long lockTtlMillis;
+
+    public EarlyRefreshCache(ICacheRepository cacheRepository, ObjectMapper objectMapper) {
+        this.cacheRepository = cacheRepository;
+        this.objectMapper = objectMapper;
+        // Fila limitada: se as renovações acumularem, as excedentes são descartadas
+        this.refreshExecutor = new ThreadPoolExecutor(1, 2, 30, TimeUnit.SECONDS,
+                new ArrayBlockingQueue<>(256), runnable -> {
+                    Thread thread = new Thread(runnable, "cache-early-refresh");
+                    thread.setDaemon(true);
+                    return thread;
+                }, new ThreadPoolExecutor.DiscardPolicy());
+    }
+
+    public record Entry<T>(T value, long computeMillis, long expiresAt) {
+    }
+
+    /**
+     * Serializa o valor dentro do envelope com custo de cálculo e expiração
+     */
+    public String wrap(Object value, long computeMillis, Duration ttl) throws Exception {
+        try (Tracing.Span ignored = Tracing.span("json serialize").attribute("json.type", value.getClass().getSimpleName())) {
+            return wrapUntraced(value, computeMillis, ttl);
+        }
+    }
+
+    private String wrapUntraced(Object value, long computeMillis, Duration ttl) throws Exception {
+        ObjectNode envelope = objectMapper.createObjectNode();
+        envelope.put("delta", computeMillis);
+        envelope.put("expiresAt", System.currentTimeMillis() + ttl.toMillis());
+        envelope.set("value", objectMapper.valueToTree(value));
+        return objectMapper.writeValueAsString(envelope);
+    }
+
+    /**
+     * Lê o envelope. Entradas antigas, sem envelope, são lidas sem metadados.
+     */
+    public <T> Optional<Entry<T>> unwrap(String json, Class<T> type) throws Exception {
+        try (Tracing.Span ignored = Tracing.span("json deserialize").attribute("json.type", type.getSimpleName())) {
+            return unwrapUntraced(json, type);
+        }
+    }
+
+    private <T> Optional<Entry<T>> unwrapUntraced(String json, Class<T> type) throws Exception {
+        JsonNode node = objectMapper.readTree(json);
+        if (node.has("value") && node.has("expiresAt")) {
+            return Optional.of(new Entry<>(objectMapper.treeToValue(node.get("value"), type),
+                    node.path("delta").asLong(0), node.get("expiresAt").asLong()));
+        }
+        return Optional.of(new Entry<>(objectMapper.treeToValue(node, type), 0, Long.MAX_VALUE));
+    }
+
+    /**
+     * Decide, de forma probabilística, se a entrada deve ser renovada agora
+     */
+    public boolean shouldRefreshEarly(Entry<?> entry) {
+        if (!enabled || entry.computeMillis() <= 0 || entry.expiresAt() == Long.MAX_VALUE) {
+            return false;
+        }
+
+        double random = ThreadLocalRandom.current().nextDouble();
+        double gap = entry.computeMillis() * beta * -Math.log(random == 0 ? Double.MIN_VALUE : random);
+        return System.currentTimeMillis() + gap >= entry.expiresAt();
+    }
+
+    /**
+     * Executa a renovação em segundo plano se este nó obtiver o lock da chave
+     */
+    public void refreshAsync(String cacheKey, Runnable refresh) {
+        String lockKey = LOCK_PREFIX + cacheKey;
+        String lockToken = nodeId + ":" + lockSequence.incrementAndGet();
+        if (!cacheRepository.setIfAbsent(lockKey, lockToken, Duration.ofMillis(lockTtlMillis))) {
+            return;
+        }
+
+        log.trace("Renovação antecipada iniciada: key={}", cacheKey);
+        refreshExecutor.execute(() -> {
+            try {
+                refresh.run();
+            } catch (Exception e) {
+                log.error("Erro na renovação antecipada do cache: key={}, error={}", cacheKey, e.getMessage());
+            } finally {
+                // Sem script (perfil memory, Redis indisponível) o lock apenas expira
+                cacheRepository.executeScript(RELEASE_SCRIPT, List.of(lockKey), List.of(lockToken));
+            }
+        });
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        refreshExecutor.shutdownNow();
+    }
+}
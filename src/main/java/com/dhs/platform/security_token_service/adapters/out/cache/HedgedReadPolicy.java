@@ -0,0 +1,101 @@
+package com.dhs.platform.security_token_service.adapters.out.cache;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Decide quando uma leitura em réplica deve ser repetida no primário (hedged read)
+ *
+ * Guarda as últimas latências das leituras em réplica e recalcula periodicamente o percentil
+ * configurado, usado como espera antes de disparar a segunda leitura. A fração de leituras
+ * repetidas é limitada por janela para que uma réplica lenta não dobre a carga do primário.
+ */
+@Component
+@Slf4j
+public class HedgedReadPolicy {
+
+    private static final int SAMPLES = 1024;
+
+    private final AtomicLongArray samples = new AtomicLongArray(SAMPLES);
+    private final AtomicInteger nextSample = new AtomicInteger();
+    private final AtomicLong reads = new AtomicLong();
+    private final AtomicLong hedges = new AtomicLong();
+
+    @Value("${redis.hedged-reads.enabled:false}")
+    private boolean enabled;
+
+    @Value("${redis.hedged-reads.percentile:95}")
+    private double percentile;
+
+    @Value("${redis.hedged-reads.min-delay-ms:2}")
+    private long minDelayMillis;
+
+    @Value("${redis.hedged-reads.max-hedge-percent:10}")
+    private long maxHedgePercent;
+
+    private volatile long delayNanos = -1;
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public void recordLatency(long nanos) {
+        samples.set(Math.floorMod(nextSample.getAndIncrement(), SAMPLES), nanos);
+    }
+
+    /**
+     * Espera antes da segunda leitura; -1 enquanto não houver amostras suficientes
+     */
+    public long delayNanos() {
+        return delayNanos;
+    }
+
+    /**
+     * Conta a leitura e indica se ainda há cota para repeti-la nesta janela
+     */
+    public boolean tryAcquireHedge() {
+        long total = reads.get();
+        if (hedges.get() * 100 >= Math.max(1, total) * maxHedgePercent) {
+            return false;
+        }
+        hedges.incrementAndGet();
+        return true;
+    }
+
+    public void countRead() {
+        reads.incrementAndGet();
+    }
+
+    @Scheduled(fixedDelayString = "${redis.hedged-reads.recompute-interval-ms:1000}")
+    public void recompute() {
+        if (!enabled) {
+            return;
+        }
+
+        int recorded = Math.min(nextSample.get() & Integer.MAX_VALUE, SAMPLES);
+        if (recorded < SAMPLES / 10) {
+            return;
+        }
+
+        long[] sorted = new long[recorded];
+        for (int i = 0; i < recorded; i++) {
+            sorted[i] = samples.get(i);
+        }
+        Arrays.sort(sorted);
+        int index = (int) Math.min(recorded - 1, Math.ceil(recorded * percentile / 100) - 1);
+        delayNanos = Math.max(TimeUnit.MILLISECONDS.toNanos(minDelayMillis), sorted[Math.max(0, index)]);
+
+        log.trace("Hedged reads: p{} = {} µs, {} de {} leituras repetidas", percentile,
+                TimeUnit.NANOSECONDS.toMicros(delayNanos), hedges.get(), reads.get());
+        reads.set(0);
+        hedges.set(0);
+    }
+}
@@ -0,0 +1,96 @@
+package com.dhs.platform.security_token_service.adapters.out.cache;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+
+/**
+ * Armazenamento local com TTL usado enquanto o circuito Redis está aberto.
+ * Limitado em número de entradas: quando cheio, novas chaves são descartadas.
+ */
+@Component
+@Slf4j
+public class LocalCacheStore {
+
+    private record Entry(String value, long expiresAtMillis) {
+        boolean isExpired(long now) {
+            return now >= expiresAtMillis;
+        }
+    }
+
+    private final ConcurrentHashMap<String, Entry> entries = new ConcurrentHashMap<>();
+
+    @Value("${redis.circuit-breaker.local-cache-max-entries:10000}")
+    private int maxEntries;
+
+    public void set(String key, String value, Duration ttl) {
+        if (entries.size() >= maxEntries && !entries.containsKey(key)) {
+            evictExpired();
+            if (entries.size() >= maxEntries) {
+                log.trace("Cache local cheio, descartando chave: {}", key);
+                return;
+            }
+        }
+        entries.put(key, new Entry(value, System.currentTimeMillis() + ttl.toMillis()));
+    }
+
+    public boolean setIfAbsent(String key, String value, Duration ttl) {
+        long now = System.currentTimeMillis();
+        Entry created = new Entry(value, now + ttl.toMillis());
+        Entry result = entries.compute(key, (k, current) ->
+                current == null || current.isExpired(now) ? created : current);
+        return result == created;
+    }
+
+    public Optional<String> get(String key) {
+        Entry entry = entries.get(key);
+        if (entry == null) {
+            return Optional.empty();
+        }
+        if (entry.isExpired(System.currentTimeMillis())) {
+            entries.remove(key, entry);
+            return Optional.empty();
+        }
+        return Optional.of(entry.value());
+    }
+
+    public boolean hasKey(String key) {
+        return get(key).isPresent();
+    }
+
+    public void delete(String key) {
+        entries.remove(key);
+    }
+
+    /**
+     * Busca chaves por padrão glob simples (apenas '*')
+     */
+    public Set<String> keys(String pattern) {
+        Pattern regex = Pattern.compile(Pattern.quote(pattern).replace("*", "\\E.*\\Q"));
+        long now = System.currentTimeMillis();
+        return entries.entrySet().stream()
+                .filter(e -> !e.getValue().isExpired(now))
+                .map(Map.Entry::getKey)
+                .filter(key -> regex.matcher(key).matches())
+                .collect(Collectors.toSet());
+    }
+
+    public int size() {
+        return entries.size();
+    }
+
+    @Scheduled(fixedDelay = 30_000)
+    public void evictExpired() {
+        long now = System.currentTimeMillis();
+        entries.values().removeIf(entry -> entry.isExpired(now));
+    }
+}
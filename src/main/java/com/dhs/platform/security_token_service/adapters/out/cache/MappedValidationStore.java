@@ -0,0 +1,485 @@
+package com.dhs.platform.security_token_service.adapters.out.cache;
+
+import com.dhs.platform.security_token_service.domain.model.RevocationEvent;
+import com.dhs.platform.security_token_service.domain.model.SerializedValidation;
+import com.dhs.platform.security_token_service.domain.port.out.cache.IRevocationLogRepository;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.channels.OverlappingFileLockException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.zip.CRC32C;
+
+/**
+ * Cache local de validações em arquivo mapeado em memória, fora do heap, que sobrevive a restarts
+ *
+ * Slots de tamanho fixo agrupados em conjuntos de 4 (associativo por conjunto), indexados pelo
+ * SHA-256 do token. Cada slot guarda as expirações, o delta do XFetch, o clientId e o corpo
+ * do /validate, protegidos por CRC32C: slots corrompidos (ex.: processo morto no meio da
+ * escrita) são descartados na leitura. Com o conjunto cheio, sai a entrada que expira primeiro.
+ *
+ * O arquivo guarda também a última sequência do log de revogações aplicada. Ao reabrir, as
+ * entradas só voltam a ser servidas depois de aplicar os eventos perdidos enquanto o pod
+ * estava parado; se o log foi cortado ou reiniciado nesse meio tempo, o cache é esvaziado.
+ *
+ * O arquivo fica com lock exclusivo enquanto o processo estiver de pé: duas instâncias no mesmo
+ * volume escreveriam nos mesmos slots sem coordenação. Se o lock já tiver dono, esta instância
+ * usa um arquivo próprio ({path}.{pid}), que começa vazio e é apagado no encerramento.
+ */
+@Component
+@Slf4j
+public class MappedValidationStore {
+
+    private static final int MAGIC = 0x53545643;
+    private static final int VERSION = 1;
+    private static final int HEADER_SIZE = 64;
+    private static final int HEADER_APPLIED_SEQ = 16;
+
+    private static final int WAYS = 4;
+    private static final int LOCK_STRIPES = 1024;
+
+    // Layout do slot
+    private static final int KEY = 0;
+    private static final int KEY_SIZE = 32;
+    private static final int ENTRY_EXPIRES_AT = 32;
+    private static final int TOKEN_EXPIRES_AT = 40;
+    private static final int COMPUTE_MILLIS = 48;
+    private static final int CLIENT_ID_HASH = 52;
+    private static final int PAYLOAD_LENGTH = 56;
+    private static final int CHECKSUM = 60;
+    private static final int SLOT_HEADER_SIZE = 64;
+
+    private final IRevocationLogRepository revocationLogRepository;
+    private final boolean enabled;
+    private final int slotSize;
+    private final int setCount;
+    private final int syncBatch;
+    private final Object[] locks;
+
+    private Path path;
+    private FileChannel channel;
+    private FileLock fileLock;
+    private boolean ownFile;
+    private MappedByteBuffer buffer;
+    private long appliedSeq;
+    private volatile boolean fresh;
+    private volatile boolean synced;
+
+    public MappedValidationStore(
+            IRevocationLogRepository revocationLogRepository,
+            @Value("${cache.token.mapped.enabled:false}") boolean enabled,
+            @Value("${cache.token.mapped.path:/tmp/sts/validation-cache.db}") String path,
+            @Value("${cache.token.mapped.slots:65536}") int slots,
+            @Value("${cache.token.mapped.slot-size:1024}") int slotSize,
+            @Value("${cache.token.mapped.sync-batch:1000}") int syncBatch
+    ) {
+        this.revocationLogRepository = revocationLogRepository;
+        this.enabled = enabled;
+        this.path = Path.of(path);
+        this.slotSize = slotSize;
+        this.setCount = Math.max(1, slots / WAYS);
+        this.syncBatch = syncBatch;
+        this.locks = new Object[Math.min(setCount, LOCK_STRIPES)];
+        for (int i = 0; i < locks.length; i++) {
+            locks[i] = new Object();
+        }
+    }
+
+    @PostConstruct
+    public void open() throws IOException {
+        if (!enabled) {
+            return;
+        }
+        if (slotSize < SLOT_HEADER_SIZE + 128) {
+            throw new IllegalStateException("cache.token.mapped.slot-size deve ser de pelo menos " + (SLOT_HEADER_SIZE + 128) + " bytes");
+        }
+
+        long size = HEADER_SIZE + (long) setCount * WAYS * slotSize;
+        if (size > Integer.MAX_VALUE) {
+            throw new IllegalStateException("Cache mapeado maior que 2 GB: reduza cache.token.mapped.slots ou slot-size");
+        }
+
+        if (path.getParent() != null) {
+            Files.createDirectories(path.getParent());
+        }
+        if (!lock(path)) {
+            Path shared = path;
+            path = path.resolveSibling(path.getFileName() + "." + ProcessHandle.current().pid());
+            if (!lock(path)) {
+                throw new IllegalStateException("Cache mapeado em uso por outro processo: " + shared + " e " + path);
+            }
+            ownFile = true;
+            log.warn("Cache mapeado {} em uso por outro processo; usando arquivo próprio {}", shared, path);
+        }
+
+        boolean reusable = !ownFile && channel.size() == size;
+        if (channel.size() > size) {
+            channel.truncate(size);
+        }
+        buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, size);
+        reusable = reusable && buffer.getInt(0) == MAGIC && buffer.getInt(4) == VERSION
+                && buffer.getInt(8) == setCount * WAYS && buffer.getInt(12) == slotSize;
+
+        if (reusable) {
+            appliedSeq = buffer.getLong(HEADER_APPLIED_SEQ);
+            log.info("Cache de validação mapeado reaberto: {} ({} entradas válidas, seq {})",
+                    path, countLive(), appliedSeq);
+        } else {
+            // Arquivo novo ou de outro layout: zera tudo e começa vazio
+            buffer.put(0, new byte[HEADER_SIZE]);
+            clearSlots();
+            buffer.putInt(0, MAGIC);
+            buffer.putInt(4, VERSION);
+            buffer.putInt(8, setCount * WAYS);
+            buffer.putInt(12, slotSize);
+            fresh = true;
+            log.info("Cache de validação mapeado criado: {} ({} MB, {} slots de {} bytes)",
+                    path, size / (1024 * 1024), setCount * WAYS, slotSize);
+        }
+    }
+
+    /**
+     * Abre o arquivo e tenta o lock exclusivo; false (com o canal fechado) se outro processo,
+     * ou outra instância nesta JVM, já o tiver
+     */
+    private boolean lock(Path candidate) throws IOException {
+        FileChannel opened = FileChannel.open(candidate, StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        FileLock acquired;
+        try {
+            acquired = opened.tryLock();
+        } catch (OverlappingFileLockException e) {
+            acquired = null;
+        }
+        if (acquired == null) {
+            opened.close();
+            return false;
+        }
+        channel = opened;
+        fileLock = acquired;
+        return true;
+    }
+
+    Path getPath() {
+        return path;
+    }
+
+    /**
+     * Entrada ainda válida para o hash do token, ou null
+     */
+    public EarlyRefreshCache.Entry<SerializedValidation> get(String tokenHash) {
+        if (!enabled || !synced) {
+            return null;
+        }
+
+        byte[] key = decodeKey(tokenHash);
+        int set = setOf(key);
+        long now = System.currentTimeMillis();
+        byte[] header = new byte[SLOT_HEADER_SIZE];
+
+        synchronized (lockOf(set)) {
+            for (int way = 0; way < WAYS; way++) {
+                int offset = slotOffset(set, way);
+                buffer.get(offset, header);
+                ByteBuffer slot = ByteBuffer.wrap(header);
+                long entryExpiresAt = slot.getLong(ENTRY_EXPIRES_AT);
+                if (entryExpiresAt == 0 || !Arrays.equals(header, KEY, KEY_SIZE, key, 0, KEY_SIZE)) {
+                    continue;
+                }
+
+                long tokenExpiresAt = slot.getLong(TOKEN_EXPIRES_AT);
+                if (entryExpiresAt <= now || tokenExpiresAt <= now) {
+                    buffer.putLong(offset + ENTRY_EXPIRES_AT, 0);
+                    return null;
+                }
+
+                int payloadLength = slot.getInt(PAYLOAD_LENGTH);
+                if (payloadLength < 0 || payloadLength > slotSize - SLOT_HEADER_SIZE) {
+                    discardCorrupt(offset);
+                    return null;
+                }
+                byte[] payload = new byte[payloadLength];
+                buffer.get(offset + SLOT_HEADER_SIZE, payload);
+                if (checksum(header, payload) != slot.getInt(CHECKSUM)) {
+                    discardCorrupt(offset);
+                    return null;
+                }
+
+                String text = new String(payload, StandardCharsets.UTF_8);
+                int separator = text.indexOf('\n');
+                SerializedValidation validation = new SerializedValidation(true, text.substring(0, separator),
+                        tokenExpiresAt, null, text.substring(separator + 1));
+                return new EarlyRefreshCache.Entry<>(validation, slot.getInt(COMPUTE_MILLIS), entryExpiresAt);
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Grava (ou substitui) a entrada do token; entradas maiores que o slot são ignoradas
+     */
+    public void put(String tokenHash, SerializedValidation validation, long computeMillis, long entryExpiresAt) {
+        if (!enabled) {
+            return;
+        }
+
+        byte[] payload = (validation.clientId() + '\n' + validation.body()).getBytes(StandardCharsets.UTF_8);
+        if (SLOT_HEADER_SIZE + payload.length > slotSize) {
+            log.debug("Validação com {} bytes não cabe no slot do cache mapeado", payload.length);
+            return;
+        }
+
+        byte[] key = decodeKey(tokenHash);
+        byte[] image = new byte[SLOT_HEADER_SIZE + payload.length];
+        ByteBuffer slot = ByteBuffer.wrap(image);
+        slot.put(KEY, key);
+        slot.putLong(ENTRY_EXPIRES_AT, entryExpiresAt);
+        slot.putLong(TOKEN_EXPIRES_AT, validation.expiresAtMillis());
+        slot.putInt(COMPUTE_MILLIS, (int) Math.min(Integer.MAX_VALUE, computeMillis));
+        slot.putInt(CLIENT_ID_HASH, validation.clientId().hashCode());
+        slot.putInt(PAYLOAD_LENGTH, payload.length);
+        slot.put(SLOT_HEADER_SIZE, payload);
+        slot.putInt(CHECKSUM, checksum(image, payload));
+
+        int set = setOf(key);
+        synchronized (lockOf(set)) {
+            buffer.put(slotOffset(set, chooseWay(set, key)), image);
+        }
+    }
+
+    public void remove(String tokenHash) {
+        if (!enabled) {
+            return;
+        }
+
+        byte[] key = decodeKey(tokenHash);
+        int set = setOf(key);
+        byte[] stored = new byte[KEY_SIZE];
+        synchronized (lockOf(set)) {
+            for (int way = 0; way < WAYS; way++) {
+                int offset = slotOffset(set, way);
+                buffer.get(offset + KEY, stored);
+                if (Arrays.equals(stored, key)) {
+                    buffer.putLong(offset + ENTRY_EXPIRES_AT, 0);
+                }
+            }
+        }
+    }
+
+    /**
+     * Remove as entradas dos clientes informados (varre todos os slots)
+     */
+    public void removeClients(Set<String> clientIds) {
+        if (!enabled || clientIds.isEmpty()) {
+            return;
+        }
+
+        Set<Integer> hashes = new HashSet<>();
+        clientIds.forEach(clientId -> hashes.add(clientId.hashCode()));
+        int removed = 0;
+
+        for (int set = 0; set < setCount; set++) {
+            synchronized (lockOf(set)) {
+                for (int way = 0; way < WAYS; way++) {
+                    int offset = slotOffset(set, way);
+                    if (buffer.getLong(offset + ENTRY_EXPIRES_AT) == 0
+                            || !hashes.contains(buffer.getInt(offset + CLIENT_ID_HASH))) {
+                        continue;
+                    }
+                    String clientId = readClientId(offset);
+                    if (clientId == null || clientIds.contains(clientId)) {
+                        buffer.putLong(offset + ENTRY_EXPIRES_AT, 0);
+                        removed++;
+                    }
+                }
+            }
+        }
+        log.debug("{} entradas de {} clientes removidas do cache mapeado", removed, clientIds.size());
+    }
+
+    public void clear() {
+        if (enabled) {
+            clearSlots();
+        }
+    }
+
+    /**
+     * Aplica as revogações publicadas por qualquer pod (inclusive as perdidas durante um restart)
+     */
+    @Scheduled(fixedDelayString = "${cache.token.mapped.sync-interval-ms:1000}")
+    public void syncRevocations() {
+        if (!enabled) {
+            return;
+        }
+
+        try {
+            long latest = revocationLogRepository.getLatestSequence();
+            if (fresh) {
+                // Cache vazio: nada a revogar, basta começar do fim do log
+                fresh = false;
+                storeAppliedSeq(latest);
+            } else if (latest < appliedSeq) {
+                log.warn("Log de revogações reiniciado (seq {} < {}): cache mapeado esvaziado", latest, appliedSeq);
+                clearSlots();
+                storeAppliedSeq(latest);
+            } else if (latest > appliedSeq) {
+                RevocationEvent oldest = revocationLogRepository.getOldestRetained();
+                if (oldest != null && oldest.seq() > appliedSeq + 1) {
+                    log.warn("Revogações após a seq {} já descartadas do log: cache mapeado esvaziado", appliedSeq);
+                    clearSlots();
+                    storeAppliedSeq(latest);
+                } else {
+                    applyAfter(appliedSeq);
+                }
+            }
+            synced = true;
+
+        } catch (Exception e) {
+            // Sem o log não há como saber o que foi revogado; entradas reabertas continuam fora de uso
+            log.debug("Sincronização do cache mapeado com o log de revogações falhou: {}", e.getMessage());
+        }
+    }
+
+    private void applyAfter(long afterSeq) {
+        List<RevocationEvent> events;
+        do {
+            events = revocationLogRepository.readAfter(afterSeq, syncBatch);
+            Set<String> clientIds = new HashSet<>();
+            for (RevocationEvent event : events) {
+                if (event.type() == RevocationEvent.Type.TOKEN && event.tokenHash() != null) {
+                    remove(event.tokenHash());
+                } else if (event.type() == RevocationEvent.Type.CLIENT && event.clientId() != null) {
+                    clientIds.add(event.clientId());
+                }
+            }
+            removeClients(clientIds);
+
+            if (!events.isEmpty()) {
+                afterSeq = events.get(events.size() - 1).seq();
+                storeAppliedSeq(afterSeq);
+            }
+        } while (events.size() >= syncBatch);
+    }
+
+    @PreDestroy
+    public void close() throws IOException {
+        if (!enabled || channel == null) {
+            return;
+        }
+        if (ownFile) {
+            Files.deleteIfExists(path);
+        } else {
+            buffer.force();
+        }
+        fileLock.release();
+        channel.close();
+    }
+
+    private synchronized void storeAppliedSeq(long seq) {
+        appliedSeq = seq;
+        buffer.putLong(HEADER_APPLIED_SEQ, seq);
+    }
+
+    private int chooseWay(int set, byte[] key) {
+        long now = System.currentTimeMillis();
+        byte[] stored = new byte[KEY_SIZE];
+        int victim = 0;
+        long victimExpiresAt = Long.MAX_VALUE;
+
+        for (int way = 0; way < WAYS; way++) {
+            int offset = slotOffset(set, way);
+            long entryExpiresAt = buffer.getLong(offset + ENTRY_EXPIRES_AT);
+            buffer.get(offset + KEY, stored);
+            if (Arrays.equals(stored, key) || entryExpiresAt <= now) {
+                return way;
+            }
+            if (entryExpiresAt < victimExpiresAt) {
+                victim = way;
+                victimExpiresAt = entryExpiresAt;
+            }
+        }
+        return victim;
+    }
+
+    private String readClientId(int offset) {
+        int payloadLength = buffer.getInt(offset + PAYLOAD_LENGTH);
+        if (payloadLength < 0 || payloadLength > slotSize - SLOT_HEADER_SIZE) {
+            return null;
+        }
+        byte[] payload = new byte[payloadLength];
+        buffer.get(offset + SLOT_HEADER_SIZE, payload);
+        String text = new String(payload, StandardCharsets.UTF_8);
+        int separator = text.indexOf('\n');
+        return separator >= 0 ? text.substring(0, separator) : null;
+    }
+
+    private void discardCorrupt(int offset) {
+        buffer.putLong(offset + ENTRY_EXPIRES_AT, 0);
+        log.warn("Slot corrompido descartado do cache mapeado (offset {})", offset);
+    }
+
+    private void clearSlots() {
+        for (int set = 0; set < setCount; set++) {
+            synchronized (lockOf(set)) {
+                for (int way = 0; way < WAYS; way++) {
+                    buffer.putLong(slotOffset(set, way) + ENTRY_EXPIRES_AT, 0);
+                }
+            }
+        }
+    }
+
+    private int countLive() {
+        long now = System.currentTimeMillis();
+        int live = 0;
+        for (int set = 0; set < setCount; set++) {
+            for (int way = 0; way < WAYS; way++) {
+                if (buffer.getLong(slotOffset(set, way) + ENTRY_EXPIRES_AT) > now) {
+                    live++;
+                }
+            }
+        }
+        return live;
+    }
+
+    /**
+     * CRC dos bytes do slot antes do campo de checksum, seguidos do payload
+     */
+    private static int checksum(byte[] header, byte[] payload) {
+        CRC32C crc = new CRC32C();
+        crc.update(header, 0, CHECKSUM);
+        crc.update(payload);
+        return (int) crc.getValue();
+    }
+
+    private static byte[] decodeKey(String tokenHash) {
+        return Base64.getDecoder().decode(tokenHash);
+    }
+
+    private int setOf(byte[] key) {
+        return (int) Math.floorMod(ByteBuffer.wrap(key).getLong(), (long) setCount);
+    }
+
+    private Object lockOf(int set) {
+        return locks[set % locks.length];
+    }
+
+    private int slotOffset(int set, int way) {
+        return HEADER_SIZE + (set * WAYS + way) * slotSize;
+    }
+}
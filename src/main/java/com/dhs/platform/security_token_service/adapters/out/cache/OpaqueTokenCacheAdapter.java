@@ -0,0 +1,154 @@
+package com.dhs.platform.security_token_service.adapters.out.cache;
+
+import com.dhs.platform.security_token_service.domain.model.SerializedValidation;
+import com.dhs.platform.security_token_service.domain.port.out.cache.ICacheRepository;
+import com.dhs.platform.security_token_service.domain.port.out.cache.IOpaqueTokenRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Repository;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Adapter de saída para tokens opacos usando Redis, com espelho local de curta duração
+ *
+ * Chave opaque_token:{sha256 do token}, valor {expiração do token};{clientId}\n{corpo do /validate}.
+ * Lida sempre no primário: um token recém-emitido precisa ser encontrado mesmo com réplicas atrasadas.
+ *
+ * O índice opaque_client:{clientId} guarda o último token emitido, com o mesmo TTL do registro. Como
+ * o login reutiliza o token atual, normalmente só existe um token vivo por cliente; dois logins
+ * simultâneos sem token atual podem emitir dois, e só o último fica no índice.
+ *
+ * O espelho local evita a ida ao Redis em rajadas de validação do mesmo token; uma revogação
+ * feita em outro pod só é vista aqui depois de opaque-token.local-ttl-ms.
+ */
+@Repository
+@RequiredArgsConstructor
+@Slf4j
+public class OpaqueTokenCacheAdapter implements IOpaqueTokenRepository {
+
+    private static final String OPAQUE_TOKEN_PREFIX = "opaque_token:";
+    private static final String OPAQUE_CLIENT_PREFIX = "opaque_client:";
+
+    private record LocalEntry(SerializedValidation validation, long expiresAtMillis) {
+    }
+
+    private final ICacheRepository cacheRepository;
+    private final ConcurrentHashMap<String, LocalEntry> localEntries = new ConcurrentHashMap<>();
+
+    @Value("${opaque-token.local-ttl-ms:1000}")
+    private long localTtlMillis;
+
+    @Value("${opaque-token.local-capacity:65536}")
+    private int localCapacity;
+
+    @Override
+    public void save(String token, SerializedValidation validation, Duration ttl) {
+        String tokenHash = TokenHasher.hash(token);
+        // Registro e índice do cliente em uma única ida ao servidor
+        cacheRepository.setAll(Map.of(
+                OPAQUE_TOKEN_PREFIX + tokenHash, encode(validation),
+                OPAQUE_CLIENT_PREFIX + validation.clientId(), token), ttl);
+        putLocal(tokenHash, validation);
+    }
+
+    @Override
+    public Optional<SerializedValidation> find(String token) {
+        String tokenHash = TokenHasher.hash(token);
+        long now = System.currentTimeMillis();
+
+        LocalEntry local = localEntries.get(tokenHash);
+        if (local != null) {
+            if (local.expiresAtMillis() > now && local.validation().expiresAtMillis() > now) {
+                return Optional.of(local.validation());
+            }
+            localEntries.remove(tokenHash, local);
+        }
+
+        try {
+            Optional<SerializedValidation> stored = cacheRepository.get(OPAQUE_TOKEN_PREFIX + tokenHash).map(this::decode);
+            stored.ifPresent(validation -> putLocal(tokenHash, validation));
+            return stored;
+        } catch (Exception e) {
+            log.error("Erro ao recuperar token opaco: {}", e.getMessage());
+            return Optional.empty();
+        }
+    }
+
+    @Override
+    public Optional<String> findClientToken(String clientId) {
+        return cacheRepository.get(OPAQUE_CLIENT_PREFIX + clientId);
+    }
+
+    @Override
+    public void delete(Collection<String> tokens) {
+        Set<String> keys = new HashSet<>();
+        for (String token : tokens) {
+            String tokenHash = TokenHasher.hash(token);
+            localEntries.remove(tokenHash);
+            keys.add(OPAQUE_TOKEN_PREFIX + tokenHash);
+        }
+        cacheRepository.delete(keys);
+        log.debug("{} tokens opacos removidos", keys.size());
+    }
+
+    @Override
+    public void deleteClientTokens(Collection<String> clientIds) {
+        List<String> clientKeys = clientIds.stream().map(clientId -> OPAQUE_CLIENT_PREFIX + clientId).toList();
+
+        // GETs em pipeline e um DEL para os índices e os registros encontrados
+        List<Optional<String>> tokens = cacheRepository.getAll(clientKeys);
+        Set<String> keys = new HashSet<>(clientKeys);
+        tokens.forEach(token -> token.ifPresent(value -> {
+            String tokenHash = TokenHasher.hash(value);
+            localEntries.remove(tokenHash);
+            keys.add(OPAQUE_TOKEN_PREFIX + tokenHash);
+        }));
+        cacheRepository.delete(keys);
+        log.debug("Tokens opacos de {} clientes removidos", clientIds.size());
+    }
+
+    private void putLocal(String tokenHash, SerializedValidation validation) {
+        if (localTtlMillis <= 0) {
+            return;
+        }
+        if (localEntries.size() >= localCapacity && !localEntries.containsKey(tokenHash)) {
+            evictExpired();
+            if (localEntries.size() >= localCapacity) {
+                return;
+            }
+        }
+        localEntries.put(tokenHash, new LocalEntry(validation, System.currentTimeMillis() + localTtlMillis));
+    }
+
+    @Scheduled(fixedDelay = 30_000)
+    public void evictExpired() {
+        long now = System.currentTimeMillis();
+        localEntries.values().removeIf(entry -> entry.expiresAtMillis() <= now);
+    }
+
+    private String encode(SerializedValidation validation) {
+        return validation.expiresAtMillis() + ";" + validation.clientId() + '\n' + validation.body();
+    }
+
+    private SerializedValidation decode(String raw) {
+        int clientIdStart = raw.indexOf(';') + 1;
+        int bodyStart = raw.indexOf('\n', clientIdStart) + 1;
+        if (clientIdStart == 0 || bodyStart == 0) {
+            throw new IllegalArgumentException("Registro de token opaco malformado");
+        }
+
+        long expiresAtMillis = Long.parseLong(raw, 0, clientIdStart - 1, 10);
+        return new SerializedValidation(true, raw.substring(clientIdStart, bodyStart - 1), expiresAtMillis,
+                null, raw.substring(bodyStart));
+    }
+}
@@ -1,88 +1,515 @@
 package com.dhs.platform.security_token_service.adapters.out.cache;
 
+import com.dhs.platform.security_token_service.config.LatencyBudget;
+import com.dhs.platform.security_token_service.config.Tracing;
+import com.dhs.platform.security_token_service.domain.port.out.cache.CacheUnavailableException;
 import com.dhs.platform.security_token_service.domain.port.out.cache.ICacheRepository;
-import lombok.RequiredArgsConstructor;
+import io.lettuce.core.RedisCommandTimeoutException;
+import io.lettuce.core.RedisException;
+import io.lettuce.core.RedisFuture;
+import io.lettuce.core.cluster.api.async.RedisClusterAsyncCommands;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Profile;
+import org.springframework.data.redis.connection.RedisStringCommands;
+import org.springframework.data.redis.core.RedisCallback;
 import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.data.redis.core.types.Expiration;
 import org.springframework.stereotype.Repository;
 
+import java.nio.charset.StandardCharsets;
 import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+import java.util.function.Supplier;
 
 /**
  * Adapter de saída que implementa operações de cache usando Redis
+ *
+ * Todas as chamadas passam pelo RedisCircuitBreaker: com o circuito aberto
+ * o Redis é ignorado e as operações são atendidas pelo LocalCacheStore.
+ *
+ * A exceção são as verificações de revogação (hasKeyFromReplicaOrThrow), que falham fechadas:
+ * sem resposta do Redis, ou sem orçamento de latência, lançam CacheUnavailableException em vez
+ * de usar o fallback. As escritas de revogação (setOrThrow, setAllOrThrow) também não usam o
+ * fallback: uma blacklist gravada só no nó local não valeria para os demais pods.
+ *
+ * Leituras simples (GET/EXISTS) usam o comando assíncrono do Lettuce com timeout limitado
+ * pelo LatencyBudget da requisição; com o orçamento esgotado vão direto para o fallback.
+ *
+ * Cada chave é enviada ao seu shard (RedisShardRouter); operações com várias chaves viram
+ * um pipeline por shard e scripts exigem que todas as chaves estejam no mesmo shard.
  */
 @Repository
-@RequiredArgsConstructor
+@Profile("!memory")
 @Slf4j
 public class RedisCacheAdapter implements ICacheRepository {
 
-    private final RedisTemplate<String, String> redisTemplate;
+    private final RedisShardRouter shardRouter;
+    private final ReplicaLagMonitor replicaLagMonitor;
+    private final RedisCircuitBreaker circuitBreaker;
+    private final LocalCacheStore localCacheStore;
+    private final CacheWriteBehindQueue writeBehindQueue;
+    private final HedgedReadPolicy hedgedReadPolicy;
+    private final long commandTimeoutNanos;
+
+    /**
+     * Scripts já compilados, reaproveitados para execução via EVALSHA
+     */
+    @SuppressWarnings("rawtypes")
+    private final ConcurrentHashMap<String, DefaultRedisScript<List>> scripts = new ConcurrentHashMap<>();
+
+    public RedisCacheAdapter(RedisShardRouter shardRouter,
+                             ReplicaLagMonitor replicaLagMonitor,
+                             RedisCircuitBreaker circuitBreaker,
+                             LocalCacheStore localCacheStore,
+                             CacheWriteBehindQueue writeBehindQueue,
+                             HedgedReadPolicy hedgedReadPolicy,
+                             @Value("${redis.command-timeout-ms:250}") long commandTimeoutMillis) {
+        this.shardRouter = shardRouter;
+        this.replicaLagMonitor = replicaLagMonitor;
+        this.circuitBreaker = circuitBreaker;
+        this.localCacheStore = localCacheStore;
+        this.writeBehindQueue = writeBehindQueue;
+        this.hedgedReadPolicy = hedgedReadPolicy;
+        this.commandTimeoutNanos = TimeUnit.MILLISECONDS.toNanos(commandTimeoutMillis);
+    }
 
     @Override
     public void set(String key, String value, Duration ttl) {
-        try {
-            redisTemplate.opsForValue().set(key, value, ttl);
+        execute("redis SET", () -> {
+            primary(key).opsForValue().set(key, value, ttl);
             log.trace("Cache set: key={}, ttl={}", key, ttl);
-        } catch (Exception e) {
-            log.error("Erro ao armazenar no cache: key={}, error={}", key, e.getMessage());
+            return null;
+        }, () -> {
+            localCacheStore.set(key, value, ttl);
+            return null;
+        }, "Erro ao armazenar no cache: key={}", key);
+    }
+
+    @Override
+    public void setAll(Map<String, String> values, Duration ttl) {
+        if (values == null || values.isEmpty()) {
+            return;
+        }
+
+        values.keySet().forEach(writeBehindQueue::cancel);
+        execute("redis SET pipeline", () -> {
+            setPipelined(values, ttl);
+            log.trace("Cache set em pipeline: keys={}, ttl={}", values.size(), ttl);
+            return null;
+        }, () -> {
+            values.forEach((key, value) -> localCacheStore.set(key, value, ttl));
+            return null;
+        }, "Erro ao armazenar múltiplas chaves no cache: keys={}", values.size());
+    }
+
+    @Override
+    public void setOrThrow(String key, String value, Duration ttl) {
+        writeBehindQueue.cancel(key);
+        executeOrThrow("redis SET", () -> primary(key).opsForValue().set(key, value, ttl));
+        log.trace("Cache set (sem fallback): key={}, ttl={}", key, ttl);
+    }
+
+    @Override
+    public void setAllOrThrow(Map<String, String> values, Duration ttl) {
+        if (values == null || values.isEmpty()) {
+            return;
+        }
+
+        values.keySet().forEach(writeBehindQueue::cancel);
+        executeOrThrow("redis SET pipeline", () -> setPipelined(values, ttl));
+        log.trace("Cache set em pipeline (sem fallback): keys={}, ttl={}", values.size(), ttl);
+    }
+
+    @Override
+    public boolean setIfAbsent(String key, String value, Duration ttl) {
+        return execute("redis SET NX", () -> {
+            Boolean stored = primary(key).opsForValue().setIfAbsent(key, value, ttl);
+            return stored != null && stored;
+        }, () -> localCacheStore.setIfAbsent(key, value, ttl), "Erro ao armazenar no cache (se ausente): key={}", key);
+    }
+
+    @Override
+    public void setAsync(String key, String value, Duration ttl) {
+        if (!writeBehindQueue.isEnabled()) {
+            set(key, value, ttl);
+            return;
         }
+        writeBehindQueue.enqueue(key, value, ttl);
     }
 
     @Override
     public Optional<String> get(String key) {
-        try {
-            String value = redisTemplate.opsForValue().get(key);
-            log.trace("Cache get: key={}, found={}", key, value != null);
-            return Optional.ofNullable(value);
-        } catch (Exception e) {
-            log.error("Erro ao recuperar do cache: key={}, error={}", key, e.getMessage());
-            return Optional.empty();
+        Optional<String> pendingValue = writeBehindQueue.getPending(key);
+        if (pendingValue.isPresent()) {
+            return pendingValue;
+        }
+
+        return executeRead("redis GET", () -> {
+            Optional<String> value = readValue(key, false);
+            log.trace("Cache get: key={}, found={}", key, value.isPresent());
+            return value;
+        }, () -> localCacheStore.get(key), "Erro ao recuperar do cache: key={}", key);
+    }
+
+    @Override
+    public List<Optional<String>> getAll(List<String> keys) {
+        if (keys == null || keys.isEmpty()) {
+            return List.of();
+        }
+
+        List<Optional<String>> values = execute("redis GET pipeline", () -> {
+            Map<String, String> found = new HashMap<>(keys.size() * 2);
+            shardRouter.partition(keys).forEach((shard, shardKeys) -> {
+                List<Object> results = shard.template().executePipelined((RedisCallback<Object>) connection -> {
+                    for (String key : shardKeys) {
+                        connection.stringCommands().get(key.getBytes(StandardCharsets.UTF_8));
+                    }
+                    return null;
+                });
+                for (int i = 0; i < shardKeys.size(); i++) {
+                    if (results.get(i) != null) {
+                        found.put(shardKeys.get(i), (String) results.get(i));
+                    }
+                }
+            });
+            return keys.stream().map(key -> Optional.ofNullable(found.get(key))).toList();
+        }, () -> keys.stream().map(localCacheStore::get).toList(), "Erro ao recuperar múltiplas chaves do cache: keys={}", keys.size());
+
+        // Escritas ainda na fila write-behind prevalecem sobre o que está no Redis
+        List<Optional<String>> merged = new ArrayList<>(keys.size());
+        for (int i = 0; i < keys.size(); i++) {
+            Optional<String> pending = writeBehindQueue.getPending(keys.get(i));
+            merged.add(pending.isPresent() ? pending : values.get(i));
+        }
+        return merged;
+    }
+
+    @Override
+    public Optional<String> getFromReplica(String key) {
+        Optional<String> pendingValue = writeBehindQueue.getPending(key);
+        if (pendingValue.isPresent()) {
+            return pendingValue;
         }
+
+        return executeRead("redis GET", () -> {
+            Optional<String> value = readValue(key, true);
+            log.trace("Cache get (réplica): key={}, found={}", key, value.isPresent());
+            return value;
+        }, () -> localCacheStore.get(key), "Erro ao recuperar do cache (réplica): key={}", key);
     }
 
     @Override
     public boolean hasKey(String key) {
-        try {
-            Boolean exists = redisTemplate.hasKey(key);
-            return exists != null && exists;
-        } catch (Exception e) {
-            log.error("Erro ao verificar existência no cache: key={}, error={}", key, e.getMessage());
-            return false;
+        if (writeBehindQueue.getPending(key).isPresent()) {
+            return true;
+        }
+
+        return executeRead("redis EXISTS", () -> readExists(key, false),
+                () -> localCacheStore.hasKey(key), "Erro ao verificar existência no cache: key={}", key);
+    }
+
+    @Override
+    public boolean hasKeyFromReplica(String key) {
+        if (writeBehindQueue.getPending(key).isPresent()) {
+            return true;
+        }
+
+        return executeRead("redis EXISTS", () -> readExists(key, true),
+                () -> localCacheStore.hasKey(key), "Erro ao verificar existência no cache (réplica): key={}", key);
+    }
+
+    @Override
+    public boolean hasKeyFromReplicaOrThrow(String key) {
+        if (writeBehindQueue.getPending(key).isPresent()) {
+            return true;
+        }
+
+        try (Tracing.Span span = Tracing.span("redis EXISTS")) {
+            // Orçamento esgotado também falha fechado, mas não conta para o circuit breaker
+            if (LatencyBudget.isExhausted()) {
+                span.attribute("redis.fallback", "latency_budget");
+                throw new CacheUnavailableException("Orçamento de latência esgotado");
+            }
+            if (!circuitBreaker.allowRequest()) {
+                span.attribute("redis.fallback", "unavailable");
+                throw new CacheUnavailableException("Redis indisponível (circuito aberto)");
+            }
+
+            try {
+                boolean exists = readExists(key, true);
+                circuitBreaker.recordSuccess();
+                return exists;
+            } catch (Exception e) {
+                span.error(e);
+                if (LatencyBudget.isExhausted()) {
+                    span.attribute("redis.fallback", "latency_budget");
+                    throw new CacheUnavailableException("Orçamento de latência esgotado durante a leitura", e);
+                }
+                span.attribute("redis.fallback", "unavailable");
+                circuitBreaker.recordFailure(e);
+                throw new CacheUnavailableException("Redis indisponível: " + e.getMessage(), e);
+            }
         }
     }
 
     @Override
     public void delete(String key) {
-        try {
-            redisTemplate.delete(key);
+        // Remover também localmente para não servir valor antigo em modo degradado
+        writeBehindQueue.cancel(key);
+        localCacheStore.delete(key);
+        execute("redis DEL", () -> {
+            primary(key).delete(key);
             log.trace("Cache delete: key={}", key);
-        } catch (Exception e) {
-            log.error("Erro ao deletar do cache: key={}, error={}", key, e.getMessage());
-        }
+            return null;
+        }, () -> null, "Erro ao deletar do cache: key={}", key);
     }
 
     @Override
     public void delete(Set<String> keys) {
-        try {
-            if (keys != null && !keys.isEmpty()) {
-                redisTemplate.delete(keys);
-                log.trace("Cache delete: keys={}", keys.size());
-            }
-        } catch (Exception e) {
-            log.error("Erro ao deletar múltiplas chaves do cache: error={}", e.getMessage());
+        if (keys == null || keys.isEmpty()) {
+            return;
         }
+
+        keys.forEach(writeBehindQueue::cancel);
+        keys.forEach(localCacheStore::delete);
+        execute("redis DEL", () -> {
+            shardRouter.partition(keys).forEach((shard, shardKeys) -> shard.template().delete(shardKeys));
+            log.trace("Cache delete: keys={}", keys.size());
+            return null;
+        }, () -> null, "Erro ao deletar múltiplas chaves do cache: keys={}", keys.size());
     }
 
     @Override
     public Set<String> keys(String pattern) {
+        return execute("redis KEYS", () -> {
+            Set<String> keys = new HashSet<>();
+            for (RedisShardRouter.Shard shard : shardRouter.getShards()) {
+                Set<String> shardKeys = shard.template().keys(pattern);
+                if (shardKeys != null) {
+                    keys.addAll(shardKeys);
+                }
+            }
+            return keys;
+        }, () -> localCacheStore.keys(pattern), "Erro ao buscar chaves no cache: pattern={}", pattern);
+    }
+
+    @Override
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    public List<String> executeScript(String script, List<String> keys, List<String> args) {
+        DefaultRedisScript<List> redisScript = scripts.computeIfAbsent(script, text -> new DefaultRedisScript<>(text, List.class));
+        RedisShardRouter.Shard shard = shardRouter.shardForAll(keys);
+
+        return execute("redis EVALSHA", () -> {
+            List<String> result = shard.template().execute(redisScript, keys, args.toArray());
+            return result != null ? result : List.<String>of();
+        }, List::<String>of, "Erro ao executar script no cache: keys={}", keys);
+    }
+
+    /**
+     * Executa a chamada ao Redis respeitando o circuit breaker, em um span nomeado pelo comando.
+     * Com o circuito aberto, ou em caso de falha, usa o fallback local.
+     */
+    private <T> T execute(String spanName, Supplier<T> redisCall, Supplier<T> localFallback,
+                          String errorMessage, Object errorArg) {
+        try (Tracing.Span span = Tracing.span(spanName)) {
+            if (!circuitBreaker.allowRequest()) {
+                span.attribute("redis.fallback", "circuit_open");
+                return localFallback.get();
+            }
+
+            try {
+                T result = redisCall.get();
+                circuitBreaker.recordSuccess();
+                return result;
+            } catch (Exception e) {
+                span.error(e);
+                if (LatencyBudget.isExhausted()) {
+                    // Timeout pelo orçamento da requisição, não necessariamente um Redis lento
+                    span.attribute("redis.fallback", "latency_budget");
+                    log.debug(errorMessage + " (orçamento de latência esgotado)", errorArg);
+                    return localFallback.get();
+                }
+                span.attribute("redis.fallback", "error");
+                circuitBreaker.recordFailure(e);
+                log.error(errorMessage + ", error={}", errorArg, e.getMessage());
+                return localFallback.get();
+            }
+        }
+    }
+
+    /**
+     * Como execute, mas sem fallback: circuito aberto ou falha viram CacheUnavailableException.
+     * Escritas não dependem do orçamento de latência da requisição.
+     */
+    private void executeOrThrow(String spanName, Runnable redisCall) {
+        try (Tracing.Span span = Tracing.span(spanName)) {
+            if (!circuitBreaker.allowRequest()) {
+                span.attribute("redis.fallback", "unavailable");
+                throw new CacheUnavailableException("Redis indisponível (circuito aberto)");
+            }
+
+            try {
+                redisCall.run();
+                circuitBreaker.recordSuccess();
+            } catch (Exception e) {
+                span.error(e);
+                span.attribute("redis.fallback", "unavailable");
+                circuitBreaker.recordFailure(e);
+                throw new CacheUnavailableException("Redis indisponível: " + e.getMessage(), e);
+            }
+        }
+    }
+
+    private void setPipelined(Map<String, String> values, Duration ttl) {
+        shardRouter.partition(values.keySet()).forEach((shard, keys) ->
+                shard.template().executePipelined((RedisCallback<Object>) connection -> {
+                    for (String key : keys) {
+                        connection.stringCommands().set(
+                                key.getBytes(StandardCharsets.UTF_8),
+                                values.get(key).getBytes(StandardCharsets.UTF_8),
+                                Expiration.from(ttl),
+                                RedisStringCommands.SetOption.UPSERT);
+                    }
+                    return null;
+                }));
+    }
+
+    /**
+     * Como execute, mas com o orçamento já esgotado nem tenta o Redis
+     */
+    private <T> T executeRead(String spanName, Supplier<T> redisCall, Supplier<T> localFallback,
+                              String errorMessage, Object errorArg) {
+        if (LatencyBudget.isExhausted()) {
+            try (Tracing.Span span = Tracing.span(spanName)) {
+                span.attribute("redis.fallback", "latency_budget");
+                return localFallback.get();
+            }
+        }
+        return execute(spanName, redisCall, localFallback, errorMessage, errorArg);
+    }
+
+    private Optional<String> readValue(String key, boolean fromReplica) {
+        byte[] value = read(key, fromReplica, commands -> commands.get(key.getBytes(StandardCharsets.UTF_8)));
+        return Optional.ofNullable(value).map(bytes -> new String(bytes, StandardCharsets.UTF_8));
+    }
+
+    private boolean readExists(String key, boolean fromReplica) {
+        Long count = read(key, fromReplica, commands -> commands.exists(key.getBytes(StandardCharsets.UTF_8)));
+        return count != null && count > 0;
+    }
+
+    /**
+     * Com hedged reads, uma leitura em réplica que não responde dentro do percentil observado
+     * é repetida no primário e vale a primeira resposta bem-sucedida
+     */
+    private <T> T read(String key, boolean fromReplica,
+                       Function<RedisClusterAsyncCommands<byte[], byte[]>, RedisFuture<T>> command) {
+        long start = System.nanoTime();
+        long timeout = LatencyBudget.timeoutNanos(commandTimeoutNanos);
+        RedisShardRouter.Shard shard = shardRouter.shardFor(key);
+        boolean replica = fromReplica && replicaLagMonitor.isReplicaReadAllowed();
+        Tracing.current().attribute("redis.replica", replica);
+        if (!replica) {
+            return await(submit(shard.template(), command), timeout);
+        }
+
+        CompletableFuture<T> first = submit(shard.replicaTemplate(), command);
+        if (!hedgedReadPolicy.isEnabled()) {
+            return await(first, timeout);
+        }
+
+        hedgedReadPolicy.countRead();
+        first.whenComplete((value, error) -> {
+            if (error == null) {
+                hedgedReadPolicy.recordLatency(System.nanoTime() - start);
+            }
+        });
+
+        long delay = hedgedReadPolicy.delayNanos();
+        if (delay < 0 || delay >= timeout) {
+            return await(first, timeout);
+        }
+
         try {
-            Set<String> keys = redisTemplate.keys(pattern);
-            return keys != null ? keys : Set.of();
-        } catch (Exception e) {
-            log.error("Erro ao buscar chaves no cache: pattern={}, error={}", pattern, e.getMessage());
-            return Set.of();
+            return first.get(delay, TimeUnit.NANOSECONDS);
+        } catch (TimeoutException e) {
+            long remaining = timeout - (System.nanoTime() - start);
+            if (!hedgedReadPolicy.tryAcquireHedge()) {
+                return await(first, remaining);
+            }
+            Tracing.current().attribute("redis.hedged", true);
+            CompletableFuture<T> second = submit(shard.template(), command);
+            try {
+                return await(firstSuccessful(first, second), remaining);
+            } finally {
+                first.cancel(false);
+                second.cancel(false);
+            }
+        } catch (ExecutionException e) {
+            throw unwrap(e);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RedisException("Leitura interrompida", e);
         }
     }
+
+    private RedisTemplate<String, String> primary(String key) {
+        return shardRouter.shardFor(key).template();
+    }
+
+    @SuppressWarnings("unchecked")
+    private <T> CompletableFuture<T> submit(RedisTemplate<String, String> template,
+                                            Function<RedisClusterAsyncCommands<byte[], byte[]>, RedisFuture<T>> command) {
+        RedisFuture<T> future = template.execute((RedisCallback<RedisFuture<T>>) connection ->
+                command.apply((RedisClusterAsyncCommands<byte[], byte[]>) connection.getNativeConnection()));
+        return future.toCompletableFuture();
+    }
+
+    private static <T> T await(CompletableFuture<T> future, long timeoutNanos) {
+        try {
+            return future.get(Math.max(1, timeoutNanos), TimeUnit.NANOSECONDS);
+        } catch (TimeoutException e) {
+            future.cancel(false);
+            throw new RedisCommandTimeoutException("Leitura excedeu " + TimeUnit.NANOSECONDS.toMillis(timeoutNanos) + " ms");
+        } catch (ExecutionException e) {
+            throw unwrap(e);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RedisException("Leitura interrompida", e);
+        }
+    }
+
+    private static <T> CompletableFuture<T> firstSuccessful(CompletableFuture<T> first, CompletableFuture<T> second) {
+        CompletableFuture<T> winner = new CompletableFuture<>();
+        AtomicInteger failures = new AtomicInteger();
+        for (CompletableFuture<T> future : List.of(first, second)) {
+            future.whenComplete((value, error) -> {
+                if (error == null) {
+                    winner.complete(value);
+                } else if (failures.incrementAndGet() == 2) {
+                    winner.completeExceptionally(error);
+                }
+            });
+        }
+        return winner;
+    }
+
+    private static RuntimeException unwrap(ExecutionException e) {
+        return e.getCause() instanceof RuntimeException cause ? cause : new RedisException(e.getCause());
+    }
 }
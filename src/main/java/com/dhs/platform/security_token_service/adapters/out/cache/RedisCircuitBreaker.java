@@ -0,0 +1,159 @@
+package com.dhs.platform.security_token_service.adapters.out.cache;
+
+import com.dhs.platform.security_token_service.domain.port.out.cache.ICacheCircuitBreaker;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Circuit breaker para chamadas ao Redis
+ *
+ * CLOSED: chamadas normais; falhas consecutivas acima do limite abrem o circuito.
+ * OPEN: o Redis é ignorado e os chamadores usam o fallback local até o fim da janela.
+ * HALF_OPEN: uma única chamada de prova decide se o circuito fecha ou reabre.
+ */
+@Component
+@Slf4j
+public class RedisCircuitBreaker implements ICacheCircuitBreaker {
+
+    public enum State { CLOSED, OPEN, HALF_OPEN }
+
+    private final AtomicReference<State> state = new AtomicReference<>(State.CLOSED);
+    private final AtomicInteger consecutiveFailures = new AtomicInteger();
+    private final AtomicBoolean probeInFlight = new AtomicBoolean(false);
+    private final MeterRegistry meterRegistry;
+    private final Timer degradedTimer;
+
+    private volatile long openedAtMillis;
+    private volatile long degradedSinceMillis;
+
+    @Value("${redis.circuit-breaker.enabled:true}")
+    private boolean enabled;
+
+    @Value("${redis.circuit-breaker.failure-threshold:5}")
+    private int failureThreshold;
+
+    @Value("${redis.circuit-breaker.open-duration-ms:5000}")
+    private long openDurationMillis;
+
+    public RedisCircuitBreaker(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+        this.degradedTimer = Timer.builder("sts.redis.circuit.degraded")
+                .description("Tempo em modo degradado (circuito não fechado)")
+                .register(meterRegistry);
+
+        Gauge.builder("sts.redis.circuit.state", state, s -> s.get().ordinal())
+                .description("Estado do circuito Redis (0=CLOSED, 1=OPEN, 2=HALF_OPEN)")
+                .register(meterRegistry);
+        Gauge.builder("sts.redis.circuit.degraded.current.seconds", this, RedisCircuitBreaker::currentDegradedSeconds)
+                .description("Duração do período degradado atual")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Indica se a chamada pode ir ao Redis. No estado HALF_OPEN apenas uma
+     * chamada de prova é liberada; as demais seguem pelo fallback local.
+     */
+    @Override
+    public boolean allowRequest() {
+        if (!enabled) {
+            return true;
+        }
+
+        State current = state.get();
+        if (current == State.CLOSED) {
+            return true;
+        }
+
+        if (current == State.OPEN) {
+            if (System.currentTimeMillis() - openedAtMillis < openDurationMillis) {
+                return false;
+            }
+            transition(State.OPEN, State.HALF_OPEN);
+        }
+
+        return probeInFlight.compareAndSet(false, true);
+    }
+
+    @Override
+    public void recordSuccess() {
+        if (!enabled) {
+            return;
+        }
+
+        consecutiveFailures.set(0);
+        if (state.get() == State.HALF_OPEN) {
+            probeInFlight.set(false);
+            transition(State.HALF_OPEN, State.CLOSED);
+        }
+    }
+
+    @Override
+    public void recordFailure(Exception e) {
+        if (!enabled) {
+            return;
+        }
+
+        State current = state.get();
+        if (current == State.HALF_OPEN) {
+            probeInFlight.set(false);
+            transition(State.HALF_OPEN, State.OPEN);
+            return;
+        }
+
+        if (current == State.CLOSED && consecutiveFailures.incrementAndGet() >= failureThreshold) {
+            if (transition(State.CLOSED, State.OPEN)) {
+                log.warn("Circuito Redis aberto após {} falhas consecutivas: {}", failureThreshold, e.getMessage());
+            }
+        }
+    }
+
+    @Override
+    public boolean isDegraded() {
+        return enabled && state.get() != State.CLOSED;
+    }
+
+    public State getState() {
+        return state.get();
+    }
+
+    private boolean transition(State from, State to) {
+        if (!state.compareAndSet(from, to)) {
+            return false;
+        }
+
+        long now = System.currentTimeMillis();
+        if (to == State.OPEN) {
+            openedAtMillis = now;
+        }
+        if (from == State.CLOSED) {
+            degradedSinceMillis = now;
+        }
+        if (to == State.CLOSED) {
+            consecutiveFailures.set(0);
+            degradedTimer.record(Duration.ofMillis(now - degradedSinceMillis));
+            log.info("Circuito Redis fechado após {} ms em modo degradado", now - degradedSinceMillis);
+        }
+
+        Counter.builder("sts.redis.circuit.transitions")
+                .tag("from", from.name())
+                .tag("to", to.name())
+                .register(meterRegistry)
+                .increment();
+        log.info("Circuito Redis: {} -> {}", from, to);
+        return true;
+    }
+
+    private double currentDegradedSeconds() {
+        return isDegraded() ? (System.currentTimeMillis() - degradedSinceMillis) / 1000.0 : 0;
+    }
+}
@@ -0,0 +1,99 @@
+package com.dhs.platform.security_token_service.adapters.out.cache;
+
+import com.dhs.platform.security_token_service.domain.model.LoginFailureState;
+import com.dhs.platform.security_token_service.domain.port.out.cache.ILoginFailureRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.annotation.Profile;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.stereotype.Repository;
+
+import java.time.Duration;
+import java.util.List;
+
+/**
+ * Adapter de saída para as falhas de login no Redis (sempre no primário)
+ *
+ * Contador e bloqueio usam a mesma hash tag, então ficam no mesmo shard/slot e são lidos
+ * com um único MGET; a reserva de tentativa é um script sobre as duas chaves. Não trata erros:
+ * o LoginFailureService registra a falha no circuit breaker e segue com o estado local.
+ */
+@Repository
+@Profile("!memory")
+@RequiredArgsConstructor
+public class RedisLoginFailureAdapter implements ILoginFailureRepository {
+
+    private static final String FAILURES_PREFIX = "login_failures:";
+    private static final String BLOCKED_PREFIX = "login_blocked:";
+
+    /**
+     * KEYS[1]=tentativas, KEYS[2]=bloqueio
+     * ARGV[1]=agora, ARGV[2]=tentativas livres, ARGV[3]=hold em ms, ARGV[4]=fim do hold, ARGV[5]=janela em ms
+     */
+    @SuppressWarnings("rawtypes")
+    private static final RedisScript<List> RESERVE_SCRIPT = new DefaultRedisScript<>("""
+            local blocked = redis.call('GET', KEYS[2])
+            if blocked and tonumber(blocked) > tonumber(ARGV[1]) then
+                return {redis.call('GET', KEYS[1]) or '0', blocked}
+            end
+            local attempts = redis.call('INCR', KEYS[1])
+            redis.call('PEXPIRE', KEYS[1], ARGV[5])
+            if attempts > tonumber(ARGV[2]) then
+                redis.call('SET', KEYS[2], ARGV[4], 'PX', ARGV[3])
+            end
+            return {tostring(attempts), '0'}
+            """, List.class);
+
+    private final RedisShardRouter shardRouter;
+
+    @Override
+    public LoginFailureState find(String clientId) {
+        String failuresKey = failuresKey(clientId);
+        List<String> values = template(failuresKey).opsForValue().multiGet(List.of(failuresKey, blockedKey(clientId)));
+        if (values == null || (values.get(0) == null && values.get(1) == null)) {
+            return LoginFailureState.NONE;
+        }
+        return new LoginFailureState(
+                values.get(0) != null ? Integer.parseInt(values.get(0)) : 0,
+                values.get(1) != null ? Long.parseLong(values.get(1)) : 0);
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public LoginFailureState reserveAttempt(String clientId, int freeAttempts, Duration hold, Duration window) {
+        String failuresKey = failuresKey(clientId);
+        long now = System.currentTimeMillis();
+        List<String> result = template(failuresKey).execute(RESERVE_SCRIPT, List.of(failuresKey, blockedKey(clientId)),
+                String.valueOf(now), String.valueOf(freeAttempts), String.valueOf(hold.toMillis()),
+                String.valueOf(now + hold.toMillis()), String.valueOf(window.toMillis()));
+        if (result == null || result.size() < 2) {
+            throw new IllegalStateException("Resposta inesperada do script de reserva de tentativa");
+        }
+        return new LoginFailureState(Integer.parseInt(result.get(0)), Long.parseLong(result.get(1)));
+    }
+
+    @Override
+    public void block(String clientId, Duration duration) {
+        String key = blockedKey(clientId);
+        template(key).opsForValue().set(key, String.valueOf(System.currentTimeMillis() + duration.toMillis()), duration);
+    }
+
+    @Override
+    public void reset(String clientId) {
+        String failuresKey = failuresKey(clientId);
+        template(failuresKey).delete(List.of(failuresKey, blockedKey(clientId)));
+    }
+
+    private static String failuresKey(String clientId) {
+        return FAILURES_PREFIX + "{" + clientId + "}";
+    }
+
+    private static String blockedKey(String clientId) {
+        return BLOCKED_PREFIX + "{" + clientId + "}";
+    }
+
+    private RedisTemplate<String, String> template(String key) {
+        return shardRouter.shardFor(key).template();
+    }
+}
@@ -0,0 +1,62 @@
+package com.dhs.platform.security_token_service.adapters.out.cache;
+
+import com.dhs.platform.security_token_service.domain.port.out.cache.IRateLimitRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.annotation.Profile;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.time.Duration;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Adapter de saída para os contadores de rate limit no Redis (sempre no primário do shard do IP)
+ *
+ * Não trata erros: o RateLimitService registra a falha no circuit breaker e aplica o limite local.
+ */
+@Repository
+@Profile("!memory")
+@RequiredArgsConstructor
+public class RedisRateLimitAdapter implements IRateLimitRepository {
+
+    private static final String RATE_LIMIT_PREFIX = "rate_limit:";
+
+    private final RedisShardRouter shardRouter;
+
+    @Override
+    public Optional<Integer> getCount(String clientIp) {
+        String key = RATE_LIMIT_PREFIX + clientIp;
+        return Optional.ofNullable(template(key).opsForValue().get(key))
+                .map(Integer::parseInt);
+    }
+
+    @Override
+    public void startWindow(String clientIp, Duration window) {
+        String key = RATE_LIMIT_PREFIX + clientIp;
+        template(key).opsForValue().set(key, "1", window);
+    }
+
+    @Override
+    public void increment(String clientIp) {
+        String key = RATE_LIMIT_PREFIX + clientIp;
+        template(key).opsForValue().increment(key);
+    }
+
+    @Override
+    public long getResetInSeconds(String clientIp) {
+        String key = RATE_LIMIT_PREFIX + clientIp;
+        Long ttl = template(key).getExpire(key, TimeUnit.SECONDS);
+        return ttl != null ? ttl : -1;
+    }
+
+    @Override
+    public void reset(String clientIp) {
+        String key = RATE_LIMIT_PREFIX + clientIp;
+        template(key).delete(key);
+    }
+
+    private RedisTemplate<String, String> template(String key) {
+        return shardRouter.shardFor(key).template();
+    }
+}
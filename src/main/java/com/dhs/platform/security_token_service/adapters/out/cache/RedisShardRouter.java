@@ -0,0 +1,135 @@
+package com.dhs.platform.security_token_service.adapters.out.cache;
+
+import org.springframework.data.redis.connection.lettuce.LettuceConnectionFactory;
+import org.springframework.data.redis.core.RedisTemplate;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Distribui as chaves entre instâncias Redis independentes (redis.topology=sharded)
+ *
+ * Rendezvous hashing: cada chave vai para o shard de maior peso hash(chave, nome do shard).
+ * Ao adicionar um shard só migram as chaves que passam a tê-lo como maior peso (~1/n); remover
+ * um shard move apenas as chaves dele. O nome do shard é o host:porta, então a ordem em
+ * redis.shards.nodes não importa.
+ *
+ * Como no Redis Cluster, só o trecho entre a primeira {} da chave entra no hash: chaves com a
+ * mesma hash tag (ex.: {token_revocations}:*) ficam no mesmo shard e podem ir no mesmo script.
+ *
+ * Fora da topologia sharded há um único shard com as conexões primária e de réplica.
+ */
+public class RedisShardRouter {
+
+    public record Shard(String name, RedisTemplate<String, String> template,
+                        RedisTemplate<String, String> replicaTemplate) {
+    }
+
+    private final List<Shard> shards;
+    private final long[] seeds;
+    private final List<LettuceConnectionFactory> ownedFactories;
+
+    public RedisShardRouter(List<Shard> shards, List<LettuceConnectionFactory> ownedFactories) {
+        if (shards.isEmpty()) {
+            throw new IllegalArgumentException("Ao menos um shard Redis é necessário");
+        }
+        this.shards = List.copyOf(shards);
+        this.ownedFactories = List.copyOf(ownedFactories);
+        this.seeds = new long[shards.size()];
+        for (int i = 0; i < seeds.length; i++) {
+            seeds[i] = hash(shards.get(i).name(), 0, shards.get(i).name().length());
+        }
+    }
+
+    public boolean isSharded() {
+        return shards.size() > 1;
+    }
+
+    public List<Shard> getShards() {
+        return shards;
+    }
+
+    public Shard shardFor(String key) {
+        if (shards.size() == 1) {
+            return shards.get(0);
+        }
+
+        int start = 0;
+        int end = key.length();
+        int open = key.indexOf('{');
+        if (open >= 0) {
+            int close = key.indexOf('}', open + 1);
+            if (close > open + 1) {
+                start = open + 1;
+                end = close;
+            }
+        }
+
+        long keyHash = hash(key, start, end);
+        int best = 0;
+        long bestWeight = mix(keyHash ^ seeds[0]);
+        for (int i = 1; i < seeds.length; i++) {
+            long weight = mix(keyHash ^ seeds[i]);
+            if (Long.compareUnsigned(weight, bestWeight) > 0) {
+                best = i;
+                bestWeight = weight;
+            }
+        }
+        return shards.get(best);
+    }
+
+    /**
+     * Agrupa as chaves por shard, preservando a ordem de cada grupo (para montar pipelines)
+     */
+    public Map<Shard, List<String>> partition(Collection<String> keys) {
+        Map<Shard, List<String>> partitions = new LinkedHashMap<>();
+        for (String key : keys) {
+            partitions.computeIfAbsent(shardFor(key), shard -> new ArrayList<>()).add(key);
+        }
+        return partitions;
+    }
+
+    /**
+     * Shard comum a todas as chaves de um script; erro se estiverem espalhadas
+     */
+    public Shard shardForAll(List<String> keys) {
+        if (keys.isEmpty()) {
+            return shards.get(0);
+        }
+        Shard shard = shardFor(keys.get(0));
+        for (int i = 1; i < keys.size(); i++) {
+            if (shardFor(keys.get(i)) != shard) {
+                throw new IllegalArgumentException("Chaves do script em shards diferentes (use a mesma hash tag): " + keys);
+            }
+        }
+        return shard;
+    }
+
+    public void close() {
+        ownedFactories.forEach(LettuceConnectionFactory::destroy);
+    }
+
+    /**
+     * FNV-1a de 64 bits sobre os caracteres (estável entre pods e versões da JVM)
+     */
+    private static long hash(String value, int start, int end) {
+        long hash = 0xcbf29ce484222325L;
+        for (int i = start; i < end; i++) {
+            hash ^= value.charAt(i);
+            hash *= 0x100000001b3L;
+        }
+        return hash;
+    }
+
+    /**
+     * Finalizador do SplitMix64: espalha os bits para que o peso de cada shard seja independente
+     */
+    private static long mix(long z) {
+        z = (z ^ (z >>> 30)) * 0xbf58476d1ce4e5b9L;
+        z = (z ^ (z >>> 27)) * 0x94d049bb133111ebL;
+        return z ^ (z >>> 31);
+    }
+}
@@ -0,0 +1,202 @@
+package com.dhs.platform.security_token_service.adapters.out.cache;
+
+import com.dhs.platform.security_token_service.config.Tracing;
+import com.dhs.platform.security_token_service.domain.model.RefreshTokenRecord;
+import com.dhs.platform.security_token_service.domain.model.RefreshTokenRotation;
+import com.dhs.platform.security_token_service.domain.port.out.cache.CacheUnavailableException;
+import com.dhs.platform.security_token_service.domain.port.out.cache.ICacheRepository;
+import com.dhs.platform.security_token_service.domain.port.out.cache.IRefreshTokenCacheRepository;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Repository;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Adapter de saída para refresh tokens usando Redis
+ *
+ * Chaves (a hash tag {familyId} mantém a família no mesmo slot do Redis Cluster):
+ * - refresh_token:{familyId}:{sha256 do token}
+ * - refresh_family:{familyId}: expiração absoluta da família (epoch ms), ou "revoked"
+ * - refresh_client:{clientId}: sorted set das famílias do cliente, com a expiração como score
+ *
+ * A rotação grava o substituto com o prazo que resta à família, não com o TTL cheio: uma
+ * família usada continuamente ainda expira no prazo da emissão. O índice por cliente fica em
+ * outro slot e é mantido fora do script de rotação, apenas na emissão e na revogação.
+ */
+@Repository
+@Profile("!memory")
+@RequiredArgsConstructor
+@Slf4j
+public class RefreshTokenCacheAdapter implements IRefreshTokenCacheRepository {
+
+    private static final String REFRESH_TOKEN_PREFIX = "refresh_token:";
+    private static final String REFRESH_FAMILY_PREFIX = "refresh_family:";
+    private static final String REFRESH_CLIENT_PREFIX = "refresh_client:";
+    private static final String REVOKED = "revoked";
+
+    /**
+     * KEYS[1]=token apresentado, KEYS[2]=família, KEYS[3]=token substituto
+     * ARGV[1]=registro do substituto (recebe o clientId do token apresentado), ARGV[2]=agora (epoch ms),
+     * ARGV[3]=expiração para famílias sem a chave (emitidas antes da expiração absoluta)
+     */
+    private static final String ROTATE_SCRIPT = """
+            local raw = redis.call('GET', KEYS[1])
+            if not raw then
+                return {}
+            end
+            local family = redis.call('GET', KEYS[2])
+            if family == 'revoked' then
+                return {raw, 'REVOKED'}
+            end
+            local expiresAt = tonumber(family) or tonumber(ARGV[3])
+            local remaining = expiresAt - tonumber(ARGV[2])
+            if remaining <= 0 then
+                return {}
+            end
+            local record = cjson.decode(raw)
+            if record['used'] == true then
+                redis.call('SET', KEYS[2], 'revoked', 'PX', remaining)
+                return {raw, 'REUSED'}
+            end
+            record['used'] = true
+            redis.call('SET', KEYS[1], cjson.encode(record), 'KEEPTTL')
+            if not family then
+                redis.call('SET', KEYS[2], ARGV[3], 'PX', remaining)
+            end
+            local replacement = cjson.decode(ARGV[1])
+            replacement['clientId'] = record['clientId']
+            redis.call('SET', KEYS[3], cjson.encode(replacement), 'PX', remaining)
+            return {raw, 'VALID'}
+            """;
+
+    /**
+     * KEYS[1]=índice do cliente; ARGV[1]=família, ARGV[2]=expiração da família, ARGV[3]=agora, ARGV[4]=TTL em ms.
+     * Famílias já expiradas saem do índice a cada emissão.
+     */
+    private static final String INDEX_SCRIPT = """
+            redis.call('ZREMRANGEBYSCORE', KEYS[1], '-inf', ARGV[3])
+            redis.call('ZADD', KEYS[1], ARGV[2], ARGV[1])
+            if redis.call('PTTL', KEYS[1]) < tonumber(ARGV[4]) then
+                redis.call('PEXPIRE', KEYS[1], ARGV[4])
+            end
+            return {'OK'}
+            """;
+
+    /**
+     * KEYS[1]=índice do cliente; ARGV[1]=agora. Retorna 'OK' seguido de pares família, expiração;
+     * o marcador distingue "sem famílias" de um script que não pôde ser executado.
+     */
+    private static final String CLIENT_FAMILIES_SCRIPT = """
+            local families = redis.call('ZRANGEBYSCORE', KEYS[1], '(' .. ARGV[1], '+inf', 'WITHSCORES')
+            table.insert(families, 1, 'OK')
+            return families
+            """;
+
+    private final ICacheRepository cacheRepository;
+    private final ObjectMapper objectMapper;
+
+    @Override
+    public void saveRefreshToken(String refreshToken, RefreshTokenRecord record, Duration ttl) {
+        try {
+            long now = System.currentTimeMillis();
+            String expiresAt = String.valueOf(now + ttl.toMillis());
+            String familyId = record.getFamilyId();
+
+            // Escrita síncrona: o token pode ser usado logo após a resposta. Token e família
+            // compartilham a hash tag e vão no mesmo pipeline.
+            cacheRepository.setAll(Map.of(
+                    tokenKey(familyId, refreshToken), toJson(record),
+                    familyKey(familyId), expiresAt), ttl);
+            cacheRepository.executeScript(INDEX_SCRIPT, List.of(REFRESH_CLIENT_PREFIX + record.getClientId()),
+                    List.of(familyId, expiresAt, String.valueOf(now), String.valueOf(ttl.toMillis())));
+            log.debug("Refresh token armazenado para cliente: {}", record.getClientId());
+        } catch (Exception e) {
+            log.error("Erro ao armazenar refresh token: {}", e.getMessage());
+        }
+    }
+
+    @Override
+    public RefreshTokenRotation rotateRefreshToken(String presentedToken, String replacementToken,
+                                                   RefreshTokenRecord replacementRecord, Duration ttl) {
+        try {
+            String familyId = replacementRecord.getFamilyId();
+            long now = System.currentTimeMillis();
+            List<String> result = cacheRepository.executeScript(ROTATE_SCRIPT,
+                    List.of(tokenKey(familyId, presentedToken),
+                            familyKey(familyId),
+                            tokenKey(familyId, replacementToken)),
+                    List.of(toJson(replacementRecord), String.valueOf(now), String.valueOf(now + ttl.toMillis())));
+
+            if (result.size() < 2) {
+                return RefreshTokenRotation.unknown();
+            }
+
+            RefreshTokenRecord presented = fromJson(result.get(0));
+            return new RefreshTokenRotation(RefreshTokenRotation.Status.valueOf(result.get(1)), presented);
+
+        } catch (Exception e) {
+            log.error("Erro ao rotacionar refresh token: {}", e.getMessage());
+            return RefreshTokenRotation.unknown();
+        }
+    }
+
+    @Override
+    public void revokeClientFamilies(Collection<String> clientIds) {
+        long now = System.currentTimeMillis();
+        Map<String, String> revoked = new HashMap<>();
+        Set<String> indexKeys = new HashSet<>();
+        long longest = 0;
+
+        // Um script por cliente: os índices ficam em slots diferentes
+        for (String clientId : clientIds) {
+            String indexKey = REFRESH_CLIENT_PREFIX + clientId;
+            List<String> result = cacheRepository.executeScript(CLIENT_FAMILIES_SCRIPT,
+                    List.of(indexKey), List.of(String.valueOf(now)));
+            if (result.isEmpty()) {
+                throw new CacheUnavailableException("Famílias de refresh token do cliente indisponíveis: " + clientId);
+            }
+            for (int i = 1; i + 1 < result.size(); i += 2) {
+                revoked.put(familyKey(result.get(i)), REVOKED);
+                longest = Math.max(longest, (long) Double.parseDouble(result.get(i + 1)) - now);
+            }
+            indexKeys.add(indexKey);
+        }
+
+        // O marcador de revogação não precisa durar mais que a família mais longa
+        if (!revoked.isEmpty()) {
+            cacheRepository.setAllOrThrow(revoked, Duration.ofMillis(longest));
+        }
+        cacheRepository.delete(indexKeys);
+        log.debug("{} famílias de refresh token revogadas para {} clientes", revoked.size(), clientIds.size());
+    }
+
+    private String toJson(RefreshTokenRecord record) throws JsonProcessingException {
+        try (Tracing.Span ignored = Tracing.span("json serialize").attribute("json.type", "RefreshTokenRecord")) {
+            return objectMapper.writeValueAsString(record);
+        }
+    }
+
+    private RefreshTokenRecord fromJson(String json) throws JsonProcessingException {
+        try (Tracing.Span ignored = Tracing.span("json deserialize").attribute("json.type", "RefreshTokenRecord")) {
+            return objectMapper.readValue(json, RefreshTokenRecord.class);
+        }
+    }
+
+    private String familyKey(String familyId) {
+        return REFRESH_FAMILY_PREFIX + "{" + familyId + "}";
+    }
+
+    private String tokenKey(String familyId, String refreshToken) {
+        return REFRESH_TOKEN_PREFIX + "{" + familyId + "}:" + TokenHasher.hash(refreshToken);
+    }
+}
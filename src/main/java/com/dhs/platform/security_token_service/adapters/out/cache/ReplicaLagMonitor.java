@@ -0,0 +1,104 @@
+package com.dhs.platform.security_token_service.adapters.out.cache;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Profile;
+import org.springframework.data.redis.connection.RedisConnection;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.Properties;
+
+/**
+ * Monitora o atraso de replicação informado pelo primário (INFO replication)
+ * e decide se as leituras tolerantes podem ser roteadas para réplicas.
+ *
+ * Quando alguma réplica ultrapassa redis.replica-reads.max-staleness-seconds
+ * ou o monitoramento falha, as leituras voltam para o primário.
+ */
+@Component
+@Profile("!memory")
+@Slf4j
+public class ReplicaLagMonitor {
+
+    private final RedisTemplate<String, String> redisTemplate;
+
+    @Value("${redis.replica-reads.enabled:false}")
+    private boolean replicaReadsEnabled;
+
+    @Value("${redis.replica-reads.max-staleness-seconds:2}")
+    private long maxStalenessSeconds;
+
+    private volatile boolean replicaReadsAllowed = false;
+    private volatile long lastObservedLagSeconds = -1;
+
+    public ReplicaLagMonitor(@Qualifier("redisTemplate") RedisTemplate<String, String> redisTemplate) {
+        this.redisTemplate = redisTemplate;
+    }
+
+    /**
+     * Indica se leituras tolerantes podem ir para réplicas neste momento
+     */
+    public boolean isReplicaReadAllowed() {
+        return replicaReadsEnabled && replicaReadsAllowed;
+    }
+
+    public long getLastObservedLagSeconds() {
+        return lastObservedLagSeconds;
+    }
+
+    @Scheduled(fixedDelayString = "${redis.replica-reads.lag-check-interval-ms:1000}")
+    public void checkReplicationLag() {
+        if (!replicaReadsEnabled) {
+            return;
+        }
+
+        try {
+            Properties info = redisTemplate.execute(
+                    (RedisCallback<Properties>) (RedisConnection connection) -> connection.serverCommands().info("replication"));
+
+            long maxLag = maxReplicaLag(info);
+            lastObservedLagSeconds = maxLag;
+
+            boolean allowed = maxLag <= maxStalenessSeconds;
+            if (allowed != replicaReadsAllowed) {
+                log.info("Leitura em réplicas {} (atraso máximo: {}s, tolerância: {}s)",
+                        allowed ? "habilitada" : "suspensa", maxLag, maxStalenessSeconds);
+            }
+            replicaReadsAllowed = allowed;
+
+        } catch (Exception e) {
+            if (replicaReadsAllowed) {
+                log.warn("Falha ao verificar atraso de replicação, leituras voltam ao primário: {}", e.getMessage());
+            }
+            replicaReadsAllowed = false;
+        }
+    }
+
+    /**
+     * Extrai o maior "lag" das linhas slaveN do INFO replication.
+     * Em cluster as chaves vêm prefixadas com o endereço do nó (host:port.slave0).
+     */
+    private long maxReplicaLag(Properties info) {
+        long maxLag = 0;
+        if (info == null) {
+            return maxLag;
+        }
+
+        for (String name : info.stringPropertyNames()) {
+            if (!name.matches("(.*\\.)?slave\\d+")) {
+                continue;
+            }
+
+            for (String field : info.getProperty(name).split(",")) {
+                if (field.startsWith("lag=")) {
+                    maxLag = Math.max(maxLag, Long.parseLong(field.substring(4)));
+                }
+            }
+        }
+        return maxLag;
+    }
+}
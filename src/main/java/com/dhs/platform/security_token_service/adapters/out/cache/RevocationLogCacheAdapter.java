@@ -0,0 +1,199 @@
+package com.dhs.platform.security_token_service.adapters.out.cache;
+
+import com.dhs.platform.security_token_service.domain.model.RevocationEvent;
+import com.dhs.platform.security_token_service.domain.model.RevocationRequest;
+import com.dhs.platform.security_token_service.domain.port.out.cache.ICacheRepository;
+import com.dhs.platform.security_token_service.domain.port.out.cache.IRevocationLogRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Repository;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Adapter de saída para o log de revogações usando Redis Streams
+ *
+ * Chaves (a hash tag mantém tudo no mesmo slot do Redis Cluster):
+ * - {token_revocations}:stream      eventos com id {seq}-0, limitado por MAXLEN ~
+ * - {token_revocations}:seq         última sequência emitida
+ * - {token_revocations}:generations hash clientId -> geração
+ *
+ * Campos de cada evento: t=tipo, h=hash do token, c=clientId, g=geração, r=revogado em, e=relevante até
+ */
+@Repository
+@Profile("!memory")
+@RequiredArgsConstructor
+@Slf4j
+public class RevocationLogCacheAdapter implements IRevocationLogRepository {
+
+    private static final String STREAM_KEY = "{token_revocations}:stream";
+    private static final String SEQUENCE_KEY = "{token_revocations}:seq";
+    private static final String GENERATIONS_KEY = "{token_revocations}:generations";
+    private static final int FIELDS_PER_EVENT = 7;
+
+    /**
+     * Um evento a cada 4 argumentos (tipo, hash, clientId, expiração) a partir de ARGV[3].
+     * A sequência nunca recua, mesmo se a chave do contador for perdida.
+     */
+    private static final String APPEND_SCRIPT = """
+            local seq = tonumber(redis.call('GET', KEYS[2]) or '0')
+            local last = redis.call('XREVRANGE', KEYS[1], '+', '-', 'COUNT', 1)
+            if #last > 0 then
+                local lastSeq = tonumber(string.match(last[1][1], '^(%d+)'))
+                if lastSeq > seq then
+                    seq = lastSeq
+                end
+            end
+            local result = {}
+            for i = 3, #ARGV, 4 do
+                local eventType, tokenHash, clientId, expiresAt = ARGV[i], ARGV[i + 1], ARGV[i + 2], ARGV[i + 3]
+                seq = seq + 1
+                local generation = 0
+                if eventType == 'CLIENT' then
+                    generation = redis.call('HINCRBY', KEYS[3], clientId, 1)
+                elseif clientId ~= '' then
+                    generation = tonumber(redis.call('HGET', KEYS[3], clientId) or '0')
+                end
+                redis.call('XADD', KEYS[1], 'MAXLEN', '~', ARGV[1], seq .. '-0',
+                    't', eventType, 'h', tokenHash, 'c', clientId, 'g', generation, 'r', ARGV[2], 'e', expiresAt)
+                table.insert(result, tostring(seq))
+                table.insert(result, tostring(generation))
+            end
+            redis.call('SET', KEYS[2], seq)
+            return result
+            """;
+
+    /**
+     * Converte as entradas do XRANGE em uma lista plana (o executeScript retorna List<String>)
+     */
+    private static final String FLATTEN_FUNCTION = """
+            local function flatten(entries)
+                local result = {}
+                for _, entry in ipairs(entries) do
+                    local fields = {}
+                    for i = 1, #entry[2], 2 do
+                        fields[entry[2][i]] = entry[2][i + 1]
+                    end
+                    table.insert(result, string.match(entry[1], '^(%d+)'))
+                    table.insert(result, fields['t'] or '')
+                    table.insert(result, fields['h'] or '')
+                    table.insert(result, fields['c'] or '')
+                    table.insert(result, fields['g'] or '0')
+                    table.insert(result, fields['r'] or '0')
+                    table.insert(result, fields['e'] or '0')
+                end
+                return result
+            end
+            """;
+
+    private static final String READ_SCRIPT = FLATTEN_FUNCTION + """
+            return flatten(redis.call('XRANGE', KEYS[1], ARGV[1], '+', 'COUNT', ARGV[2]))
+            """;
+
+    private static final String OLDEST_SCRIPT = FLATTEN_FUNCTION + """
+            return flatten(redis.call('XRANGE', KEYS[1], '-', '+', 'COUNT', 1))
+            """;
+
+    /**
+     * Sempre retorna um elemento; lista vazia indica Redis indisponível (fallback do adapter)
+     */
+    private static final String LATEST_SCRIPT = """
+            return {redis.call('GET', KEYS[1]) or '0'}
+            """;
+
+    private final ICacheRepository cacheRepository;
+
+    @Value("${revocation.log.max-length:100000}")
+    private long maxLength;
+
+    @Override
+    public RevocationEvent appendClientRevocation(String clientId) {
+        return appendAll(List.of(RevocationRequest.client(clientId))).get(0);
+    }
+
+    @Override
+    public List<RevocationEvent> appendAll(List<RevocationRequest> requests) {
+        if (requests.isEmpty()) {
+            return List.of();
+        }
+
+        long now = System.currentTimeMillis();
+        List<String> tokenHashes = new ArrayList<>(requests.size());
+        List<String> args = new ArrayList<>(2 + requests.size() * 4);
+        args.add(String.valueOf(maxLength));
+        args.add(String.valueOf(now));
+        for (RevocationRequest request : requests) {
+            // Mesmo hash das chaves token_blacklist:*
+            String tokenHash = request.token() != null ? TokenHasher.hash(request.token()) : null;
+            tokenHashes.add(tokenHash);
+            args.add(request.type().name());
+            args.add(nullToEmpty(tokenHash));
+            args.add(nullToEmpty(request.clientId()));
+            args.add(String.valueOf(request.expiresAt()));
+        }
+
+        List<String> result = cacheRepository.executeScript(APPEND_SCRIPT,
+                List.of(STREAM_KEY, SEQUENCE_KEY, GENERATIONS_KEY), args);
+        if (result.size() < requests.size() * 2) {
+            throw new IllegalStateException("Falha ao registrar eventos de revogação");
+        }
+
+        List<RevocationEvent> events = new ArrayList<>(requests.size());
+        for (int i = 0; i < requests.size(); i++) {
+            RevocationRequest request = requests.get(i);
+            events.add(new RevocationEvent(Long.parseLong(result.get(i * 2)), request.type(), tokenHashes.get(i),
+                    request.clientId(), Long.parseLong(result.get(i * 2 + 1)), now, request.expiresAt()));
+        }
+        log.debug("Eventos de revogação registrados: {} (última seq={})", events.size(),
+                events.get(events.size() - 1).seq());
+        return events;
+    }
+
+    @Override
+    public List<RevocationEvent> readAfter(long afterSeq, int limit) {
+        return parse(cacheRepository.executeScript(READ_SCRIPT, List.of(STREAM_KEY),
+                List.of(String.valueOf(afterSeq + 1), String.valueOf(limit))));
+    }
+
+    @Override
+    public RevocationEvent getOldestRetained() {
+        List<RevocationEvent> oldest = parse(cacheRepository.executeScript(OLDEST_SCRIPT, List.of(STREAM_KEY), List.of()));
+        return oldest.isEmpty() ? null : oldest.get(0);
+    }
+
+    @Override
+    public long getLatestSequence() {
+        // Sem distinguir falha de log vazio, uma queda do Redis pareceria um log reiniciado
+        List<String> result = cacheRepository.executeScript(LATEST_SCRIPT, List.of(SEQUENCE_KEY), List.of());
+        if (result.isEmpty()) {
+            throw new IllegalStateException("Log de revogações indisponível");
+        }
+        return Long.parseLong(result.get(0));
+    }
+
+    private List<RevocationEvent> parse(List<String> flat) {
+        List<RevocationEvent> events = new ArrayList<>(flat.size() / FIELDS_PER_EVENT);
+        for (int i = 0; i + FIELDS_PER_EVENT <= flat.size(); i += FIELDS_PER_EVENT) {
+            events.add(new RevocationEvent(
+                    Long.parseLong(flat.get(i)),
+                    RevocationEvent.Type.valueOf(flat.get(i + 1)),
+                    emptyToNull(flat.get(i + 2)),
+                    emptyToNull(flat.get(i + 3)),
+                    Long.parseLong(flat.get(i + 4)),
+                    Long.parseLong(flat.get(i + 5)),
+                    Long.parseLong(flat.get(i + 6))));
+        }
+        return events;
+    }
+
+    private static String nullToEmpty(String value) {
+        return value != null ? value : "";
+    }
+
+    private static String emptyToNull(String value) {
+        return value == null || value.isEmpty() ? null : value;
+    }
+}
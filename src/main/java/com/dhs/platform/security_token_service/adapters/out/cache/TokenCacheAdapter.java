@@ -1,23 +1,34 @@
 package com.dhs.platform.security_token_service.adapters.out.cache;
 
 import com.dhs.platform.security_token_service.adapters.in.http.dto.TokenValidationResponseDTO;
+import com.dhs.platform.security_token_service.config.Tracing;
+import com.dhs.platform.security_token_service.domain.model.SerializedValidation;
 import com.dhs.platform.security_token_service.domain.port.out.cache.ICacheRepository;
+import com.dhs.platform.security_token_service.domain.port.out.cache.IClientStateCacheRepository;
 import com.dhs.platform.security_token_service.domain.port.out.cache.ITokenCacheRepository;
+import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Repository;
 
-import java.security.MessageDigest;
 import java.time.Duration;
-import java.time.LocalDateTime;
-import java.util.Base64;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
+import java.util.function.Supplier;
 
 /**
  * Adapter de saída para cache de tokens usando Redis
+ *
+ * Com cache.token.mapped.enabled, as validações também ficam no MappedValidationStore local,
+ * consultado antes do Redis.
  */
 @Repository
 @RequiredArgsConstructor
@@ -27,8 +38,12 @@ public class TokenCacheAdapter implements ITokenCacheRepository {
     private static final String TOKEN_CACHE_PREFIX = "token_cache:";
     private static final String TOKEN_BLACKLIST_PREFIX = "token_blacklist:";
     private static final String CLIENT_TOKEN_PREFIX = "client_token:";
+    private static final String ENTRY_FORMAT_PREFIX = "v2;";
 
     private final ICacheRepository cacheRepository;
+    private final IClientStateCacheRepository clientStateCacheRepository;
+    private final EarlyRefreshCache earlyRefreshCache;
+    private final MappedValidationStore mappedValidationStore;
     private final ObjectMapper objectMapper;
 
     @Value("${cache.token.ttl-minutes:5}")
@@ -59,22 +74,75 @@ public class TokenCacheAdapter implements ITokenCacheRepository {
             return null;
         }
 
+        EarlyRefreshCache.Entry<SerializedValidation> entry = readEntry(token);
+        return entry != null ? deserialize(entry.value()) : null;
+    }
+
+    @Override
+    public TokenValidationResponseDTO getOrComputeTokenValidation(String token, Supplier<TokenValidationResponseDTO> validator) {
+        if (!tokenCacheEnabled) {
+            return validator.get();
+        }
+
+        SerializedValidation validation = getOrComputeSerializedValidation(token, validator);
+        return validation != null ? deserialize(validation) : null;
+    }
+
+    @Override
+    public SerializedValidation getOrComputeSerializedValidation(String token, Supplier<TokenValidationResponseDTO> validator) {
+        if (!tokenCacheEnabled) {
+            TokenValidationResponseDTO validation = validator.get();
+            return validation != null ? serialize(validation) : null;
+        }
+
+        EarlyRefreshCache.Entry<SerializedValidation> entry = readEntry(token);
+        if (entry != null) {
+            // Só vale renovar se o token ainda for válido depois da expiração da entrada
+            if (outlivesEntry(entry) && earlyRefreshCache.shouldRefreshEarly(entry)) {
+                earlyRefreshCache.refreshAsync(TOKEN_CACHE_PREFIX + hashToken(token), () -> computeAndCache(token, validator));
+            }
+            return entry.value();
+        }
+
+        return computeAndCache(token, validator);
+    }
+
+    @Override
+    public void cacheTokenValidation(String token, TokenValidationResponseDTO validationResponse) {
+        try {
+            writeEntry(token, serialize(validationResponse), 0);
+        } catch (Exception e) {
+            log.error("Erro ao armazenar token no cache: {}", e.getMessage());
+        }
+    }
+
+    private EarlyRefreshCache.Entry<SerializedValidation> readEntry(String token) {
         try {
             String tokenHash = hashToken(token);
             String cacheKey = TOKEN_CACHE_PREFIX + tokenHash;
 
-            Optional<String> cachedJson = cacheRepository.get(cacheKey);
-            if (cachedJson.isPresent()) {
-                TokenValidationResponseDTO cached = objectMapper.readValue(cachedJson.get(), TokenValidationResponseDTO.class);
+            EarlyRefreshCache.Entry<SerializedValidation> local = mappedValidationStore.get(tokenHash);
+            if (local != null) {
+                return local;
+            }
+
+            Optional<String> cachedValue = cacheRepository.getFromReplica(cacheKey);
+            if (cachedValue.isPresent()) {
+                EarlyRefreshCache.Entry<SerializedValidation> entry = decode(cachedValue.get());
 
                 // Verificar se não expirou baseado na data de expiração do token
-                if (cached.getExpiresAt() != null && cached.getExpiresAt().isAfter(LocalDateTime.now())) {
-                    log.debug("Token encontrado no cache: {}", tokenHash.substring(0, 8) + "...");
-                    return cached;
+                if (entry.value().expiresAtMillis() > System.currentTimeMillis()) {
+                    if (log.isDebugEnabled()) {
+                        log.debug("Token encontrado no cache: {}...", tokenHash.substring(0, 8));
+                    }
+                    mappedValidationStore.put(tokenHash, entry.value(), entry.computeMillis(), entry.expiresAt());
+                    return entry;
                 } else {
                     // Token expirou, remover do cache
                     invalidateTokenCache(token);
-                    log.debug("Token expirado removido do cache: {}", tokenHash.substring(0, 8) + "...");
+                    if (log.isDebugEnabled()) {
+                        log.debug("Token expirado removido do cache: {}...", tokenHash.substring(0, 8));
+                    }
                 }
             }
         } catch (Exception e) {
@@ -84,9 +152,32 @@ public class TokenCacheAdapter implements ITokenCacheRepository {
         return null;
     }
 
-    @Override
-    public void cacheTokenValidation(String token, TokenValidationResponseDTO validationResponse) {
-        if (!tokenCacheEnabled || !validationResponse.isValid()) {
+    private SerializedValidation computeAndCache(String token, Supplier<TokenValidationResponseDTO> validator) {
+        long start = System.nanoTime();
+        TokenValidationResponseDTO validation = validator.get();
+        long computeMillis = Math.max(1, (System.nanoTime() - start) / 1_000_000);
+
+        if (validation == null) {
+            return null;
+        }
+
+        // Serializado uma única vez: o mesmo corpo vai para o cache e para a resposta
+        SerializedValidation serialized = serialize(validation);
+        writeEntry(token, serialized, computeMillis);
+        return serialized;
+    }
+
+    private boolean outlivesEntry(EarlyRefreshCache.Entry<SerializedValidation> entry) {
+        return entry.value().expiresAtMillis() > entry.expiresAt();
+    }
+
+    private void writeEntry(String token, SerializedValidation validation, long computeMillis) {
+        if (!tokenCacheEnabled || !validation.valid()) {
+            return;
+        }
+        if (!isEncodable(validation.clientId())) {
+            // ';' e '\n' separam os campos da entrada; um clientId com eles não seria lido de volta
+            log.warn("Validação não armazenada em cache: clientId com separador de entrada");
             return;
         }
 
@@ -94,27 +185,92 @@ public class TokenCacheAdapter implements ITokenCacheRepository {
             String tokenHash = hashToken(token);
             String cacheKey = TOKEN_CACHE_PREFIX + tokenHash;
 
-            String jsonValue = objectMapper.writeValueAsString(validationResponse);
-
             // TTL baseado no menor valor entre: TTL configurado ou tempo até expiração do token
-            Duration ttl = calculateTtl(validationResponse.getExpiresAt());
+            Duration ttl = calculateTtl(validation.expiresAtMillis());
+            long entryExpiresAt = System.currentTimeMillis() + ttl.toMillis();
 
-            cacheRepository.set(cacheKey, jsonValue, ttl);
-            log.debug("Token armazenado no cache por {} minutos: {}", ttl.toMinutes(), tokenHash.substring(0, 8) + "...");
+            mappedValidationStore.put(tokenHash, validation, computeMillis, entryExpiresAt);
+            cacheRepository.setAsync(cacheKey, encode(validation, computeMillis, entryExpiresAt), ttl);
+            if (log.isDebugEnabled()) {
+                log.debug("Token armazenado no cache por {} minutos: {}...", ttl.toMinutes(), tokenHash.substring(0, 8));
+            }
 
         } catch (Exception e) {
             log.error("Erro ao armazenar token no cache: {}", e.getMessage());
         }
     }
 
+    /**
+     * Formato da entrada: v2;{delta};{expiração da entrada};{expiração do token};{clientId}\n{corpo JSON}
+     * O cabeçalho carrega os metadados do XFetch e o que precisa ser verificado; o corpo é
+     * exatamente o que o /validate responde.
+     */
+    String encode(SerializedValidation validation, long computeMillis, long entryExpiresAt) {
+        return ENTRY_FORMAT_PREFIX + computeMillis
+                + ';' + entryExpiresAt
+                + ';' + validation.expiresAtMillis()
+                + ';' + validation.clientId()
+                + '\n' + validation.body();
+    }
+
+    static boolean isEncodable(String clientId) {
+        return clientId != null && clientId.indexOf(';') < 0 && clientId.indexOf('\n') < 0;
+    }
+
+    EarlyRefreshCache.Entry<SerializedValidation> decode(String raw) throws Exception {
+        if (!raw.startsWith(ENTRY_FORMAT_PREFIX)) {
+            // Envelope JSON do formato anterior, ainda presente durante a transição
+            EarlyRefreshCache.Entry<TokenValidationResponseDTO> legacy =
+                    earlyRefreshCache.unwrap(raw, TokenValidationResponseDTO.class).orElseThrow();
+            return new EarlyRefreshCache.Entry<>(serialize(legacy.value()), legacy.computeMillis(), legacy.expiresAt());
+        }
+
+        int deltaStart = ENTRY_FORMAT_PREFIX.length();
+        int entryExpiresStart = raw.indexOf(';', deltaStart) + 1;
+        int tokenExpiresStart = raw.indexOf(';', entryExpiresStart) + 1;
+        int clientIdStart = raw.indexOf(';', tokenExpiresStart) + 1;
+        int bodyStart = raw.indexOf('\n', clientIdStart) + 1;
+        if (entryExpiresStart == 0 || tokenExpiresStart == 0 || clientIdStart == 0 || bodyStart == 0) {
+            throw new IllegalArgumentException("Entrada de cache de validação malformada");
+        }
+
+        long computeMillis = Long.parseLong(raw, deltaStart, entryExpiresStart - 1, 10);
+        long entryExpiresAt = Long.parseLong(raw, entryExpiresStart, tokenExpiresStart - 1, 10);
+        long tokenExpiresAt = Long.parseLong(raw, tokenExpiresStart, clientIdStart - 1, 10);
+        String clientId = raw.substring(clientIdStart, bodyStart - 1);
+
+        // Apenas validações válidas são armazenadas
+        SerializedValidation validation = new SerializedValidation(true, clientId, tokenExpiresAt, null, raw.substring(bodyStart));
+        return new EarlyRefreshCache.Entry<>(validation, computeMillis, entryExpiresAt);
+    }
+
+    private SerializedValidation serialize(TokenValidationResponseDTO validation) {
+        try (Tracing.Span ignored = Tracing.span("json serialize").attribute("json.type", "TokenValidation")) {
+            return SerializedValidation.of(validation, objectMapper.writeValueAsString(validation));
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Erro ao serializar validação de token", e);
+        }
+    }
+
+    private TokenValidationResponseDTO deserialize(SerializedValidation validation) {
+        try (Tracing.Span ignored = Tracing.span("json deserialize").attribute("json.type", "TokenValidation")) {
+            return objectMapper.readValue(validation.body(), TokenValidationResponseDTO.class);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Erro ao desserializar validação de token", e);
+        }
+    }
+
     @Override
     public void invalidateTokenCache(String token) {
         try {
             String tokenHash = hashToken(token);
             String cacheKey = TOKEN_CACHE_PREFIX + tokenHash;
 
+            mappedValidationStore.remove(tokenHash);
             cacheRepository.delete(cacheKey);
-            log.debug("Token removido do cache: {}", tokenHash.substring(0, 8) + "...");
+            if (log.isDebugEnabled()) {
+                log.debug("Token removido do cache: {}...", tokenHash.substring(0, 8));
+            }
 
         } catch (Exception e) {
             log.error("Erro ao invalidar token do cache: {}", e.getMessage());
@@ -127,7 +283,8 @@ public class TokenCacheAdapter implements ITokenCacheRepository {
             String tokenHash = hashToken(token);
             String blacklistKey = TOKEN_BLACKLIST_PREFIX + tokenHash;
 
-            cacheRepository.set(blacklistKey, "blacklisted", duration);
+            // Sem fallback local: a revogação só é confirmada depois de gravada no Redis
+            cacheRepository.setOrThrow(blacklistKey, "blacklisted", duration);
 
             // Também remover do cache de validação
             invalidateTokenCache(token);
@@ -136,6 +293,31 @@ public class TokenCacheAdapter implements ITokenCacheRepository {
 
         } catch (Exception e) {
             log.error("Erro ao adicionar token à blacklist: {}", e.getMessage());
+            throw e;
+        }
+    }
+
+    @Override
+    public void blacklistTokens(Collection<String> tokens, Duration duration) {
+        try {
+            Map<String, String> blacklistEntries = new LinkedHashMap<>();
+            Set<String> cacheKeys = new HashSet<>();
+            for (String token : tokens) {
+                String tokenHash = hashToken(token);
+                blacklistEntries.put(TOKEN_BLACKLIST_PREFIX + tokenHash, "blacklisted");
+                cacheKeys.add(TOKEN_CACHE_PREFIX + tokenHash);
+                mappedValidationStore.remove(tokenHash);
+            }
+
+            // Duas idas ao Redis para o lote inteiro: SETs em pipeline e um DEL
+            cacheRepository.setAllOrThrow(blacklistEntries, duration);
+            cacheRepository.delete(cacheKeys);
+
+            log.info("{} tokens adicionados à blacklist por {} minutos", blacklistEntries.size(), duration.toMinutes());
+
+        } catch (Exception e) {
+            log.error("Erro ao adicionar tokens à blacklist: {}", e.getMessage());
+            throw e;
         }
     }
 
@@ -145,11 +327,12 @@ public class TokenCacheAdapter implements ITokenCacheRepository {
             String tokenHash = hashToken(token);
             String blacklistKey = TOKEN_BLACKLIST_PREFIX + tokenHash;
 
-            return cacheRepository.hasKey(blacklistKey);
+            return cacheRepository.hasKeyFromReplicaOrThrow(blacklistKey);
 
         } catch (Exception e) {
+            // Sem resposta do Redis o token não pode ser considerado válido
             log.error("Erro ao verificar blacklist do token: {}", e.getMessage());
-            return false;
+            throw e;
         }
     }
 
@@ -211,7 +394,7 @@ public class TokenCacheAdapter implements ITokenCacheRepository {
             String clientTokenKey = CLIENT_TOKEN_PREFIX + clientId;
 
             // Armazenar referência do cliente -> token
-            cacheRepository.set(clientTokenKey, token, tokenTtl);
+            cacheRepository.setAsync(clientTokenKey, token, tokenTtl);
 
             log.debug("💾 Token associado ao cliente: {} por {} minutos (chave: {})", clientId, tokenTtl.toMinutes(), clientTokenKey);
 
@@ -222,6 +405,9 @@ public class TokenCacheAdapter implements ITokenCacheRepository {
 
     @Override
     public void invalidateClientToken(String clientId) {
+        // O estado consolidado também referencia o token atual do cliente
+        clientStateCacheRepository.invalidateClientState(clientId);
+
         try {
             String clientTokenKey = CLIENT_TOKEN_PREFIX + clientId;
             Optional<String> existingToken = cacheRepository.get(clientTokenKey);
@@ -239,6 +425,32 @@ public class TokenCacheAdapter implements ITokenCacheRepository {
         }
     }
 
+    @Override
+    public void invalidateClientTokens(Collection<String> clientIds) {
+        clientStateCacheRepository.invalidateClientStates(clientIds);
+
+        try {
+            List<String> clientTokenKeys = new ArrayList<>(clientIds.size());
+            clientIds.forEach(clientId -> clientTokenKeys.add(CLIENT_TOKEN_PREFIX + clientId));
+
+            // GETs em pipeline e um DEL para as associações e os caches de validação encontrados
+            List<Optional<String>> existingTokens = cacheRepository.getAll(clientTokenKeys);
+            Set<String> keys = new HashSet<>(clientTokenKeys);
+            existingTokens.forEach(token -> token.ifPresent(value -> {
+                String tokenHash = hashToken(value);
+                keys.add(TOKEN_CACHE_PREFIX + tokenHash);
+                mappedValidationStore.remove(tokenHash);
+            }));
+            cacheRepository.delete(keys);
+
+            log.debug("Tokens de {} clientes invalidados", clientIds.size());
+
+        } catch (Exception e) {
+            log.error("Erro ao invalidar tokens de clientes: {}", e.getMessage());
+            throw e;
+        }
+    }
+
     @Override
     public void clearAllTokenCaches() {
         try {
@@ -249,6 +461,8 @@ public class TokenCacheAdapter implements ITokenCacheRepository {
             cacheRepository.delete(tokenCacheKeys);
             cacheRepository.delete(blacklistKeys);
             cacheRepository.delete(clientTokenKeys);
+            clientStateCacheRepository.clearAllClientStates();
+            mappedValidationStore.clear();
 
             log.info("Cache de tokens limpo completamente");
         } catch (Exception e) {
@@ -256,19 +470,17 @@ public class TokenCacheAdapter implements ITokenCacheRepository {
         }
     }
 
-    private String hashToken(String token) throws Exception {
-        MessageDigest digest = MessageDigest.getInstance("SHA-256");
-        byte[] hash = digest.digest(token.getBytes());
-        return Base64.getEncoder().encodeToString(hash);
+    private String hashToken(String token) {
+        return TokenHasher.hash(token);
     }
 
-    private Duration calculateTtl(LocalDateTime tokenExpiration) {
-        if (tokenExpiration == null) {
-            return Duration.ofMinutes(tokenCacheTtlMinutes);
+    private Duration calculateTtl(long tokenExpiresAtMillis) {
+        Duration configuredTtl = Duration.ofMinutes(tokenCacheTtlMinutes);
+        if (tokenExpiresAtMillis <= 0) {
+            return configuredTtl;
         }
 
-        Duration timeUntilExpiration = Duration.between(LocalDateTime.now(), tokenExpiration);
-        Duration configuredTtl = Duration.ofMinutes(tokenCacheTtlMinutes);
+        Duration timeUntilExpiration = Duration.ofMillis(tokenExpiresAtMillis - System.currentTimeMillis());
 
         // Usar o menor entre o TTL configurado e o tempo até expiração do token
         return timeUntilExpiration.compareTo(configuredTtl) < 0 ? timeUntilExpiration : configuredTtl;
@@ -0,0 +1,105 @@
+package com.dhs.platform.security_token_service.adapters.out.cache;
+
+import com.dhs.platform.security_token_service.domain.port.out.cache.ICacheRepository;
+import com.dhs.platform.security_token_service.domain.port.out.cache.IUnknownClientCacheRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Repository;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+/**
+ * Adapter de saída para o cache negativo compartilhado usando um sorted set no Redis
+ *
+ * Chave unknown_clients: membro = client ID, score = instante de expiração (epoch ms).
+ * Membros expirados são removidos a cada inserção e o tamanho é limitado.
+ *
+ * Chave unknown_clients:invalidation: valor aleatório trocado a cada invalidação (mesmo com o
+ * nível compartilhado desligado), consultado periodicamente pelos nós para limpar o nível local.
+ */
+@Repository
+@RequiredArgsConstructor
+@Slf4j
+public class UnknownClientCacheAdapter implements IUnknownClientCacheRepository {
+
+    private static final String UNKNOWN_CLIENTS_KEY = "unknown_clients";
+    private static final String INVALIDATION_KEY = "unknown_clients:invalidation";
+    private static final Duration INVALIDATION_TTL = Duration.ofDays(1);
+
+    private static final String CHECK_SCRIPT = """
+            local expiresAt = redis.call('ZSCORE', KEYS[1], ARGV[1])
+            if expiresAt and tonumber(expiresAt) > tonumber(ARGV[2]) then
+                return {'1'}
+            end
+            return {}
+            """;
+
+    private static final String MARK_SCRIPT = """
+            redis.call('ZADD', KEYS[1], ARGV[2], ARGV[1])
+            redis.call('ZREMRANGEBYSCORE', KEYS[1], '-inf', ARGV[3])
+            local overflow = redis.call('ZCARD', KEYS[1]) - tonumber(ARGV[4])
+            if overflow > 0 then
+                redis.call('ZREMRANGEBYRANK', KEYS[1], 0, overflow - 1)
+            end
+            return {}
+            """;
+
+    private static final String REMOVE_SCRIPT = """
+            redis.call('ZREM', KEYS[1], ARGV[1])
+            return {}
+            """;
+
+    private final ICacheRepository cacheRepository;
+
+    @Value("${cache.unknown-client.shared.enabled:false}")
+    private boolean sharedEnabled;
+
+    @Value("${cache.unknown-client.shared.ttl-seconds:300}")
+    private long sharedTtlSeconds;
+
+    @Value("${cache.unknown-client.shared.max-size:100000}")
+    private long sharedMaxSize;
+
+    @Override
+    public boolean isUnknown(String clientId) {
+        if (!sharedEnabled) {
+            return false;
+        }
+
+        List<String> result = cacheRepository.executeScript(CHECK_SCRIPT, List.of(UNKNOWN_CLIENTS_KEY),
+                List.of(clientId, String.valueOf(System.currentTimeMillis())));
+        return !result.isEmpty();
+    }
+
+    @Override
+    public void markUnknown(String clientId) {
+        if (!sharedEnabled) {
+            return;
+        }
+
+        long now = System.currentTimeMillis();
+        cacheRepository.executeScript(MARK_SCRIPT, List.of(UNKNOWN_CLIENTS_KEY),
+                List.of(clientId, String.valueOf(now + sharedTtlSeconds * 1000), String.valueOf(now),
+                        String.valueOf(sharedMaxSize)));
+        log.debug("Client ID inexistente registrado no cache negativo compartilhado: {}", clientId);
+    }
+
+    @Override
+    public void invalidate(String clientId) {
+        cacheRepository.set(INVALIDATION_KEY, UUID.randomUUID().toString(), INVALIDATION_TTL);
+        if (!sharedEnabled) {
+            return;
+        }
+
+        cacheRepository.executeScript(REMOVE_SCRIPT, List.of(UNKNOWN_CLIENTS_KEY), List.of(clientId));
+    }
+
+    @Override
+    public Optional<String> getInvalidationMark() {
+        return cacheRepository.get(INVALIDATION_KEY);
+    }
+}
@@ -0,0 +1,116 @@
+package com.dhs.platform.security_token_service.adapters.out.memory;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Timing wheel hierárquica para expiração de chaves (mesmo esquema dos timers do kernel Linux)
+ *
+ * 4 níveis de 64 posições: o nível 0 tem a resolução de um tick, cada nível seguinte cobre 64
+ * vezes o anterior (com tick de 100 ms, ~19 dias no total). Agendar é O(1); a cada volta de um
+ * nível, a posição atual do nível de cima é redistribuída nos de baixo. Prazos além do alcance
+ * ficam no último nível e são reagendados quando passam por ele.
+ *
+ * Um agendamento não é cancelado quando a chave é regravada ou removida: quem recebe a
+ * expiração confere o prazo atual da chave (fora do lock da roda, que é chamada de dentro
+ * das operações do mapa).
+ */
+final class HierarchicalTimingWheel {
+
+    private static final int SLOT_BITS = 6;
+    private static final int SLOTS = 1 << SLOT_BITS;
+    private static final int MASK = SLOTS - 1;
+    private static final int LEVELS = 4;
+    private static final long MAX_RANGE = 1L << (SLOT_BITS * LEVELS);
+
+    private record Timer(String key, long deadlineTick) {
+    }
+
+    private final long tickMillis;
+    private final long originMillis;
+    private final List<List<Timer>> slots = new ArrayList<>(LEVELS * SLOTS);
+    private long currentTick;
+    private int size;
+
+    HierarchicalTimingWheel(long tickMillis, long originMillis) {
+        this.tickMillis = tickMillis;
+        this.originMillis = originMillis;
+        for (int i = 0; i < LEVELS * SLOTS; i++) {
+            slots.add(new ArrayList<>());
+        }
+    }
+
+    /**
+     * Agenda a expiração da chave; prazos já vencidos expiram no próximo tick
+     */
+    synchronized void schedule(String key, long expiresAtMillis) {
+        long deadlineTick = Math.max(currentTick + 1, Math.ceilDiv(expiresAtMillis - originMillis, tickMillis));
+        place(new Timer(key, deadlineTick));
+        size++;
+    }
+
+    /**
+     * Avança até o instante informado e retorna as chaves cujo prazo venceu
+     */
+    synchronized List<String> advance(long nowMillis) {
+        List<String> expired = new ArrayList<>();
+        long targetTick = (nowMillis - originMillis) / tickMillis;
+        while (currentTick < targetTick) {
+            currentTick++;
+            cascade();
+
+            List<Timer> slot = slots.get((int) (currentTick & MASK));
+            if (slot.isEmpty()) {
+                continue;
+            }
+            List<Timer> due = new ArrayList<>(slot);
+            slot.clear();
+            for (Timer timer : due) {
+                if (timer.deadlineTick() > currentTick) {
+                    place(timer);
+                } else {
+                    size--;
+                    expired.add(timer.key());
+                }
+            }
+        }
+        return expired;
+    }
+
+    synchronized int size() {
+        return size;
+    }
+
+    /**
+     * Redistribui a posição atual de cada nível cujo nível de baixo acabou de dar a volta
+     */
+    private void cascade() {
+        for (int level = 1; level < LEVELS; level++) {
+            if ((currentTick & ((1L << (SLOT_BITS * level)) - 1)) != 0) {
+                return;
+            }
+            List<Timer> slot = slots.get(level * SLOTS + index(currentTick, level));
+            if (!slot.isEmpty()) {
+                List<Timer> timers = new ArrayList<>(slot);
+                slot.clear();
+                timers.forEach(this::place);
+            }
+        }
+    }
+
+    private void place(Timer timer) {
+        long delta = timer.deadlineTick() - currentTick;
+        for (int level = 0; level < LEVELS; level++) {
+            if (delta < 1L << (SLOT_BITS * (level + 1))) {
+                slots.get(level * SLOTS + index(Math.max(timer.deadlineTick(), currentTick), level)).add(timer);
+                return;
+            }
+        }
+        // Além do alcance: na última posição do nível mais alto a ser visitada, para reagendar
+        slots.get((LEVELS - 1) * SLOTS + index(currentTick + MAX_RANGE - 1, LEVELS - 1)).add(timer);
+    }
+
+    private static int index(long tick, int level) {
+        return (int) ((tick >>> (SLOT_BITS * level)) & MASK);
+    }
+}
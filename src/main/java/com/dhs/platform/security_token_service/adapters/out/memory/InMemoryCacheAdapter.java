@@ -0,0 +1,114 @@
+package com.dhs.platform.security_token_service.adapters.out.memory;
+
+import com.dhs.platform.security_token_service.domain.port.out.cache.ICacheRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Repository;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+
+/**
+ * Adapter de saída de cache do perfil memory, no lugar do RedisCacheAdapter
+ *
+ * Não há réplicas nem fila de escrita: as leituras "de réplica" e as escritas assíncronas vão
+ * direto ao mapa. Scripts Lua não são executados (lista vazia, como em uma falha do Redis); os
+ * ports que dependem deles têm adapters próprios neste perfil ou são desligados em
+ * application-memory.properties.
+ */
+@Repository
+@Profile("memory")
+@RequiredArgsConstructor
+@Slf4j
+public class InMemoryCacheAdapter implements ICacheRepository {
+
+    private final InMemoryKeyValueStore store;
+
+    @Override
+    public void set(String key, String value, Duration ttl) {
+        store.set(key, value, ttl);
+    }
+
+    @Override
+    public boolean setIfAbsent(String key, String value, Duration ttl) {
+        return store.setIfAbsent(key, value, ttl);
+    }
+
+    @Override
+    public void setAsync(String key, String value, Duration ttl) {
+        store.set(key, value, ttl);
+    }
+
+    @Override
+    public void setAll(Map<String, String> values, Duration ttl) {
+        values.forEach((key, value) -> store.set(key, value, ttl));
+    }
+
+    @Override
+    public void setOrThrow(String key, String value, Duration ttl) {
+        store.set(key, value, ttl);
+    }
+
+    @Override
+    public void setAllOrThrow(Map<String, String> values, Duration ttl) {
+        setAll(values, ttl);
+    }
+
+    @Override
+    public Optional<String> get(String key) {
+        return store.get(key);
+    }
+
+    @Override
+    public List<Optional<String>> getAll(List<String> keys) {
+        List<Optional<String>> values = new ArrayList<>(keys.size());
+        keys.forEach(key -> values.add(store.get(key)));
+        return values;
+    }
+
+    @Override
+    public Optional<String> getFromReplica(String key) {
+        return store.get(key);
+    }
+
+    @Override
+    public boolean hasKey(String key) {
+        return store.hasKey(key);
+    }
+
+    @Override
+    public boolean hasKeyFromReplica(String key) {
+        return store.hasKey(key);
+    }
+
+    @Override
+    public boolean hasKeyFromReplicaOrThrow(String key) {
+        return store.hasKey(key);
+    }
+
+    @Override
+    public void delete(String key) {
+        store.delete(key);
+    }
+
+    @Override
+    public void delete(Set<String> keys) {
+        keys.forEach(store::delete);
+    }
+
+    @Override
+    public Set<String> keys(String pattern) {
+        return store.keys(pattern);
+    }
+
+    @Override
+    public List<String> executeScript(String script, List<String> keys, List<String> args) {
+        log.debug("Script ignorado no perfil memory (chaves: {})", keys);
+        return List.of();
+    }
+}
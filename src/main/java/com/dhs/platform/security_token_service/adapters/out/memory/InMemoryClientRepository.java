@@ -0,0 +1,84 @@
+package com.dhs.platform.security_token_service.adapters.out.memory;
+
+import com.dhs.platform.security_token_service.domain.model.Client;
+import com.dhs.platform.security_token_service.domain.port.out.repository.IClientRepository;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Profile;
+import org.springframework.core.io.Resource;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.stereotype.Repository;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.time.LocalDateTime;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Repositório de clientes do perfil memory, carregado de um arquivo JSON na inicialização
+ *
+ * O arquivo (memory.clients.file) é uma lista de clientes no mesmo formato da coleção clients.
+ * Segredos que ainda não estão em BCrypt são codificados na carga, como faz o DatabaseInitializer.
+ */
+@Repository
+@Profile("memory")
+@RequiredArgsConstructor
+@Slf4j
+public class InMemoryClientRepository implements IClientRepository {
+
+    private final ObjectMapper objectMapper;
+    private final PasswordEncoder passwordEncoder;
+    private final Map<String, Client> clients = new ConcurrentHashMap<>();
+
+    @Value("${memory.clients.file:classpath:memory/clients.json}")
+    private Resource clientsFile;
+
+    @PostConstruct
+    public void load() throws IOException {
+        List<Client> loaded;
+        try (InputStream input = clientsFile.getInputStream()) {
+            loaded = objectMapper.readValue(input, new TypeReference<List<Client>>() { });
+        }
+
+        LocalDateTime now = LocalDateTime.now();
+        for (Client client : loaded) {
+            if (client.getClientId() == null || client.getClientSecret() == null) {
+                throw new IllegalStateException("Cliente sem clientId ou clientSecret em " + clientsFile.getDescription());
+            }
+            if (!client.getClientSecret().startsWith("$2")) {
+                client.setClientSecret(passwordEncoder.encode(client.getClientSecret()));
+            }
+            if (client.getCreatedAt() == null) {
+                client.setCreatedAt(now);
+                client.setUpdatedAt(now);
+            }
+            clients.put(client.getClientId(), client);
+        }
+        log.info("{} clientes carregados de {}", clients.size(), clientsFile.getDescription());
+    }
+
+    @Override
+    public Optional<Client> findByClientId(String clientId) {
+        return Optional.ofNullable(clients.get(clientId));
+    }
+
+    @Override
+    public Set<String> findAllScopes() {
+        Set<String> scopes = new HashSet<>();
+        clients.values().forEach(client -> {
+            if (client.getScopes() != null) {
+                scopes.addAll(client.getScopes());
+            }
+        });
+        return scopes;
+    }
+}
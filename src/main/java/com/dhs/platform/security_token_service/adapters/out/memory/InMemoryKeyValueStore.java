@@ -0,0 +1,184 @@
+package com.dhs.platform.security_token_service.adapters.out.memory;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Profile;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.HashSet;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.regex.Pattern;
+
+/**
+ * Armazenamento chave/valor com TTL do perfil memory (nó único e benchmarks)
+ *
+ * Semântica equivalente à usada do Redis: leituras nunca retornam chaves vencidas (conferência
+ * no acesso) e a remoção efetiva fica com a timing wheel, avançada a cada memory.store.tick-ms,
+ * em vez de um timer por chave ou de varreduras do mapa inteiro.
+ */
+@Component
+@Profile("memory")
+public class InMemoryKeyValueStore {
+
+    private record Entry(String value, long expiresAtMillis) {
+
+        boolean isExpired(long now) {
+            return expiresAtMillis > 0 && expiresAtMillis <= now;
+        }
+    }
+
+    private final ConcurrentHashMap<String, Entry> entries = new ConcurrentHashMap<>();
+    private final HierarchicalTimingWheel timingWheel;
+
+    public InMemoryKeyValueStore(@Value("${memory.store.tick-ms:100}") long tickMillis) {
+        this.timingWheel = new HierarchicalTimingWheel(tickMillis, System.currentTimeMillis());
+    }
+
+    public void set(String key, String value, Duration ttl) {
+        entries.put(key, newEntry(key, value, ttl));
+    }
+
+    public boolean setIfAbsent(String key, String value, Duration ttl) {
+        long now = System.currentTimeMillis();
+        boolean[] stored = new boolean[1];
+        entries.compute(key, (k, current) -> {
+            if (current != null && !current.isExpired(now)) {
+                return current;
+            }
+            stored[0] = true;
+            return newEntry(k, value, ttl);
+        });
+        return stored[0];
+    }
+
+    /**
+     * Substitui o valor mantendo o prazo atual (KEEPTTL); false se a chave não existir
+     */
+    public boolean replace(String key, String value) {
+        long now = System.currentTimeMillis();
+        return entries.computeIfPresent(key, (k, current) ->
+                current.isExpired(now) ? null : new Entry(value, current.expiresAtMillis())) != null;
+    }
+
+    public Optional<String> get(String key) {
+        Entry entry = entries.get(key);
+        if (entry == null) {
+            return Optional.empty();
+        }
+        if (entry.isExpired(System.currentTimeMillis())) {
+            entries.remove(key, entry);
+            return Optional.empty();
+        }
+        return Optional.of(entry.value());
+    }
+
+    public boolean hasKey(String key) {
+        return get(key).isPresent();
+    }
+
+    /**
+     * Incrementa um contador numérico mantendo o prazo (INCR); chave ausente começa em 1 sem prazo
+     */
+    public long increment(String key) {
+        long now = System.currentTimeMillis();
+        return Long.parseLong(entries.compute(key, (k, current) -> current == null || current.isExpired(now)
+                ? new Entry("1", 0)
+                : new Entry(String.valueOf(Long.parseLong(current.value()) + 1), current.expiresAtMillis())).value());
+    }
+
+    /**
+     * Define um novo prazo para a chave (PEXPIRE); false se a chave não existir
+     */
+    public boolean expire(String key, Duration ttl) {
+        long now = System.currentTimeMillis();
+        return entries.computeIfPresent(key, (k, current) ->
+                current.isExpired(now) ? null : newEntry(k, current.value(), ttl)) != null;
+    }
+
+    /**
+     * Milissegundos até a expiração: -1 sem prazo, -2 se a chave não existir
+     */
+    public long remainingTtlMillis(String key) {
+        Entry entry = entries.get(key);
+        long now = System.currentTimeMillis();
+        if (entry == null || entry.isExpired(now)) {
+            return -2;
+        }
+        return entry.expiresAtMillis() > 0 ? entry.expiresAtMillis() - now : -1;
+    }
+
+    public void delete(String key) {
+        entries.remove(key);
+    }
+
+    /**
+     * Chaves que casam com o padrão glob do Redis (*, ? e [...])
+     */
+    public Set<String> keys(String pattern) {
+        Pattern regex = globToRegex(pattern);
+        long now = System.currentTimeMillis();
+        Set<String> keys = new HashSet<>();
+        entries.forEach((key, entry) -> {
+            if (!entry.isExpired(now) && regex.matcher(key).matches()) {
+                keys.add(key);
+            }
+        });
+        return keys;
+    }
+
+    public int size() {
+        return entries.size();
+    }
+
+    @Scheduled(fixedDelayString = "${memory.store.tick-ms:100}")
+    public void expire() {
+        long now = System.currentTimeMillis();
+        for (String key : timingWheel.advance(now)) {
+            entries.computeIfPresent(key, (k, entry) -> entry.isExpired(now) ? null : entry);
+        }
+    }
+
+    private Entry newEntry(String key, String value, Duration ttl) {
+        if (ttl == null || ttl.isZero() || ttl.isNegative()) {
+            return new Entry(value, 0);
+        }
+        long expiresAtMillis = System.currentTimeMillis() + ttl.toMillis();
+        timingWheel.schedule(key, expiresAtMillis);
+        return new Entry(value, expiresAtMillis);
+    }
+
+    private static Pattern globToRegex(String glob) {
+        StringBuilder regex = new StringBuilder(glob.length() + 8);
+        boolean inClass = false;
+        for (int i = 0; i < glob.length(); i++) {
+            char c = glob.charAt(i);
+            if (inClass) {
+                if (c == ']') {
+                    inClass = false;
+                } else if (c == '\\' || c == '[') {
+                    regex.append('\\');
+                }
+                regex.append(c);
+                continue;
+            }
+            switch (c) {
+                case '*' -> regex.append(".*");
+                case '?' -> regex.append('.');
+                case '[' -> {
+                    inClass = true;
+                    regex.append('[');
+                }
+                case '\\' -> {
+                    if (i + 1 < glob.length()) {
+                        regex.append(Pattern.quote(String.valueOf(glob.charAt(++i))));
+                    }
+                }
+                default -> regex.append(Pattern.quote(String.valueOf(c)));
+            }
+        }
+        return Pattern.compile(regex.toString(), Pattern.DOTALL);
+    }
+}
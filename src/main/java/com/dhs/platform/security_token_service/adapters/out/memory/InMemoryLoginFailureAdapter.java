@@ -0,0 +1,67 @@
+package com.dhs.platform.security_token_service.adapters.out.memory;
+
+import com.dhs.platform.security_token_service.domain.model.LoginFailureState;
+import com.dhs.platform.security_token_service.domain.port.out.cache.ILoginFailureRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Repository;
+
+import java.time.Duration;
+import java.util.Optional;
+
+/**
+ * Falhas de login do perfil memory: mesmas chaves do RedisLoginFailureAdapter, no InMemoryKeyValueStore
+ *
+ * A reserva de tentativa é sincronizada no adapter, no lugar do script do Redis (um único processo).
+ */
+@Repository
+@Profile("memory")
+@RequiredArgsConstructor
+public class InMemoryLoginFailureAdapter implements ILoginFailureRepository {
+
+    private static final String FAILURES_PREFIX = "login_failures:";
+    private static final String BLOCKED_PREFIX = "login_blocked:";
+
+    private final InMemoryKeyValueStore store;
+
+    @Override
+    public LoginFailureState find(String clientId) {
+        Optional<String> failures = store.get(FAILURES_PREFIX + "{" + clientId + "}");
+        Optional<String> blockedUntil = store.get(BLOCKED_PREFIX + "{" + clientId + "}");
+        if (failures.isEmpty() && blockedUntil.isEmpty()) {
+            return LoginFailureState.NONE;
+        }
+        return new LoginFailureState(failures.map(Integer::parseInt).orElse(0),
+                blockedUntil.map(Long::parseLong).orElse(0L));
+    }
+
+    @Override
+    public synchronized LoginFailureState reserveAttempt(String clientId, int freeAttempts, Duration hold,
+                                                         Duration window) {
+        long now = System.currentTimeMillis();
+        LoginFailureState current = find(clientId);
+        if (current.isBlocked(now)) {
+            return current;
+        }
+
+        String key = FAILURES_PREFIX + "{" + clientId + "}";
+        long attempts = store.increment(key);
+        store.expire(key, window);
+        if (attempts > freeAttempts) {
+            block(clientId, hold);
+        }
+        return new LoginFailureState((int) attempts, 0);
+    }
+
+    @Override
+    public synchronized void block(String clientId, Duration duration) {
+        store.set(BLOCKED_PREFIX + "{" + clientId + "}",
+                String.valueOf(System.currentTimeMillis() + duration.toMillis()), duration);
+    }
+
+    @Override
+    public void reset(String clientId) {
+        store.delete(FAILURES_PREFIX + "{" + clientId + "}");
+        store.delete(BLOCKED_PREFIX + "{" + clientId + "}");
+    }
+}
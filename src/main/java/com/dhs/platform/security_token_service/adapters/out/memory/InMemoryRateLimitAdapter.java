@@ -0,0 +1,48 @@
+package com.dhs.platform.security_token_service.adapters.out.memory;
+
+import com.dhs.platform.security_token_service.domain.port.out.cache.IRateLimitRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Repository;
+
+import java.time.Duration;
+import java.util.Optional;
+
+/**
+ * Rate limit local do perfil memory: mesmos contadores do RedisRateLimitAdapter, no InMemoryKeyValueStore
+ */
+@Repository
+@Profile("memory")
+@RequiredArgsConstructor
+public class InMemoryRateLimitAdapter implements IRateLimitRepository {
+
+    private static final String RATE_LIMIT_PREFIX = "rate_limit:";
+
+    private final InMemoryKeyValueStore store;
+
+    @Override
+    public Optional<Integer> getCount(String clientIp) {
+        return store.get(RATE_LIMIT_PREFIX + clientIp).map(Integer::parseInt);
+    }
+
+    @Override
+    public void startWindow(String clientIp, Duration window) {
+        store.set(RATE_LIMIT_PREFIX + clientIp, "1", window);
+    }
+
+    @Override
+    public void increment(String clientIp) {
+        store.increment(RATE_LIMIT_PREFIX + clientIp);
+    }
+
+    @Override
+    public long getResetInSeconds(String clientIp) {
+        long ttlMillis = store.remainingTtlMillis(RATE_LIMIT_PREFIX + clientIp);
+        return ttlMillis < 0 ? ttlMillis : ttlMillis / 1000;
+    }
+
+    @Override
+    public void reset(String clientIp) {
+        store.delete(RATE_LIMIT_PREFIX + clientIp);
+    }
+}
@@ -0,0 +1,142 @@
+package com.dhs.platform.security_token_service.adapters.out.memory;
+
+import com.dhs.platform.security_token_service.adapters.out.cache.TokenHasher;
+import com.dhs.platform.security_token_service.domain.model.RefreshTokenRecord;
+import com.dhs.platform.security_token_service.domain.model.RefreshTokenRotation;
+import com.dhs.platform.security_token_service.domain.port.out.cache.IRefreshTokenCacheRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Repository;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.stream.Collectors;
+
+/**
+ * Refresh tokens do perfil memory: mesmas chaves e mesma rotação do script do
+ * RefreshTokenCacheAdapter, com a atomicidade garantida por lock local. O índice
+ * de famílias por cliente é uma lista "família:expiração" separada por vírgulas.
+ */
+@Repository
+@Profile("memory")
+@RequiredArgsConstructor
+@Slf4j
+public class InMemoryRefreshTokenAdapter implements IRefreshTokenCacheRepository {
+
+    private static final String REFRESH_TOKEN_PREFIX = "refresh_token:";
+    private static final String REFRESH_FAMILY_PREFIX = "refresh_family:";
+    private static final String REFRESH_CLIENT_PREFIX = "refresh_client:";
+    private static final String REVOKED = "revoked";
+
+    private final InMemoryKeyValueStore store;
+    private final ObjectMapper objectMapper;
+
+    @Override
+    public synchronized void saveRefreshToken(String refreshToken, RefreshTokenRecord record, Duration ttl) {
+        try {
+            long now = System.currentTimeMillis();
+            long expiresAt = now + ttl.toMillis();
+            String familyId = record.getFamilyId();
+            store.set(tokenKey(familyId, refreshToken), objectMapper.writeValueAsString(record), ttl);
+            store.set(familyKey(familyId), String.valueOf(expiresAt), ttl);
+
+            String indexKey = REFRESH_CLIENT_PREFIX + record.getClientId();
+            Map<String, Long> families = activeFamilies(indexKey, now);
+            families.put(familyId, expiresAt);
+            store.set(indexKey, families.entrySet().stream()
+                    .map(family -> family.getKey() + ":" + family.getValue())
+                    .collect(Collectors.joining(",")), Duration.ofMillis(Collections.max(families.values()) - now));
+            log.debug("Refresh token armazenado para cliente: {}", record.getClientId());
+        } catch (Exception e) {
+            log.error("Erro ao armazenar refresh token: {}", e.getMessage());
+        }
+    }
+
+    @Override
+    public synchronized RefreshTokenRotation rotateRefreshToken(String presentedToken, String replacementToken,
+                                                                RefreshTokenRecord replacementRecord, Duration ttl) {
+        try {
+            String familyId = replacementRecord.getFamilyId();
+            String presentedKey = tokenKey(familyId, presentedToken);
+
+            Optional<String> raw = store.get(presentedKey);
+            if (raw.isEmpty()) {
+                return RefreshTokenRotation.unknown();
+            }
+            RefreshTokenRecord presented = objectMapper.readValue(raw.get(), RefreshTokenRecord.class);
+
+            String familyKey = familyKey(familyId);
+            Optional<String> family = store.get(familyKey);
+            if (family.isPresent() && family.get().equals(REVOKED)) {
+                return new RefreshTokenRotation(RefreshTokenRotation.Status.REVOKED, presented);
+            }
+            long now = System.currentTimeMillis();
+            long expiresAt = family.map(Long::parseLong).orElse(now + ttl.toMillis());
+            Duration remaining = Duration.ofMillis(expiresAt - now);
+            if (remaining.isNegative() || remaining.isZero()) {
+                return RefreshTokenRotation.unknown();
+            }
+            if (presented.isUsed()) {
+                store.set(familyKey, REVOKED, remaining);
+                return new RefreshTokenRotation(RefreshTokenRotation.Status.REUSED, presented);
+            }
+
+            RefreshTokenRecord used = objectMapper.readValue(raw.get(), RefreshTokenRecord.class);
+            used.setUsed(true);
+            store.replace(presentedKey, objectMapper.writeValueAsString(used));
+            if (family.isEmpty()) {
+                store.set(familyKey, String.valueOf(expiresAt), remaining);
+            }
+
+            replacementRecord.setClientId(presented.getClientId());
+            store.set(tokenKey(familyId, replacementToken), objectMapper.writeValueAsString(replacementRecord), remaining);
+            return new RefreshTokenRotation(RefreshTokenRotation.Status.VALID, presented);
+
+        } catch (Exception e) {
+            log.error("Erro ao rotacionar refresh token: {}", e.getMessage());
+            return RefreshTokenRotation.unknown();
+        }
+    }
+
+    @Override
+    public synchronized void revokeClientFamilies(Collection<String> clientIds) {
+        long now = System.currentTimeMillis();
+        for (String clientId : clientIds) {
+            String indexKey = REFRESH_CLIENT_PREFIX + clientId;
+            activeFamilies(indexKey, now).forEach((familyId, expiresAt) ->
+                    store.set(familyKey(familyId), REVOKED, Duration.ofMillis(expiresAt - now)));
+            store.delete(indexKey);
+        }
+    }
+
+    /**
+     * Famílias do índice do cliente que ainda não expiraram, por id
+     */
+    private Map<String, Long> activeFamilies(String indexKey, long now) {
+        Map<String, Long> families = new LinkedHashMap<>();
+        store.get(indexKey).ifPresent(index -> {
+            for (String entry : index.split(",")) {
+                int separator = entry.lastIndexOf(':');
+                long expiresAt = Long.parseLong(entry.substring(separator + 1));
+                if (expiresAt > now) {
+                    families.put(entry.substring(0, separator), expiresAt);
+                }
+            }
+        });
+        return families;
+    }
+
+    private String familyKey(String familyId) {
+        return REFRESH_FAMILY_PREFIX + "{" + familyId + "}";
+    }
+
+    private String tokenKey(String familyId, String refreshToken) {
+        return REFRESH_TOKEN_PREFIX + "{" + familyId + "}:" + TokenHasher.hash(refreshToken);
+    }
+}
@@ -0,0 +1,91 @@
+package com.dhs.platform.security_token_service.adapters.out.memory;
+
+import com.dhs.platform.security_token_service.adapters.out.cache.TokenHasher;
+import com.dhs.platform.security_token_service.domain.model.RevocationEvent;
+import com.dhs.platform.security_token_service.domain.model.RevocationRequest;
+import com.dhs.platform.security_token_service.domain.port.out.cache.IRevocationLogRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Repository;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Log de revogações do perfil memory: mesma sequência, gerações e limite de retenção
+ * (revocation.log.max-length) do RevocationLogCacheAdapter, sem Redis Streams
+ */
+@Repository
+@Profile("memory")
+@Slf4j
+public class InMemoryRevocationLogAdapter implements IRevocationLogRepository {
+
+    private final ArrayDeque<RevocationEvent> events = new ArrayDeque<>();
+    private final Map<String, Long> generations = new HashMap<>();
+    private long sequence;
+
+    @Value("${revocation.log.max-length:100000}")
+    private long maxLength;
+
+    @Override
+    public RevocationEvent appendClientRevocation(String clientId) {
+        return appendAll(List.of(RevocationRequest.client(clientId))).get(0);
+    }
+
+    @Override
+    public synchronized List<RevocationEvent> appendAll(List<RevocationRequest> requests) {
+        long now = System.currentTimeMillis();
+        List<RevocationEvent> appended = new ArrayList<>(requests.size());
+        for (RevocationRequest request : requests) {
+            String clientId = request.clientId() == null || request.clientId().isEmpty() ? null : request.clientId();
+            long generation = 0;
+            if (request.type() == RevocationEvent.Type.CLIENT) {
+                generation = generations.merge(clientId, 1L, Long::sum);
+            } else if (clientId != null) {
+                generation = generations.getOrDefault(clientId, 0L);
+            }
+
+            String tokenHash = request.token() != null ? TokenHasher.hash(request.token()) : null;
+            RevocationEvent event = new RevocationEvent(++sequence, request.type(), tokenHash, clientId,
+                    generation, now, request.expiresAt());
+            events.addLast(event);
+            appended.add(event);
+        }
+
+        while (events.size() > maxLength) {
+            events.removeFirst();
+        }
+        if (!appended.isEmpty()) {
+            log.debug("Eventos de revogação registrados: {} (última seq={})", appended.size(), sequence);
+        }
+        return appended;
+    }
+
+    @Override
+    public synchronized List<RevocationEvent> readAfter(long afterSeq, int limit) {
+        List<RevocationEvent> result = new ArrayList<>(Math.min(limit, events.size()));
+        for (RevocationEvent event : events) {
+            if (result.size() >= limit) {
+                break;
+            }
+            if (event.seq() > afterSeq) {
+                result.add(event);
+            }
+        }
+        return result;
+    }
+
+    @Override
+    public synchronized RevocationEvent getOldestRetained() {
+        return events.peekFirst();
+    }
+
+    @Override
+    public synchronized long getLatestSequence() {
+        return sequence;
+    }
+}
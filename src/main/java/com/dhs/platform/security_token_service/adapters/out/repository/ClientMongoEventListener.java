@@ -0,0 +1,31 @@
+package com.dhs.platform.security_token_service.adapters.out.repository;
+
+import com.dhs.platform.security_token_service.domain.model.Client;
+import com.dhs.platform.security_token_service.domain.service.ScopeRegistry;
+import com.dhs.platform.security_token_service.domain.service.UnknownClientCacheService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.mongodb.core.mapping.event.AbstractMongoEventListener;
+import org.springframework.data.mongodb.core.mapping.event.AfterSaveEvent;
+import org.springframework.stereotype.Component;
+
+/**
+ * Remove o client ID do cache negativo sempre que um cliente é gravado no MongoDB
+ * e registra escopos novos no ScopeRegistry
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class ClientMongoEventListener extends AbstractMongoEventListener<Client> {
+
+    private final UnknownClientCacheService unknownClientCacheService;
+    private final ScopeRegistry scopeRegistry;
+
+    @Override
+    public void onAfterSave(AfterSaveEvent<Client> event) {
+        String clientId = event.getSource().getClientId();
+        unknownClientCacheService.invalidate(clientId);
+        scopeRegistry.registerAll(event.getSource().getScopes());
+        log.debug("Cliente gravado, removido do cache negativo: {}", clientId);
+    }
+}
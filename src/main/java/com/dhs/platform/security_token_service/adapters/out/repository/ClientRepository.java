@@ -1,27 +1,58 @@
 package com.dhs.platform.security_token_service.adapters.out.repository;
 
+import com.dhs.platform.security_token_service.config.LatencyBudget;
+import com.dhs.platform.security_token_service.config.Tracing;
 import com.dhs.platform.security_token_service.domain.model.Client;
 import com.dhs.platform.security_token_service.domain.port.out.repository.IClientRepository;
 import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Primary;
+import org.springframework.context.annotation.Profile;
+import org.springframework.dao.QueryTimeoutException;
 import org.springframework.data.mongodb.core.MongoTemplate;
 import org.springframework.data.mongodb.core.query.Criteria;
 import org.springframework.data.mongodb.core.query.Query;
 import org.springframework.stereotype.Repository;
 
+import java.time.Duration;
+import java.util.HashSet;
 import java.util.Optional;
+import java.util.Set;
 
 @Repository
+@Profile("!memory")
 @Primary
 @RequiredArgsConstructor
 public class ClientRepository implements IClientRepository {
 
     private final MongoTemplate mongoTemplate;
 
+    @Value("${mongodb.query.max-time-ms:500}")
+    private long maxTimeMillis;
+
     @Override
     public Optional<Client> findByClientId(String clientId) {
-        Query query = new Query(Criteria.where("clientId").is(clientId));
-        Client client = mongoTemplate.findOne(query, Client.class);
-        return Optional.ofNullable(client);
+        if (LatencyBudget.isExhausted()) {
+            throw new QueryTimeoutException("Orçamento de latência esgotado antes da consulta do cliente");
+        }
+
+        // maxTimeMS: o servidor interrompe a consulta no que restar do orçamento da requisição
+        Query query = new Query(Criteria.where("clientId").is(clientId))
+                .maxTime(Duration.ofNanos(LatencyBudget.timeoutNanos(Duration.ofMillis(maxTimeMillis).toNanos())));
+        try (Tracing.Span span = Tracing.span("mongo clients.findOne").attribute("db.system", "mongodb")) {
+            try {
+                Client client = mongoTemplate.findOne(query, Client.class);
+                span.attribute("db.found", client != null);
+                return Optional.ofNullable(client);
+            } catch (RuntimeException e) {
+                span.error(e);
+                throw e;
+            }
+        }
+    }
+
+    @Override
+    public Set<String> findAllScopes() {
+        return new HashSet<>(mongoTemplate.findDistinct(new Query(), "scopes", Client.class, String.class));
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,130 @@
+package com.dhs.platform.security_token_service.config;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Limite adaptativo de requisições simultâneas (algoritmo de gradiente, como o Gradient2 do
+ * concurrency-limits da Netflix)
+ *
+ * A cada janela compara a latência recente com a de referência (média de longo prazo): se a
+ * recente sobe, o gradiente cai abaixo de 1 e o limite encolhe; se está estável, o limite cresce
+ * pela folga de fila (raiz do limite). Rejeições a jusante (503/erros) reduzem o limite de forma
+ * multiplicativa, como no AIMD. O limite não cresce enquanto o uso está abaixo da metade dele.
+ */
+public class AdaptiveConcurrencyLimit {
+
+    private static final long WINDOW_NANOS = 100_000_000L;
+    private static final int WINDOW_MIN_SAMPLES = 10;
+    private static final double LONG_RTT_DECAY = 1.0 / 600;
+    private static final double DROP_BACKOFF = 0.9;
+
+    private final String name;
+    private final int minLimit;
+    private final int maxLimit;
+    private final double tolerance;
+    private final double smoothing;
+    private final AtomicInteger inFlight = new AtomicInteger();
+
+    private volatile int limit;
+    private double estimatedLimit;
+    private double longRttNanos;
+
+    // Janela atual, protegida pelo monitor da instância
+    private long windowStart = System.nanoTime();
+    private long windowRttSum;
+    private int windowSamples;
+    private int windowMaxInFlight;
+    private boolean windowDropped;
+
+    public AdaptiveConcurrencyLimit(String name, int initialLimit, int minLimit, int maxLimit,
+                                    double tolerance, double smoothing) {
+        this.name = name;
+        this.minLimit = minLimit;
+        this.maxLimit = maxLimit;
+        this.tolerance = tolerance;
+        this.smoothing = smoothing;
+        this.estimatedLimit = initialLimit;
+        this.limit = initialLimit;
+    }
+
+    /**
+     * Reserva uma vaga; false se o limite atual já foi atingido
+     */
+    public boolean tryAcquire() {
+        while (true) {
+            int current = inFlight.get();
+            if (current >= limit) {
+                return false;
+            }
+            if (inFlight.compareAndSet(current, current + 1)) {
+                return true;
+            }
+        }
+    }
+
+    /**
+     * Libera a vaga e registra a amostra
+     *
+     * @param dropped requisição que falhou ou foi recusada a jusante (ex.: timeout do orçamento)
+     */
+    public void release(long rttNanos, boolean dropped) {
+        int inFlightAtCompletion = inFlight.getAndDecrement();
+
+        synchronized (this) {
+            windowRttSum += rttNanos;
+            windowSamples++;
+            windowMaxInFlight = Math.max(windowMaxInFlight, inFlightAtCompletion);
+            windowDropped |= dropped;
+
+            long now = System.nanoTime();
+            if (now - windowStart >= WINDOW_NANOS && windowSamples >= WINDOW_MIN_SAMPLES) {
+                update(windowRttSum / (double) windowSamples, windowMaxInFlight, windowDropped);
+                windowStart = now;
+                windowRttSum = 0;
+                windowSamples = 0;
+                windowMaxInFlight = 0;
+                windowDropped = false;
+            }
+        }
+    }
+
+    private void update(double shortRttNanos, int maxInFlight, boolean dropped) {
+        if (longRttNanos == 0) {
+            longRttNanos = shortRttNanos;
+        } else {
+            longRttNanos += (shortRttNanos - longRttNanos) * LONG_RTT_DECAY;
+        }
+
+        // Depois de um período longo de sobrecarga, a referência se aproxima da latência atual
+        if (longRttNanos / shortRttNanos > 2) {
+            longRttNanos *= 0.95;
+        }
+
+        double newLimit;
+        if (dropped) {
+            newLimit = estimatedLimit * DROP_BACKOFF;
+        } else if (maxInFlight < estimatedLimit / 2) {
+            // Carga baixa não diz nada sobre a capacidade: mantém o limite
+            return;
+        } else {
+            double gradient = Math.max(0.5, Math.min(1.0, tolerance * longRttNanos / shortRttNanos));
+            newLimit = estimatedLimit * gradient + Math.sqrt(estimatedLimit);
+            newLimit = estimatedLimit * (1 - smoothing) + newLimit * smoothing;
+        }
+
+        estimatedLimit = Math.max(minLimit, Math.min(maxLimit, newLimit));
+        limit = (int) estimatedLimit;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public int getLimit() {
+        return limit;
+    }
+
+    public int getInFlight() {
+        return inFlight.get();
+    }
+}
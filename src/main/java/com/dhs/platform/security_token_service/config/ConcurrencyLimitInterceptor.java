@@ -0,0 +1,109 @@
+package com.dhs.platform.security_token_service.config;
+
+import com.dhs.platform.security_token_service.util.LogThrottle;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.HandlerInterceptor;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Descarte de carga: limites adaptativos de requisições simultâneas, separados para emissão
+ * (/token, dominado por BCrypt) e validação (/validate e /authorize, dominados pelo Redis)
+ *
+ * Roda antes do rate limit por IP, que já consulta o Redis. Acima do limite a requisição é
+ * recusada na hora com 503, em vez de esperar em fila até estourar o timeout do cliente.
+ */
+@Component
+@Slf4j
+public class ConcurrencyLimitInterceptor implements HandlerInterceptor {
+
+    private static final LogThrottle REJECTION_THROTTLE = LogThrottle.perMinute(log, "requisição recusada por limite de concorrência", 20);
+
+    private static final String LIMIT_ATTRIBUTE = ConcurrencyLimitInterceptor.class.getName() + ".limit";
+    private static final String START_ATTRIBUTE = ConcurrencyLimitInterceptor.class.getName() + ".start";
+    private static final byte[] REJECTION_BODY = ("{\"error\":\"temporarily_unavailable\","
+            + "\"error_description\":\"Serviço sobrecarregado, tente novamente\"}").getBytes(StandardCharsets.UTF_8);
+
+    private final boolean enabled;
+    private final AdaptiveConcurrencyLimit tokenLimit;
+    private final AdaptiveConcurrencyLimit validateLimit;
+
+    public ConcurrencyLimitInterceptor(
+            @Value("${concurrency-limit.enabled:true}") boolean enabled,
+            @Value("${concurrency-limit.tolerance:1.5}") double tolerance,
+            @Value("${concurrency-limit.smoothing:0.2}") double smoothing,
+            @Value("${concurrency-limit.token.initial:20}") int tokenInitial,
+            @Value("${concurrency-limit.token.min:4}") int tokenMin,
+            @Value("${concurrency-limit.token.max:100}") int tokenMax,
+            @Value("${concurrency-limit.validate.initial:50}") int validateInitial,
+            @Value("${concurrency-limit.validate.min:8}") int validateMin,
+            @Value("${concurrency-limit.validate.max:400}") int validateMax
+    ) {
+        this.enabled = enabled;
+        this.tokenLimit = new AdaptiveConcurrencyLimit("token", tokenInitial, tokenMin, tokenMax, tolerance, smoothing);
+        this.validateLimit = new AdaptiveConcurrencyLimit("validate", validateInitial, validateMin, validateMax, tolerance, smoothing);
+    }
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) throws IOException {
+        AdaptiveConcurrencyLimit limit = limitFor(request.getRequestURI());
+        if (!enabled || limit == null) {
+            return true;
+        }
+
+        if (!limit.tryAcquire()) {
+            reject(response, limit);
+            return false;
+        }
+
+        request.setAttribute(LIMIT_ATTRIBUTE, limit);
+        request.setAttribute(START_ATTRIBUTE, System.nanoTime());
+        return true;
+    }
+
+    @Override
+    public void afterCompletion(HttpServletRequest request, HttpServletResponse response, Object handler, Exception ex) {
+        if (request.getAttribute(LIMIT_ATTRIBUTE) instanceof AdaptiveConcurrencyLimit limit
+                && request.getAttribute(START_ATTRIBUTE) instanceof Long start) {
+            boolean dropped = ex != null || response.getStatus() >= HttpStatus.INTERNAL_SERVER_ERROR.value();
+            limit.release(System.nanoTime() - start, dropped);
+        }
+    }
+
+    public AdaptiveConcurrencyLimit getTokenLimit() {
+        return tokenLimit;
+    }
+
+    public AdaptiveConcurrencyLimit getValidateLimit() {
+        return validateLimit;
+    }
+
+    private AdaptiveConcurrencyLimit limitFor(String path) {
+        if (path.endsWith("/token")) {
+            return tokenLimit;
+        }
+        if (path.endsWith("/validate") || path.endsWith("/authorize")) {
+            return validateLimit;
+        }
+        return null;
+    }
+
+    private void reject(HttpServletResponse response, AdaptiveConcurrencyLimit limit) throws IOException {
+        response.setStatus(HttpStatus.SERVICE_UNAVAILABLE.value());
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        response.setHeader("Retry-After", "1");
+        response.getOutputStream().write(REJECTION_BODY);
+
+        if (REJECTION_THROTTLE.tryAcquire()) {
+            log.warn("Limite de concorrência atingido em {}: {} em andamento, limite {}",
+                    limit.getName(), limit.getInFlight(), limit.getLimit());
+        }
+    }
+}
@@ -2,7 +2,9 @@ package com.dhs.platform.security_token_service.config;
 
 import com.dhs.platform.security_token_service.domain.model.Client;
 import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.CommandLineRunner;
+import org.springframework.context.annotation.Profile;
 import org.springframework.data.mongodb.core.MongoTemplate;
 import org.springframework.data.mongodb.core.query.Query;
 import org.springframework.security.crypto.password.PasswordEncoder;
@@ -12,15 +14,24 @@ import java.time.LocalDateTime;
 import java.util.Set;
 
 @Component
+@Profile("!memory")
 @RequiredArgsConstructor
 public class DatabaseInitializer implements CommandLineRunner {
 
     private final MongoTemplate mongoTemplate;
     private final PasswordEncoder passwordEncoder;
 
+    /**
+     * Desligar em pods com autoscaling: evita a consulta ao MongoDB antes de ficar pronto
+     */
+    @Value("${database.seed.enabled:true}")
+    private boolean seedEnabled;
+
     @Override
     public void run(String... args) throws Exception {
-        initializeClients();
+        if (seedEnabled) {
+            initializeClients();
+        }
     }
 
     private void initializeClients() {
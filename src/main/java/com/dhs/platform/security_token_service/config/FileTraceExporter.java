@@ -0,0 +1,101 @@
+package com.dhs.platform.security_token_service.config;
+
+import com.dhs.platform.security_token_service.util.LogThrottle;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Grava os traces mantidos em NDJSON, um span por linha, com os campos do OTLP
+ * (traceId, spanId, parentSpanId, name, startTimeUnixNano, endTimeUnixNano, attributes, status)
+ *
+ * Escrita síncrona na thread da requisição: a amostragem por cauda já limita o volume.
+ */
+@Component
+@Slf4j
+public class FileTraceExporter implements TraceExporter {
+
+    private static final LogThrottle WRITE_ERROR_THROTTLE = LogThrottle.perMinute(log, "erro ao gravar trace", 5);
+
+    private final ObjectMapper objectMapper;
+    private final boolean enabled;
+    private final Path path;
+    private BufferedWriter writer;
+
+    public FileTraceExporter(
+            ObjectMapper objectMapper,
+            @Value("${tracing.exporter.file.enabled:false}") boolean enabled,
+            @Value("${tracing.exporter.file.path:/tmp/sts/traces.ndjson}") String path
+    ) {
+        this.objectMapper = objectMapper;
+        this.enabled = enabled;
+        this.path = Path.of(path);
+    }
+
+    @PostConstruct
+    public void open() throws IOException {
+        if (!enabled) {
+            return;
+        }
+        if (path.getParent() != null) {
+            Files.createDirectories(path.getParent());
+        }
+        writer = Files.newBufferedWriter(path, StandardCharsets.UTF_8,
+                StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+        log.info("Traces gravados em {}", path);
+    }
+
+    @Override
+    public synchronized void export(List<Tracing.SpanData> spans) {
+        if (writer == null) {
+            return;
+        }
+        try {
+            for (Tracing.SpanData span : spans) {
+                writer.write(objectMapper.writeValueAsString(toJson(span)));
+                writer.newLine();
+            }
+            writer.flush();
+        } catch (IOException e) {
+            if (WRITE_ERROR_THROTTLE.tryAcquire()) {
+                log.error("Erro ao gravar trace em {}: {}", path, e.getMessage());
+            }
+        }
+    }
+
+    @PreDestroy
+    public synchronized void close() throws IOException {
+        if (writer != null) {
+            writer.close();
+            writer = null;
+        }
+    }
+
+    private static Map<String, Object> toJson(Tracing.SpanData span) {
+        Map<String, Object> json = new LinkedHashMap<>();
+        json.put("traceId", span.traceId());
+        json.put("spanId", span.spanId());
+        if (span.parentSpanId() != null) {
+            json.put("parentSpanId", span.parentSpanId());
+        }
+        json.put("name", span.name());
+        json.put("startTimeUnixNano", span.startEpochNanos());
+        json.put("endTimeUnixNano", span.startEpochNanos() + span.durationNanos());
+        json.put("attributes", span.attributes());
+        json.put("status", span.error() ? "ERROR" : "OK");
+        return json;
+    }
+}
@@ -1,6 +1,9 @@
 package com.dhs.platform.security_token_service.config;
 
+import com.dhs.platform.security_token_service.domain.port.out.cache.CacheUnavailableException;
+import com.dhs.platform.security_token_service.domain.service.LoginFailureService;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.QueryTimeoutException;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.authentication.BadCredentialsException;
@@ -25,6 +28,20 @@ public class GlobalExceptionHandler {
         return ResponseEntity.status(HttpStatus.UNAUTHORIZED).body(error);
     }
 
+    /**
+     * Cliente em espera ou bloqueado por falhas de login recentes
+     */
+    @ExceptionHandler(LoginFailureService.ClientLockedException.class)
+    public ResponseEntity<Map<String, String>> handleClientLocked(LoginFailureService.ClientLockedException e) {
+        Map<String, String> error = Map.of(
+                "error", "invalid_client",
+                "error_description", e.getMessage()
+        );
+        return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS)
+                .header("Retry-After", String.valueOf(e.getRetryAfterSeconds()))
+                .body(error);
+    }
+
     @ExceptionHandler(MethodArgumentNotValidException.class)
     public ResponseEntity<Map<String, String>> handleValidationErrors(MethodArgumentNotValidException e) {
         Map<String, String> errors = new HashMap<>();
@@ -41,6 +58,32 @@ public class GlobalExceptionHandler {
         ));
     }
 
+    /**
+     * Consulta ao MongoDB interrompida por maxTimeMS ou orçamento de latência já esgotado
+     */
+    @ExceptionHandler(QueryTimeoutException.class)
+    public ResponseEntity<Map<String, String>> handleQueryTimeout(QueryTimeoutException e) {
+        log.warn("Consulta interrompida por tempo: {}", e.getMessage());
+        Map<String, String> error = Map.of(
+                "error", "temporarily_unavailable",
+                "error_description", "Tempo de resposta excedido, tente novamente"
+        );
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).header("Retry-After", "1").body(error);
+    }
+
+    /**
+     * Redis indisponível em uma operação sem fallback local (ex.: blacklist pelo admin)
+     */
+    @ExceptionHandler(CacheUnavailableException.class)
+    public ResponseEntity<Map<String, String>> handleCacheUnavailable(CacheUnavailableException e) {
+        log.warn("Cache indisponível: {}", e.getMessage());
+        Map<String, String> error = Map.of(
+                "error", "temporarily_unavailable",
+                "error_description", "Cache indisponível, a operação não foi aplicada"
+        );
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).header("Retry-After", "1").body(error);
+    }
+
     @ExceptionHandler(Exception.class)
     public ResponseEntity<Map<String, String>> handleGenericException(Exception e) {
         log.error("Erro interno do servidor", e);
@@ -0,0 +1,62 @@
+package com.dhs.platform.security_token_service.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Últimos traces mantidos, em memória, para testes locais e para a API administrativa
+ */
+@Component
+public class InMemoryTraceExporter implements TraceExporter {
+
+    private final int capacity;
+    private final ArrayDeque<List<Tracing.SpanData>> traces = new ArrayDeque<>();
+
+    public InMemoryTraceExporter(@Value("${tracing.exporter.memory.capacity:200}") int capacity) {
+        this.capacity = capacity;
+    }
+
+    @Override
+    public synchronized void export(List<Tracing.SpanData> spans) {
+        if (capacity <= 0) {
+            return;
+        }
+        if (traces.size() >= capacity) {
+            traces.removeFirst();
+        }
+        traces.addLast(List.copyOf(spans));
+    }
+
+    /**
+     * Traces mais recentes primeiro
+     */
+    public synchronized List<List<Tracing.SpanData>> recent(int limit) {
+        List<List<Tracing.SpanData>> recent = new ArrayList<>(Math.min(limit, traces.size()));
+        Iterator<List<Tracing.SpanData>> iterator = traces.descendingIterator();
+        while (iterator.hasNext() && recent.size() < limit) {
+            recent.add(iterator.next());
+        }
+        return recent;
+    }
+
+    public synchronized Optional<List<Tracing.SpanData>> find(String traceId) {
+        Iterator<List<Tracing.SpanData>> iterator = traces.descendingIterator();
+        while (iterator.hasNext()) {
+            List<Tracing.SpanData> spans = iterator.next();
+            if (spans.get(0).traceId().equals(traceId)) {
+                return Optional.of(spans);
+            }
+        }
+        return Optional.empty();
+    }
+
+    public synchronized void clear() {
+        traces.clear();
+    }
+}
@@ -0,0 +1,59 @@
+package com.dhs.platform.security_token_service.config;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Prazo da requisição atual, aberto pelo LatencyBudgetFilter e consultado pelos adapters
+ * (Redis e MongoDB) para limitar o timeout de cada comando ao que ainda resta do orçamento.
+ *
+ * Fora de uma requisição (jobs agendados, gRPC, aquecimento) não há prazo e valem apenas
+ * os timeouts configurados em cada driver.
+ */
+public final class LatencyBudget {
+
+    private static final ThreadLocal<Long> DEADLINE_NANOS = new ThreadLocal<>();
+    private static final long MIN_TIMEOUT_NANOS = TimeUnit.MILLISECONDS.toNanos(1);
+
+    private LatencyBudget() {
+    }
+
+    /**
+     * Abre um prazo para a thread atual; o escopo anterior é restaurado no close
+     */
+    public static Scope start(Duration budget) {
+        Long previous = DEADLINE_NANOS.get();
+        DEADLINE_NANOS.set(System.nanoTime() + budget.toNanos());
+        return () -> {
+            if (previous != null) {
+                DEADLINE_NANOS.set(previous);
+            } else {
+                DEADLINE_NANOS.remove();
+            }
+        };
+    }
+
+    /**
+     * Tempo restante em nanos (Long.MAX_VALUE sem prazo; negativo se esgotado)
+     */
+    public static long remainingNanos() {
+        Long deadline = DEADLINE_NANOS.get();
+        return deadline != null ? deadline - System.nanoTime() : Long.MAX_VALUE;
+    }
+
+    public static boolean isExhausted() {
+        return remainingNanos() <= 0;
+    }
+
+    /**
+     * Timeout de um comando: o configurado ou o restante do orçamento, o que for menor (mínimo 1 ms)
+     */
+    public static long timeoutNanos(long maxNanos) {
+        return Math.max(MIN_TIMEOUT_NANOS, Math.min(maxNanos, remainingNanos()));
+    }
+
+    public interface Scope extends AutoCloseable {
+        @Override
+        void close();
+    }
+}
@@ -0,0 +1,46 @@
+package com.dhs.platform.security_token_service.config;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.time.Duration;
+
+/**
+ * Abre o orçamento de latência das requisições de /api/v1/auth (logo após o trace) antes do rate limit,
+ * que já consulta o Redis. O stream SSE de revogações fica de fora (conexão longa).
+ */
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE + 1)
+public class LatencyBudgetFilter extends OncePerRequestFilter {
+
+    private static final String AUTH_PATH = "/api/v1/auth/";
+    private static final String REVOCATION_STREAM_PATH = "/api/v1/auth/revocations/stream";
+
+    @Value("${latency.budget.enabled:true}")
+    private boolean enabled;
+
+    @Value("${latency.budget.request-ms:1000}")
+    private long budgetMillis;
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        String path = request.getRequestURI();
+        return !enabled || !path.startsWith(AUTH_PATH) || path.startsWith(REVOCATION_STREAM_PATH);
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        try (LatencyBudget.Scope ignored = LatencyBudget.start(Duration.ofMillis(budgetMillis))) {
+            filterChain.doFilter(request, response);
+        }
+    }
+}
@@ -0,0 +1,49 @@
+package com.dhs.platform.security_token_service.config;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.mongo.MongoClientSettingsBuilderCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Profile;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Timeouts do driver MongoDB
+ *
+ * Sem eles, um nó lento segura a thread da requisição pelo padrão do driver (leitura de socket
+ * sem limite). O limite por consulta (maxTimeMS) é definido no ClientRepository a partir do
+ * LatencyBudget; o timeout de socket é a rede de segurança para o caso de o servidor não responder.
+ */
+@Configuration
+@Profile("!memory")
+@Slf4j
+public class MongoConfig {
+
+    @Value("${mongodb.connect-timeout-ms:1000}")
+    private int connectTimeoutMillis;
+
+    @Value("${mongodb.socket-timeout-ms:2000}")
+    private int socketTimeoutMillis;
+
+    @Value("${mongodb.server-selection-timeout-ms:1000}")
+    private long serverSelectionTimeoutMillis;
+
+    @Value("${mongodb.pool.max-wait-ms:500}")
+    private long maxWaitMillis;
+
+    @Bean
+    public MongoClientSettingsBuilderCustomizer mongoTimeoutsCustomizer() {
+        log.info("Timeouts MongoDB: conexão {} ms, socket {} ms, seleção de servidor {} ms, espera no pool {} ms",
+                connectTimeoutMillis, socketTimeoutMillis, serverSelectionTimeoutMillis, maxWaitMillis);
+        return settings -> settings
+                .applyToSocketSettings(socket -> socket
+                        .connectTimeout(connectTimeoutMillis, TimeUnit.MILLISECONDS)
+                        .readTimeout(socketTimeoutMillis, TimeUnit.MILLISECONDS))
+                .applyToClusterSettings(cluster -> cluster
+                        .serverSelectionTimeout(serverSelectionTimeoutMillis, TimeUnit.MILLISECONDS))
+                .applyToConnectionPoolSettings(pool -> pool
+                        .maxWaitTime(maxWaitMillis, TimeUnit.MILLISECONDS));
+    }
+}
@@ -0,0 +1,102 @@
+package com.dhs.platform.security_token_service.config;
+
+import com.dhs.platform.security_token_service.adapters.in.http.dto.BulkItemResultDTO;
+import com.dhs.platform.security_token_service.adapters.in.http.dto.ErrorResponseDTO;
+import com.dhs.platform.security_token_service.adapters.in.http.dto.LoginRequestDTO;
+import com.dhs.platform.security_token_service.adapters.in.http.dto.RevocationFeedDTO;
+import com.dhs.platform.security_token_service.adapters.in.http.dto.TokenResponseDTO;
+import com.dhs.platform.security_token_service.adapters.in.http.dto.TokenValidationResponseDTO;
+import com.dhs.platform.security_token_service.domain.model.Client;
+import com.dhs.platform.security_token_service.domain.model.ClientState;
+import com.dhs.platform.security_token_service.domain.model.RefreshTokenRecord;
+import com.dhs.platform.security_token_service.domain.model.RevocationEvent;
+import com.dhs.platform.security_token_service.domain.model.RevocationPage;
+import org.springframework.aot.hint.MemberCategory;
+import org.springframework.aot.hint.RuntimeHints;
+import org.springframework.aot.hint.RuntimeHintsRegistrar;
+import org.springframework.aot.hint.annotation.RegisterReflectionForBinding;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.ImportRuntimeHints;
+
+import java.util.List;
+
+/**
+ * Hints para a imagem nativa (perfil Maven native)
+ *
+ * O Spring AOT cobre beans, controllers e repositórios. Aqui ficam os tipos usados fora
+ * desses caminhos: JSON gravado no Redis pelo ObjectMapper, implementações do JJWT
+ * carregadas por nome e mensagens do gRPC.
+ */
+@Configuration(proxyBeanMethods = false)
+@RegisterReflectionForBinding({
+        Client.class,
+        ClientState.class,
+        RefreshTokenRecord.class,
+        RevocationEvent.class,
+        RevocationPage.class,
+        LoginRequestDTO.class,
+        TokenResponseDTO.class,
+        TokenValidationResponseDTO.class,
+        ErrorResponseDTO.class,
+        RevocationFeedDTO.class,
+        BulkItemResultDTO.class
+})
+@ImportRuntimeHints(NativeHintsConfig.StsRuntimeHints.class)
+public class NativeHintsConfig {
+
+    /**
+     * Jwts e Keys instanciam as implementações do jjwt-impl via Class.forName
+     */
+    private static final List<String> JJWT_TYPES = List.of(
+            "io.jsonwebtoken.impl.DefaultJwtBuilder",
+            "io.jsonwebtoken.impl.DefaultJwtParserBuilder",
+            "io.jsonwebtoken.impl.DefaultClaimsBuilder",
+            "io.jsonwebtoken.impl.DefaultJwtHeaderBuilder",
+            "io.jsonwebtoken.impl.io.StandardCompressionAlgorithms",
+            "io.jsonwebtoken.impl.security.StandardSecureDigestAlgorithms",
+            "io.jsonwebtoken.impl.security.StandardEncryptionAlgorithms",
+            "io.jsonwebtoken.impl.security.StandardKeyAlgorithms",
+            "io.jsonwebtoken.impl.security.StandardKeyOperations",
+            "io.jsonwebtoken.impl.security.StandardHashAlgorithms",
+            "io.jsonwebtoken.impl.security.KeysBridge",
+            "io.jsonwebtoken.jackson.io.JacksonSerializer",
+            "io.jsonwebtoken.jackson.io.JacksonDeserializer"
+    );
+
+    private static final String GRPC_PROTO_PACKAGE = "com.dhs.platform.security_token_service.adapters.in.grpc.proto.";
+
+    /**
+     * O protobuf-java resolve getters e builders por reflexão (toString, descriptors)
+     */
+    private static final List<String> GRPC_MESSAGES = List.of(
+            "ValidateRequest",
+            "ValidateResponse",
+            "BatchValidateRequest",
+            "BatchValidateResponse",
+            "IssueTokenRequest",
+            "IssueTokenResponse"
+    );
+
+    static class StsRuntimeHints implements RuntimeHintsRegistrar {
+
+        @Override
+        public void registerHints(RuntimeHints hints, ClassLoader classLoader) {
+            for (String type : JJWT_TYPES) {
+                hints.reflection().registerTypeIfPresent(classLoader, type,
+                        MemberCategory.INVOKE_DECLARED_CONSTRUCTORS,
+                        MemberCategory.INVOKE_PUBLIC_METHODS,
+                        MemberCategory.DECLARED_FIELDS);
+            }
+            hints.resources().registerPattern("META-INF/services/io.jsonwebtoken.io.Serializer");
+            hints.resources().registerPattern("META-INF/services/io.jsonwebtoken.io.Deserializer");
+
+            for (String message : GRPC_MESSAGES) {
+                hints.reflection().registerTypeIfPresent(classLoader, GRPC_PROTO_PACKAGE + message,
+                        MemberCategory.INVOKE_PUBLIC_METHODS,
+                        MemberCategory.DECLARED_FIELDS);
+                hints.reflection().registerTypeIfPresent(classLoader, GRPC_PROTO_PACKAGE + message + "$Builder",
+                        MemberCategory.INVOKE_PUBLIC_METHODS);
+            }
+        }
+    }
+}
@@ -10,6 +10,39 @@ public class PasswordConfig {
 
     @Bean
     public PasswordEncoder passwordEncoder() {
-        return new BCryptPasswordEncoder(12);
+        return new TracingPasswordEncoder(new BCryptPasswordEncoder(12));
+    }
+
+    /**
+     * BCrypt em spans próprios: é o passo mais caro do /token
+     */
+    static final class TracingPasswordEncoder implements PasswordEncoder {
+
+        private final PasswordEncoder delegate;
+
+        TracingPasswordEncoder(PasswordEncoder delegate) {
+            this.delegate = delegate;
+        }
+
+        @Override
+        public String encode(CharSequence rawPassword) {
+            try (Tracing.Span ignored = Tracing.span("bcrypt encode")) {
+                return delegate.encode(rawPassword);
+            }
+        }
+
+        @Override
+        public boolean matches(CharSequence rawPassword, String encodedPassword) {
+            try (Tracing.Span span = Tracing.span("bcrypt matches")) {
+                boolean matches = delegate.matches(rawPassword, encodedPassword);
+                span.attribute("bcrypt.matches", matches);
+                return matches;
+            }
+        }
+
+        @Override
+        public boolean upgradeEncoding(String encodedPassword) {
+            return delegate.upgradeEncoding(encodedPassword);
+        }
     }
 }
\ No newline at end of file
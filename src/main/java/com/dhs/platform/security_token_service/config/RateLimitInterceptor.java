@@ -1,6 +1,7 @@
 package com.dhs.platform.security_token_service.config;
 
 import com.dhs.platform.security_token_service.domain.service.RateLimitService;
+import com.dhs.platform.security_token_service.util.LogThrottle;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
@@ -20,6 +21,9 @@ import java.util.Map;
 @Slf4j
 public class RateLimitInterceptor implements HandlerInterceptor {
 
+    // O RateLimitService já registra o excesso; aqui apenas o resumo por IP, limitado
+    private static final LogThrottle REJECTION_THROTTLE = LogThrottle.perMinute(log, "requisição rejeitada por rate limit", 20);
+
     private final RateLimitService rateLimitService;
     private final ObjectMapper objectMapper;
 
@@ -27,15 +31,18 @@ public class RateLimitInterceptor implements HandlerInterceptor {
     public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) throws Exception {
         String clientIp = getClientIp(request);
 
-        // Verificar rate limit
-        if (rateLimitService.isRateLimited(clientIp)) {
-            handleRateLimitExceeded(response, clientIp);
-            return false;
+        try (Tracing.Span span = Tracing.span("rate_limit")) {
+            // Verificar rate limit
+            if (rateLimitService.isRateLimited(clientIp)) {
+                span.attribute("rate_limit.exceeded", true);
+                handleRateLimitExceeded(response, clientIp);
+                return false;
+            }
+
+            // Adicionar headers de rate limit
+            addRateLimitHeaders(response, clientIp);
+            return true;
         }
-
-        // Adicionar headers de rate limit
-        addRateLimitHeaders(response, clientIp);
-        return true;
     }
 
     private String getClientIp(HttpServletRequest request) {
@@ -83,7 +90,9 @@ public class RateLimitInterceptor implements HandlerInterceptor {
         response.getWriter().write(jsonResponse);
         response.getWriter().flush();
 
-        log.warn("Rate limit exceeded for IP: {} - Limit: {}, Current: {}",
-                clientIp, info.getLimit(), info.getCurrent());
+        if (REJECTION_THROTTLE.tryAcquire()) {
+            log.warn("Rate limit exceeded for IP: {} - Limit: {}, Current: {}",
+                    clientIp, info.getLimit(), info.getCurrent());
+        }
     }
 }
\ No newline at end of file
@@ -1,21 +1,50 @@
 package com.dhs.platform.security_token_service.config;
 
-import com.fasterxml.jackson.databind.ObjectMapper;
+import com.dhs.platform.security_token_service.adapters.out.cache.RedisShardRouter;
+import io.lettuce.core.ClientOptions;
+import io.lettuce.core.ReadFrom;
+import io.lettuce.core.SocketOptions;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.context.annotation.Profile;
+import org.springframework.data.redis.connection.RedisClusterConfiguration;
+import org.springframework.data.redis.connection.RedisConfiguration;
 import org.springframework.data.redis.connection.RedisConnectionFactory;
+import org.springframework.data.redis.connection.RedisNode;
+import org.springframework.data.redis.connection.RedisPassword;
+import org.springframework.data.redis.connection.RedisSentinelConfiguration;
 import org.springframework.data.redis.connection.RedisStandaloneConfiguration;
+import org.springframework.data.redis.connection.RedisStaticMasterReplicaConfiguration;
+import org.springframework.data.redis.connection.lettuce.LettuceClientConfiguration;
 import org.springframework.data.redis.connection.lettuce.LettuceConnectionFactory;
 import org.springframework.data.redis.core.RedisTemplate;
 import org.springframework.data.redis.serializer.StringRedisSerializer;
 
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
 /**
  * Configuração do Redis
  * Centraliza todas as configurações relacionadas ao Redis
+ *
+ * Topologias suportadas (redis.topology):
+ * - standalone: um único nó (padrão)
+ * - static: primário + réplicas fixas (redis.replica-reads.nodes)
+ * - sentinel: descoberta via Sentinel (spring.data.redis.sentinel.*)
+ * - cluster: Redis Cluster (spring.data.redis.cluster.nodes)
+ * - sharded: instâncias independentes, chaves distribuídas no cliente (redis.shards.nodes)
+ *
+ * São criadas duas conexões: a primária, usada para escritas e rate limit,
+ * e a de leitura em réplicas, usada apenas pelas leituras que toleram atraso.
  */
 @Configuration
+@Profile("!memory")
 @Slf4j
 public class RedisConfig {
 
@@ -31,24 +60,105 @@ public class RedisConfig {
     @Value("${spring.data.redis.database:0}")
     private int redisDatabase;
 
+    @Value("${redis.topology:standalone}")
+    private String redisTopology;
+
+    @Value("${spring.data.redis.sentinel.master:mymaster}")
+    private String sentinelMaster;
+
+    @Value("${spring.data.redis.sentinel.nodes:}")
+    private String sentinelNodes;
+
+    @Value("${spring.data.redis.cluster.nodes:}")
+    private String clusterNodes;
+
+    @Value("${redis.shards.nodes:}")
+    private String shardNodes;
+
+    @Value("${redis.replica-reads.nodes:}")
+    private String replicaNodes;
+
+    @Value("${redis.replica-reads.enabled:false}")
+    private boolean replicaReadsEnabled;
+
+    @Value("${redis.command-timeout-ms:250}")
+    private long commandTimeoutMillis;
+
+    @Value("${redis.connect-timeout-ms:500}")
+    private long connectTimeoutMillis;
+
     @Bean
+    @Primary
     public RedisConnectionFactory redisConnectionFactory() {
-        RedisStandaloneConfiguration config = new RedisStandaloneConfiguration();
-        config.setHostName(redisHost);
-        config.setPort(redisPort);
-        config.setDatabase(redisDatabase);
+        log.info("Configurando conexão Redis primária (topologia: {})", redisTopology);
+        return createConnectionFactory(ReadFrom.UPSTREAM);
+    }
 
-        if (redisPassword != null && !redisPassword.isEmpty()) {
-            config.setPassword(redisPassword);
+    /**
+     * Conexão usada pelas leituras que toleram dados levemente desatualizados
+     * (cache de validação, blacklist e cache de clientes)
+     */
+    @Bean
+    public RedisConnectionFactory replicaRedisConnectionFactory() {
+        if (!replicaReadsEnabled || isStandalone() || isSharded()) {
+            log.info("Leitura em réplicas desabilitada, usando conexão primária para leituras");
+            return createConnectionFactory(ReadFrom.UPSTREAM);
         }
 
-        log.info("Configurando conexão Redis: {}:{} (database: {})", redisHost, redisPort, redisDatabase);
-
-        return new LettuceConnectionFactory(config);
+        log.info("Configurando leitura em réplicas (topologia: {})", redisTopology);
+        return createConnectionFactory(ReadFrom.REPLICA_PREFERRED);
     }
 
     @Bean
+    @Primary
     public RedisTemplate<String, String> redisTemplate(RedisConnectionFactory connectionFactory) {
+        RedisTemplate<String, String> template = createTemplate(connectionFactory);
+        log.info("RedisTemplate configurado com sucesso");
+        return template;
+    }
+
+    @Bean
+    public RedisTemplate<String, String> replicaRedisTemplate(
+            @Qualifier("replicaRedisConnectionFactory") RedisConnectionFactory connectionFactory) {
+        RedisTemplate<String, String> template = createTemplate(connectionFactory);
+        log.info("RedisTemplate de leitura em réplicas configurado com sucesso");
+        return template;
+    }
+
+    /**
+     * Shards usados pelo RedisCacheAdapter, pela fila write-behind e pelo rate limit.
+     * O primeiro nó reaproveita as conexões acima; cada um dos demais ganha uma conexão própria.
+     */
+    @Bean(destroyMethod = "close")
+    public RedisShardRouter redisShardRouter(
+            @Qualifier("redisTemplate") RedisTemplate<String, String> redisTemplate,
+            @Qualifier("replicaRedisTemplate") RedisTemplate<String, String> replicaRedisTemplate) {
+        if (!isSharded()) {
+            return new RedisShardRouter(
+                    List.of(new RedisShardRouter.Shard(redisTopology, redisTemplate, replicaRedisTemplate)), List.of());
+        }
+
+        List<RedisNode> nodes = parseNodes(shardNodes);
+        if (nodes.stream().map(RedisNode::asString).distinct().count() != nodes.size()) {
+            throw new IllegalStateException("Nós repetidos em redis.shards.nodes: " + shardNodes);
+        }
+
+        List<RedisShardRouter.Shard> shards = new ArrayList<>(nodes.size());
+        List<LettuceConnectionFactory> factories = new ArrayList<>(nodes.size() - 1);
+        shards.add(new RedisShardRouter.Shard(nodes.get(0).asString(), redisTemplate, replicaRedisTemplate));
+        for (RedisNode node : nodes.subList(1, nodes.size())) {
+            LettuceConnectionFactory factory = shardConnectionFactory(node);
+            factory.afterPropertiesSet();
+            factories.add(factory);
+            RedisTemplate<String, String> template = createTemplate(factory);
+            shards.add(new RedisShardRouter.Shard(node.asString(), template, template));
+        }
+
+        log.info("Redis particionado no cliente em {} shards: {}", shards.size(), shardNodes);
+        return new RedisShardRouter(shards, factories);
+    }
+
+    private RedisTemplate<String, String> createTemplate(RedisConnectionFactory connectionFactory) {
         RedisTemplate<String, String> template = new RedisTemplate<>();
         template.setConnectionFactory(connectionFactory);
 
@@ -60,8 +170,109 @@ public class RedisConfig {
         template.setHashValueSerializer(stringSerializer);
 
         template.afterPropertiesSet();
-
-        log.info("RedisTemplate configurado com sucesso");
         return template;
     }
+
+    private LettuceConnectionFactory createConnectionFactory(ReadFrom readFrom) {
+        if (isSharded()) {
+            // Conexões principais no primeiro shard (health check e monitor de réplicas)
+            return shardConnectionFactory(parseNodes(shardNodes).get(0));
+        }
+
+        if (isStandalone()) {
+            return new LettuceConnectionFactory(standaloneConfiguration(), clientConfiguration().build());
+        }
+
+        return new LettuceConnectionFactory(topologyConfiguration(), clientConfiguration().readFrom(readFrom).build());
+    }
+
+    private LettuceConnectionFactory shardConnectionFactory(RedisNode node) {
+        RedisStandaloneConfiguration config = new RedisStandaloneConfiguration(node.getHost(), node.getPort());
+        config.setDatabase(redisDatabase);
+        config.setPassword(password());
+        return new LettuceConnectionFactory(config, clientConfiguration().build());
+    }
+
+    private LettuceClientConfiguration.LettuceClientConfigurationBuilder clientConfiguration() {
+        // Timeouts curtos: um Redis lento deve falhar rápido e abrir o circuit breaker
+        return LettuceClientConfiguration.builder()
+                .commandTimeout(Duration.ofMillis(commandTimeoutMillis))
+                .clientOptions(ClientOptions.builder()
+                        .socketOptions(SocketOptions.builder()
+                                .connectTimeout(Duration.ofMillis(connectTimeoutMillis))
+                                .build())
+                        .disconnectedBehavior(ClientOptions.DisconnectedBehavior.REJECT_COMMANDS)
+                        .build());
+    }
+
+    private boolean isStandalone() {
+        return "standalone".equalsIgnoreCase(redisTopology);
+    }
+
+    private boolean isSharded() {
+        return "sharded".equalsIgnoreCase(redisTopology);
+    }
+
+    private RedisStandaloneConfiguration standaloneConfiguration() {
+        RedisStandaloneConfiguration config = new RedisStandaloneConfiguration();
+        config.setHostName(redisHost);
+        config.setPort(redisPort);
+        config.setDatabase(redisDatabase);
+        config.setPassword(password());
+
+        log.info("Configurando conexão Redis: {}:{} (database: {})", redisHost, redisPort, redisDatabase);
+        return config;
+    }
+
+    private RedisConfiguration topologyConfiguration() {
+        switch (redisTopology.toLowerCase()) {
+            case "static" -> {
+                RedisStaticMasterReplicaConfiguration config =
+                        new RedisStaticMasterReplicaConfiguration(redisHost, redisPort);
+                parseNodes(replicaNodes).forEach(node -> config.node(node.getHost(), node.getPort()));
+                config.setDatabase(redisDatabase);
+                config.setPassword(password());
+
+                log.info("Configurando Redis primário {}:{} com réplicas estáticas: {}", redisHost, redisPort, replicaNodes);
+                return config;
+            }
+            case "sentinel" -> {
+                RedisSentinelConfiguration config = new RedisSentinelConfiguration();
+                config.master(sentinelMaster);
+                parseNodes(sentinelNodes).forEach(config::sentinel);
+                config.setDatabase(redisDatabase);
+                config.setPassword(password());
+
+                log.info("Configurando Redis Sentinel: master={}, sentinels={}", sentinelMaster, sentinelNodes);
+                return config;
+            }
+            case "cluster" -> {
+                RedisClusterConfiguration config = new RedisClusterConfiguration();
+                parseNodes(clusterNodes).forEach(config::addClusterNode);
+                config.setPassword(password());
+
+                log.info("Configurando Redis Cluster: nodes={}", clusterNodes);
+                return config;
+            }
+            default -> throw new IllegalStateException("Topologia Redis desconhecida: " + redisTopology);
+        }
+    }
+
+    private RedisPassword password() {
+        return redisPassword != null && !redisPassword.isEmpty()
+                ? RedisPassword.of(redisPassword)
+                : RedisPassword.none();
+    }
+
+    private List<RedisNode> parseNodes(String nodes) {
+        if (nodes == null || nodes.isBlank()) {
+            throw new IllegalStateException("Nenhum nó Redis configurado para a topologia: " + redisTopology);
+        }
+
+        return Arrays.stream(nodes.split(","))
+                .map(String::trim)
+                .filter(node -> !node.isEmpty())
+                .map(RedisNode::fromString)
+                .toList();
+    }
 }
@@ -0,0 +1,49 @@
+package com.dhs.platform.security_token_service.config;
+
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Amostragem por cauda: a decisão é tomada com o trace completo, quando a duração já é conhecida
+ *
+ * Mantém traces lentos (raiz acima do limiar) ou com erro em qualquer span, mais uma fração
+ * aleatória dos demais como referência do caso normal. Um teto por segundo protege os
+ * exportadores durante incidentes, quando quase todo trace fica lento.
+ */
+final class TailSampler {
+
+    private final long slowThresholdNanos;
+    private final double sampleRatio;
+    private final int maxPerSecond;
+
+    private final AtomicLong windowStart = new AtomicLong(System.currentTimeMillis());
+    private final AtomicInteger kept = new AtomicInteger();
+
+    TailSampler(long slowThresholdNanos, double sampleRatio, int maxPerSecond) {
+        this.slowThresholdNanos = slowThresholdNanos;
+        this.sampleRatio = sampleRatio;
+        this.maxPerSecond = maxPerSecond;
+    }
+
+    /**
+     * @param spans spans do trace, com a raiz por último
+     */
+    boolean keep(List<Tracing.SpanData> spans) {
+        Tracing.SpanData root = spans.get(spans.size() - 1);
+        boolean interesting = root.durationNanos() >= slowThresholdNanos
+                || spans.stream().anyMatch(Tracing.SpanData::error)
+                || (sampleRatio > 0 && ThreadLocalRandom.current().nextDouble() < sampleRatio);
+        return interesting && tryAcquire();
+    }
+
+    private boolean tryAcquire() {
+        long now = System.currentTimeMillis();
+        long start = windowStart.get();
+        if (now - start >= 1000 && windowStart.compareAndSet(start, now)) {
+            kept.set(0);
+        }
+        return kept.incrementAndGet() <= maxPerSecond;
+    }
+}
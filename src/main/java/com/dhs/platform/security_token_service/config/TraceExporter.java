@@ -0,0 +1,14 @@
+package com.dhs.platform.security_token_service.config;
+
+import java.util.List;
+
+/**
+ * Destino dos traces mantidos pela amostragem por cauda
+ */
+public interface TraceExporter {
+
+    /**
+     * Recebe os spans de um trace, com a raiz por último; chamado na thread da requisição
+     */
+    void export(List<Tracing.SpanData> spans);
+}
@@ -0,0 +1,223 @@
+package com.dhs.platform.security_token_service.config;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.Consumer;
+
+/**
+ * Rastreamento da requisição atual no modelo do OpenTelemetry (trace, spans, W3C traceparent),
+ * aberto pelo TracingFilter e alimentado pelos pontos instrumentados: rate limit, comandos Redis,
+ * consulta de clientes no MongoDB, BCrypt, assinatura/verificação de JWT e Jackson nos caches.
+ *
+ * Como o LatencyBudget, o estado fica na thread da requisição: trabalho em outras threads
+ * (write-behind, callbacks do Lettuce) não entra no trace. Sem trace aberto, span() retorna um
+ * span vazio compartilhado, sem alocação. Ao fechar a raiz, os spans vão de uma vez para o
+ * consumidor informado, que decide o que manter (amostragem por cauda).
+ */
+public final class Tracing {
+
+    static final int MAX_SPANS_PER_TRACE = 256;
+
+    private static final ThreadLocal<Trace> CURRENT = new ThreadLocal<>();
+    private static final HexFormat HEX = HexFormat.of();
+    private static final Span NOOP = new Span(null, null, null, null, 0);
+
+    private Tracing() {
+    }
+
+    /**
+     * Span concluído, no formato exportado
+     *
+     * @param parentSpanId span pai; na raiz, o span remoto do traceparent recebido (ou null)
+     */
+    public record SpanData(String traceId, String spanId, String parentSpanId, String name,
+                           long startEpochNanos, long durationNanos, Map<String, Object> attributes,
+                           boolean error) {
+    }
+
+    /**
+     * Abre o trace da thread atual. Continua o trace do header traceparent quando válido;
+     * senão, gera um novo trace ID. Dentro de um trace já aberto, equivale a span(name).
+     */
+    public static Span startTrace(String name, String traceparent, Consumer<List<SpanData>> onComplete) {
+        if (CURRENT.get() != null) {
+            return span(name);
+        }
+
+        String traceId = null;
+        String remoteParentId = null;
+        if (isValidTraceparent(traceparent)) {
+            traceId = traceparent.substring(3, 35);
+            remoteParentId = traceparent.substring(36, 52);
+        }
+        if (traceId == null) {
+            ThreadLocalRandom random = ThreadLocalRandom.current();
+            traceId = HEX.toHexDigits(random.nextLong()) + HEX.toHexDigits(random.nextLong() | 1);
+        }
+
+        Trace trace = new Trace(traceId, remoteParentId, onComplete);
+        CURRENT.set(trace);
+        return trace.start(name);
+    }
+
+    /**
+     * Abre um span filho do span atual; vazio fora de um trace
+     */
+    public static Span span(String name) {
+        Trace trace = CURRENT.get();
+        return trace != null ? trace.start(name) : NOOP;
+    }
+
+    /**
+     * Span aberto na thread atual, para anotar atributos sem abrir outro; vazio fora de um trace
+     */
+    public static Span current() {
+        Trace trace = CURRENT.get();
+        return trace != null && trace.current != null ? trace.current : NOOP;
+    }
+
+    /**
+     * Formato W3C: 00-{trace id, 32 hex}-{span id, 16 hex}-{flags}; IDs zerados são inválidos
+     */
+    static boolean isValidTraceparent(String header) {
+        if (header == null || header.length() != 55 || header.charAt(2) != '-' || header.charAt(35) != '-'
+                || header.charAt(52) != '-' || header.startsWith("ff")) {
+            return false;
+        }
+        return isHex(header, 0, 2) && isHex(header, 53, 55)
+                && isHex(header, 3, 35) && !isZero(header, 3, 35)
+                && isHex(header, 36, 52) && !isZero(header, 36, 52);
+    }
+
+    private static boolean isHex(String value, int start, int end) {
+        for (int i = start; i < end; i++) {
+            char c = value.charAt(i);
+            if ((c < '0' || c > '9') && (c < 'a' || c > 'f')) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static boolean isZero(String value, int start, int end) {
+        for (int i = start; i < end; i++) {
+            if (value.charAt(i) != '0') {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    public static final class Span implements AutoCloseable {
+
+        private final Trace trace;
+        private final Span parent;
+        private final String spanId;
+        private final String name;
+        private final long startNanos;
+        private Map<String, Object> attributes;
+        private boolean error;
+        private boolean closed;
+
+        private Span(Trace trace, Span parent, String spanId, String name, long startNanos) {
+            this.trace = trace;
+            this.parent = parent;
+            this.spanId = spanId;
+            this.name = name;
+            this.startNanos = startNanos;
+        }
+
+        /**
+         * Trace ID (vazio fora de um trace)
+         */
+        public String traceId() {
+            return trace != null ? trace.traceId : "";
+        }
+
+        public Span attribute(String key, Object value) {
+            if (trace != null && !closed) {
+                if (attributes == null) {
+                    attributes = new LinkedHashMap<>();
+                }
+                attributes.put(key, value);
+            }
+            return this;
+        }
+
+        public Span error(Throwable e) {
+            if (trace != null && !closed) {
+                error = true;
+                if (e != null) {
+                    attribute("exception.type", e.getClass().getName());
+                }
+            }
+            return this;
+        }
+
+        @Override
+        public void close() {
+            if (trace == null || closed) {
+                return;
+            }
+            closed = true;
+            trace.finish(this, System.nanoTime());
+        }
+    }
+
+    private static final class Trace {
+
+        private final String traceId;
+        private final String remoteParentId;
+        private final Consumer<List<SpanData>> onComplete;
+        private final long originEpochNanos = System.currentTimeMillis() * 1_000_000;
+        private final long originNanos = System.nanoTime();
+        private final List<SpanData> spans = new ArrayList<>();
+        private Span current;
+        private int dropped;
+
+        private Trace(String traceId, String remoteParentId, Consumer<List<SpanData>> onComplete) {
+            this.traceId = traceId;
+            this.remoteParentId = remoteParentId;
+            this.onComplete = onComplete;
+        }
+
+        private Span start(String name) {
+            Span span = new Span(this, current, HEX.toHexDigits(ThreadLocalRandom.current().nextLong() | 1), name,
+                    System.nanoTime());
+            current = span;
+            return span;
+        }
+
+        private void finish(Span span, long endNanos) {
+            // Fechamento fora de ordem: o span atual volta para o pai do que foi fechado
+            current = span.parent;
+            boolean root = span.parent == null;
+
+            if (spans.size() < MAX_SPANS_PER_TRACE || root) {
+                if (root && dropped > 0) {
+                    if (span.attributes == null) {
+                        span.attributes = new LinkedHashMap<>();
+                    }
+                    span.attributes.put("tracing.dropped_spans", dropped);
+                }
+                spans.add(new SpanData(traceId, span.spanId,
+                        root ? remoteParentId : span.parent.spanId, span.name,
+                        originEpochNanos + (span.startNanos - originNanos), endNanos - span.startNanos,
+                        span.attributes != null ? Collections.unmodifiableMap(span.attributes) : Map.of(),
+                        span.error));
+            } else {
+                dropped++;
+            }
+
+            if (root) {
+                CURRENT.remove();
+                onComplete.accept(spans);
+            }
+        }
+    }
+}
@@ -0,0 +1,91 @@
+package com.dhs.platform.security_token_service.config;
+
+import com.dhs.platform.security_token_service.util.LogThrottle;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Abre o trace das requisições de /api/v1/auth (antes do orçamento de latência e do rate limit),
+ * continuando o contexto do header traceparent, e devolve o trace ID em X-Trace-Id.
+ * Ao fim da requisição a amostragem por cauda decide se o trace vai para os exportadores.
+ */
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE)
+@Slf4j
+public class TracingFilter extends OncePerRequestFilter {
+
+    private static final String AUTH_PATH = "/api/v1/auth/";
+    private static final String REVOCATION_STREAM_PATH = "/api/v1/auth/revocations/stream";
+    private static final LogThrottle EXPORT_ERROR_THROTTLE = LogThrottle.perMinute(log, "erro ao exportar trace", 5);
+
+    private final boolean enabled;
+    private final TailSampler tailSampler;
+    private final List<TraceExporter> exporters;
+
+    public TracingFilter(
+            List<TraceExporter> exporters,
+            @Value("${tracing.enabled:true}") boolean enabled,
+            @Value("${tracing.tail.slow-threshold-ms:50}") long slowThresholdMillis,
+            @Value("${tracing.tail.sample-ratio:0.001}") double sampleRatio,
+            @Value("${tracing.tail.max-per-second:20}") int maxPerSecond
+    ) {
+        this.exporters = exporters;
+        this.enabled = enabled;
+        this.tailSampler = new TailSampler(TimeUnit.MILLISECONDS.toNanos(slowThresholdMillis), sampleRatio, maxPerSecond);
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        String path = request.getRequestURI();
+        return !enabled || !path.startsWith(AUTH_PATH) || path.startsWith(REVOCATION_STREAM_PATH);
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        Tracing.Span root = Tracing.startTrace(request.getMethod() + " " + request.getRequestURI(),
+                request.getHeader("traceparent"), this::complete);
+        response.setHeader("X-Trace-Id", root.traceId());
+        try {
+            filterChain.doFilter(request, response);
+        } catch (IOException | ServletException | RuntimeException e) {
+            root.error(e);
+            throw e;
+        } finally {
+            root.attribute("http.method", request.getMethod())
+                    .attribute("http.route", request.getRequestURI())
+                    .attribute("http.status_code", response.getStatus());
+            if (response.getStatus() >= 500) {
+                root.error(null);
+            }
+            root.close();
+        }
+    }
+
+    private void complete(List<Tracing.SpanData> spans) {
+        if (!tailSampler.keep(spans)) {
+            return;
+        }
+        for (TraceExporter exporter : exporters) {
+            try {
+                exporter.export(spans);
+            } catch (RuntimeException e) {
+                if (EXPORT_ERROR_THROTTLE.tryAcquire()) {
+                    log.error("Erro ao exportar trace: {}", e.getMessage());
+                }
+            }
+        }
+    }
+}
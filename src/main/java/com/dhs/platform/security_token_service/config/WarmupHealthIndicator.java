@@ -0,0 +1,38 @@
+package com.dhs.platform.security_token_service.config;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.actuate.health.Health;
+import org.springframework.boot.actuate.health.HealthIndicator;
+import org.springframework.stereotype.Component;
+
+/**
+ * Resultado do aquecimento no grupo de readiness (/actuator/health/readiness)
+ *
+ * OUT_OF_SERVICE enquanto o WarmupRunner não terminou; depois UP com os números da execução,
+ * inclusive quando o aquecimento falhou (a falha não impede o pod de ficar pronto).
+ */
+@Component("warmup")
+@RequiredArgsConstructor
+public class WarmupHealthIndicator implements HealthIndicator {
+
+    private final WarmupRunner warmupRunner;
+
+    @Override
+    public Health health() {
+        if (!warmupRunner.isEnabled()) {
+            return Health.up().withDetail("enabled", false).build();
+        }
+
+        WarmupRunner.WarmupResult result = warmupRunner.getLastResult();
+        if (result == null) {
+            return Health.outOfService().build();
+        }
+        return Health.up()
+                .withDetail("reason", result.reason())
+                .withDetail("durationMillis", result.durationMillis())
+                .withDetail("iterations", result.iterations())
+                .withDetail("opsPerSecond", Math.round(result.opsPerSecond()))
+                .withDetail("compileMillis", result.compileMillis())
+                .build();
+    }
+}
@@ -0,0 +1,253 @@
+package com.dhs.platform.security_token_service.config;
+
+import com.dhs.platform.security_token_service.adapters.in.http.dto.TokenValidationResponseDTO;
+import com.dhs.platform.security_token_service.domain.model.Client;
+import com.dhs.platform.security_token_service.domain.port.in.service.IAuthenticationService;
+import com.dhs.platform.security_token_service.domain.service.JwtTokenService;
+import com.dhs.platform.security_token_service.domain.service.RateLimitService;
+import com.dhs.platform.security_token_service.domain.service.TokenCacheService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.stereotype.Component;
+
+import java.lang.management.CompilationMXBean;
+import java.lang.management.ManagementFactory;
+import java.security.SecureRandom;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * Aquecimento do JIT antes de o pod ser marcado como pronto
+ *
+ * Runners executam antes do ApplicationReadyEvent, então o readiness probe
+ * (/actuator/health/readiness) responde OUT_OF_SERVICE até o fim do aquecimento.
+ *
+ * Tokens são assinados com uma chave descartável; a validação passa pelo
+ * AuthenticationService e pelos adapters de cache (Redis/Lettuce, Jackson) com um conjunto
+ * pequeno de tokens sintéticos. No Redis compartilhado o aquecimento só lê (blacklist, cache
+ * de validação, rate limit), no máximo warmup.cache-iterations-per-second vezes por segundo,
+ * e não deixa chaves para limpar. O aquecimento termina quando o tempo de compilação do JIT
+ * para de crescer, ou quando o orçamento de tempo ou de iterações acaba.
+ *
+ * O resultado fica disponível em /actuator/health/readiness (WarmupHealthIndicator).
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class WarmupRunner implements ApplicationRunner {
+
+    private static final int TOKEN_POOL_SIZE = 64;
+    private static final int BCRYPT_EVERY = 500;
+
+    private final IAuthenticationService authenticationService;
+    private final TokenCacheService tokenCacheService;
+    private final RateLimitService rateLimitService;
+    private final PasswordEncoder passwordEncoder;
+    private final ObjectMapper objectMapper;
+
+    @Value("${warmup.enabled:true}")
+    private boolean enabled;
+
+    @Value("${warmup.max-duration-ms:30000}")
+    private long maxDurationMillis;
+
+    @Value("${warmup.sample-interval-ms:500}")
+    private long sampleIntervalMillis;
+
+    @Value("${warmup.stable-compile-ms:5}")
+    private long stableCompileMillis;
+
+    @Value("${warmup.stable-samples:3}")
+    private int stableSamples;
+
+    @Value("${warmup.min-iterations:10000}")
+    private long minIterations;
+
+    @Value("${warmup.max-iterations:500000}")
+    private long maxIterations;
+
+    @Value("${warmup.cache-iterations-per-second:200}")
+    private int cacheIterationsPerSecond;
+
+    private volatile WarmupResult lastResult;
+
+    /**
+     * @param reason STABILIZED (JIT estável), BUDGET (tempo ou iterações esgotados) ou FAILED
+     */
+    public record WarmupResult(long durationMillis, long iterations, double opsPerSecond,
+                               long compileMillis, String reason) {
+    }
+
+    @Override
+    public void run(ApplicationArguments args) {
+        if (!enabled) {
+            return;
+        }
+
+        log.info("Aquecimento iniciado: orçamento de {} ms", maxDurationMillis);
+        lastResult = warmUp();
+        log.info("Aquecimento concluído ({}) em {} ms: {} iterações, {} ops/s na última janela, {} ms de compilação JIT",
+                lastResult.reason(), lastResult.durationMillis(), lastResult.iterations(),
+                String.format("%.0f", lastResult.opsPerSecond()), lastResult.compileMillis());
+    }
+
+    /**
+     * null enquanto o aquecimento não terminou (ou se estiver desligado)
+     */
+    public WarmupResult getLastResult() {
+        return lastResult;
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    private WarmupResult warmUp() {
+        CompilationMXBean compilation = ManagementFactory.getCompilationMXBean();
+        boolean compileTimeSupported = compilation != null && compilation.isCompilationTimeMonitoringSupported();
+        long startCompileMillis = compileTimeSupported ? compilation.getTotalCompilationTime() : 0;
+
+        long start = System.nanoTime();
+        long deadline = start + maxDurationMillis * 1_000_000;
+        long iterations = 0;
+        double opsPerSecond = 0;
+        String reason = "BUDGET";
+
+        JwtTokenService throwawayJwt = new JwtTokenService(randomSecret(), 120, "warmup");
+        // Nunca gravada: só lida para exercitar a consulta de rate limit
+        String rateLimitKey = "warmup-" + UUID.randomUUID();
+        String secret = randomSecret();
+        String secretHash = passwordEncoder.encode(secret);
+        List<String> tokens = new ArrayList<>(TOKEN_POOL_SIZE);
+        for (int i = 0; i < TOKEN_POOL_SIZE; i++) {
+            tokens.add(throwawayJwt.generateToken(syntheticClient(i)));
+        }
+
+        try {
+            long windowStart = System.nanoTime();
+            long windowIterations = 0;
+            long lastCompileMillis = startCompileMillis;
+            int stable = 0;
+            boolean throughCache = true;
+            long cacheSecondStart = start;
+            int cacheIterations = 0;
+
+            while (System.nanoTime() < deadline && iterations < maxIterations) {
+                String token = tokens.get((int) (iterations % TOKEN_POOL_SIZE));
+                runLocalIteration(throwawayJwt, token, iterations, secret, secretHash);
+
+                long now = System.nanoTime();
+                if (now - cacheSecondStart >= 1_000_000_000L) {
+                    cacheSecondStart = now;
+                    cacheIterations = 0;
+                }
+                if (throughCache && cacheIterations < cacheIterationsPerSecond) {
+                    throughCache = runCacheIteration(token, rateLimitKey);
+                    cacheIterations++;
+                }
+
+                iterations++;
+                windowIterations++;
+
+                if (now - windowStart < sampleIntervalMillis * 1_000_000) {
+                    continue;
+                }
+
+                opsPerSecond = windowIterations * 1e9 / (now - windowStart);
+                windowStart = now;
+                windowIterations = 0;
+
+                // Sem métrica de compilação (ex.: imagem nativa) basta o mínimo de iterações
+                if (compileTimeSupported) {
+                    long compileMillis = compilation.getTotalCompilationTime();
+                    stable = compileMillis - lastCompileMillis <= stableCompileMillis ? stable + 1 : 0;
+                    lastCompileMillis = compileMillis;
+                } else {
+                    stable = stableSamples;
+                }
+                if (stable >= stableSamples && iterations >= minIterations) {
+                    reason = "STABILIZED";
+                    break;
+                }
+            }
+
+        } catch (Exception e) {
+            // Falha no aquecimento não impede o pod de ficar pronto
+            log.warn("Aquecimento interrompido: {}", e.getMessage());
+            reason = "FAILED";
+        }
+
+        long compileMillis = compileTimeSupported ? compilation.getTotalCompilationTime() - startCompileMillis : -1;
+        return new WarmupResult((System.nanoTime() - start) / 1_000_000, iterations, opsPerSecond, compileMillis, reason);
+    }
+
+    /**
+     * Caminhos de /token e /validate que não saem do processo: assinatura, verificação e
+     * extração de claims, Jackson e, com menor frequência, BCrypt
+     */
+    private void runLocalIteration(JwtTokenService throwawayJwt, String token, long iteration,
+                                   String secret, String secretHash) throws Exception {
+        String issued = throwawayJwt.generateToken(syntheticClient((int) (iteration % TOKEN_POOL_SIZE)));
+        if (!throwawayJwt.validateToken(issued) || !throwawayJwt.validateToken(token)) {
+            throw new IllegalStateException("Token sintético rejeitado");
+        }
+
+        TokenValidationResponseDTO validation = TokenValidationResponseDTO.builder()
+                .valid(true)
+                .clientId(throwawayJwt.extractClientId(token))
+                .clientName(throwawayJwt.extractClientName(token))
+                .scopes(throwawayJwt.extractScopes(token))
+                .issuedAt(throwawayJwt.extractIssuedAt(token))
+                .expiresAt(throwawayJwt.extractExpiration(token))
+                .message("Token válido")
+                .build();
+        objectMapper.readValue(objectMapper.writeValueAsString(validation), TokenValidationResponseDTO.class);
+
+        if (iteration % BCRYPT_EVERY == 0) {
+            passwordEncoder.matches(secret, secretHash);
+        }
+    }
+
+    /**
+     * Leituras no Redis compartilhado (blacklist, cache de validação, rate limit) e o
+     * AuthenticationService; nada é gravado. O token sintético, assinado com a chave
+     * descartável, é recusado pelo serviço e só entra no cache negativo local.
+     *
+     * @return false se o Redis falhou; as próximas iterações ficam só no caminho local
+     */
+    private boolean runCacheIteration(String token, String rateLimitKey) {
+        try {
+            tokenCacheService.isTokenBlacklisted(token);
+            tokenCacheService.getCachedTokenValidation(token);
+            authenticationService.validateTokenSerialized("Bearer " + token);
+            rateLimitService.getRateLimitInfo(rateLimitKey);
+            return true;
+        } catch (Exception e) {
+            log.debug("Aquecimento sem Redis: {}", e.getMessage());
+            return false;
+        }
+    }
+
+    private static Client syntheticClient(int index) {
+        return Client.builder()
+                .clientId("warmup-" + index)
+                .name("Aquecimento")
+                .scopes(Set.of("read", "write"))
+                .active(true)
+                .build();
+    }
+
+    private static String randomSecret() {
+        byte[] bytes = new byte[48];
+        new SecureRandom().nextBytes(bytes);
+        return Base64.getEncoder().encodeToString(bytes);
+    }
+}
@@ -9,10 +9,15 @@ import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
 @RequiredArgsConstructor
 public class WebConfig implements WebMvcConfigurer {
 
+    private final ConcurrencyLimitInterceptor concurrencyLimitInterceptor;
     private final RateLimitInterceptor rateLimitInterceptor;
 
     @Override
     public void addInterceptors(InterceptorRegistry registry) {
+        // Descarte de carga antes do rate limit, que já consulta o Redis
+        registry.addInterceptor(concurrencyLimitInterceptor)
+                .addPathPatterns("/api/v1/auth/token", "/api/v1/auth/validate", "/api/v1/auth/authorize");
+
         registry.addInterceptor(rateLimitInterceptor)
                 .addPathPatterns("/api/v1/auth/**")  // Aplicar rate limit apenas nos endpoints de auth
                 .excludePathPatterns("/actuator/**"); // Excluir endpoints de health check
@@ -0,0 +1,10 @@
+package com.dhs.platform.security_token_service.domain.model;
+
+/**
+ * Resultado de /authorize
+ */
+public enum AuthorizationDecision {
+    ALLOW,
+    INSUFFICIENT_SCOPE,
+    INVALID_TOKEN
+}
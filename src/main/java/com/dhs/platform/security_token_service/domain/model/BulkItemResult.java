@@ -0,0 +1,17 @@
+package com.dhs.platform.security_token_service.domain.model;
+
+/**
+ * Resultado de um item em uma operação administrativa em lote
+ *
+ * @param seq sequência do evento de revogação publicado; 0 se não houve evento
+ */
+public record BulkItemResult(boolean success, long seq, String message) {
+
+    public static BulkItemResult ok(long seq) {
+        return new BulkItemResult(true, seq, null);
+    }
+
+    public static BulkItemResult failed(String message) {
+        return new BulkItemResult(false, 0, message);
+    }
+}
@@ -1,5 +1,6 @@
 package com.dhs.platform.security_token_service.domain.model;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
@@ -27,6 +28,17 @@ public class Client {
     private String name;
     private Set<String> scopes;
     private boolean active;
+
+    /**
+     * Formato dos access tokens do cliente; ausente equivale a JWT
+     */
+    private TokenFormat tokenFormat;
+
     private LocalDateTime createdAt;
     private LocalDateTime updatedAt;
+
+    @JsonIgnore
+    public boolean usesOpaqueTokens() {
+        return tokenFormat == TokenFormat.OPAQUE;
+    }
 }
\ No newline at end of file
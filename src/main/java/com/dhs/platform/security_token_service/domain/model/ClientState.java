@@ -0,0 +1,36 @@
+package com.dhs.platform.security_token_service.domain.model;
+
+import com.dhs.platform.security_token_service.adapters.in.http.dto.TokenValidationResponseDTO;
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Estado consolidado de um cliente no cache: registro do cliente, token atual,
+ * sua expiração e o resumo de validação. Lido em uma única ida ao Redis no login.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class ClientState {
+
+    private Client client;
+    private String token;
+    private String tokenHash;
+    private Long tokenExpiresAt;
+    private TokenValidationResponseDTO validation;
+
+    /**
+     * Indica se o token armazenado pode ser reutilizado
+     * (o adapter remove o token quando expirado ou na blacklist)
+     */
+    @JsonIgnore
+    public boolean hasReusableToken() {
+        return token != null && tokenExpiresAt != null && tokenExpiresAt > System.currentTimeMillis();
+    }
+}
@@ -0,0 +1,21 @@
+package com.dhs.platform.security_token_service.domain.model;
+
+/**
+ * Falhas de login de um cliente na janela atual e até quando novas tentativas são recusadas
+ * (0 se não houver bloqueio)
+ */
+public record LoginFailureState(int failures, long blockedUntilMillis) {
+
+    public static final LoginFailureState NONE = new LoginFailureState(0, 0);
+
+    public boolean isBlocked(long nowMillis) {
+        return blockedUntilMillis > nowMillis;
+    }
+
+    /**
+     * Segundos até o fim do bloqueio, arredondados para cima (Retry-After)
+     */
+    public long retryAfterSeconds(long nowMillis) {
+        return isBlocked(nowMillis) ? (blockedUntilMillis - nowMillis + 999) / 1000 : 0;
+    }
+}
@@ -0,0 +1,23 @@
+package com.dhs.platform.security_token_service.domain.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Registro de um refresh token armazenado (apenas o hash do token é usado como chave).
+ * Tokens da mesma família são rotacionados a cada uso; reapresentar um token já
+ * usado revoga a família inteira.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class RefreshTokenRecord {
+
+    private String clientId;
+    private String familyId;
+    private long issuedAt;
+    private boolean used;
+}
@@ -0,0 +1,22 @@
+package com.dhs.platform.security_token_service.domain.model;
+
+/**
+ * Resultado da rotação de um refresh token
+ */
+public record RefreshTokenRotation(Status status, RefreshTokenRecord record) {
+
+    public enum Status {
+        /** Token válido, substituído pelo novo token da família */
+        VALID,
+        /** Token desconhecido ou expirado */
+        UNKNOWN,
+        /** Token já usado: a família foi revogada */
+        REUSED,
+        /** Família revogada anteriormente */
+        REVOKED
+    }
+
+    public static RefreshTokenRotation unknown() {
+        return new RefreshTokenRotation(Status.UNKNOWN, null);
+    }
+}
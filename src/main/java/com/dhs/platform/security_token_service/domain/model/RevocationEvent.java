@@ -0,0 +1,24 @@
+package com.dhs.platform.security_token_service.domain.model;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+/**
+ * Evento de revogação publicado para consumidores que mantêm validações em cache
+ *
+ * @param seq        sequência monotônica global (também é o id do evento SSE)
+ * @param type       TOKEN (token na blacklist) ou CLIENT (tokens do cliente invalidados)
+ * @param tokenHash  SHA-256 (Base64) do token; apenas em eventos TOKEN
+ * @param clientId   cliente afetado; pode faltar em eventos TOKEN de tokens ilegíveis
+ * @param generation geração do cliente, incrementada a cada evento CLIENT
+ * @param revokedAt  instante da revogação (epoch ms, relógio do STS)
+ * @param expiresAt  até quando o evento é relevante (epoch ms); 0 quando não se aplica
+ */
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public record RevocationEvent(long seq, Type type, String tokenHash, String clientId, long generation,
+                              long revokedAt, long expiresAt) {
+
+    public enum Type {
+        TOKEN,
+        CLIENT
+    }
+}
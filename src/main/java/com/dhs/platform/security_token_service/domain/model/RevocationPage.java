@@ -0,0 +1,16 @@
+package com.dhs.platform.security_token_service.domain.model;
+
+import java.util.List;
+
+/**
+ * Página lida do log de revogações a partir de uma sequência
+ * reset indica que eventos após a sequência pedida não estão mais no log
+ * (descartados pelo limite de tamanho ou log reiniciado no Redis)
+ */
+public record RevocationPage(List<RevocationEvent> events, long latestSequence, boolean truncated,
+                             boolean reset, Long oldestRetainedAt) {
+
+    public long lastSequence(long afterSeq) {
+        return events.isEmpty() ? afterSeq : events.get(events.size() - 1).seq();
+    }
+}
@@ -0,0 +1,18 @@
+package com.dhs.platform.security_token_service.domain.model;
+
+/**
+ * Revogação a registrar no log; a sequência e a geração são atribuídas pelo log
+ *
+ * @param token     token revogado (eventos TOKEN); apenas o hash é gravado
+ * @param expiresAt até quando o evento é relevante (epoch ms); 0 quando não se aplica
+ */
+public record RevocationRequest(RevocationEvent.Type type, String token, String clientId, long expiresAt) {
+
+    public static RevocationRequest token(String token, String clientId, long expiresAt) {
+        return new RevocationRequest(RevocationEvent.Type.TOKEN, token, clientId, expiresAt);
+    }
+
+    public static RevocationRequest client(String clientId) {
+        return new RevocationRequest(RevocationEvent.Type.CLIENT, null, clientId, 0);
+    }
+}
@@ -0,0 +1,22 @@
+package com.dhs.platform.security_token_service.domain.model;
+
+import com.dhs.platform.security_token_service.adapters.in.http.dto.TokenValidationResponseDTO;
+
+import java.time.ZoneId;
+
+/**
+ * Resposta de validação já serializada em JSON (o corpo exato do /validate),
+ * acompanhada apenas dos campos usados em decisões: validade, cliente e expiração.
+ *
+ * message só é preenchida em resultados calculados na hora (não vem do cache).
+ */
+public record SerializedValidation(boolean valid, String clientId, long expiresAtMillis, String message, String body) {
+
+    public static SerializedValidation of(TokenValidationResponseDTO validation, String body) {
+        long expiresAtMillis = validation.getExpiresAt() != null
+                ? validation.getExpiresAt().atZone(ZoneId.systemDefault()).toInstant().toEpochMilli()
+                : 0;
+        return new SerializedValidation(validation.isValid(), validation.getClientId(), expiresAtMillis,
+                validation.getMessage(), body);
+    }
+}
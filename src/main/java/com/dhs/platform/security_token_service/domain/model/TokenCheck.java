@@ -0,0 +1,15 @@
+package com.dhs.platform.security_token_service.domain.model;
+
+/**
+ * Resultado da verificação de um JWT, sem exceções no caminho de rejeição
+ */
+public enum TokenCheck {
+    VALID,
+    MALFORMED,
+    EXPIRED,
+    INVALID_SIGNATURE;
+
+    public boolean isValid() {
+        return this == VALID;
+    }
+}
@@ -0,0 +1,12 @@
+package com.dhs.platform.security_token_service.domain.model;
+
+/**
+ * Formato do access token emitido para um cliente
+ *
+ * JWT: autocontido, verificável localmente (sts-client). OPAQUE: handle aleatório curto,
+ * com os claims guardados no servidor; validado com uma única consulta por chave.
+ */
+public enum TokenFormat {
+    JWT,
+    OPAQUE
+}
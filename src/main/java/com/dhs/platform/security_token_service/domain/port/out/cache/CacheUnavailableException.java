@@ -0,0 +1,16 @@
+package com.dhs.platform.security_token_service.domain.port.out.cache;
+
+/**
+ * O servidor de cache não pôde responder e a operação não admite o fallback local
+ * (verificações de revogação, que não podem falhar abertas)
+ */
+public class CacheUnavailableException extends RuntimeException {
+
+    public CacheUnavailableException(String message) {
+        super(message);
+    }
+
+    public CacheUnavailableException(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
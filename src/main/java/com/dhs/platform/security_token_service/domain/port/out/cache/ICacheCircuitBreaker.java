@@ -0,0 +1,24 @@
+package com.dhs.platform.security_token_service.domain.port.out.cache;
+
+/**
+ * Port de saída para o circuit breaker do servidor de cache
+ *
+ * Serviços de domínio com fallback local (rate limit, falhas de login) consultam o circuito
+ * antes de ir ao cache e informam o resultado de cada chamada.
+ */
+public interface ICacheCircuitBreaker {
+
+    /**
+     * Indica se a chamada pode ir ao servidor de cache; senão, o chamador usa o fallback local
+     */
+    boolean allowRequest();
+
+    void recordSuccess();
+
+    void recordFailure(Exception e);
+
+    /**
+     * Indica se o cache está em modo degradado (circuito não fechado)
+     */
+    boolean isDegraded();
+}
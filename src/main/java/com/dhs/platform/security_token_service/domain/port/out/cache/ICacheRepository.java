@@ -1,6 +1,8 @@
 package com.dhs.platform.security_token_service.domain.port.out.cache;
 
 import java.time.Duration;
+import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
 
@@ -15,16 +17,69 @@ public interface ICacheRepository {
      */
     void set(String key, String value, Duration ttl);
 
+    /**
+     * Armazena um valor apenas se a chave não existir (usado como lock distribuído)
+     *
+     * @return true se o valor foi armazenado
+     */
+    boolean setIfAbsent(String key, String value, Duration ttl);
+
+    /**
+     * Agenda o armazenamento de um valor no cache sem bloquear o chamador (write-behind).
+     * Usado para escritas que só beneficiam requisições futuras.
+     */
+    void setAsync(String key, String value, Duration ttl);
+
+    /**
+     * Armazena vários valores com o mesmo TTL em uma única ida ao servidor (pipeline)
+     */
+    void setAll(Map<String, String> values, Duration ttl);
+
+    /**
+     * Como set, mas sem fallback local: se o servidor não puder gravar (circuito aberto, erro),
+     * lança CacheUnavailableException. Usado nas revogações, que não podem valer só neste nó.
+     */
+    void setOrThrow(String key, String value, Duration ttl);
+
+    /**
+     * Versão em pipeline de setOrThrow
+     */
+    void setAllOrThrow(Map<String, String> values, Duration ttl);
+
     /**
      * Recupera um valor do cache
      */
     Optional<String> get(String key);
 
+    /**
+     * Recupera várias chaves em uma única ida ao servidor (pipeline), na ordem das chaves
+     */
+    List<Optional<String>> getAll(List<String> keys);
+
+    /**
+     * Recupera um valor do cache tolerando leitura levemente desatualizada
+     * (pode ser atendida por uma réplica)
+     */
+    Optional<String> getFromReplica(String key);
+
     /**
      * Verifica se uma chave existe no cache
      */
     boolean hasKey(String key);
 
+    /**
+     * Verifica se uma chave existe no cache tolerando leitura levemente desatualizada
+     * (pode ser atendida por uma réplica)
+     */
+    boolean hasKeyFromReplica(String key);
+
+    /**
+     * Como hasKeyFromReplica, mas sem fallback local: se o servidor não puder responder
+     * (circuito aberto, erro), lança CacheUnavailableException em vez de responder false.
+     * Usado nas verificações de revogação, que não podem falhar abertas.
+     */
+    boolean hasKeyFromReplicaOrThrow(String key);
+
     /**
      * Remove uma chave do cache
      */
@@ -39,4 +94,10 @@ public interface ICacheRepository {
      * Busca chaves por padrão
      */
     Set<String> keys(String pattern);
+
+    /**
+     * Executa um script no servidor de cache (Lua no Redis) em uma única ida ao servidor.
+     * Retorna lista vazia se o script não puder ser executado.
+     */
+    List<String> executeScript(String script, List<String> keys, List<String> args);
 }
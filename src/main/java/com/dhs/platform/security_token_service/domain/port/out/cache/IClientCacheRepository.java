@@ -2,7 +2,9 @@ package com.dhs.platform.security_token_service.domain.port.out.cache;
 
 import com.dhs.platform.security_token_service.domain.model.Client;
 
+import java.util.Collection;
 import java.util.Optional;
+import java.util.function.Supplier;
 
 /**
  * Port de saída para cache de clientes
@@ -14,6 +16,12 @@ public interface IClientCacheRepository {
      */
     Optional<Client> getCachedClient(String clientId);
 
+    /**
+     * Recupera um cliente do cache ou o carrega pelo loader, armazenando o resultado.
+     * Entradas próximas da expiração podem ser renovadas antecipadamente em segundo plano.
+     */
+    Optional<Client> getOrLoadClient(String clientId, Supplier<Optional<Client>> loader);
+
     /**
      * Armazena um cliente no cache
      */
@@ -24,6 +32,11 @@ public interface IClientCacheRepository {
      */
     void invalidateClientCache(String clientId);
 
+    /**
+     * Invalida o cache de vários clientes em uma única ida ao servidor
+     */
+    void invalidateClientCaches(Collection<String> clientIds);
+
     /**
      * Atualiza o cache de um cliente
      */
@@ -0,0 +1,44 @@
+package com.dhs.platform.security_token_service.domain.port.out.cache;
+
+import com.dhs.platform.security_token_service.domain.model.ClientState;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.Optional;
+
+/**
+ * Port de saída para o estado consolidado de clientes (cliente + token atual)
+ */
+public interface IClientStateCacheRepository {
+
+    /**
+     * Indica se o estado consolidado está habilitado
+     */
+    boolean isEnabled();
+
+    /**
+     * Recupera o estado do cliente em uma única consulta.
+     * O token é omitido se estiver expirado ou na blacklist.
+     */
+    Optional<ClientState> getClientState(String clientId);
+
+    /**
+     * Armazena o estado do cliente
+     */
+    void saveClientState(ClientState state, Duration ttl);
+
+    /**
+     * Invalida o estado de um cliente
+     */
+    void invalidateClientState(String clientId);
+
+    /**
+     * Invalida o estado de vários clientes em uma única ida ao servidor
+     */
+    void invalidateClientStates(Collection<String> clientIds);
+
+    /**
+     * Limpa o estado de todos os clientes
+     */
+    void clearAllClientStates();
+}
@@ -0,0 +1,31 @@
+package com.dhs.platform.security_token_service.domain.port.out.cache;
+
+import com.dhs.platform.security_token_service.domain.model.LoginFailureState;
+
+import java.time.Duration;
+
+/**
+ * Port de saída para os contadores de falhas de login por cliente, compartilhados entre os pods
+ */
+public interface ILoginFailureRepository {
+
+    /**
+     * Falhas na janela atual e bloqueio vigente; LoginFailureState.NONE se não houver registro
+     */
+    LoginFailureState find(String clientId);
+
+    /**
+     * Reserva uma tentativa antes da verificação do secret, em uma única operação atômica: com
+     * bloqueio vigente, retorna o estado sem contar a tentativa (isBlocked = recusada); senão conta
+     * a tentativa na janela e, se ela passar de freeAttempts, bloqueia o cliente por hold enquanto
+     * ela está em andamento. Retorna as tentativas na janela, incluindo a reservada.
+     */
+    LoginFailureState reserveAttempt(String clientId, int freeAttempts, Duration hold, Duration window);
+
+    /**
+     * Recusa novas tentativas do cliente pelo período informado
+     */
+    void block(String clientId, Duration duration);
+
+    void reset(String clientId);
+}
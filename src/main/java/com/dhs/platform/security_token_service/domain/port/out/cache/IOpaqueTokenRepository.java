@@ -0,0 +1,35 @@
+package com.dhs.platform.security_token_service.domain.port.out.cache;
+
+import com.dhs.platform.security_token_service.domain.model.SerializedValidation;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.Optional;
+
+/**
+ * Port de saída para tokens opacos: validação armazenada no servidor, indexada pelo hash do handle,
+ * e o token atual de cada cliente (reutilizado no login e removido na revogação do cliente)
+ */
+public interface IOpaqueTokenRepository {
+
+    /**
+     * Armazena a validação do token pelo tempo de vida dele (escrita síncrona: o token
+     * precisa ser resolvível em qualquer pod assim que é entregue ao cliente) e o registra
+     * como token atual do cliente
+     */
+    void save(String token, SerializedValidation validation, Duration ttl);
+
+    Optional<SerializedValidation> find(String token);
+
+    /**
+     * Último token opaco emitido para o cliente, se o índice ainda existir
+     */
+    Optional<String> findClientToken(String clientId);
+
+    void delete(Collection<String> tokens);
+
+    /**
+     * Remove o token atual de cada cliente e o índice cliente -> token
+     */
+    void deleteClientTokens(Collection<String> clientIds);
+}
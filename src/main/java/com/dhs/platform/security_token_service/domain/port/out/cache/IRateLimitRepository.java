@@ -0,0 +1,32 @@
+package com.dhs.platform.security_token_service.domain.port.out.cache;
+
+import java.time.Duration;
+import java.util.Optional;
+
+/**
+ * Port de saída para os contadores de rate limit (janela fixa por IP)
+ */
+public interface IRateLimitRepository {
+
+    /**
+     * Contador da janela atual; vazio se a janela não existir ou já tiver expirado
+     */
+    Optional<Integer> getCount(String clientIp);
+
+    /**
+     * Abre uma janela com o contador em 1
+     */
+    void startWindow(String clientIp, Duration window);
+
+    /**
+     * Incrementa o contador da janela atual
+     */
+    void increment(String clientIp);
+
+    /**
+     * Segundos até o fim da janela atual (negativo se não houver janela, como o TTL do Redis)
+     */
+    long getResetInSeconds(String clientIp);
+
+    void reset(String clientIp);
+}
@@ -0,0 +1,32 @@
+package com.dhs.platform.security_token_service.domain.port.out.cache;
+
+import com.dhs.platform.security_token_service.domain.model.RefreshTokenRecord;
+import com.dhs.platform.security_token_service.domain.model.RefreshTokenRotation;
+
+import java.time.Duration;
+import java.util.Collection;
+
+/**
+ * Port de saída para armazenamento de refresh tokens (armazenados por hash)
+ */
+public interface IRefreshTokenCacheRepository {
+
+    /**
+     * Armazena um refresh token recém-emitido
+     */
+    void saveRefreshToken(String refreshToken, RefreshTokenRecord record, Duration ttl);
+
+    /**
+     * Marca o token apresentado como usado e armazena o substituto, de forma atômica.
+     * Se o token apresentado já tiver sido usado, revoga a família. O substituto expira
+     * junto com a família (ttl conta a partir da emissão do primeiro token).
+     */
+    RefreshTokenRotation rotateRefreshToken(String presentedToken, String replacementToken,
+                                            RefreshTokenRecord replacementRecord, Duration ttl);
+
+    /**
+     * Revoga todas as famílias ativas dos clientes. Lança CacheUnavailableException se o
+     * servidor de cache não puder aplicar a revogação.
+     */
+    void revokeClientFamilies(Collection<String> clientIds);
+}
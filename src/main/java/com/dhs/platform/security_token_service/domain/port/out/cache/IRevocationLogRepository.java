@@ -0,0 +1,38 @@
+package com.dhs.platform.security_token_service.domain.port.out.cache;
+
+import com.dhs.platform.security_token_service.domain.model.RevocationEvent;
+import com.dhs.platform.security_token_service.domain.model.RevocationRequest;
+
+import java.util.List;
+
+/**
+ * Port de saída para o log de revogações (replay limitado e sequência monotônica)
+ */
+public interface IRevocationLogRepository {
+
+    /**
+     * Registra a invalidação dos tokens de um cliente, incrementando sua geração
+     */
+    RevocationEvent appendClientRevocation(String clientId);
+
+    /**
+     * Registra várias revogações em uma única ida ao servidor; eventos na ordem das requisições.
+     * Eventos TOKEN carregam apenas o hash do token.
+     */
+    List<RevocationEvent> appendAll(List<RevocationRequest> requests);
+
+    /**
+     * Eventos com sequência maior que afterSeq, em ordem
+     */
+    List<RevocationEvent> readAfter(long afterSeq, int limit);
+
+    /**
+     * Primeiro evento ainda retido no log, se houver
+     */
+    RevocationEvent getOldestRetained();
+
+    /**
+     * Última sequência emitida (0 se nenhuma); IllegalStateException se o Redis estiver indisponível
+     */
+    long getLatestSequence();
+}
@@ -1,9 +1,12 @@
 package com.dhs.platform.security_token_service.domain.port.out.cache;
 
 import com.dhs.platform.security_token_service.adapters.in.http.dto.TokenValidationResponseDTO;
+import com.dhs.platform.security_token_service.domain.model.SerializedValidation;
 
 import java.time.Duration;
+import java.util.Collection;
 import java.util.Optional;
+import java.util.function.Supplier;
 
 /**
  * Port de saída para cache de tokens
@@ -20,6 +23,19 @@ public interface ITokenCacheRepository {
      */
     TokenValidationResponseDTO getCachedTokenValidation(String token);
 
+    /**
+     * Recupera a validação do cache ou a calcula pelo validator, armazenando o resultado.
+     * Entradas próximas da expiração podem ser renovadas antecipadamente em segundo plano.
+     * Retorna null se o validator não produzir uma validação.
+     */
+    TokenValidationResponseDTO getOrComputeTokenValidation(String token, Supplier<TokenValidationResponseDTO> validator);
+
+    /**
+     * Igual a getOrComputeTokenValidation, mas retorna o corpo JSON já serializado.
+     * Em acertos de cache o corpo é devolvido como armazenado, sem passar pelo Jackson.
+     */
+    SerializedValidation getOrComputeSerializedValidation(String token, Supplier<TokenValidationResponseDTO> validator);
+
     /**
      * Armazena a validação de um token no cache
      */
@@ -31,12 +47,19 @@ public interface ITokenCacheRepository {
     void invalidateTokenCache(String token);
 
     /**
-     * Adiciona um token à blacklist
+     * Adiciona um token à blacklist. Lança CacheUnavailableException se o servidor de cache
+     * não puder gravá-la: a revogação não é aplicada só no nó local.
      */
     void blacklistToken(String token, Duration duration);
 
     /**
-     * Verifica se um token está na blacklist
+     * Adiciona vários tokens à blacklist com pipeline no Redis (mesma falha de blacklistToken)
+     */
+    void blacklistTokens(Collection<String> tokens, Duration duration);
+
+    /**
+     * Verifica se um token está na blacklist. Falha fechada: lança CacheUnavailableException
+     * se a blacklist não puder ser consultada.
      */
     boolean isTokenBlacklisted(String token);
 
@@ -55,6 +78,11 @@ public interface ITokenCacheRepository {
      */
     void invalidateClientToken(String clientId);
 
+    /**
+     * Invalida os tokens de vários clientes com pipeline no Redis
+     */
+    void invalidateClientTokens(Collection<String> clientIds);
+
     /**
      * Limpa todo o cache de tokens
      */
@@ -0,0 +1,29 @@
+package com.dhs.platform.security_token_service.domain.port.out.cache;
+
+import java.util.Optional;
+
+/**
+ * Port de saída para o cache compartilhado de client IDs inexistentes (cache negativo)
+ */
+public interface IUnknownClientCacheRepository {
+
+    /**
+     * Verifica se o client ID foi registrado recentemente como inexistente
+     */
+    boolean isUnknown(String clientId);
+
+    /**
+     * Registra um client ID como inexistente
+     */
+    void markUnknown(String clientId);
+
+    /**
+     * Remove um client ID do cache negativo (ex.: cliente criado) e troca a marca de invalidação
+     */
+    void invalidate(String clientId);
+
+    /**
+     * Marca compartilhada que muda a cada invalidate, em qualquer nó; vazia se ainda não houver
+     */
+    Optional<String> getInvalidationMark();
+}
@@ -3,7 +3,10 @@ package com.dhs.platform.security_token_service.domain.port.out.repository;
 import com.dhs.platform.security_token_service.domain.model.Client;
 
 import java.util.Optional;
+import java.util.Set;
 
 public interface IClientRepository {
     Optional<Client> findByClientId(String clientId);
+
+    Set<String> findAllScopes();
 }
\ No newline at end of file
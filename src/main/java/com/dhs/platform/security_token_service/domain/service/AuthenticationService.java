@@ -4,79 +4,147 @@ import com.dhs.platform.security_token_service.adapters.in.http.dto.LoginRequest
 import com.dhs.platform.security_token_service.adapters.in.http.dto.TokenResponseDTO;
 import com.dhs.platform.security_token_service.adapters.in.http.dto.TokenValidationResponseDTO;
 import com.dhs.platform.security_token_service.domain.model.Client;
+import com.dhs.platform.security_token_service.domain.model.ClientState;
+import com.dhs.platform.security_token_service.domain.model.LoginFailureState;
+import com.dhs.platform.security_token_service.domain.model.SerializedValidation;
+import com.dhs.platform.security_token_service.domain.model.TokenCheck;
 import com.dhs.platform.security_token_service.domain.port.in.service.IAuthenticationService;
 import com.dhs.platform.security_token_service.domain.port.out.repository.IClientRepository;
+import com.dhs.platform.security_token_service.util.LogThrottle;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.jsonwebtoken.Claims;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.security.authentication.BadCredentialsException;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
+import org.springframework.util.StringUtils;
 
 import java.time.Duration;
+import java.time.Instant;
 import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.temporal.ChronoUnit;
 import java.util.Optional;
+import java.util.Set;
 
 @Service
 @RequiredArgsConstructor
 @Slf4j
 public class AuthenticationService implements IAuthenticationService {
 
+    private static final LogThrottle BLACKLISTED_TOKEN_THROTTLE = LogThrottle.perMinute(log, "token na blacklist", 10);
+    private static final SerializedValidation UNSERIALIZABLE_ERROR = new SerializedValidation(
+            false, null, 0, "Erro ao processar token", "{\"valid\":false,\"message\":\"Erro ao processar token\"}");
+
     private final IClientRepository IClientRepository;
     private final JwtTokenService jwtTokenService;
     private final PasswordEncoder passwordEncoder;
     private final TokenCacheService tokenCacheService;
     private final ClientCacheService clientCacheService;
+    private final ClientStateCacheService clientStateCacheService;
+    private final RefreshTokenService refreshTokenService;
+    private final UnknownClientCacheService unknownClientCacheService;
+    private final OpaqueTokenService opaqueTokenService;
+    private final RejectedTokenCacheService rejectedTokenCacheService;
+    private final LoginFailureService loginFailureService;
+    private final ObjectMapper objectMapper;
 
     public TokenResponseDTO authenticate(LoginRequestDTO request) {
-        log.info("Tentativa de autenticação para cliente: {}", request.getClientId());
+        if (request.isRefreshGrant()) {
+            return refresh(request);
+        }
 
-        // Tentar buscar cliente no cache primeiro
-        Client client = clientCacheService.getCachedClient(request.getClientId())
-                .orElseGet(() -> {
-                    // Se não estiver em cache, buscar no banco e cachear
-                    Client dbClient = IClientRepository.findByClientId(request.getClientId())
-                            .orElseThrow(() -> new BadCredentialsException("Cliente não encontrado"));
+        log.debug("Tentativa de autenticação para cliente: {}", request.getClientId());
 
-                    clientCacheService.cacheClient(dbClient);
-                    log.debug("Cliente carregado do banco e adicionado ao cache: {}", request.getClientId());
-                    return dbClient;
-                });
+        // Client IDs sabidamente inexistentes são rejeitados sem I/O
+        if (unknownClientCacheService.isLocallyKnownUnknown(request.getClientId())) {
+            throw new BadCredentialsException("Cliente não encontrado");
+        }
+
+        // Estado consolidado (cliente + token atual) em uma única ida ao Redis
+        Optional<ClientState> clientState = clientStateCacheService.getClientState(request.getClientId());
+
+        Client client = clientState.map(ClientState::getClient)
+                .orElseGet(() -> loadClient(request.getClientId()));
 
         if (!client.isActive()) {
             throw new BadCredentialsException("Cliente inativo");
         }
 
+        // Tentativa reservada antes do BCrypt: cliente em espera é recusado aqui, e tentativas
+        // simultâneas não passam juntas. Só clientes existentes, para não criar contadores de IDs aleatórios
+        LoginFailureState attempt = loginFailureService.reserveAttempt(client.getClientId());
         if (!passwordEncoder.matches(request.getClientSecret(), client.getClientSecret())) {
+            loginFailureService.recordFailure(client.getClientId(), attempt);
             throw new BadCredentialsException("Credenciais inválidas");
         }
+        loginFailureService.recordSuccess(client.getClientId(), attempt);
 
-        // Verificar se cliente já tem token válido
-        log.debug("Verificando token existente para cliente: {}", request.getClientId());
-        Optional<String> existingToken = tokenCacheService.getValidTokenForClient(request.getClientId());
+        TokenResponseDTO response = issueAccessToken(client, clientState);
 
-        if (existingToken.isPresent()) {
-            log.info("✅ Token existente reutilizado para cliente: {}", request.getClientId());
+        // Refresh token permite renovar o acesso sem repetir a verificação BCrypt
+        if (refreshTokenService.isEnabled()) {
+            response.setRefreshToken(refreshTokenService.issueRefreshToken(client.getClientId()));
+        }
+        return response;
+    }
 
-            // Extrair dados do token existente para response
-            String token = existingToken.get();
-            LocalDateTime expiresAt = jwtTokenService.extractExpiration(token);
+    /**
+     * Grant refresh_token: consome o refresh token (uma consulta ao Redis) e emite o
+     * acesso sem verificar o client secret
+     */
+    private TokenResponseDTO refresh(LoginRequestDTO request) {
+        RefreshTokenService.Rotated rotated = refreshTokenService.rotate(request.getRefreshToken());
 
-            return new TokenResponseDTO(
-                    token,
-                    "Bearer",
-                    expiresAt
-            );
+        if (StringUtils.hasText(request.getClientId()) && !request.getClientId().equals(rotated.clientId())) {
+            throw new BadCredentialsException("Refresh token não pertence ao cliente");
         }
 
-        // Gerar novo token se não há um válido
-        String newToken = jwtTokenService.generateToken(client);
-        LocalDateTime expiresAt = jwtTokenService.getExpirationTime();
+        log.debug("Renovação via refresh token para cliente: {}", rotated.clientId());
+
+        Optional<ClientState> clientState = clientStateCacheService.getClientState(rotated.clientId());
+        Client client = clientState.map(ClientState::getClient)
+                .orElseGet(() -> loadClient(rotated.clientId()));
+
+        if (!client.isActive()) {
+            throw new BadCredentialsException("Cliente inativo");
+        }
+
+        TokenResponseDTO response = issueAccessToken(client, clientState);
+        response.setRefreshToken(rotated.refreshToken());
+        return response;
+    }
+
+    private TokenResponseDTO issueAccessToken(Client client, Optional<ClientState> clientState) {
+        if (clientStateCacheService.isEnabled()) {
+            return issueTokenFromClientState(client, clientState);
+        }
+
+        // Verificar se cliente já tem token válido
+        log.debug("Verificando token existente para cliente: {}", client.getClientId());
+        Optional<TokenResponseDTO> existingToken = client.usesOpaqueTokens()
+                ? existingOpaqueToken(client)
+                : existingJwt(client);
+
+        if (existingToken.isPresent()) {
+            log.debug("Token existente reutilizado para cliente: {}", client.getClientId());
+            return existingToken.get();
+        }
 
-        // Cachear associação cliente -> token
+        // Gerar novo token se não há um válido
+        LocalDateTime issuedAt = LocalDateTime.now().truncatedTo(ChronoUnit.SECONDS);
+        LocalDateTime expiresAt = jwtTokenService.getExpirationTime(issuedAt);
         Duration tokenTtl = Duration.between(LocalDateTime.now(), expiresAt);
-        tokenCacheService.cacheClientToken(request.getClientId(), newToken, tokenTtl);
+        String newToken = newAccessToken(client, validationFor(client, issuedAt, expiresAt), issuedAt, tokenTtl);
+
+        // Cachear associação cliente -> token (tokens opacos já ficam indexados pelo cliente na emissão)
+        if (!client.usesOpaqueTokens()) {
+            tokenCacheService.cacheClientToken(client.getClientId(), newToken, tokenTtl);
+        }
 
-        log.info("🆕 Novo token gerado para cliente: {}", request.getClientId());
+        log.debug("Novo token gerado para cliente: {}", client.getClientId());
 
         return new TokenResponseDTO(
                 newToken,
@@ -85,64 +153,276 @@ public class AuthenticationService implements IAuthenticationService {
         );
     }
 
+    private Optional<TokenResponseDTO> existingJwt(Client client) {
+        return tokenCacheService.getValidTokenForClient(client.getClientId())
+                .map(token -> new TokenResponseDTO(token, "Bearer", jwtTokenService.extractExpiration(token)));
+    }
+
+    /**
+     * Token opaco atual do cliente: a expiração vem do registro armazenado, o handle não é parseável
+     */
+    private Optional<TokenResponseDTO> existingOpaqueToken(Client client) {
+        return opaqueTokenService.currentToken(client.getClientId())
+                .map(current -> new TokenResponseDTO(current.token(), "Bearer", LocalDateTime.ofInstant(
+                        Instant.ofEpochMilli(current.expiresAtMillis()), ZoneId.systemDefault())));
+    }
+
+    private Client loadClient(String clientId) {
+        // Cache de clientes com carga do banco em caso de ausência (e renovação antecipada)
+        return clientCacheService.getOrLoadClient(clientId, () -> {
+                    // Cache negativo compartilhado evita consultar o banco para IDs inexistentes
+                    if (unknownClientCacheService.isKnownUnknown(clientId)) {
+                        return Optional.empty();
+                    }
+
+                    Optional<Client> dbClient = IClientRepository.findByClientId(clientId);
+                    if (dbClient.isEmpty()) {
+                        unknownClientCacheService.markUnknown(clientId);
+                    } else {
+                        log.debug("Cliente carregado do banco e adicionado ao cache: {}", clientId);
+                    }
+                    return dbClient;
+                })
+                .orElseThrow(() -> new BadCredentialsException("Cliente não encontrado"));
+    }
+
+    /**
+     * Reutiliza o token do estado consolidado ou emite um novo, sem parsear o token
+     * existente: a expiração já vem armazenada junto com o estado.
+     */
+    private TokenResponseDTO issueTokenFromClientState(Client client, Optional<ClientState> clientState) {
+        if (clientState.isPresent() && clientState.get().hasReusableToken()) {
+            ClientState state = clientState.get();
+            log.debug("Token existente reutilizado para cliente: {}", client.getClientId());
+
+            LocalDateTime expiresAt = LocalDateTime.ofInstant(
+                    Instant.ofEpochMilli(state.getTokenExpiresAt()), ZoneId.systemDefault());
+            return new TokenResponseDTO(state.getToken(), "Bearer", expiresAt);
+        }
+
+        // iat/exp no JWT têm precisão de segundos
+        LocalDateTime issuedAt = LocalDateTime.now().truncatedTo(ChronoUnit.SECONDS);
+        LocalDateTime expiresAt = jwtTokenService.getExpirationTime(issuedAt);
+        Duration tokenTtl = Duration.between(LocalDateTime.now(), expiresAt);
+        TokenValidationResponseDTO validation = validationFor(client, issuedAt, expiresAt);
+        String newToken = newAccessToken(client, validation, issuedAt, tokenTtl);
+
+        ClientState state = ClientState.builder()
+                .client(client)
+                .token(newToken)
+                .tokenExpiresAt(expiresAt.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli())
+                .validation(validation)
+                .build();
+
+        clientStateCacheService.saveClientState(state, tokenTtl);
+
+        log.debug("Novo token gerado para cliente: {}", client.getClientId());
+        return new TokenResponseDTO(newToken, "Bearer", expiresAt);
+    }
+
+    /**
+     * Emite o access token no formato do cliente. Tokens opacos guardam a validação no servidor;
+     * para JWTs ela pré-aquece o cache, e a primeira chamada a /validate não precisa verificar o JWT.
+     */
+    private String newAccessToken(Client client, TokenValidationResponseDTO validation, LocalDateTime issuedAt,
+                                  Duration tokenTtl) {
+        if (client.usesOpaqueTokens()) {
+            return opaqueTokenService.issue(serialize(validation), tokenTtl);
+        }
+
+        String token = jwtTokenService.generateToken(client, issuedAt);
+        tokenCacheService.cacheTokenValidation(token, validation);
+        return token;
+    }
+
+    private TokenValidationResponseDTO validationFor(Client client, LocalDateTime issuedAt, LocalDateTime expiresAt) {
+        return TokenValidationResponseDTO.builder()
+                .valid(true)
+                .clientId(client.getClientId())
+                .clientName(client.getName())
+                .scopes(client.getScopes() != null ? Set.copyOf(client.getScopes()) : Set.of())
+                .issuedAt(issuedAt)
+                .expiresAt(expiresAt)
+                .message("Token válido")
+                .build();
+    }
+
     public TokenValidationResponseDTO validateToken(String token) {
         try {
             String authorization = extractTokenFromHeader(token);
+            if (authorization == null) {
+                return missingBearerValidation();
+            }
+
+            // Token opaco: uma consulta por chave; revogado = registro removido
+            if (OpaqueTokenService.isOpaque(authorization)) {
+                return opaqueTokenService.validate(authorization)
+                        .map(this::deserialize)
+                        .orElseGet(this::invalidValidation);
+            }
+
+            if (isRejectedLocally(authorization)) {
+                return invalidValidation();
+            }
 
             // Verificar se token está na blacklist
-            if (tokenCacheService.isTokenBlacklisted(authorization)) {
-                log.warn("Token na blacklist rejeitado");
-                return TokenValidationResponseDTO.builder()
-                        .valid(false)
-                        .message("Token invalidado")
-                        .build();
+            if (isBlacklisted(authorization)) {
+                return blacklistedValidation();
             }
 
-            // Verificar se validação está em cache
-            TokenValidationResponseDTO cachedValidation = tokenCacheService.getCachedTokenValidation(authorization);
-            if (cachedValidation != null) {
-                log.debug("Validação de token encontrada no cache");
-                return cachedValidation;
+            // Validação em cache, ou calculada e armazenada (com renovação antecipada)
+            TokenValidationResponseDTO validation = tokenCacheService.getOrComputeTokenValidation(
+                    authorization, () -> computeValidation(authorization));
+            return validation != null ? validation : invalidValidation();
+
+        } catch (Exception e) {
+            log.error("Erro ao validar token: {}", e.getMessage());
+            return errorValidation(e);
+        }
+    }
+
+    /**
+     * Mesma validação de validateToken, com o corpo da resposta já serializado.
+     * Acertos de cache não passam pelo Jackson.
+     */
+    public SerializedValidation validateTokenSerialized(String token) {
+        try {
+            String authorization = extractTokenFromHeader(token);
+            if (authorization == null) {
+                return serialize(missingBearerValidation());
+            }
+
+            if (OpaqueTokenService.isOpaque(authorization)) {
+                return opaqueTokenService.validate(authorization)
+                        .orElseGet(() -> serialize(invalidValidation()));
             }
 
-            // Validar token normalmente
-            if (jwtTokenService.validateToken(authorization)) {
-                TokenValidationResponseDTO validation = TokenValidationResponseDTO.builder()
-                        .valid(true)
-                        .clientId(jwtTokenService.extractClientId(authorization))
-                        .clientName(jwtTokenService.extractClientName(authorization))
-                        .scopes(jwtTokenService.extractScopes(authorization))
-                        .issuedAt(jwtTokenService.extractIssuedAt(authorization))
-                        .expiresAt(jwtTokenService.extractExpiration(authorization))
-                        .message("Token válido")
-                        .build();
-
-                // Cachear validação bem-sucedida
-                tokenCacheService.cacheTokenValidation(authorization, validation);
-                log.debug("Validação de token armazenada no cache");
-
-                return validation;
+            if (isRejectedLocally(authorization)) {
+                return serialize(invalidValidation());
             }
 
-            TokenValidationResponseDTO failedValidation = TokenValidationResponseDTO.builder()
-                    .valid(false)
-                    .message("Token inválido ou expirado")
-                    .build();
+            if (isBlacklisted(authorization)) {
+                return serialize(blacklistedValidation());
+            }
 
-            return failedValidation;
+            SerializedValidation validation = tokenCacheService.getOrComputeSerializedValidation(
+                    authorization, () -> computeValidation(authorization));
+            return validation != null ? validation : serialize(invalidValidation());
 
         } catch (Exception e) {
             log.error("Erro ao validar token: {}", e.getMessage());
-            return TokenValidationResponseDTO.builder()
-                    .valid(false)
-                    .message("Erro ao processar token: " + e.getMessage())
-                    .build();
+            return serializeError(e);
+        }
+    }
+
+    /**
+     * A resposta de erro também passa pelo Jackson; se ela falhar, devolve um corpo fixo
+     * em vez de propagar a exceção para o controller.
+     */
+    private SerializedValidation serializeError(Exception e) {
+        try {
+            return serialize(errorValidation(e));
+        } catch (Exception serializationError) {
+            log.error("Erro ao serializar resposta de erro: {}", serializationError.getMessage());
+            return UNSERIALIZABLE_ERROR;
+        }
+    }
+
+    /**
+     * Rejeição sem I/O: estrutura e exp do JWT, depois o cache negativo de tokens já recusados
+     */
+    private boolean isRejectedLocally(String authorization) {
+        TokenCheck precheck = jwtTokenService.precheck(authorization);
+        if (!precheck.isValid()) {
+            log.debug("Token rejeitado antes do cache: {}", precheck);
+            return true;
         }
+        return rejectedTokenCacheService.isRejected(authorization);
+    }
+
+    private boolean isBlacklisted(String authorization) {
+        if (!tokenCacheService.isTokenBlacklisted(authorization)) {
+            return false;
+        }
+        if (BLACKLISTED_TOKEN_THROTTLE.tryAcquire()) {
+            log.warn("Token na blacklist rejeitado");
+        }
+        return true;
+    }
+
+    private TokenValidationResponseDTO blacklistedValidation() {
+        return TokenValidationResponseDTO.builder()
+                .valid(false)
+                .message("Token invalidado")
+                .build();
+    }
+
+    private TokenValidationResponseDTO invalidValidation() {
+        return TokenValidationResponseDTO.builder()
+                .valid(false)
+                .message("Token inválido ou expirado")
+                .build();
+    }
+
+    private TokenValidationResponseDTO missingBearerValidation() {
+        return TokenValidationResponseDTO.builder()
+                .valid(false)
+                .message("Header Authorization deve conter um Bearer token")
+                .build();
+    }
+
+    private TokenValidationResponseDTO errorValidation(Exception e) {
+        return TokenValidationResponseDTO.builder()
+                .valid(false)
+                .message("Erro ao processar token: " + e.getMessage())
+                .build();
+    }
+
+    private SerializedValidation serialize(TokenValidationResponseDTO validation) {
+        try {
+            return SerializedValidation.of(validation, objectMapper.writeValueAsString(validation));
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Erro ao serializar validação de token", e);
+        }
+    }
+
+    private TokenValidationResponseDTO deserialize(SerializedValidation validation) {
+        try {
+            return objectMapper.readValue(validation.body(), TokenValidationResponseDTO.class);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Erro ao desserializar validação de token", e);
+        }
+    }
+
+    /**
+     * Verifica o JWT (um único parse) e monta a validação; retorna null se o token for inválido,
+     * registrando-o no cache negativo local
+     */
+    private TokenValidationResponseDTO computeValidation(String authorization) {
+        JwtTokenService.Verification verification = jwtTokenService.verify(authorization);
+        if (!verification.isValid()) {
+            rejectedTokenCacheService.markRejected(authorization);
+            return null;
+        }
+
+        Claims claims = verification.claims();
+        return TokenValidationResponseDTO.builder()
+                .valid(true)
+                .clientId(claims.getSubject())
+                .clientName(claims.get("client_name", String.class))
+                .scopes(JwtTokenService.scopesOf(claims))
+                .issuedAt(JwtTokenService.toLocalDateTime(claims.getIssuedAt()))
+                .expiresAt(JwtTokenService.toLocalDateTime(claims.getExpiration()))
+                .message("Token válido")
+                .build();
     }
 
+    /**
+     * Token do header Bearer; null se o header estiver ausente ou em outro formato
+     */
     private String extractTokenFromHeader(String authorizationHeader) {
         if (authorizationHeader == null || !authorizationHeader.startsWith("Bearer ")) {
-            throw new IllegalArgumentException("Header Authorization deve conter um Bearer token");
+            return null;
         }
         return authorizationHeader.substring(7);
     }
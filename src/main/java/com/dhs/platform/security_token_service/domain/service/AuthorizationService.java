@@ -0,0 +1,136 @@
+package com.dhs.platform.security_token_service.domain.service;
+
+import com.dhs.platform.security_token_service.adapters.in.http.dto.TokenValidationResponseDTO;
+import com.dhs.platform.security_token_service.adapters.out.cache.TokenHasher;
+import com.dhs.platform.security_token_service.domain.model.AuthorizationDecision;
+import com.dhs.platform.security_token_service.domain.port.in.service.IAuthenticationService;
+import com.dhs.platform.security_token_service.domain.port.out.cache.CacheUnavailableException;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.time.ZoneId;
+import java.util.Arrays;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Verifica se um token tem os escopos exigidos
+ *
+ * A máscara de escopos de cada token fica em uma tabela local de tamanho fixo, indexada
+ * por um fingerprint do token com semente aleatória por processo. O fingerprint só escolhe
+ * o slot: um acerto exige também o mesmo SHA-256 do token, para que uma colisão de 64 bits
+ * nunca empreste os escopos de outro token. Em um acerto a decisão é um AND entre máscaras;
+ * apenas a verificação de revogação vai ao cache, como no /validate: blacklist para JWTs e
+ * existência do registro para tokens opacos, que são revogados (também por cliente) pela
+ * remoção do registro.
+ * Em uma falta, a validação completa (cache de validação ou verificação do JWT) é usada
+ * e a máscara é gravada até a expiração do token.
+ */
+@Service
+@Slf4j
+public class AuthorizationService {
+
+    private static final String BEARER_PREFIX = "Bearer ";
+
+    private final IAuthenticationService authenticationService;
+    private final TokenCacheService tokenCacheService;
+    private final OpaqueTokenService opaqueTokenService;
+    private final ScopeRegistry scopeRegistry;
+    private final long seed = ThreadLocalRandom.current().nextLong();
+    private final int mask;
+
+    /**
+     * Entradas imutáveis: um leitor nunca vê fingerprint e máscara de gravações diferentes
+     */
+    private final AtomicReferenceArray<Entry> table;
+
+    private record Entry(long fingerprint, String tokenHash, long scopeMask, long expiresAt) {
+    }
+
+    public AuthorizationService(
+            IAuthenticationService authenticationService,
+            TokenCacheService tokenCacheService,
+            OpaqueTokenService opaqueTokenService,
+            ScopeRegistry scopeRegistry,
+            @Value("${authorize.local-capacity:65536}") int localCapacity
+    ) {
+        this.authenticationService = authenticationService;
+        this.tokenCacheService = tokenCacheService;
+        this.opaqueTokenService = opaqueTokenService;
+        this.scopeRegistry = scopeRegistry;
+
+        int capacity = Integer.highestOneBit(Math.max(2, localCapacity - 1) << 1);
+        this.mask = capacity - 1;
+        this.table = new AtomicReferenceArray<>(capacity);
+    }
+
+    public AuthorizationDecision authorize(String authorizationHeader, String[] requiredScopes) {
+        if (authorizationHeader == null || !authorizationHeader.startsWith(BEARER_PREFIX)) {
+            return AuthorizationDecision.INVALID_TOKEN;
+        }
+
+        String token = authorizationHeader.substring(BEARER_PREFIX.length());
+        long fingerprint = fingerprint(authorizationHeader);
+        Entry entry = table.get(slot(fingerprint));
+        String tokenHash = TokenHasher.hash(token);
+        if (entry != null && entry.fingerprint() == fingerprint && entry.tokenHash().equals(tokenHash)
+                && entry.expiresAt() > System.currentTimeMillis()) {
+            if (isRevoked(token)) {
+                table.compareAndSet(slot(fingerprint), entry, null);
+                return AuthorizationDecision.INVALID_TOKEN;
+            }
+            long required = scopeRegistry.requiredMask(requiredScopes);
+            if (required != ScopeRegistry.UNKNOWN) {
+                return (entry.scopeMask() & required) == required
+                        ? AuthorizationDecision.ALLOW
+                        : AuthorizationDecision.INSUFFICIENT_SCOPE;
+            }
+        }
+
+        // Falta na tabela, ou escopo exigido fora do registro: decisão pelos nomes
+        TokenValidationResponseDTO validation = authenticationService.validateToken(authorizationHeader);
+        if (!validation.isValid() || validation.getScopes() == null || validation.getExpiresAt() == null) {
+            return AuthorizationDecision.INVALID_TOKEN;
+        }
+
+        long expiresAt = validation.getExpiresAt().atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+        table.set(slot(fingerprint), new Entry(fingerprint, tokenHash, scopeRegistry.maskOf(validation.getScopes()), expiresAt));
+
+        return validation.getScopes().containsAll(Arrays.asList(requiredScopes))
+                ? AuthorizationDecision.ALLOW
+                : AuthorizationDecision.INSUFFICIENT_SCOPE;
+    }
+
+    /**
+     * Mesma verificação de revogação do /validate. Registro opaco ausente ou ilegível, ou
+     * blacklist indisponível, contam como revogado: a verificação falha fechada.
+     */
+    private boolean isRevoked(String token) {
+        if (OpaqueTokenService.isOpaque(token)) {
+            return opaqueTokenService.validate(token).isEmpty();
+        }
+        try {
+            return tokenCacheService.isTokenBlacklisted(token);
+        } catch (CacheUnavailableException e) {
+            return true;
+        }
+    }
+
+    private int slot(long fingerprint) {
+        return (int) (fingerprint ^ (fingerprint >>> 32)) & mask;
+    }
+
+    /**
+     * FNV-1a de 64 bits sobre os caracteres do header, partindo de uma semente aleatória:
+     * sem conhecer a semente não há como forjar um token com o fingerprint de outro
+     */
+    private long fingerprint(String value) {
+        long hash = 0xcbf29ce484222325L ^ seed;
+        for (int i = 0; i < value.length(); i++) {
+            hash ^= value.charAt(i);
+            hash *= 0x100000001b3L;
+        }
+        return hash;
+    }
+}
@@ -6,7 +6,9 @@ import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
 
+import java.util.Collection;
 import java.util.Optional;
+import java.util.function.Supplier;
 
 /**
  * Serviço de domínio para operações de cache de clientes
@@ -23,6 +25,10 @@ public class ClientCacheService {
         return clientCacheRepository.getCachedClient(clientId);
     }
 
+    public Optional<Client> getOrLoadClient(String clientId, Supplier<Optional<Client>> loader) {
+        return clientCacheRepository.getOrLoadClient(clientId, loader);
+    }
+
     public void cacheClient(Client client) {
         clientCacheRepository.cacheClient(client);
     }
@@ -31,6 +37,10 @@ public class ClientCacheService {
         clientCacheRepository.invalidateClientCache(clientId);
     }
 
+    public void invalidateClientCaches(Collection<String> clientIds) {
+        clientCacheRepository.invalidateClientCaches(clientIds);
+    }
+
     public void refreshClient(Client client) {
         clientCacheRepository.refreshClient(client);
     }
@@ -0,0 +1,40 @@
+package com.dhs.platform.security_token_service.domain.service;
+
+import com.dhs.platform.security_token_service.domain.model.ClientState;
+import com.dhs.platform.security_token_service.domain.port.out.cache.IClientStateCacheRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.util.Optional;
+
+/**
+ * Serviço de domínio para o estado consolidado de clientes
+ * Delega para o adapter de cache (seguindo arquitetura hexagonal)
+ */
+@Service
+@RequiredArgsConstructor
+public class ClientStateCacheService {
+
+    private final IClientStateCacheRepository clientStateCacheRepository;
+
+    public boolean isEnabled() {
+        return clientStateCacheRepository.isEnabled();
+    }
+
+    public Optional<ClientState> getClientState(String clientId) {
+        return clientStateCacheRepository.getClientState(clientId);
+    }
+
+    public void saveClientState(ClientState state, Duration ttl) {
+        clientStateCacheRepository.saveClientState(state, ttl);
+    }
+
+    public void invalidateClientState(String clientId) {
+        clientStateCacheRepository.invalidateClientState(clientId);
+    }
+
+    public void clearAllClientStates() {
+        clientStateCacheRepository.clearAllClientStates();
+    }
+}
@@ -1,18 +1,28 @@
 package com.dhs.platform.security_token_service.domain.service;
 
+import com.dhs.platform.security_token_service.config.Tracing;
 import com.dhs.platform.security_token_service.domain.model.Client;
+import com.dhs.platform.security_token_service.domain.model.TokenCheck;
+import com.dhs.platform.security_token_service.util.LogThrottle;
 import io.jsonwebtoken.Claims;
 import io.jsonwebtoken.ExpiredJwtException;
 import io.jsonwebtoken.JwtException;
+import io.jsonwebtoken.JwtParser;
 import io.jsonwebtoken.Jwts;
 import io.jsonwebtoken.security.Keys;
+import io.jsonwebtoken.security.SignatureException;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
 import javax.crypto.SecretKey;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
 import java.time.LocalDateTime;
 import java.time.ZoneId;
+import java.util.Arrays;
+import java.util.Base64;
 import java.util.Date;
 import java.util.List;
 import java.util.Set;
@@ -21,31 +31,72 @@ import java.util.Set;
 @Slf4j
 public class JwtTokenService {
 
+    private static final LogThrottle INVALID_SIGNATURE_THROTTLE = LogThrottle.perMinute(log, "assinatura inválida", 10);
+
+    /**
+     * Bem acima dos tokens emitidos aqui (~300 caracteres); maiores são rejeitados sem decodificar
+     */
+    static final int MAX_TOKEN_LENGTH = 8192;
+
+    /**
+     * Resultado da verificação completa; claims só é preenchido quando o token é válido
+     */
+    public record Verification(TokenCheck check, Claims claims) {
+
+        public boolean isValid() {
+            return check.isValid();
+        }
+    }
+
     private final SecretKey secretKey;
+    private final JwtParser parser;
+    private final String keyId;
     private final long tokenValidityInSeconds;
 
     public JwtTokenService(
             @Value("${jwt.secret:mySecretKey123456789012345678901234567890}") String secret,
-            @Value("${jwt.expiration:3600}") long tokenValidityInSeconds
+            @Value("${jwt.expiration:3600}") long tokenValidityInSeconds,
+            @Value("${jwt.key-id:}") String keyId
     ) {
         this.secretKey = Keys.hmacShaKeyFor(secret.getBytes());
+        this.parser = Jwts.parser().verifyWith(secretKey).build();
         this.tokenValidityInSeconds = tokenValidityInSeconds;
+        this.keyId = keyId.isBlank() ? deriveKeyId(secret) : keyId;
+    }
+
+    /**
+     * Identificador da chave (header kid), usado pelos clientes embarcados para escolher
+     * a chave de verificação e detectar rotação
+     */
+    public String getKeyId() {
+        return keyId;
     }
 
     public String generateToken(Client client) {
-        LocalDateTime now = LocalDateTime.now();
+        return generateToken(client, LocalDateTime.now());
+    }
+
+    /**
+     * Gera o token usando o instante de emissão informado, permitindo ao chamador
+     * conhecer iat/exp sem precisar parsear o token gerado
+     */
+    public String generateToken(Client client, LocalDateTime now) {
         LocalDateTime expiration = now.plusSeconds(tokenValidityInSeconds);
 
-        String token = Jwts.builder()
-                .subject(client.getClientId())
-                .claim("client_name", client.getName())
-                .claim("scopes", client.getScopes())
-                .issuedAt(Date.from(now.atZone(ZoneId.systemDefault()).toInstant()))
-                .expiration(Date.from(expiration.atZone(ZoneId.systemDefault()).toInstant()))
-                .signWith(secretKey)
-                .compact();
+        String token;
+        try (Tracing.Span ignored = Tracing.span("jwt sign")) {
+            token = Jwts.builder()
+                    .header().keyId(keyId).and()
+                    .subject(client.getClientId())
+                    .claim("client_name", client.getName())
+                    .claim("scopes", client.getScopes())
+                    .issuedAt(Date.from(now.atZone(ZoneId.systemDefault()).toInstant()))
+                    .expiration(Date.from(expiration.atZone(ZoneId.systemDefault()).toInstant()))
+                    .signWith(secretKey)
+                    .compact();
+        }
 
-        log.info("Token gerado para cliente: {}", client.getClientId());
+        log.debug("Token gerado para cliente: {}", client.getClientId());
         return token;
     }
 
@@ -53,32 +104,158 @@ public class JwtTokenService {
         return LocalDateTime.now().plusSeconds(tokenValidityInSeconds);
     }
 
+    public LocalDateTime getExpirationTime(LocalDateTime issuedAt) {
+        return issuedAt.plusSeconds(tokenValidityInSeconds);
+    }
+
     public boolean validateToken(String token) {
+        return verify(token).isValid();
+    }
+
+    /**
+     * Verificação completa (estrutura, exp e assinatura). Rejeições viram resultado: tokens
+     * malformados ou expirados nem chegam ao parser do jjwt, que sinaliza falhas com exceções.
+     */
+    public Verification verify(String token) {
+        try (Tracing.Span span = Tracing.span("jwt verify")) {
+            Verification verification = verifyUntraced(token);
+            span.attribute("jwt.check", verification.check().name());
+            return verification;
+        }
+    }
+
+    private Verification verifyUntraced(String token) {
+        TokenCheck precheck = precheck(token);
+        if (!precheck.isValid()) {
+            log.debug("Token rejeitado na pré-verificação: {}", precheck);
+            return new Verification(precheck, null);
+        }
+
         try {
-            Jwts.parser()
-                    .verifyWith(secretKey)
-                    .build()
-                    .parseSignedClaims(token);
-            return true;
+            return new Verification(TokenCheck.VALID, parser.parseSignedClaims(token).getPayload());
         } catch (ExpiredJwtException e) {
-            log.warn("Token expirado: {}", e.getMessage());
-            return false;
-        } catch (JwtException e) {
-            log.warn("Token inválido: {}", e.getMessage());
-            return false;
-        } catch (Exception e) {
-            log.error("Erro ao validar token: {}", e.getMessage());
-            return false;
+            return new Verification(TokenCheck.EXPIRED, null);
+        } catch (SignatureException e) {
+            if (INVALID_SIGNATURE_THROTTLE.tryAcquire()) {
+                log.warn("Token com assinatura inválida: {}", e.getMessage());
+            }
+            return new Verification(TokenCheck.INVALID_SIGNATURE, null);
+        } catch (JwtException | IllegalArgumentException e) {
+            log.debug("Token inválido: {}", e.getMessage());
+            return new Verification(TokenCheck.MALFORMED, null);
+        }
+    }
+
+    /**
+     * Verificação barata, sem I/O, sem exceções e sem checar a assinatura: três segmentos
+     * Base64URL e, se o payload tiver exp numérico, prazo não vencido. VALID aqui só significa
+     * que vale a pena consultar cache e blacklist.
+     */
+    public TokenCheck precheck(String token) {
+        return precheck(token, System.currentTimeMillis());
+    }
+
+    static TokenCheck precheck(String token, long nowMillis) {
+        if (token == null || token.isEmpty() || token.length() > MAX_TOKEN_LENGTH) {
+            return TokenCheck.MALFORMED;
+        }
+
+        int firstDot = -1;
+        int secondDot = -1;
+        for (int i = 0; i < token.length(); i++) {
+            char c = token.charAt(i);
+            if (c == '.') {
+                if (firstDot < 0) {
+                    firstDot = i;
+                } else if (secondDot < 0) {
+                    secondDot = i;
+                } else {
+                    return TokenCheck.MALFORMED;
+                }
+            } else if (!isBase64Url(c)) {
+                return TokenCheck.MALFORMED;
+            }
+        }
+
+        // Segmentos vazios ou com comprimento impossível em Base64 sem padding (resto 1)
+        int payloadLength = secondDot - firstDot - 1;
+        if (firstDot <= 0 || payloadLength <= 0 || secondDot == token.length() - 1
+                || firstDot % 4 == 1 || payloadLength % 4 == 1 || (token.length() - secondDot - 1) % 4 == 1) {
+            return TokenCheck.MALFORMED;
+        }
+
+        byte[] payload = Base64.getUrlDecoder().decode(token.substring(firstDot + 1, secondDot));
+        if (payload.length == 0 || payload[0] != '{') {
+            return TokenCheck.MALFORMED;
+        }
+
+        // Mesma regra do jjwt sem tolerância de relógio: expirado se agora > exp
+        long exp = readExpiration(payload);
+        if (exp >= 0 && exp < Long.MAX_VALUE / 1000 && exp * 1000 < nowMillis) {
+            return TokenCheck.EXPIRED;
+        }
+        return TokenCheck.VALID;
+    }
+
+    private static boolean isBase64Url(char c) {
+        return (c >= 'A' && c <= 'Z') || (c >= 'a' && c <= 'z') || (c >= '0' && c <= '9') || c == '-' || c == '_';
+    }
+
+    /**
+     * Valor inteiro da claim exp no JSON do payload; -1 se ausente ou em outro formato
+     * (decimal, string), casos que ficam com o parser completo
+     */
+    private static long readExpiration(byte[] json) {
+        for (int i = 1; i + 5 <= json.length; i++) {
+            if (json[i - 1] != '"' || json[i] != 'e' || json[i + 1] != 'x' || json[i + 2] != 'p' || json[i + 3] != '"'
+                    || (i >= 2 && json[i - 2] == '\\')) {
+                continue;
+            }
+
+            int j = skipWhitespace(json, i + 4);
+            if (j >= json.length || json[j] != ':') {
+                continue;
+            }
+            j = skipWhitespace(json, j + 1);
+
+            long value = 0;
+            int digits = 0;
+            while (j < json.length && json[j] >= '0' && json[j] <= '9' && digits < 18) {
+                value = value * 10 + (json[j++] - '0');
+                digits++;
+            }
+            if (digits == 0 || (j < json.length && (json[j] == '.' || json[j] == 'e' || json[j] == 'E'
+                    || (json[j] >= '0' && json[j] <= '9')))) {
+                return -1;
+            }
+            return value;
+        }
+        return -1;
+    }
+
+    private static int skipWhitespace(byte[] json, int index) {
+        while (index < json.length && (json[index] == ' ' || json[index] == '\t'
+                || json[index] == '\n' || json[index] == '\r')) {
+            index++;
+        }
+        return index;
+    }
+
+    /**
+     * Padrão: primeiros 8 bytes do SHA-256 do segredo, sem expor o segredo
+     */
+    private static String deriveKeyId(String secret) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(secret.getBytes(StandardCharsets.UTF_8));
+            return Base64.getUrlEncoder().withoutPadding().encodeToString(Arrays.copyOf(digest, 8));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 não disponível", e);
         }
     }
 
     public Claims extractClaims(String token) {
         try {
-            return Jwts.parser()
-                    .verifyWith(secretKey)
-                    .build()
-                    .parseSignedClaims(token)
-                    .getPayload();
+            return parser.parseSignedClaims(token).getPayload();
         } catch (JwtException e) {
             log.error("Erro ao extrair claims do token: {}", e.getMessage());
             throw new RuntimeException("Token inválido", e);
@@ -93,19 +270,25 @@ public class JwtTokenService {
         return extractClaims(token).get("client_name", String.class);
     }
 
-    @SuppressWarnings("unchecked")
     public Set<String> extractScopes(String token) {
-        List<String> scopesList = extractClaims(token).get("scopes", List.class);
-        return Set.copyOf(scopesList);
+        return scopesOf(extractClaims(token));
     }
 
     public LocalDateTime extractIssuedAt(String token) {
-        Date issuedAt = extractClaims(token).getIssuedAt();
-        return issuedAt.toInstant().atZone(ZoneId.systemDefault()).toLocalDateTime();
+        return toLocalDateTime(extractClaims(token).getIssuedAt());
     }
 
     public LocalDateTime extractExpiration(String token) {
-        Date expiration = extractClaims(token).getExpiration();
-        return expiration.toInstant().atZone(ZoneId.systemDefault()).toLocalDateTime();
+        return toLocalDateTime(extractClaims(token).getExpiration());
+    }
+
+    @SuppressWarnings("unchecked")
+    public static Set<String> scopesOf(Claims claims) {
+        List<String> scopesList = claims.get("scopes", List.class);
+        return Set.copyOf(scopesList);
+    }
+
+    public static LocalDateTime toLocalDateTime(Date date) {
+        return date.toInstant().atZone(ZoneId.systemDefault()).toLocalDateTime();
     }
 }
\ No newline at end of file
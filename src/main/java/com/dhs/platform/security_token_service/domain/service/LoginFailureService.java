@@ -0,0 +1,306 @@
+package com.dhs.platform.security_token_service.domain.service;
+
+import com.dhs.platform.security_token_service.domain.model.LoginFailureState;
+import com.dhs.platform.security_token_service.domain.port.out.cache.ICacheCircuitBreaker;
+import com.dhs.platform.security_token_service.domain.port.out.cache.ILoginFailureRepository;
+import com.dhs.platform.security_token_service.util.LogThrottle;
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.security.authentication.LockedException;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Falhas de login por client ID, com espera progressiva e bloqueio temporário
+ *
+ * Cada secret errado custa um BCrypt completo. Depois de free-attempts falhas na janela, a
+ * próxima tentativa só é aceita após base-delay, dobrando a cada falha até max-delay; a partir
+ * de lockout-threshold o cliente fica bloqueado por lockout-seconds. Tentativas durante a espera
+ * são recusadas antes do PasswordEncoder, então um ataque a um cliente custa no máximo um
+ * BCrypt por período de espera, em todos os pods.
+ *
+ * A tentativa é reservada antes do BCrypt em uma operação atômica (script no Redis): ela já
+ * conta como falha até o resultado, e passadas as free-attempts bloqueia o cliente por base-delay
+ * enquanto está em andamento. Tentativas simultâneas não passam juntas pela verificação: a
+ * rajada inteira esbarra no mesmo contador. Por isso logins simultâneos do mesmo cliente além
+ * de free-attempts também esperam, até o primeiro sucesso zerar o contador.
+ *
+ * O estado vive no Redis (compartilhado) e em um espelho local. Um bloqueio visto localmente
+ * recusa tentativas sem I/O por até local-ttl-ms; depois o Redis é relido, para que um reset
+ * feito em outro pod (login com sucesso ou API administrativa) valha em todos. Com o circuito
+ * do Redis aberto vale apenas o espelho local. Um login com sucesso zera tudo.
+ */
+@Service
+@Slf4j
+public class LoginFailureService {
+
+    private static final LogThrottle LOCKOUT_THROTTLE = LogThrottle.perMinute(log, "bloqueio de login", 20);
+
+    private final ILoginFailureRepository loginFailureRepository;
+    private final ICacheCircuitBreaker circuitBreaker;
+    private final boolean enabled;
+    private final int freeAttempts;
+    private final long baseDelayMillis;
+    private final long maxDelayMillis;
+    private final int lockoutThreshold;
+    private final Duration lockoutDuration;
+    private final Duration window;
+    private final long localTtlMillis;
+    private final int localCapacity;
+
+    /**
+     * Espelho local por client ID; expira com a janela de falhas
+     */
+    private final ConcurrentHashMap<String, LocalState> localStates = new ConcurrentHashMap<>();
+
+    public LoginFailureService(
+            ILoginFailureRepository loginFailureRepository,
+            ICacheCircuitBreaker circuitBreaker,
+            @Value("${login-failure.enabled:true}") boolean enabled,
+            @Value("${login-failure.free-attempts:3}") int freeAttempts,
+            @Value("${login-failure.base-delay-ms:1000}") long baseDelayMillis,
+            @Value("${login-failure.max-delay-ms:60000}") long maxDelayMillis,
+            @Value("${login-failure.lockout-threshold:10}") int lockoutThreshold,
+            @Value("${login-failure.lockout-seconds:900}") long lockoutSeconds,
+            @Value("${login-failure.window-seconds:900}") long windowSeconds,
+            @Value("${login-failure.local-ttl-ms:5000}") long localTtlMillis,
+            @Value("${login-failure.local-capacity:10000}") int localCapacity
+    ) {
+        this.loginFailureRepository = loginFailureRepository;
+        this.circuitBreaker = circuitBreaker;
+        this.enabled = enabled;
+        this.freeAttempts = freeAttempts;
+        this.baseDelayMillis = baseDelayMillis;
+        this.maxDelayMillis = maxDelayMillis;
+        this.lockoutThreshold = lockoutThreshold;
+        this.lockoutDuration = Duration.ofSeconds(lockoutSeconds);
+        this.window = Duration.ofSeconds(Math.max(windowSeconds, lockoutSeconds));
+        this.localTtlMillis = localTtlMillis;
+        this.localCapacity = localCapacity;
+    }
+
+    /**
+     * Reserva a tentativa imediatamente antes do BCrypt, ou a recusa se o cliente estiver em
+     * espera ou bloqueado. Retorna o estado com a tentativa já contada, que é passado a
+     * recordFailure ou recordSuccess com o resultado.
+     */
+    public LoginFailureState reserveAttempt(String clientId) {
+        if (!enabled || clientId == null) {
+            return LoginFailureState.NONE;
+        }
+
+        long now = System.currentTimeMillis();
+        LocalState local = activeLocal(clientId, now);
+        if (local != null && local.state().isBlocked(now) && now - local.observedAtMillis() < localTtlMillis) {
+            throw lockedOut(local.state(), now);
+        }
+
+        Optional<LoginFailureState> shared = reserveShared(clientId);
+        if (shared.isEmpty()) {
+            // Redis indisponível: a reserva vale apenas no espelho local, sem limite de idade
+            LoginFailureState state = reserveLocal(clientId, now);
+            if (state.isBlocked(now)) {
+                throw lockedOut(state, now);
+            }
+            return state;
+        }
+
+        LoginFailureState state = shared.get();
+        if (state.isBlocked(now)) {
+            remember(clientId, state, now);
+            throw lockedOut(state, now);
+        }
+        if (local != null) {
+            // Zerado ou vencido em outro pod
+            remember(clientId, state, now);
+        }
+        return state;
+    }
+
+    /**
+     * Secret errado na tentativa reservada: a falha já foi contada na reserva, aqui só a espera é aplicada
+     */
+    public void recordFailure(String clientId, LoginFailureState attempt) {
+        if (!enabled || clientId == null) {
+            return;
+        }
+
+        long now = System.currentTimeMillis();
+        int failures = attempt.failures();
+        Duration delay = delayAfter(failures);
+
+        LoginFailureState state = new LoginFailureState(failures, delay.isZero() ? 0 : now + delay.toMillis());
+        remember(clientId, state, now);
+        if (delay.isZero()) {
+            return;
+        }
+
+        if (circuitBreaker.allowRequest()) {
+            try {
+                loginFailureRepository.block(clientId, delay);
+                circuitBreaker.recordSuccess();
+            } catch (Exception e) {
+                circuitBreaker.recordFailure(e);
+                log.error("Erro ao registrar bloqueio de login para cliente: {} - {}", clientId, e.getMessage());
+            }
+        }
+
+        if (failures >= lockoutThreshold && LOCKOUT_THROTTLE.tryAcquire()) {
+            log.warn("Cliente bloqueado por {} s após {} falhas de login: {}", delay.toSeconds(), failures, clientId);
+        }
+    }
+
+    /**
+     * Login com sucesso na tentativa reservada: zera o contador, que inclui a própria tentativa
+     */
+    public void recordSuccess(String clientId, LoginFailureState attempt) {
+        if (!enabled || clientId == null || attempt.failures() == 0) {
+            return;
+        }
+        reset(clientId);
+    }
+
+    /**
+     * Estado exposto na API administrativa (o compartilhado; o local se o Redis estiver indisponível)
+     */
+    public LoginFailureState getState(String clientId) {
+        long now = System.currentTimeMillis();
+        return findShared(clientId).orElseGet(() -> {
+            LocalState local = activeLocal(clientId, now);
+            return local != null ? local.state() : LoginFailureState.NONE;
+        });
+    }
+
+    public void reset(String clientId) {
+        localStates.remove(clientId);
+        try {
+            loginFailureRepository.reset(clientId);
+        } catch (Exception e) {
+            circuitBreaker.recordFailure(e);
+            log.error("Erro ao zerar falhas de login para cliente: {} - {}", clientId, e.getMessage());
+        }
+        log.debug("Falhas de login zeradas para cliente: {}", clientId);
+    }
+
+    /**
+     * Espera após a n-ésima falha: nenhuma nas free-attempts primeiras, depois exponencial até max-delay,
+     * e o bloqueio completo a partir de lockout-threshold
+     */
+    private Duration delayAfter(int failures) {
+        if (failures >= lockoutThreshold) {
+            return lockoutDuration;
+        }
+        if (failures <= freeAttempts) {
+            return Duration.ZERO;
+        }
+        int doublings = Math.min(failures - freeAttempts - 1, 30);
+        return Duration.ofMillis(Math.min(baseDelayMillis << doublings, maxDelayMillis));
+    }
+
+    private Optional<LoginFailureState> findShared(String clientId) {
+        if (!circuitBreaker.allowRequest()) {
+            return Optional.empty();
+        }
+        try {
+            LoginFailureState state = loginFailureRepository.find(clientId);
+            circuitBreaker.recordSuccess();
+            return Optional.of(state);
+        } catch (Exception e) {
+            circuitBreaker.recordFailure(e);
+            log.error("Erro ao consultar falhas de login para cliente: {} - {}", clientId, e.getMessage());
+            return Optional.empty();
+        }
+    }
+
+    /**
+     * Reserva no contador compartilhado; vazio em modo degradado (ou erro no Redis)
+     */
+    private Optional<LoginFailureState> reserveShared(String clientId) {
+        if (!circuitBreaker.allowRequest()) {
+            return Optional.empty();
+        }
+        try {
+            LoginFailureState state = loginFailureRepository.reserveAttempt(clientId, freeAttempts,
+                    Duration.ofMillis(baseDelayMillis), window);
+            circuitBreaker.recordSuccess();
+            return Optional.of(state);
+        } catch (Exception e) {
+            circuitBreaker.recordFailure(e);
+            log.error("Erro ao reservar tentativa de login para cliente: {} - {}", clientId, e.getMessage());
+            return Optional.empty();
+        }
+    }
+
+    /**
+     * Mesma reserva do adapter, atômica apenas neste pod (compute no espelho local)
+     */
+    private LoginFailureState reserveLocal(String clientId, long now) {
+        LoginFailureState[] reserved = {LoginFailureState.NONE};
+        localStates.compute(clientId, (id, local) -> {
+            if (local == null && localStates.size() >= localCapacity) {
+                return null;
+            }
+            LoginFailureState current = local != null && !local.isExpired(now) ? local.state() : LoginFailureState.NONE;
+            if (current.isBlocked(now)) {
+                reserved[0] = current;
+                return local;
+            }
+
+            int attempts = current.failures() + 1;
+            long heldUntil = attempts > freeAttempts ? now + baseDelayMillis : 0;
+            reserved[0] = new LoginFailureState(attempts, 0);
+            return new LocalState(new LoginFailureState(attempts, heldUntil), now,
+                    Math.max(now + window.toMillis(), heldUntil));
+        });
+        return reserved[0];
+    }
+
+    private LocalState activeLocal(String clientId, long now) {
+        LocalState local = localStates.get(clientId);
+        return local != null && !local.isExpired(now) ? local : null;
+    }
+
+    private void remember(String clientId, LoginFailureState state, long now) {
+        if (localStates.size() >= localCapacity && !localStates.containsKey(clientId)) {
+            return;
+        }
+        localStates.put(clientId, new LocalState(state, now,
+                Math.max(now + window.toMillis(), state.blockedUntilMillis())));
+    }
+
+    private static ClientLockedException lockedOut(LoginFailureState state, long now) {
+        return new ClientLockedException(state.retryAfterSeconds(now));
+    }
+
+    @Scheduled(fixedDelay = 60_000)
+    public void evictExpiredLocalStates() {
+        long now = System.currentTimeMillis();
+        localStates.values().removeIf(local -> local.isExpired(now));
+    }
+
+    private record LocalState(LoginFailureState state, long observedAtMillis, long expiresAtMillis) {
+
+        boolean isExpired(long now) {
+            return expiresAtMillis <= now;
+        }
+    }
+
+    /**
+     * Tentativa recusada sem verificar o secret; retryAfterSeconds vai no header Retry-After
+     */
+    @Getter
+    public static class ClientLockedException extends LockedException {
+
+        private final long retryAfterSeconds;
+
+        public ClientLockedException(long retryAfterSeconds) {
+            super("Muitas tentativas inválidas; tente novamente em " + retryAfterSeconds + " s");
+            this.retryAfterSeconds = retryAfterSeconds;
+        }
+    }
+}
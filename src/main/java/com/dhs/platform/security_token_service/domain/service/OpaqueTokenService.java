@@ -0,0 +1,92 @@
+package com.dhs.platform.security_token_service.domain.service;
+
+import com.dhs.platform.security_token_service.domain.model.SerializedValidation;
+import com.dhs.platform.security_token_service.domain.port.out.cache.IOpaqueTokenRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+
+import java.security.SecureRandom;
+import java.time.Duration;
+import java.util.Base64;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Serviço de domínio para access tokens opacos (clientes com tokenFormat OPAQUE)
+ *
+ * Formato: sto_ + 128 bits aleatórios em Base64 URL-safe (26 caracteres). O prefixo separa
+ * tokens opacos de JWTs sem consulta; a validação é o próprio corpo do /validate, guardado
+ * na emissão, e a revogação é a remoção do registro.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class OpaqueTokenService {
+
+    public static final String PREFIX = "sto_";
+
+    private static final Base64.Encoder ENCODER = Base64.getUrlEncoder().withoutPadding();
+
+    private final IOpaqueTokenRepository opaqueTokenRepository;
+    private final SecureRandom secureRandom = new SecureRandom();
+
+    public static boolean isOpaque(String token) {
+        return token != null && token.startsWith(PREFIX);
+    }
+
+    /**
+     * Gera o handle e armazena a validação pelo tempo de vida do token
+     */
+    public String issue(SerializedValidation validation, Duration ttl) {
+        byte[] handle = new byte[16];
+        secureRandom.nextBytes(handle);
+        String token = PREFIX + ENCODER.encodeToString(handle);
+
+        opaqueTokenRepository.save(token, validation, ttl);
+        log.debug("Token opaco emitido para cliente: {}", validation.clientId());
+        return token;
+    }
+
+    /**
+     * Validação armazenada, se o token existir e não tiver expirado
+     */
+    public Optional<SerializedValidation> validate(String token) {
+        return opaqueTokenRepository.find(token)
+                .filter(validation -> validation.expiresAtMillis() > System.currentTimeMillis());
+    }
+
+    /**
+     * Token atual do cliente, se ainda estiver armazenado e válido. A expiração vem do registro
+     * do token: o handle não carrega nenhuma informação.
+     */
+    public Optional<ClientToken> currentToken(String clientId) {
+        return opaqueTokenRepository.findClientToken(clientId)
+                .flatMap(token -> validate(token)
+                        .map(validation -> new ClientToken(token, validation.expiresAtMillis())));
+    }
+
+    public void revoke(String token) {
+        revokeAll(List.of(token));
+    }
+
+    public void revokeAll(Collection<String> tokens) {
+        List<String> opaque = tokens.stream().filter(OpaqueTokenService::isOpaque).toList();
+        if (!opaque.isEmpty()) {
+            opaqueTokenRepository.delete(opaque);
+        }
+    }
+
+    /**
+     * Remove o token atual dos clientes: a revogação do cliente também invalida o token opaco
+     */
+    public void revokeClients(Collection<String> clientIds) {
+        if (!clientIds.isEmpty()) {
+            opaqueTokenRepository.deleteClientTokens(clientIds);
+        }
+    }
+
+    public record ClientToken(String token, long expiresAtMillis) {
+    }
+}
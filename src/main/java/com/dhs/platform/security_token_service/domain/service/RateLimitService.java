@@ -1,20 +1,33 @@
 package com.dhs.platform.security_token_service.domain.service;
 
+import com.dhs.platform.security_token_service.domain.port.out.cache.ICacheCircuitBreaker;
+import com.dhs.platform.security_token_service.domain.port.out.cache.IRateLimitRepository;
+import com.dhs.platform.security_token_service.util.LogThrottle;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
-import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
 
 import java.time.Duration;
-import java.util.concurrent.TimeUnit;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
 
 @Service
 @RequiredArgsConstructor
 @Slf4j
 public class RateLimitService {
 
-    private final RedisTemplate<String, String> redisTemplate;
+    private static final LogThrottle RATE_LIMIT_EXCEEDED_THROTTLE = LogThrottle.perMinute(log, "rate limit excedido", 20);
+
+    private final IRateLimitRepository rateLimitRepository;
+    private final ICacheCircuitBreaker circuitBreaker;
+
+    /**
+     * Contadores locais por IP usados enquanto o circuito Redis está aberto
+     */
+    private final ConcurrentHashMap<String, LocalWindow> localWindows = new ConcurrentHashMap<>();
 
     @Value("${rate-limit.requests-per-minute:60}")
     private int requestsPerMinute;
@@ -22,43 +35,49 @@ public class RateLimitService {
     @Value("${rate-limit.enabled:true}")
     private boolean rateLimitEnabled;
 
-    private static final String RATE_LIMIT_PREFIX = "rate_limit:";
-
     public boolean isRateLimited(String clientIp) {
         if (!rateLimitEnabled) {
             return false;
         }
 
-        String key = RATE_LIMIT_PREFIX + clientIp;
+        if (!circuitBreaker.allowRequest()) {
+            return isLocallyRateLimited(clientIp);
+        }
 
         try {
             // Obter contador atual
-            String currentCount = redisTemplate.opsForValue().get(key);
+            Optional<Integer> currentCount = rateLimitRepository.getCount(clientIp);
 
-            if (currentCount == null) {
+            if (currentCount.isEmpty()) {
                 // Primeira requisição, criar contador
-                redisTemplate.opsForValue().set(key, "1", Duration.ofMinutes(1));
+                rateLimitRepository.startWindow(clientIp, Duration.ofMinutes(1));
+                circuitBreaker.recordSuccess();
                 log.debug("Rate limit iniciado para IP: {} - Contador: 1/{}", clientIp, requestsPerMinute);
                 return false;
             }
 
-            int count = Integer.parseInt(currentCount);
+            int count = currentCount.get();
 
             if (count >= requestsPerMinute) {
-                log.warn("Rate limit excedido para IP: {} - Requisições: {}/{}", clientIp, count, requestsPerMinute);
+                circuitBreaker.recordSuccess();
+                if (RATE_LIMIT_EXCEEDED_THROTTLE.tryAcquire()) {
+                    log.warn("Rate limit excedido para IP: {} - Requisições: {}/{}", clientIp, count, requestsPerMinute);
+                }
                 return true;
             }
 
             // Incrementar contador
-            redisTemplate.opsForValue().increment(key);
+            rateLimitRepository.increment(clientIp);
+            circuitBreaker.recordSuccess();
             log.debug("Rate limit atualizado para IP: {} - Contador: {}/{}", clientIp, count + 1, requestsPerMinute);
 
             return false;
 
         } catch (Exception e) {
+            circuitBreaker.recordFailure(e);
             log.error("Erro ao verificar rate limit para IP: {} - {}", clientIp, e.getMessage());
-            // Em caso de erro no Redis, permitir requisição
-            return false;
+            // Em caso de erro no Redis, aplicar o limite local
+            return isLocallyRateLimited(clientIp);
         }
     }
 
@@ -67,27 +86,66 @@ public class RateLimitService {
             return new RateLimitInfo(requestsPerMinute, 0, -1);
         }
 
-        String key = RATE_LIMIT_PREFIX + clientIp;
+        if (circuitBreaker.isDegraded()) {
+            return getLocalRateLimitInfo(clientIp);
+        }
 
         try {
-            String currentCount = redisTemplate.opsForValue().get(key);
-            int count = currentCount != null ? Integer.parseInt(currentCount) : 0;
-            Long ttl = redisTemplate.getExpire(key, TimeUnit.SECONDS);
-
-            return new RateLimitInfo(requestsPerMinute, count, ttl != null ? ttl : -1);
+            int count = rateLimitRepository.getCount(clientIp).orElse(0);
+            return new RateLimitInfo(requestsPerMinute, count, rateLimitRepository.getResetInSeconds(clientIp));
 
         } catch (Exception e) {
             log.error("Erro ao obter informações de rate limit para IP: {} - {}", clientIp, e.getMessage());
-            return new RateLimitInfo(requestsPerMinute, 0, -1);
+            return getLocalRateLimitInfo(clientIp);
         }
     }
 
     public void resetRateLimit(String clientIp) {
-        String key = RATE_LIMIT_PREFIX + clientIp;
-        redisTemplate.delete(key);
+        localWindows.remove(clientIp);
+        rateLimitRepository.reset(clientIp);
         log.info("Rate limit resetado para IP: {}", clientIp);
     }
 
+    /**
+     * Rate limit local (janela fixa de um minuto por IP) usado em modo degradado
+     */
+    private boolean isLocallyRateLimited(String clientIp) {
+        long now = System.currentTimeMillis();
+        LocalWindow window = localWindows.compute(clientIp, (ip, current) ->
+                current == null || current.isExpired(now) ? new LocalWindow(now) : current);
+
+        return window.count.incrementAndGet() > requestsPerMinute;
+    }
+
+    private RateLimitInfo getLocalRateLimitInfo(String clientIp) {
+        long now = System.currentTimeMillis();
+        LocalWindow window = localWindows.get(clientIp);
+        if (window == null || window.isExpired(now)) {
+            return new RateLimitInfo(requestsPerMinute, 0, -1);
+        }
+        return new RateLimitInfo(requestsPerMinute, Math.min(window.count.get(), requestsPerMinute),
+                (window.startedAtMillis + 60_000 - now) / 1000);
+    }
+
+    @Scheduled(fixedDelay = 60_000)
+    public void evictExpiredLocalWindows() {
+        long now = System.currentTimeMillis();
+        localWindows.values().removeIf(window -> window.isExpired(now));
+    }
+
+    private static final class LocalWindow {
+        private final long startedAtMillis;
+        private final AtomicInteger count = new AtomicInteger();
+
+        private LocalWindow(long startedAtMillis) {
+            this.startedAtMillis = startedAtMillis;
+        }
+
+        private boolean isExpired(long now) {
+            return now - startedAtMillis >= 60_000;
+        }
+    }
+
     public static class RateLimitInfo {
         private final int limit;
         private final int current;
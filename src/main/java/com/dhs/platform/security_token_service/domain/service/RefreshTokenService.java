@@ -0,0 +1,123 @@
+package com.dhs.platform.security_token_service.domain.service;
+
+import com.dhs.platform.security_token_service.domain.model.RefreshTokenRecord;
+import com.dhs.platform.security_token_service.domain.model.RefreshTokenRotation;
+import com.dhs.platform.security_token_service.domain.port.out.cache.IRefreshTokenCacheRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.authentication.BadCredentialsException;
+import org.springframework.stereotype.Service;
+
+import java.security.SecureRandom;
+import java.time.Duration;
+import java.util.Base64;
+import java.util.Collection;
+
+/**
+ * Serviço de domínio para refresh tokens opacos e rotativos
+ *
+ * Formato do token: {familyId}.{segredo aleatório}, ambos em Base64 URL-safe.
+ * Cada uso gera um novo token da mesma família; reapresentar um token já usado
+ * revoga a família, forçando novo login com credenciais. A família expira no prazo
+ * contado a partir da emissão do primeiro token, por mais que seja rotacionada.
+ */
+@Service
+@Slf4j
+public class RefreshTokenService {
+
+    private static final Base64.Encoder ENCODER = Base64.getUrlEncoder().withoutPadding();
+
+    private final IRefreshTokenCacheRepository refreshTokenCacheRepository;
+    private final SecureRandom secureRandom = new SecureRandom();
+    private final boolean enabled;
+    private final Duration refreshTokenTtl;
+
+    public RefreshTokenService(
+            IRefreshTokenCacheRepository refreshTokenCacheRepository,
+            @Value("${jwt.refresh.enabled:true}") boolean enabled,
+            @Value("${jwt.refresh.expiration:86400}") long refreshValidityInSeconds
+    ) {
+        this.refreshTokenCacheRepository = refreshTokenCacheRepository;
+        this.enabled = enabled;
+        this.refreshTokenTtl = Duration.ofSeconds(refreshValidityInSeconds);
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Emite o primeiro refresh token de uma nova família
+     */
+    public String issueRefreshToken(String clientId) {
+        String familyId = randomString(16);
+        String refreshToken = familyId + "." + randomString(32);
+
+        refreshTokenCacheRepository.saveRefreshToken(refreshToken, newRecord(clientId, familyId), refreshTokenTtl);
+        return refreshToken;
+    }
+
+    /**
+     * Consome o refresh token apresentado e retorna o substituto
+     *
+     * @throws BadCredentialsException se o token for inválido, expirado ou reutilizado
+     */
+    public Rotated rotate(String presentedToken) {
+        if (!enabled) {
+            throw new BadCredentialsException("Refresh token não suportado");
+        }
+
+        int separator = presentedToken != null ? presentedToken.indexOf('.') : -1;
+        if (separator <= 0) {
+            throw new BadCredentialsException("Refresh token inválido");
+        }
+
+        String familyId = presentedToken.substring(0, separator);
+        String replacement = familyId + "." + randomString(32);
+
+        // O clientId do substituto é confirmado a partir do registro do token apresentado
+        RefreshTokenRotation rotation = refreshTokenCacheRepository.rotateRefreshToken(
+                presentedToken, replacement, newRecord(null, familyId), refreshTokenTtl);
+
+        switch (rotation.status()) {
+            case VALID -> {
+                return new Rotated(rotation.record().getClientId(), replacement);
+            }
+            case REUSED -> {
+                log.warn("Reutilização de refresh token detectada, família revogada para cliente: {}",
+                        rotation.record().getClientId());
+                throw new BadCredentialsException("Refresh token reutilizado");
+            }
+            default -> throw new BadCredentialsException("Refresh token inválido ou expirado");
+        }
+    }
+
+    /**
+     * Revoga todas as famílias ativas dos clientes: nenhum refresh token emitido
+     * antes da revogação volta a ser aceito
+     */
+    public void revokeClients(Collection<String> clientIds) {
+        if (clientIds.isEmpty()) {
+            return;
+        }
+        refreshTokenCacheRepository.revokeClientFamilies(clientIds);
+    }
+
+    private RefreshTokenRecord newRecord(String clientId, String familyId) {
+        return RefreshTokenRecord.builder()
+                .clientId(clientId)
+                .familyId(familyId)
+                .issuedAt(System.currentTimeMillis())
+                .used(false)
+                .build();
+    }
+
+    private String randomString(int bytes) {
+        byte[] buffer = new byte[bytes];
+        secureRandom.nextBytes(buffer);
+        return ENCODER.encodeToString(buffer);
+    }
+
+    public record Rotated(String clientId, String refreshToken) {
+    }
+}
@@ -0,0 +1,81 @@
+package com.dhs.platform.security_token_service.domain.service;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Cache negativo local de JWTs rejeitados na verificação (assinatura inválida, malformados), para
+ * que o mesmo token reapresentado seja recusado sem Redis, sem parser e sem exceções.
+ *
+ * Mesma estrutura do cache local de client IDs inexistentes: tabela de tamanho fixo com
+ * fingerprint de 64 bits e expiração por slot; colisões de slot apenas sobrescrevem a entrada.
+ * O fingerprint parte de uma semente aleatória por processo, como no AuthorizationService:
+ * sem ela, um token forjado com o fingerprint de um token legítimo faria o legítimo ser recusado.
+ * Uma rejeição não deixa de valer, então o TTL só limita por quanto tempo a entrada ocupa o slot.
+ */
+@Service
+public class RejectedTokenCacheService {
+
+    private final boolean enabled;
+    private final long ttlMillis;
+    private final long seed = ThreadLocalRandom.current().nextLong();
+    private final int mask;
+
+    /**
+     * Pares [fingerprint, expiraEm] intercalados: slot i ocupa as posições 2i e 2i+1
+     */
+    private final long[] table;
+
+    public RejectedTokenCacheService(
+            @Value("${cache.rejected-token.enabled:true}") boolean enabled,
+            @Value("${cache.rejected-token.ttl-seconds:300}") long ttlSeconds,
+            @Value("${cache.rejected-token.capacity:65536}") int capacity
+    ) {
+        this.enabled = enabled;
+        this.ttlMillis = ttlSeconds * 1000;
+
+        int slots = Integer.highestOneBit(Math.max(2, capacity - 1) << 1);
+        this.mask = slots - 1;
+        this.table = new long[slots * 2];
+    }
+
+    public boolean isRejected(String token) {
+        if (!enabled || token == null) {
+            return false;
+        }
+
+        long fingerprint = fingerprint(token);
+        int index = slot(fingerprint) * 2;
+        return table[index] == fingerprint && table[index + 1] > System.currentTimeMillis();
+    }
+
+    public void markRejected(String token) {
+        if (!enabled || token == null) {
+            return;
+        }
+
+        long fingerprint = fingerprint(token);
+        int index = slot(fingerprint) * 2;
+        table[index + 1] = 0;
+        table[index] = fingerprint;
+        table[index + 1] = System.currentTimeMillis() + ttlMillis;
+    }
+
+    private int slot(long fingerprint) {
+        return (int) (fingerprint ^ (fingerprint >>> 32)) & mask;
+    }
+
+    /**
+     * FNV-1a de 64 bits sobre os caracteres do token, partindo da semente do processo
+     */
+    private long fingerprint(String value) {
+        long hash = 0xcbf29ce484222325L ^ seed;
+        for (int i = 0; i < value.length(); i++) {
+            hash ^= value.charAt(i);
+            hash *= 0x100000001b3L;
+        }
+        return hash;
+    }
+}
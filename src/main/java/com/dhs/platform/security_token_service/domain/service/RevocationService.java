@@ -0,0 +1,218 @@
+package com.dhs.platform.security_token_service.domain.service;
+
+import com.dhs.platform.security_token_service.domain.model.BulkItemResult;
+import com.dhs.platform.security_token_service.domain.model.RevocationEvent;
+import com.dhs.platform.security_token_service.domain.model.RevocationPage;
+import com.dhs.platform.security_token_service.domain.model.RevocationRequest;
+import com.dhs.platform.security_token_service.domain.port.out.cache.IRevocationLogRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Serviço de domínio para revogações: aplica a revogação no cache e publica o evento
+ * no log consumido pelo feed SSE e pela biblioteca cliente
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class RevocationService {
+
+    private final IRevocationLogRepository revocationLogRepository;
+    private final TokenCacheService tokenCacheService;
+    private final JwtTokenService jwtTokenService;
+    private final OpaqueTokenService opaqueTokenService;
+    private final RefreshTokenService refreshTokenService;
+
+    @Value("${revocation.feed.max-batch:1000}")
+    private int maxBatch;
+
+    /**
+     * Coloca o token na blacklist e publica um evento TOKEN. Tokens opacos também têm o
+     * registro removido; a blacklist ainda tira o token do estado consolidado do cliente.
+     * Com o Redis indisponível propaga CacheUnavailableException sem publicar o evento.
+     */
+    public void revokeToken(String token, Duration duration) {
+        tokenCacheService.blacklistToken(token, duration);
+        opaqueTokenService.revoke(token);
+
+        try {
+            RevocationEvent event = revocationLogRepository.appendAll(List.of(tokenRevocation(token, duration))).get(0);
+            log.info("Revogação de token publicada: seq={}", event.seq());
+        } catch (Exception e) {
+            log.error("Erro ao publicar revogação de token: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Invalida o token associado ao cliente (JWT ou opaco) e as famílias de refresh token,
+     * e publica um evento CLIENT com a nova geração
+     */
+    public void revokeClientTokens(String clientId) {
+        tokenCacheService.invalidateClientToken(clientId);
+        opaqueTokenService.revokeClients(List.of(clientId));
+        refreshTokenService.revokeClients(List.of(clientId));
+
+        try {
+            RevocationEvent event = revocationLogRepository.appendClientRevocation(clientId);
+            log.info("Revogação de cliente publicada: seq={}, cliente={}, geração={}",
+                    event.seq(), clientId, event.generation());
+        } catch (Exception e) {
+            log.error("Erro ao publicar revogação do cliente {}: {}", clientId, e.getMessage());
+        }
+    }
+
+    /**
+     * Versão em lote de revokeToken: blacklist em pipeline e todos os eventos em um único script.
+     * Resultados na ordem dos tokens.
+     *
+     * A blacklist vem antes da remoção dos registros opacos: se ela falhar, nada foi aplicado
+     * e o lote inteiro é reportado como falho. Tokens opacos não passam pela blacklist na
+     * validação, então uma falha ao remover os registros só marca esses tokens como falhos.
+     */
+    public List<BulkItemResult> revokeTokens(List<String> tokens, Duration duration) {
+        List<String> accepted = tokens.stream().filter(token -> token != null && !token.isBlank()).toList();
+
+        try {
+            tokenCacheService.blacklistTokens(accepted, duration);
+        } catch (Exception e) {
+            return failAll(tokens, "Erro ao adicionar à blacklist: " + e.getMessage());
+        }
+
+        String opaqueFailure = null;
+        try {
+            opaqueTokenService.revokeAll(accepted);
+        } catch (Exception e) {
+            log.error("Erro ao remover tokens opacos: {}", e.getMessage());
+            opaqueFailure = "Erro ao remover token opaco: " + e.getMessage();
+        }
+
+        List<RevocationRequest> requests = new ArrayList<>(accepted.size());
+        for (String token : accepted) {
+            if (opaqueFailure == null || !OpaqueTokenService.isOpaque(token)) {
+                requests.add(tokenRevocation(token, duration));
+            }
+        }
+
+        List<RevocationEvent> events = publish(requests);
+        List<BulkItemResult> results = new ArrayList<>(tokens.size());
+        int next = 0;
+        for (String token : tokens) {
+            if (token == null || token.isBlank()) {
+                results.add(BulkItemResult.failed("Token ausente"));
+            } else if (opaqueFailure != null && OpaqueTokenService.isOpaque(token)) {
+                results.add(BulkItemResult.failed(opaqueFailure));
+            } else {
+                results.add(BulkItemResult.ok(events.isEmpty() ? 0 : events.get(next).seq()));
+                next++;
+            }
+        }
+        return results;
+    }
+
+    /**
+     * Versão em lote de revokeClientTokens. Resultados na ordem dos clientes.
+     */
+    public List<BulkItemResult> revokeClientsTokens(List<String> clientIds) {
+        List<String> accepted = clientIds.stream().filter(clientId -> clientId != null && !clientId.isBlank()).toList();
+
+        try {
+            tokenCacheService.invalidateClientTokens(accepted);
+            opaqueTokenService.revokeClients(accepted);
+            refreshTokenService.revokeClients(accepted);
+        } catch (Exception e) {
+            return failAll(clientIds, "Erro ao invalidar tokens: " + e.getMessage());
+        }
+
+        List<RevocationEvent> events = publish(accepted.stream().map(RevocationRequest::client).toList());
+        List<BulkItemResult> results = new ArrayList<>(clientIds.size());
+        int next = 0;
+        for (String clientId : clientIds) {
+            if (clientId == null || clientId.isBlank()) {
+                results.add(BulkItemResult.failed("Client ID ausente"));
+            } else {
+                results.add(BulkItemResult.ok(events.isEmpty() ? 0 : events.get(next).seq()));
+                next++;
+            }
+        }
+        return results;
+    }
+
+    /**
+     * A revogação já foi aplicada no cache; falha aqui só atrasa os consumidores do feed
+     */
+    private List<RevocationEvent> publish(List<RevocationRequest> requests) {
+        try {
+            List<RevocationEvent> events = revocationLogRepository.appendAll(requests);
+            if (!events.isEmpty()) {
+                log.info("{} revogações publicadas: seq {}..{}", events.size(), events.get(0).seq(),
+                        events.get(events.size() - 1).seq());
+            }
+            return events;
+        } catch (Exception e) {
+            log.error("Erro ao publicar {} revogações: {}", requests.size(), e.getMessage());
+            return List.of();
+        }
+    }
+
+    private RevocationRequest tokenRevocation(String token, Duration duration) {
+        long expiresAt = System.currentTimeMillis() + duration.toMillis();
+        String clientId = null;
+        if (jwtTokenService.validateToken(token)) {
+            // Depois da expiração do próprio token o evento deixa de ser relevante
+            clientId = jwtTokenService.extractClientId(token);
+            expiresAt = Math.min(expiresAt, jwtTokenService.extractExpiration(token)
+                    .atZone(ZoneId.systemDefault()).toInstant().toEpochMilli());
+        }
+        return RevocationRequest.token(token, clientId, expiresAt);
+    }
+
+    private static List<BulkItemResult> failAll(List<String> items, String message) {
+        return items.stream().map(item -> BulkItemResult.failed(message)).toList();
+    }
+
+    /**
+     * Eventos com sequência maior que afterSeq, limitados a maxBatch
+     */
+    public RevocationPage readPage(long afterSeq) {
+        return readPage(afterSeq, maxBatch);
+    }
+
+    public RevocationPage readPage(long afterSeq, int limit) {
+        long latestSequence = revocationLogRepository.getLatestSequence();
+        RevocationEvent oldest = revocationLogRepository.getOldestRetained();
+
+        // Sequência à frente do log: o Redis perdeu o log e a contagem recomeçou
+        boolean restarted = afterSeq > latestSequence;
+        boolean trimmed = oldest != null && oldest.seq() > afterSeq + 1;
+        boolean reset = restarted || trimmed;
+
+        List<RevocationEvent> events = revocationLogRepository.readAfter(restarted ? 0 : afterSeq, limit);
+        Long oldestRetainedAt = null;
+        if (reset) {
+            oldestRetainedAt = oldest != null ? oldest.revokedAt() : System.currentTimeMillis();
+            log.debug("Replay de revogações incompleto a partir da seq {} (última: {}); consumidor deve descartar o cache",
+                    afterSeq, latestSequence);
+        }
+
+        return new RevocationPage(events, latestSequence, events.size() >= limit, reset, oldestRetainedAt);
+    }
+
+    public List<RevocationEvent> getEventsAfter(long afterSeq, int limit) {
+        return revocationLogRepository.readAfter(afterSeq, limit);
+    }
+
+    public long getLatestSequence() {
+        return revocationLogRepository.getLatestSequence();
+    }
+
+    public int getMaxBatch() {
+        return maxBatch;
+    }
+}
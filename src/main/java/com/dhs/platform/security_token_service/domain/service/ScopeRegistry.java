@@ -0,0 +1,110 @@
+package com.dhs.platform.security_token_service.domain.service;
+
+import com.dhs.platform.security_token_service.domain.port.out.repository.IClientRepository;
+import com.dhs.platform.security_token_service.util.LogThrottle;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+
+import java.util.Collection;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Registro global de escopos: cada escopo recebe um bit, e o conjunto de escopos de um
+ * token vira uma máscara de 64 bits
+ *
+ * Carregado de Client.scopes na inicialização, atualizado quando um cliente é gravado e
+ * ao encontrar escopos novos em tokens. Os índices são locais à instância (a máscara nunca
+ * sai do processo). O bit 63 não é usado, para que UNKNOWN nunca seja uma máscara válida.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class ScopeRegistry {
+
+    private static final LogThrottle REGISTRY_FULL_THROTTLE = LogThrottle.perMinute(log, "registro de escopos cheio", 1);
+
+    public static final long UNKNOWN = -1L;
+    static final int CAPACITY = 63;
+
+    private final IClientRepository clientRepository;
+
+    private final ConcurrentHashMap<String, Integer> indexes = new ConcurrentHashMap<>();
+    private final AtomicInteger nextIndex = new AtomicInteger();
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void loadFromClients() {
+        try {
+            // Ordenado para que instâncias com os mesmos clientes tenham os mesmos índices
+            registerAll(new TreeSet<>(clientRepository.findAllScopes()));
+            log.info("Registro de escopos carregado: {} escopos", indexes.size());
+        } catch (Exception e) {
+            log.error("Erro ao carregar escopos dos clientes: {}", e.getMessage());
+        }
+    }
+
+    public void registerAll(Collection<String> scopes) {
+        if (scopes != null) {
+            maskOf(scopes);
+        }
+    }
+
+    /**
+     * Máscara dos escopos, registrando os que ainda não existem.
+     * Escopos além da capacidade ficam fora da máscara (ver requiredMask).
+     */
+    public long maskOf(Collection<String> scopes) {
+        long mask = 0;
+        for (String scope : scopes) {
+            int index = register(scope);
+            if (index >= 0) {
+                mask |= 1L << index;
+            }
+        }
+        return mask;
+    }
+
+    /**
+     * Máscara dos escopos exigidos, sem registrar nada e sem alocar.
+     * UNKNOWN se algum escopo não estiver registrado; o chamador compara pelos nomes.
+     */
+    public long requiredMask(String[] scopes) {
+        long mask = 0;
+        for (String scope : scopes) {
+            Integer index = indexes.get(scope);
+            if (index == null) {
+                return UNKNOWN;
+            }
+            mask |= 1L << index;
+        }
+        return mask;
+    }
+
+    public int size() {
+        return indexes.size();
+    }
+
+    private int register(String scope) {
+        Integer index = indexes.get(scope);
+        if (index != null) {
+            return index;
+        }
+
+        Integer registered = indexes.computeIfAbsent(scope, key -> {
+            int next = nextIndex.getAndIncrement();
+            if (next >= CAPACITY) {
+                nextIndex.decrementAndGet();
+                return null;
+            }
+            return next;
+        });
+        if (registered == null && REGISTRY_FULL_THROTTLE.tryAcquire()) {
+            log.warn("Registro de escopos cheio ({}); escopo verificado pelo nome: {}", CAPACITY, scope);
+        }
+        return registered != null ? registered : -1;
+    }
+}
@@ -1,13 +1,16 @@
 package com.dhs.platform.security_token_service.domain.service;
 
 import com.dhs.platform.security_token_service.adapters.in.http.dto.TokenValidationResponseDTO;
+import com.dhs.platform.security_token_service.domain.model.SerializedValidation;
 import com.dhs.platform.security_token_service.domain.port.out.cache.ITokenCacheRepository;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
 
 import java.time.Duration;
+import java.util.Collection;
 import java.util.Optional;
+import java.util.function.Supplier;
 
 /**
  * Serviço de domínio para operações de cache de tokens
@@ -28,6 +31,14 @@ public class TokenCacheService {
         return tokenCacheRepository.getCachedTokenValidation(token);
     }
 
+    public TokenValidationResponseDTO getOrComputeTokenValidation(String token, Supplier<TokenValidationResponseDTO> validator) {
+        return tokenCacheRepository.getOrComputeTokenValidation(token, validator);
+    }
+
+    public SerializedValidation getOrComputeSerializedValidation(String token, Supplier<TokenValidationResponseDTO> validator) {
+        return tokenCacheRepository.getOrComputeSerializedValidation(token, validator);
+    }
+
     public void cacheTokenValidation(String token, TokenValidationResponseDTO validationResponse) {
         tokenCacheRepository.cacheTokenValidation(token, validationResponse);
     }
@@ -40,6 +51,10 @@ public class TokenCacheService {
         tokenCacheRepository.blacklistToken(token, duration);
     }
 
+    public void blacklistTokens(Collection<String> tokens, Duration duration) {
+        tokenCacheRepository.blacklistTokens(tokens, duration);
+    }
+
     public boolean isTokenBlacklisted(String token) {
         return tokenCacheRepository.isTokenBlacklisted(token);
     }
@@ -56,6 +71,10 @@ public class TokenCacheService {
         tokenCacheRepository.invalidateClientToken(clientId);
     }
 
+    public void invalidateClientTokens(Collection<String> clientIds) {
+        tokenCacheRepository.invalidateClientTokens(clientIds);
+    }
+
     public void clearAllTokenCaches() {
         tokenCacheRepository.clearAllTokenCaches();
     }
@@ -0,0 +1,154 @@
+package com.dhs.platform.security_token_service.domain.service;
+
+import com.dhs.platform.security_token_service.domain.port.out.cache.IUnknownClientCacheRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.util.Arrays;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Cache negativo de client IDs inexistentes, para que tráfego com IDs aleatórios
+ * (credential stuffing) não chegue ao MongoDB.
+ *
+ * Nível local: tabela de tamanho fixo com fingerprint de 64 bits e expiração por slot.
+ * Não aloca por consulta e nunca cresce; colisões de slot apenas sobrescrevem a entrada.
+ * O fingerprint parte de uma semente aleatória do processo: sem ela, um client ID escolhido
+ * para colidir com o de um cliente real o faria ser recusado como inexistente.
+ * Nível compartilhado (opcional): delegado ao IUnknownClientCacheRepository.
+ *
+ * Um cliente criado em outro nó é visto pela marca de invalidação compartilhada, consultada
+ * a cada invalidation-poll-ms: quando ela muda, a tabela local inteira é descartada. Clientes
+ * novos são raros, então limpar tudo é mais simples que propagar cada client ID.
+ */
+@Service
+@Slf4j
+public class UnknownClientCacheService {
+
+    private final IUnknownClientCacheRepository unknownClientCacheRepository;
+    private final boolean enabled;
+    private final long localTtlMillis;
+    private final long seed = ThreadLocalRandom.current().nextLong();
+    private final int mask;
+
+    /**
+     * Pares [fingerprint, expiraEm] intercalados: slot i ocupa as posições 2i e 2i+1
+     */
+    private final long[] table;
+
+    private volatile String lastInvalidationMark;
+
+    public UnknownClientCacheService(
+            IUnknownClientCacheRepository unknownClientCacheRepository,
+            @Value("${cache.unknown-client.enabled:true}") boolean enabled,
+            @Value("${cache.unknown-client.local-ttl-seconds:60}") long localTtlSeconds,
+            @Value("${cache.unknown-client.local-capacity:65536}") int localCapacity
+    ) {
+        this.unknownClientCacheRepository = unknownClientCacheRepository;
+        this.enabled = enabled;
+        this.localTtlMillis = localTtlSeconds * 1000;
+
+        int capacity = Integer.highestOneBit(Math.max(2, localCapacity - 1) << 1);
+        this.mask = capacity - 1;
+        this.table = new long[capacity * 2];
+    }
+
+    /**
+     * Verificação local, sem I/O
+     */
+    public boolean isLocallyKnownUnknown(String clientId) {
+        if (!enabled || clientId == null) {
+            return false;
+        }
+
+        long fingerprint = fingerprint(clientId);
+        int index = slot(fingerprint) * 2;
+        return table[index] == fingerprint && table[index + 1] > System.currentTimeMillis();
+    }
+
+    /**
+     * Verificação local e, se habilitado, no cache compartilhado.
+     * Um acerto no compartilhado também é registrado localmente.
+     */
+    public boolean isKnownUnknown(String clientId) {
+        if (isLocallyKnownUnknown(clientId)) {
+            return true;
+        }
+
+        if (enabled && clientId != null && unknownClientCacheRepository.isUnknown(clientId)) {
+            markLocally(clientId);
+            return true;
+        }
+        return false;
+    }
+
+    public void markUnknown(String clientId) {
+        if (!enabled || clientId == null) {
+            return;
+        }
+
+        markLocally(clientId);
+        unknownClientCacheRepository.markUnknown(clientId);
+        log.debug("Client ID inexistente registrado no cache negativo: {}", clientId);
+    }
+
+    /**
+     * Remove o client ID do cache negativo (chamado quando um cliente é criado)
+     */
+    public void invalidate(String clientId) {
+        if (!enabled || clientId == null) {
+            return;
+        }
+
+        long fingerprint = fingerprint(clientId);
+        int index = slot(fingerprint) * 2;
+        if (table[index] == fingerprint) {
+            table[index + 1] = 0;
+        }
+        unknownClientCacheRepository.invalidate(clientId);
+    }
+
+    /**
+     * Descarta o nível local quando algum nó invalidou um client ID desde a última consulta
+     */
+    @Scheduled(fixedDelayString = "${cache.unknown-client.invalidation-poll-ms:1000}")
+    public void pollInvalidations() {
+        if (!enabled) {
+            return;
+        }
+
+        String mark = unknownClientCacheRepository.getInvalidationMark().orElse("");
+        String previous = lastInvalidationMark;
+        lastInvalidationMark = mark;
+        if (previous != null && !previous.equals(mark)) {
+            Arrays.fill(table, 0);
+            log.debug("Cache negativo local descartado após invalidação em outro nó");
+        }
+    }
+
+    private void markLocally(String clientId) {
+        long fingerprint = fingerprint(clientId);
+        int index = slot(fingerprint) * 2;
+        table[index + 1] = 0;
+        table[index] = fingerprint;
+        table[index + 1] = System.currentTimeMillis() + localTtlMillis;
+    }
+
+    private int slot(long fingerprint) {
+        return (int) (fingerprint ^ (fingerprint >>> 32)) & mask;
+    }
+
+    /**
+     * FNV-1a de 64 bits sobre os caracteres do client ID, partindo da semente do processo
+     */
+    private long fingerprint(String value) {
+        long hash = 0xcbf29ce484222325L ^ seed;
+        for (int i = 0; i < value.length(); i++) {
+            hash ^= value.charAt(i);
+            hash *= 0x100000001b3L;
+        }
+        return hash;
+    }
+}
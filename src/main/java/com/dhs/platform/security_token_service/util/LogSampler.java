@@ -0,0 +1,25 @@
+package com.dhs.platform.security_token_service.util;
+
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Amostragem de mensagens de log de sucesso em alto volume
+ *
+ * Registra, em média, 1 a cada N ocorrências. Com N <= 1 todas são registradas.
+ */
+public final class LogSampler {
+
+    private final int oneIn;
+
+    private LogSampler(int oneIn) {
+        this.oneIn = oneIn;
+    }
+
+    public static LogSampler oneIn(int oneIn) {
+        return new LogSampler(oneIn);
+    }
+
+    public boolean sample() {
+        return oneIn <= 1 || ThreadLocalRandom.current().nextInt(oneIn) == 0;
+    }
+}
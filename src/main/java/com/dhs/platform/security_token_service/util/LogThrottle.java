@@ -0,0 +1,68 @@
+package com.dhs.platform.security_token_service.util;
+
+import org.slf4j.Logger;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Limita mensagens de log repetitivas por classe de mensagem
+ *
+ * Permite até N mensagens por janela; as excedentes são apenas contadas e, na
+ * primeira mensagem da janela seguinte, é registrado um resumo com o total suprimido.
+ * Não aloca nem sincroniza no caminho comum.
+ */
+public final class LogThrottle {
+
+    private final Logger logger;
+    private final String messageClass;
+    private final int permitsPerWindow;
+    private final long windowMillis;
+
+    private final AtomicLong windowStart = new AtomicLong(System.currentTimeMillis());
+    private final AtomicInteger used = new AtomicInteger();
+    private final AtomicLong suppressed = new AtomicLong();
+
+    private LogThrottle(Logger logger, String messageClass, int permitsPerWindow, Duration window) {
+        this.logger = logger;
+        this.messageClass = messageClass;
+        this.permitsPerWindow = permitsPerWindow;
+        this.windowMillis = window.toMillis();
+    }
+
+    public static LogThrottle of(Logger logger, String messageClass, int permitsPerWindow, Duration window) {
+        return new LogThrottle(logger, messageClass, permitsPerWindow, window);
+    }
+
+    public static LogThrottle perMinute(Logger logger, String messageClass, int permitsPerMinute) {
+        return of(logger, messageClass, permitsPerMinute, Duration.ofMinutes(1));
+    }
+
+    /**
+     * Retorna true se a mensagem pode ser registrada nesta janela
+     */
+    public boolean tryAcquire() {
+        long now = System.currentTimeMillis();
+        long start = windowStart.get();
+
+        if (now - start >= windowMillis && windowStart.compareAndSet(start, now)) {
+            used.set(0);
+            long dropped = suppressed.getAndSet(0);
+            if (dropped > 0) {
+                logger.warn("{} mensagens '{}' suprimidas nos últimos {} s",
+                        dropped, messageClass, (now - start) / 1000);
+            }
+        }
+
+        if (used.incrementAndGet() <= permitsPerWindow) {
+            return true;
+        }
+        suppressed.incrementAndGet();
+        return false;
+    }
+
+    public long getSuppressedCount() {
+        return suppressed.get();
+    }
+}
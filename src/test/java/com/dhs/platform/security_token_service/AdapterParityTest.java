@@ -0,0 +1,198 @@
+package com.dhs.platform.security_token_service;
+
+import com.dhs.platform.security_token_service.adapters.in.http.dto.LoginRequestDTO;
+import com.dhs.platform.security_token_service.adapters.in.http.dto.TokenResponseDTO;
+import com.dhs.platform.security_token_service.adapters.in.http.dto.TokenValidationResponseDTO;
+import com.dhs.platform.security_token_service.config.Tracing;
+import com.dhs.platform.security_token_service.domain.port.in.service.IAuthenticationService;
+import com.dhs.platform.security_token_service.domain.service.LoginFailureService;
+import com.dhs.platform.security_token_service.domain.service.RateLimitService;
+import com.dhs.platform.security_token_service.domain.service.RevocationService;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.security.authentication.BadCredentialsException;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+/**
+ * Mesmos cenários dos serviços de domínio sobre os dois conjuntos de adapters: o perfil memory
+ * (sempre executado, sem dependências externas) e Redis + MongoDB (apenas quando solicitado,
+ * com os serviços do docker-compose).
+ *
+ * ./mvnw test -Dtest=AdapterParityTest -Dparity.redis=true
+ */
+class AdapterParityTest {
+
+    // Clientes de exemplo do DatabaseInitializer e de memory/clients.json
+    private static final String CLIENT_ID = "01998afa-6693-764d-90a7-7042dc85fb9b";
+    private static final String CLIENT_SECRET = "Teste@123";
+
+    @ParameterizedTest
+    @ValueSource(strings = {"memory", "redis"})
+    void domainServicesBehaveTheSame(String adapters) {
+        assumeTrue(adapters.equals("memory") || Boolean.getBoolean("parity.redis"),
+                "Redis + MongoDB apenas com -Dparity.redis=true");
+
+        String[] profiles = adapters.equals("memory") ? new String[]{"test", "memory"} : new String[]{"test"};
+        try (ConfigurableApplicationContext context = new SpringApplicationBuilder(SecurityTokenServiceApplication.class)
+                .profiles(profiles)
+                // Argumentos de linha de comando: properties() só define valores padrão, que
+                // perdem para application-test.properties e application.properties
+                .run("--server.port=0", "--cache.token.enabled=true",
+                        "--rate-limit.enabled=true", "--rate-limit.requests-per-minute=3",
+                        "--login-failure.free-attempts=2")) {
+
+            IAuthenticationService authenticationService = context.getBean(IAuthenticationService.class);
+            RevocationService revocationService = context.getBean(RevocationService.class);
+            RateLimitService rateLimitService = context.getBean(RateLimitService.class);
+            LoginFailureService loginFailureService = context.getBean(LoginFailureService.class);
+
+            // Sem token de execuções anteriores (Redis persistente)
+            revocationService.revokeClientTokens(CLIENT_ID);
+            loginFailureService.reset(CLIENT_ID);
+
+            assertCredentialsChecked(authenticationService);
+            assertLoginBackoff(authenticationService, loginFailureService);
+            TokenResponseDTO issued = assertIssuesAndValidates(authenticationService);
+            assertTraced(authenticationService);
+            assertRefreshRotation(authenticationService, issued.getRefreshToken());
+            assertClientRevocationRevokesRefreshTokens(authenticationService, revocationService);
+            assertRevocation(authenticationService, revocationService, issued.getAccessToken());
+            assertRateLimit(rateLimitService);
+        }
+    }
+
+    private void assertCredentialsChecked(IAuthenticationService authenticationService) {
+        assertThrows(BadCredentialsException.class,
+                () -> authenticationService.authenticate(login(CLIENT_ID, "errada")));
+        assertThrows(BadCredentialsException.class,
+                () -> authenticationService.authenticate(login(UUID.randomUUID().toString(), CLIENT_SECRET)));
+    }
+
+    private void assertLoginBackoff(IAuthenticationService authenticationService, LoginFailureService loginFailureService) {
+        // Uma falha de assertCredentialsChecked; a terceira abre a espera
+        for (int i = 0; i < 2; i++) {
+            assertThrows(BadCredentialsException.class,
+                    () -> authenticationService.authenticate(login(CLIENT_ID, "errada")));
+        }
+        assertEquals(3, loginFailureService.getState(CLIENT_ID).failures());
+
+        // Em espera, nem o secret correto é verificado
+        assertThrows(LoginFailureService.ClientLockedException.class,
+                () -> authenticationService.authenticate(login(CLIENT_ID, CLIENT_SECRET)));
+
+        loginFailureService.reset(CLIENT_ID);
+        assertEquals(0, loginFailureService.getState(CLIENT_ID).failures());
+    }
+
+    private TokenResponseDTO assertIssuesAndValidates(IAuthenticationService authenticationService) {
+        TokenResponseDTO issued = authenticationService.authenticate(login(CLIENT_ID, CLIENT_SECRET));
+        assertNotNull(issued.getAccessToken());
+        assertNotNull(issued.getRefreshToken());
+
+        TokenValidationResponseDTO validation = authenticationService.validateToken("Bearer " + issued.getAccessToken());
+        assertTrue(validation.isValid());
+        assertEquals(CLIENT_ID, validation.getClientId());
+        assertEquals(Set.of("read", "write"), validation.getScopes());
+
+        assertFalse(authenticationService.validateToken("Bearer invalido").isValid());
+
+        // Assinatura adulterada: recusada na verificação e, na reapresentação, pelo cache negativo
+        String accessToken = issued.getAccessToken();
+        String tampered = accessToken.substring(0, accessToken.length() - 4) + "AAAA";
+        assertFalse(authenticationService.validateToken("Bearer " + tampered).isValid());
+        assertFalse(authenticationService.validateToken("Bearer " + tampered).isValid());
+        assertTrue(authenticationService.validateToken("Bearer " + accessToken).isValid());
+        return issued;
+    }
+
+    private void assertTraced(IAuthenticationService authenticationService) {
+        List<List<Tracing.SpanData>> completed = new ArrayList<>();
+        try (Tracing.Span ignored = Tracing.startTrace("login", null, completed::add)) {
+            authenticationService.authenticate(login(CLIENT_ID, CLIENT_SECRET));
+        }
+
+        assertEquals(1, completed.size());
+        List<Tracing.SpanData> spans = completed.get(0);
+        Tracing.SpanData root = spans.get(spans.size() - 1);
+        assertEquals("login", root.name());
+        assertTrue(spans.stream().anyMatch(span -> span.name().equals("bcrypt matches")
+                && root.spanId().equals(span.parentSpanId())));
+        assertTrue(spans.stream().allMatch(span -> span.traceId().equals(root.traceId())));
+        assertEquals("", Tracing.current().traceId());
+    }
+
+    private void assertRefreshRotation(IAuthenticationService authenticationService, String refreshToken) {
+        TokenResponseDTO refreshed = authenticationService.authenticate(refresh(refreshToken));
+        assertNotNull(refreshed.getAccessToken());
+        assertNotEquals(refreshToken, refreshed.getRefreshToken());
+
+        // Reapresentar o token usado revoga a família, inclusive o substituto
+        assertThrows(BadCredentialsException.class, () -> authenticationService.authenticate(refresh(refreshToken)));
+        assertThrows(BadCredentialsException.class,
+                () -> authenticationService.authenticate(refresh(refreshed.getRefreshToken())));
+    }
+
+    private void assertClientRevocationRevokesRefreshTokens(IAuthenticationService authenticationService,
+                                                            RevocationService revocationService) {
+        TokenResponseDTO issued = authenticationService.authenticate(login(CLIENT_ID, CLIENT_SECRET));
+        TokenResponseDTO refreshed = authenticationService.authenticate(refresh(issued.getRefreshToken()));
+
+        revocationService.revokeClientTokens(CLIENT_ID);
+
+        assertThrows(BadCredentialsException.class,
+                () -> authenticationService.authenticate(refresh(refreshed.getRefreshToken())));
+    }
+
+    private void assertRevocation(IAuthenticationService authenticationService, RevocationService revocationService,
+                                  String accessToken) {
+        long before = revocationService.getLatestSequence();
+        revocationService.revokeToken(accessToken, Duration.ofMinutes(5));
+
+        assertEquals(before + 1, revocationService.getLatestSequence());
+        assertFalse(authenticationService.validateToken("Bearer " + accessToken).isValid());
+
+        assertEquals(CLIENT_ID, revocationService.getEventsAfter(before, 10).get(0).clientId());
+    }
+
+    private void assertRateLimit(RateLimitService rateLimitService) {
+        String clientIp = "parity-" + UUID.randomUUID();
+        for (int i = 0; i < 3; i++) {
+            assertFalse(rateLimitService.isRateLimited(clientIp));
+        }
+        assertTrue(rateLimitService.isRateLimited(clientIp));
+        assertEquals(3, rateLimitService.getRateLimitInfo(clientIp).getCurrent());
+        assertTrue(rateLimitService.getRateLimitInfo(clientIp).getResetInSeconds() > 0);
+
+        rateLimitService.resetRateLimit(clientIp);
+        assertFalse(rateLimitService.isRateLimited(clientIp));
+    }
+
+    private static LoginRequestDTO login(String clientId, String clientSecret) {
+        LoginRequestDTO request = new LoginRequestDTO();
+        request.setClientId(clientId);
+        request.setClientSecret(clientSecret);
+        return request;
+    }
+
+    private static LoginRequestDTO refresh(String refreshToken) {
+        LoginRequestDTO request = new LoginRequestDTO();
+        request.setGrantType(LoginRequestDTO.GRANT_REFRESH_TOKEN);
+        request.setRefreshToken(refreshToken);
+        return request;
+    }
+}
@@ -0,0 +1,136 @@
+package com.dhs.platform.security_token_service;
+
+import com.dhs.platform.security_token_service.adapters.in.grpc.proto.TokenServiceGrpc;
+import com.dhs.platform.security_token_service.adapters.in.grpc.proto.ValidateRequest;
+import com.dhs.platform.security_token_service.adapters.in.grpc.proto.ValidateResponse;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.grpc.ManagedChannel;
+import io.grpc.ManagedChannelBuilder;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+/**
+ * Smoke test contra um binário já em execução (imagem nativa ou jar), sem subir contexto Spring
+ *
+ * Cobre os caminhos que dependem de hints na imagem nativa: JSON dos DTOs, emissão e
+ * verificação com JJWT, cache no Redis (Lua e Jackson), leitura do MongoDB e gRPC.
+ *
+ * ./mvnw test -Dtest=NativeImageSmokeTest -Dsmoke.baseUrl=http://localhost:8080 \
+ *   -Dsmoke.grpcTarget=localhost:9090
+ */
+@EnabledIfSystemProperty(named = "smoke.baseUrl", matches = ".+")
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class NativeImageSmokeTest {
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final HttpClient httpClient = HttpClient.newBuilder().connectTimeout(Duration.ofSeconds(5)).build();
+
+    private String baseUrl;
+    private String accessToken;
+
+    @BeforeAll
+    void authenticate() throws Exception {
+        baseUrl = System.getProperty("smoke.baseUrl");
+        // Cliente criado pelo DatabaseInitializer
+        String clientId = System.getProperty("smoke.clientId", "01998afa-6693-764d-90a7-7042dc85fb9b");
+        String clientSecret = System.getProperty("smoke.clientSecret", "Teste@123");
+
+        HttpResponse<String> response = post("/api/v1/auth/token",
+                "{\"clientId\":\"" + clientId + "\",\"clientSecret\":\"" + clientSecret + "\"}");
+        assertEquals(200, response.statusCode(), response.body());
+
+        JsonNode body = objectMapper.readTree(response.body());
+        accessToken = body.path("accessToken").asText();
+        assertFalse(accessToken.isEmpty());
+        assertEquals("Bearer", body.path("tokenType").asText());
+    }
+
+    @Test
+    void healthIsUp() throws Exception {
+        HttpResponse<String> response = get("/actuator/health", null);
+        assertEquals(200, response.statusCode());
+        assertEquals("UP", objectMapper.readTree(response.body()).path("status").asText());
+    }
+
+    @Test
+    void validatesIssuedToken() throws Exception {
+        // Segunda chamada vem do cache pré-serializado no Redis
+        for (int i = 0; i < 2; i++) {
+            HttpResponse<String> response = get("/api/v1/auth/validate", "Bearer " + accessToken);
+            assertEquals(200, response.statusCode(), response.body());
+            assertTrue(objectMapper.readTree(response.body()).path("valid").asBoolean());
+        }
+    }
+
+    @Test
+    void rejectsInvalidToken() throws Exception {
+        HttpResponse<String> response = get("/api/v1/auth/validate", "Bearer invalid.token.value");
+        assertEquals(401, response.statusCode());
+        assertFalse(objectMapper.readTree(response.body()).path("valid").asBoolean());
+    }
+
+    @Test
+    void rejectsBadCredentials() throws Exception {
+        HttpResponse<String> response = post("/api/v1/auth/token",
+                "{\"clientId\":\"01998afa-0000-0000-0000-000000000000\",\"clientSecret\":\"wrong-secret\"}");
+        assertEquals(401, response.statusCode());
+        assertEquals("invalid_client", objectMapper.readTree(response.body()).path("error").asText());
+    }
+
+    @Test
+    void servesRevocationFeed() throws Exception {
+        HttpResponse<String> response = get("/api/v1/auth/revocations?after=0", null);
+        assertEquals(200, response.statusCode(), response.body());
+        assertTrue(objectMapper.readTree(response.body()).has("latestSequence"));
+    }
+
+    @Test
+    void validatesOverGrpc() throws Exception {
+        String target = System.getProperty("smoke.grpcTarget");
+        assumeTrue(target != null && !target.isBlank(), "smoke.grpcTarget não informado");
+
+        ManagedChannel channel = ManagedChannelBuilder.forTarget(target).usePlaintext().build();
+        try {
+            ValidateResponse response = TokenServiceGrpc.newBlockingStub(channel)
+                    .withDeadlineAfter(5, TimeUnit.SECONDS)
+                    .validate(ValidateRequest.newBuilder().setToken(accessToken).build());
+            assertTrue(response.getValid());
+        } finally {
+            channel.shutdownNow();
+        }
+    }
+
+    private HttpResponse<String> get(String path, String authorization) throws Exception {
+        HttpRequest.Builder request = HttpRequest.newBuilder(URI.create(baseUrl + path))
+                .timeout(Duration.ofSeconds(10))
+                .GET();
+        if (authorization != null) {
+            request.header("Authorization", authorization);
+        }
+        return httpClient.send(request.build(), HttpResponse.BodyHandlers.ofString());
+    }
+
+    private HttpResponse<String> post(String path, String json) throws Exception {
+        HttpRequest request = HttpRequest.newBuilder(URI.create(baseUrl + path))
+                .timeout(Duration.ofSeconds(10))
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(json))
+                .build();
+        return httpClient.send(request, HttpResponse.BodyHandlers.ofString());
+    }
+}
@@ -2,8 +2,15 @@ package com.dhs.platform.security_token_service;
 
 import org.junit.jupiter.api.Test;
 import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
 
+/**
+ * Sobe o contexto completo com os adapters do perfil memory: roda no CI sem MongoDB nem Redis
+ * (o jwt.secret vem do application-test.properties). A fiação dos adapters Redis + MongoDB é
+ * coberta pelo AdapterParityTest com -Dparity.redis=true.
+ */
 @SpringBootTest
+@ActiveProfiles({"test", "memory"})
 class SecurityTokenServiceApplicationTests {
 
 	@Test
@@ -0,0 +1,108 @@
+package com.dhs.platform.security_token_service.adapters.in.http;
+
+import com.dhs.platform.security_token_service.config.JacksonConfig;
+import com.dhs.platform.security_token_service.domain.model.BulkItemResult;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.function.Function;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class BulkRequestProcessorTest {
+
+    private final ObjectMapper objectMapper = new JacksonConfig().objectMapper();
+    private BulkRequestProcessor processor;
+
+    @BeforeEach
+    void setUp() {
+        processor = new BulkRequestProcessor(objectMapper, 2, 2, 100);
+    }
+
+    @AfterEach
+    void tearDown() {
+        processor.shutdown();
+    }
+
+    @Test
+    void failedBatchOnlyFailsItsOwnItems() throws Exception {
+        String input = """
+                {"clientId":"a"}
+                {"clientId":"b"}
+                {"clientId":"boom"}
+                {"clientId":"c"}
+                {"clientId":"d"}
+                """;
+
+        List<JsonNode> lines = run(input, true, items -> {
+            if (items.contains("boom")) {
+                throw new IllegalStateException("Redis fora");
+            }
+            return items.stream().map(item -> BulkItemResult.ok(1)).toList();
+        });
+
+        Map<Integer, JsonNode> byIndex = byIndex(lines);
+        assertEquals(5, byIndex.size());
+        assertEquals("ok", byIndex.get(0).get("status").asText());
+        assertEquals("ok", byIndex.get(1).get("status").asText());
+        assertEquals("error", byIndex.get(2).get("status").asText());
+        assertEquals("error", byIndex.get(3).get("status").asText());
+        assertEquals("c", byIndex.get(3).get("clientId").asText());
+        assertEquals("ok", byIndex.get(4).get("status").asText());
+
+        JsonNode summary = lines.get(lines.size() - 1);
+        assertEquals(5, summary.get("total").asInt());
+        assertEquals(3, summary.get("succeeded").asInt());
+        assertEquals(2, summary.get("failed").asInt());
+    }
+
+    @Test
+    void itemsReadBeforeMalformedInputAreStillProcessed() throws Exception {
+        List<JsonNode> lines = run("[\"a\", \"b\", \"c\", {", true, items ->
+                items.stream().map(item -> BulkItemResult.ok(0)).toList());
+
+        assertTrue(lines.stream().anyMatch(line -> line.has("error")));
+        assertEquals(3, byIndex(lines).size());
+        assertEquals(3, lines.get(lines.size() - 1).get("succeeded").asInt());
+    }
+
+    @Test
+    void tokensAreNotEchoed() throws Exception {
+        List<JsonNode> lines = run("[\"secret-token\"]", false, items -> List.of(BulkItemResult.ok(7)));
+
+        JsonNode item = byIndex(lines).get(0);
+        assertFalse(item.has("clientId"));
+        assertEquals(7, item.get("seq").asLong());
+    }
+
+    private List<JsonNode> run(String input, boolean echoClientId,
+                               Function<List<String>, List<BulkItemResult>> operation) throws Exception {
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        processor.process(new ByteArrayInputStream(input.getBytes(StandardCharsets.UTF_8)), output,
+                "clientId", echoClientId, operation);
+
+        List<JsonNode> lines = new ArrayList<>();
+        for (String line : output.toString(StandardCharsets.UTF_8).split("\n")) {
+            lines.add(objectMapper.readTree(line));
+        }
+        return lines;
+    }
+
+    private static Map<Integer, JsonNode> byIndex(List<JsonNode> lines) {
+        Map<Integer, JsonNode> items = new TreeMap<>();
+        lines.stream().filter(line -> line.has("index")).forEach(line -> items.put(line.get("index").asInt(), line));
+        return items;
+    }
+}
@@ -0,0 +1,96 @@
+package com.dhs.platform.security_token_service.adapters.out.cache;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class CacheWriteBehindQueueTest {
+
+    private static final String KEY = "token_cache:abc";
+
+    private RedisTemplate<String, String> template;
+    private CacheWriteBehindQueue queue;
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    void setUp() {
+        template = mock(RedisTemplate.class);
+        RedisShardRouter shardRouter = new RedisShardRouter(
+                List.of(new RedisShardRouter.Shard("default", template, template)), List.of());
+        RedisCircuitBreaker circuitBreaker = mock(RedisCircuitBreaker.class);
+        when(circuitBreaker.allowRequest()).thenReturn(true);
+
+        LocalCacheStore localCacheStore = new LocalCacheStore();
+        ReflectionTestUtils.setField(localCacheStore, "maxEntries", 100);
+
+        queue = new CacheWriteBehindQueue(shardRouter, circuitBreaker, localCacheStore, new SimpleMeterRegistry());
+        ReflectionTestUtils.setField(queue, "enabled", true);
+        ReflectionTestUtils.setField(queue, "maxPending", 100);
+        ReflectionTestUtils.setField(queue, "batchSize", 100);
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void keyDeletedWhileFlushInFlightIsDeletedAgain() {
+        queue.enqueue(KEY, "antigo", Duration.ofMinutes(1));
+        when(template.executePipelined(any(RedisCallback.class))).thenAnswer(invocation -> {
+            // DEL concorrente (ex.: revogação) enquanto o SET do lote está em voo
+            queue.cancel(KEY);
+            return List.of();
+        });
+
+        queue.shutdown();
+
+        verify(template).delete(List.of(KEY));
+        assertEquals(Optional.empty(), queue.getPending(KEY));
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void pendingValueStaysReadableUntilSent() {
+        queue.enqueue(KEY, "valor", Duration.ofMinutes(1));
+        when(template.executePipelined(any(RedisCallback.class))).thenAnswer(invocation -> {
+            assertEquals(Optional.of("valor"), queue.getPending(KEY));
+            return List.of();
+        });
+
+        queue.shutdown();
+
+        assertEquals(Optional.empty(), queue.getPending(KEY));
+        verify(template, never()).delete(anyCollection());
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void keyRewrittenWhileFlushInFlightIsSentAgain() {
+        queue.enqueue(KEY, "primeiro", Duration.ofMinutes(1));
+        when(template.executePipelined(any(RedisCallback.class)))
+                .thenAnswer(invocation -> {
+                    queue.enqueue(KEY, "segundo", Duration.ofMinutes(1));
+                    return List.of();
+                })
+                .thenReturn(List.of());
+
+        queue.shutdown();
+
+        verify(template, times(2)).executePipelined(any(RedisCallback.class));
+        verify(template, never()).delete(anyCollection());
+        assertEquals(Optional.empty(), queue.getPending(KEY));
+    }
+}
@@ -0,0 +1,55 @@
+package com.dhs.platform.security_token_service.adapters.out.cache;
+
+import com.dhs.platform.security_token_service.domain.model.Client;
+import com.dhs.platform.security_token_service.domain.model.ClientState;
+import com.dhs.platform.security_token_service.domain.port.out.cache.ICacheRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+
+class ClientStateCacheAdapterTest {
+
+    @ParameterizedTest
+    @CsvSource({"standalone,true", "sentinel,true", "cluster,false", "sharded,false"})
+    void disabledWhereTheLookupScriptCannotReachTheBlacklist(String topology, boolean expectedEnabled) {
+        ClientStateCacheAdapter adapter = new ClientStateCacheAdapter(mock(ICacheRepository.class), new ObjectMapper());
+        ReflectionTestUtils.setField(adapter, "clientStateEnabled", true);
+        ReflectionTestUtils.setField(adapter, "redisTopology", topology);
+
+        adapter.disableOnPartitionedTopology();
+
+        assertEquals(expectedEnabled, adapter.isEnabled());
+    }
+
+    @Test
+    void stateAndClientTokenAreWrittenSynchronously() {
+        ICacheRepository cacheRepository = mock(ICacheRepository.class);
+        ClientStateCacheAdapter adapter = new ClientStateCacheAdapter(cacheRepository, new ObjectMapper());
+        ReflectionTestUtils.setField(adapter, "clientStateEnabled", true);
+        ReflectionTestUtils.setField(adapter, "clientCacheTtlMinutes", 15);
+
+        Client client = new Client();
+        client.setClientId("client1");
+        adapter.saveClientState(ClientState.builder()
+                .client(client)
+                .token("jwt-1")
+                .tokenExpiresAt(System.currentTimeMillis() + 3_600_000)
+                .build(), Duration.ofHours(1));
+
+        verify(cacheRepository).set(eq("client_state:client1"), anyString(), eq(Duration.ofMinutes(15)));
+        verify(cacheRepository).set("client_token:client1", "jwt-1", Duration.ofHours(1));
+        verify(cacheRepository, never()).setAsync(anyString(), anyString(), any(Duration.class));
+    }
+}
@@ -0,0 +1,75 @@
+package com.dhs.platform.security_token_service.adapters.out.cache;
+
+import com.dhs.platform.security_token_service.domain.port.out.cache.ICacheRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class EarlyRefreshCacheTest {
+
+    private ICacheRepository cacheRepository;
+    private EarlyRefreshCache earlyRefreshCache;
+
+    @BeforeEach
+    void setUp() {
+        cacheRepository = mock(ICacheRepository.class);
+        earlyRefreshCache = new EarlyRefreshCache(cacheRepository, new ObjectMapper());
+        ReflectionTestUtils.setField(earlyRefreshCache, "lockTtlMillis", 5000L);
+    }
+
+    @AfterEach
+    void tearDown() {
+        earlyRefreshCache.shutdown();
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void releasesOnlyTheLockItAcquired() {
+        when(cacheRepository.setIfAbsent(anyString(), anyString(), any(Duration.class))).thenReturn(true);
+
+        earlyRefreshCache.refreshAsync("client:abc", () -> { });
+        earlyRefreshCache.refreshAsync("client:abc", () -> { });
+
+        ArgumentCaptor<String> acquired = ArgumentCaptor.forClass(String.class);
+        verify(cacheRepository, timeout(1000).times(2))
+                .setIfAbsent(eq("refresh_lock:client:abc"), acquired.capture(), any(Duration.class));
+        ArgumentCaptor<List<String>> released = ArgumentCaptor.forClass(List.class);
+        verify(cacheRepository, timeout(1000).times(2))
+                .executeScript(anyString(), eq(List.of("refresh_lock:client:abc")), released.capture());
+
+        // Cada aquisição tem o seu token, e o script só apaga o lock se o valor ainda for esse
+        assertEquals(2, Set.copyOf(acquired.getAllValues()).size());
+        assertEquals(Set.copyOf(acquired.getAllValues()),
+                released.getAllValues().stream().map(args -> args.get(0)).collect(Collectors.toSet()));
+        verify(cacheRepository, never()).delete(anyString());
+    }
+
+    @Test
+    void doesNotRefreshWithoutTheLock() {
+        when(cacheRepository.setIfAbsent(anyString(), anyString(), any(Duration.class))).thenReturn(false);
+        Runnable refresh = mock(Runnable.class);
+
+        earlyRefreshCache.refreshAsync("client:abc", refresh);
+
+        verify(refresh, never()).run();
+        verify(cacheRepository, never()).executeScript(anyString(), any(), any());
+    }
+}
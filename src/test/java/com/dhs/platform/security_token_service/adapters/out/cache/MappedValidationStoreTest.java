@@ -0,0 +1,160 @@
+package com.dhs.platform.security_token_service.adapters.out.cache;
+
+import com.dhs.platform.security_token_service.domain.model.SerializedValidation;
+import com.dhs.platform.security_token_service.domain.port.out.cache.IRevocationLogRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class MappedValidationStoreTest {
+
+    private static final String TOKEN_HASH = TokenHasher.hash("token-a");
+    private static final int SLOT_HEADER_SIZE = 64;
+    private static final int TOKEN_EXPIRES_AT = 40;
+
+    @TempDir
+    Path dir;
+
+    private IRevocationLogRepository revocationLogRepository;
+    private final List<MappedValidationStore> opened = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        revocationLogRepository = mock(IRevocationLogRepository.class);
+        when(revocationLogRepository.getLatestSequence()).thenReturn(0L);
+    }
+
+    @AfterEach
+    void tearDown() throws IOException {
+        for (MappedValidationStore store : opened) {
+            store.close();
+        }
+    }
+
+    @Test
+    void entrySurvivesReopen() throws Exception {
+        MappedValidationStore store = open();
+        store.put(TOKEN_HASH, validation("body-survives"), 12, future());
+        store.close();
+        opened.remove(store);
+
+        MappedValidationStore reopened = open();
+        // Reaberto: só serve entradas depois de conferir o log de revogações
+        assertNull(reopened.get(TOKEN_HASH));
+        reopened.syncRevocations();
+
+        EarlyRefreshCache.Entry<SerializedValidation> entry = reopened.get(TOKEN_HASH);
+        assertNotNull(entry);
+        assertEquals("client1", entry.value().clientId());
+        assertEquals("{\"marker\":\"body-survives\"}", entry.value().body());
+        assertEquals(12, entry.computeMillis());
+    }
+
+    @Test
+    void corruptedPayloadIsDiscarded() throws Exception {
+        MappedValidationStore store = open();
+        store.syncRevocations();
+        store.put(TOKEN_HASH, validation("body-corrupt"), 12, future());
+
+        long payloadOffset = find(store.getPath(), "body-corrupt");
+        try (RandomAccessFile file = new RandomAccessFile(store.getPath().toFile(), "rw")) {
+            file.seek(payloadOffset);
+            file.write('X');
+        }
+
+        assertNull(store.get(TOKEN_HASH));
+        // Descartado: mesmo restaurando o byte, o slot não volta a ser servido
+        try (RandomAccessFile file = new RandomAccessFile(store.getPath().toFile(), "rw")) {
+            file.seek(payloadOffset);
+            file.write('b');
+        }
+        assertNull(store.get(TOKEN_HASH));
+    }
+
+    @Test
+    void tornWriteIsDetectedOnReopen() throws Exception {
+        MappedValidationStore store = open();
+        store.put(TOKEN_HASH, validation("body-torn"), 12, future());
+        long slotOffset = find(store.getPath(), "client1\n") - SLOT_HEADER_SIZE;
+        store.close();
+        opened.remove(store);
+
+        // Processo morto no meio da escrita: cabeçalho novo, payload e checksum ainda antigos
+        try (RandomAccessFile file = new RandomAccessFile(store.getPath().toFile(), "rw")) {
+            file.seek(slotOffset + TOKEN_EXPIRES_AT);
+            file.writeLong(future() + 60_000);
+        }
+
+        MappedValidationStore reopened = open();
+        reopened.syncRevocations();
+        assertNull(reopened.get(TOKEN_HASH));
+
+        reopened.put(TOKEN_HASH, validation("body-rewritten"), 5, future());
+        assertNotNull(reopened.get(TOKEN_HASH));
+    }
+
+    @Test
+    void secondInstanceOnSamePathGetsItsOwnFile() throws Exception {
+        MappedValidationStore first = open();
+        MappedValidationStore second = open();
+
+        assertNotEquals(first.getPath(), second.getPath());
+        first.syncRevocations();
+        second.syncRevocations();
+        first.put(TOKEN_HASH, validation("body-first"), 12, future());
+        assertNull(second.get(TOKEN_HASH));
+
+        Path own = second.getPath();
+        second.close();
+        opened.remove(second);
+        assertFalse(Files.exists(own));
+    }
+
+    private MappedValidationStore open() throws IOException {
+        MappedValidationStore store = new MappedValidationStore(revocationLogRepository, true,
+                dir.resolve("validation-cache.db").toString(), 64, 512, 100);
+        store.open();
+        opened.add(store);
+        return store;
+    }
+
+    private static SerializedValidation validation(String marker) {
+        return new SerializedValidation(true, "client1", future(), null, "{\"marker\":\"" + marker + "\"}");
+    }
+
+    private static long future() {
+        return System.currentTimeMillis() + 300_000;
+    }
+
+    private static long find(Path path, String text) throws IOException {
+        byte[] content = Files.readAllBytes(path);
+        byte[] needle = text.getBytes(StandardCharsets.UTF_8);
+        outer:
+        for (int i = 0; i <= content.length - needle.length; i++) {
+            for (int j = 0; j < needle.length; j++) {
+                if (content[i + j] != needle[j]) {
+                    continue outer;
+                }
+            }
+            return i;
+        }
+        throw new AssertionError("Texto não encontrado no arquivo: " + text);
+    }
+}
@@ -0,0 +1,75 @@
+package com.dhs.platform.security_token_service.adapters.out.cache;
+
+import com.dhs.platform.security_token_service.adapters.out.memory.InMemoryCacheAdapter;
+import com.dhs.platform.security_token_service.adapters.out.memory.InMemoryKeyValueStore;
+import com.dhs.platform.security_token_service.domain.model.SerializedValidation;
+import com.dhs.platform.security_token_service.domain.service.OpaqueTokenService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class OpaqueTokenCacheAdapterTest {
+
+    private static final Duration TTL = Duration.ofMinutes(5);
+
+    private OpaqueTokenService opaqueTokenService;
+
+    @BeforeEach
+    void setUp() {
+        OpaqueTokenCacheAdapter adapter = new OpaqueTokenCacheAdapter(
+                new InMemoryCacheAdapter(new InMemoryKeyValueStore(100)));
+        ReflectionTestUtils.setField(adapter, "localTtlMillis", 1_000L);
+        ReflectionTestUtils.setField(adapter, "localCapacity", 16);
+        opaqueTokenService = new OpaqueTokenService(adapter);
+    }
+
+    @Test
+    void lastIssuedTokenIsTheClientCurrentToken() {
+        SerializedValidation validation = validation("client1");
+        opaqueTokenService.issue(validation, TTL);
+        String token = opaqueTokenService.issue(validation, TTL);
+
+        Optional<OpaqueTokenService.ClientToken> current = opaqueTokenService.currentToken("client1");
+
+        assertTrue(current.isPresent());
+        assertEquals(token, current.get().token());
+        // A expiração vem do registro armazenado, não do handle
+        assertEquals(validation.expiresAtMillis(), current.get().expiresAtMillis());
+        assertTrue(opaqueTokenService.currentToken("client2").isEmpty());
+    }
+
+    @Test
+    void revokedTokenIsNotReusedByTheClient() {
+        String token = opaqueTokenService.issue(validation("client1"), TTL);
+
+        opaqueTokenService.revoke(token);
+
+        assertTrue(opaqueTokenService.currentToken("client1").isEmpty());
+    }
+
+    @Test
+    void clientRevocationDeletesTheOpaqueRecord() {
+        String first = opaqueTokenService.issue(validation("client1"), TTL);
+        String second = opaqueTokenService.issue(validation("client2"), TTL);
+
+        opaqueTokenService.revokeClients(List.of("client1"));
+
+        // Também o espelho local: a revogação é vista no mesmo pod imediatamente
+        assertTrue(opaqueTokenService.validate(first).isEmpty());
+        assertTrue(opaqueTokenService.currentToken("client1").isEmpty());
+        assertTrue(opaqueTokenService.validate(second).isPresent());
+        assertEquals(second, opaqueTokenService.currentToken("client2").orElseThrow().token());
+    }
+
+    private static SerializedValidation validation(String clientId) {
+        return new SerializedValidation(true, clientId, System.currentTimeMillis() + TTL.toMillis(), null,
+                "{\"valid\":true,\"clientId\":\"" + clientId + "\"}");
+    }
+}
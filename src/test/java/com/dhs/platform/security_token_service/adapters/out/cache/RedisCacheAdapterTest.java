@@ -0,0 +1,140 @@
+package com.dhs.platform.security_token_service.adapters.out.cache;
+
+import com.dhs.platform.security_token_service.config.LatencyBudget;
+import com.dhs.platform.security_token_service.config.Tracing;
+import com.dhs.platform.security_token_service.domain.port.out.cache.CacheUnavailableException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.redis.RedisConnectionFailureException;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.ValueOperations;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class RedisCacheAdapterTest {
+
+    private static final String BLACKLIST_KEY = "token_blacklist:abc";
+
+    private RedisTemplate<String, String> template;
+    private RedisCircuitBreaker circuitBreaker;
+    private LocalCacheStore localCacheStore;
+    private RedisCacheAdapter adapter;
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    void setUp() {
+        template = mock(RedisTemplate.class);
+        when(template.execute(any(RedisCallback.class))).thenThrow(new RedisConnectionFailureException("Redis fora"));
+        RedisShardRouter shardRouter = new RedisShardRouter(
+                List.of(new RedisShardRouter.Shard("default", template, template)), List.of());
+
+        CacheWriteBehindQueue writeBehindQueue = mock(CacheWriteBehindQueue.class);
+        when(writeBehindQueue.getPending(anyString())).thenReturn(Optional.empty());
+
+        circuitBreaker = mock(RedisCircuitBreaker.class);
+        localCacheStore = new LocalCacheStore();
+        ReflectionTestUtils.setField(localCacheStore, "maxEntries", 100);
+
+        adapter = new RedisCacheAdapter(shardRouter, mock(ReplicaLagMonitor.class), circuitBreaker,
+                localCacheStore, writeBehindQueue, mock(HedgedReadPolicy.class), 250);
+    }
+
+    @Test
+    void revocationCheckFailsClosedWhenCircuitIsOpen() {
+        when(circuitBreaker.allowRequest()).thenReturn(false);
+
+        assertThrows(CacheUnavailableException.class, () -> adapter.hasKeyFromReplicaOrThrow(BLACKLIST_KEY));
+    }
+
+    @Test
+    void revocationCheckFailsClosedOnRedisError() {
+        when(circuitBreaker.allowRequest()).thenReturn(true);
+
+        assertThrows(CacheUnavailableException.class, () -> adapter.hasKeyFromReplicaOrThrow(BLACKLIST_KEY));
+        verify(circuitBreaker).recordFailure(any());
+    }
+
+    @Test
+    void plainReadsStillUseLocalFallback() {
+        when(circuitBreaker.allowRequest()).thenReturn(false);
+        localCacheStore.set(BLACKLIST_KEY, "blacklisted", Duration.ofMinutes(1));
+
+        assertTrue(adapter.hasKeyFromReplica(BLACKLIST_KEY));
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void blacklistWriteHasNoLocalFallback() {
+        ValueOperations<String, String> values = mock(ValueOperations.class);
+        when(template.opsForValue()).thenReturn(values);
+        doThrow(new RedisConnectionFailureException("Redis fora")).when(values).set(anyString(), anyString(), any(Duration.class));
+
+        when(circuitBreaker.allowRequest()).thenReturn(false);
+        assertThrows(CacheUnavailableException.class,
+                () -> adapter.setOrThrow(BLACKLIST_KEY, "blacklisted", Duration.ofMinutes(1)));
+        assertThrows(CacheUnavailableException.class,
+                () -> adapter.setAllOrThrow(Map.of(BLACKLIST_KEY, "blacklisted"), Duration.ofMinutes(1)));
+
+        when(circuitBreaker.allowRequest()).thenReturn(true);
+        assertThrows(CacheUnavailableException.class,
+                () -> adapter.setOrThrow(BLACKLIST_KEY, "blacklisted", Duration.ofMinutes(1)));
+        verify(circuitBreaker).recordFailure(any());
+
+        // Nada gravado só neste nó
+        assertFalse(localCacheStore.hasKey(BLACKLIST_KEY));
+    }
+
+    @Test
+    void plainWritesStillUseLocalFallback() {
+        when(circuitBreaker.allowRequest()).thenReturn(false);
+
+        adapter.set(BLACKLIST_KEY, "blacklisted", Duration.ofMinutes(1));
+
+        assertTrue(localCacheStore.hasKey(BLACKLIST_KEY));
+    }
+
+    @Test
+    void revocationCheckFailsClosedWithoutBudgetAndSparesTheBreaker() {
+        when(circuitBreaker.allowRequest()).thenReturn(true);
+        localCacheStore.set(BLACKLIST_KEY, "blacklisted", Duration.ofMinutes(1));
+
+        try (LatencyBudget.Scope ignored = LatencyBudget.start(Duration.ZERO)) {
+            assertThrows(CacheUnavailableException.class, () -> adapter.hasKeyFromReplicaOrThrow("token_blacklist:other"));
+        }
+        verify(circuitBreaker, never()).allowRequest();
+        verify(circuitBreaker, never()).recordFailure(any());
+    }
+
+    @Test
+    void budgetFallbackIsTraced() {
+        List<Tracing.SpanData> spans = new ArrayList<>();
+        localCacheStore.set(BLACKLIST_KEY, "blacklisted", Duration.ofMinutes(1));
+
+        try (Tracing.Span ignored = Tracing.startTrace("test", null, spans::addAll);
+             LatencyBudget.Scope budget = LatencyBudget.start(Duration.ZERO)) {
+            assertTrue(adapter.hasKeyFromReplica(BLACKLIST_KEY));
+        }
+
+        Tracing.SpanData exists = spans.stream().filter(span -> span.name().equals("redis EXISTS")).findFirst().orElseThrow();
+        assertEquals("latency_budget", exists.attributes().get("redis.fallback"));
+        verify(circuitBreaker, never()).allowRequest();
+    }
+}
@@ -0,0 +1,89 @@
+package com.dhs.platform.security_token_service.adapters.out.cache;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class RedisCircuitBreakerTest {
+
+    private static final RuntimeException FAILURE = new RuntimeException("timeout");
+
+    private RedisCircuitBreaker circuitBreaker;
+
+    @BeforeEach
+    void setUp() {
+        circuitBreaker = new RedisCircuitBreaker(new SimpleMeterRegistry());
+        ReflectionTestUtils.setField(circuitBreaker, "enabled", true);
+        ReflectionTestUtils.setField(circuitBreaker, "failureThreshold", 3);
+        ReflectionTestUtils.setField(circuitBreaker, "openDurationMillis", 50L);
+    }
+
+    @Test
+    void opensAfterConsecutiveFailures() {
+        circuitBreaker.recordFailure(FAILURE);
+        circuitBreaker.recordFailure(FAILURE);
+        assertEquals(RedisCircuitBreaker.State.CLOSED, circuitBreaker.getState());
+
+        circuitBreaker.recordFailure(FAILURE);
+        assertEquals(RedisCircuitBreaker.State.OPEN, circuitBreaker.getState());
+        assertTrue(circuitBreaker.isDegraded());
+        assertFalse(circuitBreaker.allowRequest());
+    }
+
+    @Test
+    void successResetsFailureCount() {
+        circuitBreaker.recordFailure(FAILURE);
+        circuitBreaker.recordFailure(FAILURE);
+        circuitBreaker.recordSuccess();
+        circuitBreaker.recordFailure(FAILURE);
+        circuitBreaker.recordFailure(FAILURE);
+
+        assertEquals(RedisCircuitBreaker.State.CLOSED, circuitBreaker.getState());
+    }
+
+    @Test
+    void halfOpenAllowsSingleProbeThenCloses() throws InterruptedException {
+        open();
+        Thread.sleep(60);
+
+        assertTrue(circuitBreaker.allowRequest());
+        assertEquals(RedisCircuitBreaker.State.HALF_OPEN, circuitBreaker.getState());
+        assertFalse(circuitBreaker.allowRequest());
+
+        circuitBreaker.recordSuccess();
+        assertEquals(RedisCircuitBreaker.State.CLOSED, circuitBreaker.getState());
+        assertTrue(circuitBreaker.allowRequest());
+    }
+
+    @Test
+    void failedProbeReopens() throws InterruptedException {
+        open();
+        Thread.sleep(60);
+
+        assertTrue(circuitBreaker.allowRequest());
+        circuitBreaker.recordFailure(FAILURE);
+
+        assertEquals(RedisCircuitBreaker.State.OPEN, circuitBreaker.getState());
+        assertFalse(circuitBreaker.allowRequest());
+    }
+
+    @Test
+    void disabledAlwaysAllows() {
+        ReflectionTestUtils.setField(circuitBreaker, "enabled", false);
+        open();
+
+        assertTrue(circuitBreaker.allowRequest());
+        assertFalse(circuitBreaker.isDegraded());
+    }
+
+    private void open() {
+        for (int i = 0; i < 3; i++) {
+            circuitBreaker.recordFailure(FAILURE);
+        }
+    }
+}
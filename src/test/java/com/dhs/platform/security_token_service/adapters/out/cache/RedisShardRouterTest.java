@@ -0,0 +1,129 @@
+package com.dhs.platform.security_token_service.adapters.out.cache;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class RedisShardRouterTest {
+
+    private static final int KEYS = 20_000;
+
+    @Test
+    void singleShardTakesEveryKey() {
+        RedisShardRouter router = router("redis-a:6379");
+
+        assertFalse(router.isSharded());
+        assertSame(router.getShards().get(0), router.shardFor("token_cache:abc"));
+        assertSame(router.getShards().get(0), router.shardForAll(List.of("a", "b", "c")));
+        assertThrows(IllegalArgumentException.class, () -> new RedisShardRouter(List.of(), List.of()));
+    }
+
+    @Test
+    void routingDoesNotDependOnNodeOrder() {
+        RedisShardRouter forward = router("redis-a:6379", "redis-b:6379", "redis-c:6379");
+        RedisShardRouter reversed = router("redis-c:6379", "redis-b:6379", "redis-a:6379");
+
+        for (int i = 0; i < 1_000; i++) {
+            String key = "token_cache:" + i;
+            assertEquals(forward.shardFor(key).name(), reversed.shardFor(key).name());
+        }
+    }
+
+    @Test
+    void keysSpreadEvenlyAcrossShards() {
+        RedisShardRouter router = router("redis-a:6379", "redis-b:6379", "redis-c:6379");
+
+        Map<String, Integer> counts = new HashMap<>();
+        for (int i = 0; i < KEYS; i++) {
+            counts.merge(router.shardFor("token_cache:" + i).name(), 1, Integer::sum);
+        }
+
+        assertEquals(3, counts.size());
+        // Cada shard com um terço das chaves, com folga de 10%
+        counts.values().forEach(count ->
+                assertTrue(Math.abs(count - KEYS / 3) < KEYS / 30, "distribuição desigual: " + counts));
+    }
+
+    @Test
+    void addingAShardOnlyMovesKeysToIt() {
+        RedisShardRouter before = router("redis-a:6379", "redis-b:6379", "redis-c:6379");
+        RedisShardRouter after = router("redis-a:6379", "redis-b:6379", "redis-c:6379", "redis-d:6379");
+
+        int moved = 0;
+        for (int i = 0; i < KEYS; i++) {
+            String key = "token_cache:" + i;
+            String from = before.shardFor(key).name();
+            String to = after.shardFor(key).name();
+            if (!from.equals(to)) {
+                assertEquals("redis-d:6379", to);
+                moved++;
+            }
+        }
+        // ~1/4 das chaves migra para o novo shard
+        assertTrue(Math.abs(moved - KEYS / 4) < KEYS / 40, "chaves migradas: " + moved);
+    }
+
+    @Test
+    void removingAShardOnlyMovesItsKeys() {
+        RedisShardRouter before = router("redis-a:6379", "redis-b:6379", "redis-c:6379");
+        RedisShardRouter after = router("redis-a:6379", "redis-c:6379");
+
+        for (int i = 0; i < KEYS; i++) {
+            String key = "token_cache:" + i;
+            String from = before.shardFor(key).name();
+            if (!from.equals("redis-b:6379")) {
+                assertEquals(from, after.shardFor(key).name());
+            }
+        }
+    }
+
+    @Test
+    void hashTagKeepsScriptKeysTogether() {
+        RedisShardRouter router = router("redis-a:6379", "redis-b:6379", "redis-c:6379");
+        List<String> tagged = List.of("{token_revocations}:seq", "{token_revocations}:log", "{token_revocations}:gen");
+
+        RedisShardRouter.Shard shard = router.shardForAll(tagged);
+
+        assertEquals(router.shardFor("token_revocations").name(), shard.name());
+        // Chaves sem a tag se espalham: algum par cai em shards diferentes e o script é recusado
+        List<String> untagged = new ArrayList<>();
+        for (int i = 0; i < 16; i++) {
+            untagged.add("token_revocations:" + i);
+        }
+        assertThrows(IllegalArgumentException.class, () -> router.shardForAll(untagged));
+    }
+
+    @Test
+    void partitionPreservesKeyOrderWithinEachShard() {
+        RedisShardRouter router = router("redis-a:6379", "redis-b:6379");
+        List<String> keys = new ArrayList<>();
+        for (int i = 0; i < 100; i++) {
+            keys.add("token_cache:" + i);
+        }
+
+        Map<RedisShardRouter.Shard, List<String>> partitions = router.partition(keys);
+
+        assertEquals(2, partitions.size());
+        partitions.forEach((shard, shardKeys) -> {
+            assertEquals(keys.stream().filter(shardKeys::contains).toList(), shardKeys);
+            shardKeys.forEach(key -> assertSame(shard, router.shardFor(key)));
+        });
+    }
+
+    private static RedisShardRouter router(String... names) {
+        List<RedisShardRouter.Shard> shards = new ArrayList<>();
+        for (String name : names) {
+            shards.add(new RedisShardRouter.Shard(name, null, null));
+        }
+        return new RedisShardRouter(shards, List.of());
+    }
+}
@@ -0,0 +1,123 @@
+package com.dhs.platform.security_token_service.adapters.out.cache;
+
+import com.dhs.platform.security_token_service.adapters.in.http.dto.TokenValidationResponseDTO;
+import com.dhs.platform.security_token_service.config.JacksonConfig;
+import com.dhs.platform.security_token_service.domain.model.SerializedValidation;
+import com.dhs.platform.security_token_service.domain.port.out.cache.CacheUnavailableException;
+import com.dhs.platform.security_token_service.domain.port.out.cache.ICacheRepository;
+import com.dhs.platform.security_token_service.domain.port.out.cache.IClientStateCacheRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.startsWith;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+
+class TokenCacheAdapterTest {
+
+    private final ObjectMapper objectMapper = new JacksonConfig().objectMapper();
+
+    private ICacheRepository cacheRepository;
+    private EarlyRefreshCache earlyRefreshCache;
+    private TokenCacheAdapter adapter;
+
+    @BeforeEach
+    void setUp() {
+        cacheRepository = mock(ICacheRepository.class);
+        earlyRefreshCache = new EarlyRefreshCache(cacheRepository, objectMapper);
+        adapter = new TokenCacheAdapter(cacheRepository, mock(IClientStateCacheRepository.class),
+                earlyRefreshCache, mock(MappedValidationStore.class), objectMapper);
+        ReflectionTestUtils.setField(adapter, "tokenCacheTtlMinutes", 5);
+        ReflectionTestUtils.setField(adapter, "tokenCacheEnabled", true);
+    }
+
+    @AfterEach
+    void tearDown() {
+        earlyRefreshCache.shutdown();
+    }
+
+    @Test
+    void encodedEntryDecodesToTheSameValidation() throws Exception {
+        SerializedValidation validation = new SerializedValidation(
+                true, "client-1", 1_900_000_000_000L, null, "{\"valid\":true,\"clientId\":\"c\"}\n");
+
+        EarlyRefreshCache.Entry<SerializedValidation> entry =
+                adapter.decode(adapter.encode(validation, 12, 1_800_000_000_000L));
+
+        assertEquals(12, entry.computeMillis());
+        assertEquals(1_800_000_000_000L, entry.expiresAt());
+        assertEquals(validation.clientId(), entry.value().clientId());
+        assertEquals(validation.expiresAtMillis(), entry.value().expiresAtMillis());
+        // O corpo pode conter ';' e '\n': só o cabeçalho é separado
+        assertEquals(validation.body(), entry.value().body());
+        assertTrue(entry.value().valid());
+    }
+
+    @Test
+    void legacyJsonEnvelopeIsStillReadable() throws Exception {
+        TokenValidationResponseDTO legacy = TokenValidationResponseDTO.builder()
+                .valid(true)
+                .clientId("client1")
+                .expiresAt(LocalDateTime.now().plusHours(1))
+                .build();
+        String raw = earlyRefreshCache.wrap(legacy, 7, Duration.ofMinutes(5));
+
+        EarlyRefreshCache.Entry<SerializedValidation> entry = adapter.decode(raw);
+
+        assertEquals(7, entry.computeMillis());
+        assertEquals("client1", entry.value().clientId());
+        assertEquals(legacy, objectMapper.readValue(entry.value().body(), TokenValidationResponseDTO.class));
+    }
+
+    @Test
+    void malformedHeadersAreRejected() {
+        assertThrows(IllegalArgumentException.class, () -> adapter.decode("v2;12;1800000000000"));
+        assertThrows(IllegalArgumentException.class, () -> adapter.decode("v2;12;1800000000000;1900000000000;client1"));
+        assertThrows(NumberFormatException.class, () -> adapter.decode("v2;x;1800000000000;1900000000000;client1\n{}"));
+    }
+
+    @Test
+    void clientIdWithSeparatorIsNotCached() {
+        assertFalse(TokenCacheAdapter.isEncodable("client\nv2;0;0;0;other"));
+        assertFalse(TokenCacheAdapter.isEncodable("client;1"));
+
+        adapter.cacheTokenValidation("token-a", validation("client\n1"));
+        verify(cacheRepository, never()).setAsync(anyString(), anyString(), any(Duration.class));
+
+        adapter.cacheTokenValidation("token-b", validation("client1"));
+        verify(cacheRepository).setAsync(startsWith("token_cache:"), startsWith("v2;"), any(Duration.class));
+    }
+
+    @Test
+    void blacklistFailureIsPropagated() {
+        doThrow(new CacheUnavailableException("Redis indisponível"))
+                .when(cacheRepository).setOrThrow(startsWith("token_blacklist:"), anyString(), any(Duration.class));
+
+        assertThrows(CacheUnavailableException.class, () -> adapter.blacklistToken("token-a", Duration.ofMinutes(5)));
+        // O cache de validação continua lá: a revogação não foi aplicada
+        verify(cacheRepository, never()).delete(anyString());
+        verify(cacheRepository, never()).set(anyString(), anyString(), any(Duration.class));
+    }
+
+    private TokenValidationResponseDTO validation(String clientId) {
+        return TokenValidationResponseDTO.builder()
+                .valid(true)
+                .clientId(clientId)
+                .expiresAt(LocalDateTime.now().plusHours(1))
+                .build();
+    }
+}
@@ -0,0 +1,93 @@
+package com.dhs.platform.security_token_service.adapters.out.memory;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class HierarchicalTimingWheelTest {
+
+    // Tick de 1 ms a partir de 0: prazo em milissegundos = prazo em ticks
+    private final HierarchicalTimingWheel wheel = new HierarchicalTimingWheel(1, 0);
+
+    @Test
+    void expiresExactlyAtTheDeadline() {
+        wheel.schedule("a", 10);
+
+        assertEquals(List.of(), wheel.advance(9));
+        assertEquals(List.of("a"), wheel.advance(10));
+        assertEquals(0, wheel.size());
+    }
+
+    @Test
+    void pastDeadlineExpiresOnTheNextTick() {
+        wheel.advance(50);
+        wheel.schedule("a", 10);
+
+        assertEquals(List.of("a"), wheel.advance(51));
+    }
+
+    @Test
+    void timersCascadeDownWithoutLosingTicks() {
+        // Limites entre os níveis: última posição de cada um e a primeira do seguinte
+        long[] deadlines = {63, 64, 65, 4_095, 4_096, 4_097, 262_143, 262_144, 262_150};
+        for (long deadline : deadlines) {
+            wheel.schedule("k" + deadline, deadline);
+        }
+        assertEquals(deadlines.length, wheel.size());
+
+        Map<String, Long> expiredAt = new HashMap<>();
+        for (long now = 1; now <= 262_150; now++) {
+            for (String key : wheel.advance(now)) {
+                expiredAt.put(key, now);
+            }
+        }
+
+        for (long deadline : deadlines) {
+            assertEquals(deadline, expiredAt.get("k" + deadline), "prazo " + deadline);
+        }
+        assertEquals(0, wheel.size());
+    }
+
+    @Test
+    void deadlineBeyondRangeIsRescheduled() {
+        long deadline = (1L << 24) + 100;
+        wheel.schedule("longe", deadline);
+
+        assertEquals(List.of(), wheel.advance(deadline - 1));
+        assertEquals(1, wheel.size());
+        assertEquals(List.of("longe"), wheel.advance(deadline));
+    }
+
+    @Test
+    void randomDeadlinesExpireInTheStepThatReachesThem() {
+        Random random = new Random(42);
+        Map<String, Long> deadlines = new HashMap<>();
+        for (int i = 0; i < 2_000; i++) {
+            long deadline = 1 + random.nextInt(300_000);
+            deadlines.put("k" + i, deadline);
+            wheel.schedule("k" + i, deadline);
+        }
+
+        long previous = 0;
+        int expired = 0;
+        while (previous < 300_000) {
+            long now = previous + 1 + random.nextInt(5_000);
+            for (String key : wheel.advance(now)) {
+                long deadline = deadlines.get(key);
+                assertTrue(deadline > previous && deadline <= now,
+                        key + " com prazo " + deadline + " expirou no passo (" + previous + ", " + now + "]");
+                expired++;
+            }
+            previous = now;
+        }
+
+        assertEquals(deadlines.size(), expired);
+        assertEquals(0, wheel.size());
+    }
+}
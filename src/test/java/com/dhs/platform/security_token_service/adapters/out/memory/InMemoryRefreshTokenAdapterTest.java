@@ -0,0 +1,68 @@
+package com.dhs.platform.security_token_service.adapters.out.memory;
+
+import com.dhs.platform.security_token_service.adapters.out.cache.TokenHasher;
+import com.dhs.platform.security_token_service.domain.model.RefreshTokenRecord;
+import com.dhs.platform.security_token_service.domain.model.RefreshTokenRotation;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class InMemoryRefreshTokenAdapterTest {
+
+    private static final Duration TTL = Duration.ofMinutes(10);
+
+    private final InMemoryKeyValueStore store = new InMemoryKeyValueStore(100);
+    private final InMemoryRefreshTokenAdapter adapter = new InMemoryRefreshTokenAdapter(store, new ObjectMapper());
+
+    @Test
+    void rotationKeepsTheFamilyExpiry() {
+        // Família emitida há 9 minutos: restam ~1 minuto, não o TTL cheio
+        adapter.saveRefreshToken("fam.a", record("client1", "fam"), TTL);
+        long familyExpiry = System.currentTimeMillis() + Duration.ofMinutes(1).toMillis();
+        store.set("refresh_family:{fam}", String.valueOf(familyExpiry), Duration.ofMinutes(1));
+
+        RefreshTokenRotation first = adapter.rotateRefreshToken("fam.a", "fam.b", record(null, "fam"), TTL);
+        RefreshTokenRotation second = adapter.rotateRefreshToken("fam.b", "fam.c", record(null, "fam"), TTL);
+
+        assertEquals(RefreshTokenRotation.Status.VALID, first.status());
+        assertEquals(RefreshTokenRotation.Status.VALID, second.status());
+        long remaining = store.remainingTtlMillis(tokenKey("fam", "fam.c"));
+        assertTrue(remaining > 0 && remaining <= Duration.ofMinutes(1).toMillis(), "prazo do substituto: " + remaining);
+        assertEquals(String.valueOf(familyExpiry), store.get("refresh_family:{fam}").orElseThrow());
+    }
+
+    @Test
+    void clientRevocationRevokesEveryActiveFamily() {
+        adapter.saveRefreshToken("fam1.a", record("client1", "fam1"), TTL);
+        adapter.saveRefreshToken("fam2.a", record("client1", "fam2"), TTL);
+        adapter.saveRefreshToken("fam3.a", record("client2", "fam3"), TTL);
+        assertEquals(RefreshTokenRotation.Status.VALID,
+                adapter.rotateRefreshToken("fam1.a", "fam1.b", record(null, "fam1"), TTL).status());
+
+        adapter.revokeClientFamilies(List.of("client1"));
+
+        assertEquals(RefreshTokenRotation.Status.REVOKED,
+                adapter.rotateRefreshToken("fam1.b", "fam1.c", record(null, "fam1"), TTL).status());
+        assertEquals(RefreshTokenRotation.Status.REVOKED,
+                adapter.rotateRefreshToken("fam2.a", "fam2.b", record(null, "fam2"), TTL).status());
+        assertEquals(RefreshTokenRotation.Status.VALID,
+                adapter.rotateRefreshToken("fam3.a", "fam3.b", record(null, "fam3"), TTL).status());
+    }
+
+    private static RefreshTokenRecord record(String clientId, String familyId) {
+        return RefreshTokenRecord.builder()
+                .clientId(clientId)
+                .familyId(familyId)
+                .issuedAt(System.currentTimeMillis())
+                .build();
+    }
+
+    private static String tokenKey(String familyId, String refreshToken) {
+        return "refresh_token:{" + familyId + "}:" + TokenHasher.hash(refreshToken);
+    }
+}
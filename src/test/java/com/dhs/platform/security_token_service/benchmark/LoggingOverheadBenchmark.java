@@ -0,0 +1,139 @@
+package com.dhs.platform.security_token_service.benchmark;
+
+import ch.qos.logback.classic.AsyncAppender;
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.LoggerContext;
+import ch.qos.logback.classic.encoder.PatternLayoutEncoder;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.core.OutputStreamAppender;
+import com.dhs.platform.security_token_service.util.LogSampler;
+import com.dhs.platform.security_token_service.util.LogThrottle;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.io.OutputStream;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Custo de logging por requisição antes e depois da amostragem/limitação e do appender assíncrono
+ *
+ * "before": INFO em toda validação, WARN em toda rejeição e strings de DEBUG montadas
+ * mesmo com DEBUG desligado, tudo escrito na thread da requisição.
+ * "after": mesmas mensagens com LogSampler, LogThrottle, guarda de DEBUG e AsyncAppender.
+ *
+ * A saída vai para um stream nulo, então o resultado mede formatação e contenção,
+ * não I/O de disco (que só aumentaria a diferença).
+ *
+ * Execução:
+ * mvn test-compile dependency:build-classpath -Dmdep.outputFile=target/cp.txt
+ * java -cp target/test-classes:target/classes:$(cat target/cp.txt) \
+ *   com.dhs.platform.security_token_service.benchmark.LoggingOverheadBenchmark
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@State(Scope.Benchmark)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Threads(4)
+@Fork(1)
+public class LoggingOverheadBenchmark {
+
+    private static final String CLIENT_ID = "client1";
+    private static final String TOKEN_HASH = "n4bQgYhMfWWaL+qgxVrQFaO/TxsrC4Is0V1sFbDwCgg=";
+    private static final String INVALID_MESSAGE = "JWT signature does not match locally computed signature";
+
+    private LoggerContext context;
+    private Logger syncLogger;
+    private Logger asyncLogger;
+    private LogSampler validSampler;
+    private LogThrottle invalidThrottle;
+
+    @Setup
+    public void setUp() {
+        context = new LoggerContext();
+
+        syncLogger = context.getLogger("before");
+        syncLogger.setAdditive(false);
+        syncLogger.setLevel(Level.INFO);
+        syncLogger.addAppender(nullAppender("sync"));
+
+        AsyncAppender async = new AsyncAppender();
+        async.setContext(context);
+        async.setName("async");
+        async.setQueueSize(8192);
+        async.setDiscardingThreshold(819);
+        async.setNeverBlock(true);
+        async.addAppender(nullAppender("async-target"));
+        async.start();
+
+        asyncLogger = context.getLogger("after");
+        asyncLogger.setAdditive(false);
+        asyncLogger.setLevel(Level.INFO);
+        asyncLogger.addAppender(async);
+
+        validSampler = LogSampler.oneIn(100);
+        invalidThrottle = LogThrottle.perMinute(asyncLogger, "token inválido", 20);
+    }
+
+    @TearDown
+    public void tearDown() {
+        context.stop();
+    }
+
+    @Benchmark
+    public void validTokenBefore() {
+        syncLogger.debug("Token encontrado no cache: {}", TOKEN_HASH.substring(0, 8) + "...");
+        syncLogger.info("Token gerado para cliente: {}", CLIENT_ID);
+        syncLogger.info("Token validado com sucesso para cliente: {}", CLIENT_ID);
+    }
+
+    @Benchmark
+    public void validTokenAfter() {
+        if (asyncLogger.isDebugEnabled()) {
+            asyncLogger.debug("Token encontrado no cache: {}...", TOKEN_HASH.substring(0, 8));
+        }
+        asyncLogger.debug("Token gerado para cliente: {}", CLIENT_ID);
+        if (asyncLogger.isInfoEnabled() && validSampler.sample()) {
+            asyncLogger.info("Token validado com sucesso para cliente: {} (amostrado)", CLIENT_ID);
+        }
+    }
+
+    @Benchmark
+    public void invalidTokenBefore() {
+        syncLogger.warn("Token inválido: {}", INVALID_MESSAGE);
+        syncLogger.warn("Tentativa de validação de token inválido: {}", INVALID_MESSAGE);
+    }
+
+    @Benchmark
+    public void invalidTokenAfter() {
+        if (invalidThrottle.tryAcquire()) {
+            asyncLogger.warn("Token inválido: {}", INVALID_MESSAGE);
+        }
+        if (invalidThrottle.tryAcquire()) {
+            asyncLogger.warn("Tentativa de validação de token inválido: {}", INVALID_MESSAGE);
+        }
+    }
+
+    private OutputStreamAppender<ILoggingEvent> nullAppender(String name) {
+        PatternLayoutEncoder encoder = new PatternLayoutEncoder();
+        encoder.setContext(context);
+        encoder.setPattern("%d{yyyy-MM-dd'T'HH:mm:ss.SSSXXX} %5p --- [%t] %-40.40logger{39} : %m%n");
+        encoder.start();
+
+        OutputStreamAppender<ILoggingEvent> appender = new OutputStreamAppender<>();
+        appender.setContext(context);
+        appender.setName(name);
+        appender.setEncoder(encoder);
+        appender.setOutputStream(OutputStream.nullOutputStream());
+        appender.start();
+        return appender;
+    }
+
+    public static void main(String[] args) throws Exception {
+        new Runner(new OptionsBuilder()
+                .include(LoggingOverheadBenchmark.class.getSimpleName())
+                .build()).run();
+    }
+}
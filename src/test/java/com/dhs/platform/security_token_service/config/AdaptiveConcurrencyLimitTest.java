@@ -0,0 +1,89 @@
+package com.dhs.platform.security_token_service.config;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class AdaptiveConcurrencyLimitTest {
+
+    private static final long FAST = TimeUnit.MILLISECONDS.toNanos(1);
+    private static final long SLOW = TimeUnit.MILLISECONDS.toNanos(10);
+
+    @Test
+    void rejectsAboveLimitUntilSlotIsReleased() {
+        AdaptiveConcurrencyLimit limit = new AdaptiveConcurrencyLimit("test", 2, 1, 10, 1.5, 0.2);
+
+        assertTrue(limit.tryAcquire());
+        assertTrue(limit.tryAcquire());
+        assertFalse(limit.tryAcquire());
+
+        limit.release(FAST, false);
+        assertEquals(1, limit.getInFlight());
+        assertTrue(limit.tryAcquire());
+    }
+
+    @Test
+    void growsWhileLatencyIsStable() throws InterruptedException {
+        AdaptiveConcurrencyLimit limit = new AdaptiveConcurrencyLimit("test", 16, 4, 100, 1.5, 0.2);
+
+        for (int i = 0; i < 4; i++) {
+            window(limit, 10, FAST, false);
+        }
+
+        assertTrue(limit.getLimit() > 16, "limite: " + limit.getLimit());
+    }
+
+    @Test
+    void shrinksWhenRecentLatencyRises() throws InterruptedException {
+        AdaptiveConcurrencyLimit limit = new AdaptiveConcurrencyLimit("test", 16, 4, 100, 1.5, 0.2);
+        window(limit, 10, FAST, false);
+        int baseline = limit.getLimit();
+
+        for (int i = 0; i < 3; i++) {
+            window(limit, 10, SLOW, false);
+        }
+
+        assertTrue(limit.getLimit() < baseline, "limite: " + limit.getLimit() + ", antes: " + baseline);
+    }
+
+    @Test
+    void dropsBackOffMultiplicativelyDownToMinimum() throws InterruptedException {
+        AdaptiveConcurrencyLimit limit = new AdaptiveConcurrencyLimit("test", 16, 12, 100, 1.5, 0.2);
+
+        window(limit, 10, FAST, true);
+        assertEquals(14, limit.getLimit());
+
+        window(limit, 10, FAST, true);
+        window(limit, 10, FAST, true);
+        assertEquals(12, limit.getLimit());
+    }
+
+    @Test
+    void lowUtilizationKeepsLimit() throws InterruptedException {
+        AdaptiveConcurrencyLimit limit = new AdaptiveConcurrencyLimit("test", 40, 4, 100, 1.5, 0.2);
+
+        // Uso máximo de 10 com limite 40: abaixo da metade, a amostra não mexe no limite
+        window(limit, 10, FAST, false);
+        window(limit, 10, SLOW, false);
+
+        assertEquals(40, limit.getLimit());
+    }
+
+    /**
+     * Uma janela completa: inFlight requisições simultâneas que terminam depois dos 100 ms da janela
+     */
+    private static void window(AdaptiveConcurrencyLimit limit, int inFlight, long rttNanos, boolean dropped)
+            throws InterruptedException {
+        for (int i = 0; i < inFlight; i++) {
+            assertTrue(limit.tryAcquire());
+        }
+        Thread.sleep(110);
+        for (int i = 0; i < inFlight; i++) {
+            limit.release(rttNanos, dropped && i == 0);
+        }
+    }
+}
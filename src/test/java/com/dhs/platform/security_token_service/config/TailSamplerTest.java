@@ -0,0 +1,46 @@
+package com.dhs.platform.security_token_service.config;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class TailSamplerTest {
+
+    private static final long SLOW_NANOS = 50_000_000;
+
+    @Test
+    void keepsSlowOrFailedTracesAndDropsTheRest() {
+        TailSampler sampler = new TailSampler(SLOW_NANOS, 0, 100);
+
+        assertTrue(sampler.keep(List.of(span("request", SLOW_NANOS, false))));
+        assertTrue(sampler.keep(List.of(span("redis GET", 1_000, true), span("request", 2_000, false))));
+        assertFalse(sampler.keep(List.of(span("redis GET", 1_000, false), span("request", 2_000, false))));
+    }
+
+    @Test
+    void ratioOneKeepsEveryTrace() {
+        TailSampler sampler = new TailSampler(SLOW_NANOS, 1, 100);
+
+        assertTrue(sampler.keep(List.of(span("request", 1_000, false))));
+    }
+
+    @Test
+    void capsKeptTracesPerSecond() {
+        TailSampler sampler = new TailSampler(SLOW_NANOS, 0, 3);
+        List<Tracing.SpanData> slow = List.of(span("request", SLOW_NANOS * 2, false));
+
+        for (int i = 0; i < 3; i++) {
+            assertTrue(sampler.keep(slow));
+        }
+        assertFalse(sampler.keep(slow));
+    }
+
+    private static Tracing.SpanData span(String name, long durationNanos, boolean error) {
+        return new Tracing.SpanData("4bf92f3577b34da6a3ce929d0e0e4736", "00f067aa0ba902b7", null, name,
+                0, durationNanos, Map.of(), error);
+    }
+}
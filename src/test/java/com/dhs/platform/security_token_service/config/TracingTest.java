@@ -0,0 +1,135 @@
+package com.dhs.platform.security_token_service.config;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class TracingTest {
+
+    private static final String TRACE_ID = "4bf92f3577b34da6a3ce929d0e0e4736";
+    private static final String PARENT_ID = "00f067aa0ba902b7";
+
+    private final List<List<Tracing.SpanData>> completed = new ArrayList<>();
+
+    @Test
+    void continuesTheIncomingTraceparent() {
+        try (Tracing.Span ignored = Tracing.startTrace("request", "00-" + TRACE_ID + "-" + PARENT_ID + "-01", completed::add)) {
+            assertEquals(TRACE_ID, Tracing.current().traceId());
+        }
+
+        Tracing.SpanData root = onlyTrace().get(0);
+        assertEquals(TRACE_ID, root.traceId());
+        assertEquals(PARENT_ID, root.parentSpanId());
+    }
+
+    @Test
+    void invalidTraceparentStartsANewTrace() {
+        assertFalse(Tracing.isValidTraceparent(null));
+        assertFalse(Tracing.isValidTraceparent("00-" + "0".repeat(32) + "-" + PARENT_ID + "-01"));
+        assertFalse(Tracing.isValidTraceparent("00-" + TRACE_ID + "-" + "0".repeat(16) + "-01"));
+        assertFalse(Tracing.isValidTraceparent("ff-" + TRACE_ID + "-" + PARENT_ID + "-01"));
+        assertFalse(Tracing.isValidTraceparent("00-" + TRACE_ID.toUpperCase() + "-" + PARENT_ID + "-01"));
+
+        try (Tracing.Span ignored = Tracing.startTrace("request", "00-invalido", completed::add)) {
+            assertNotEquals(TRACE_ID, Tracing.current().traceId());
+        }
+
+        Tracing.SpanData root = onlyTrace().get(0);
+        assertTrue(root.traceId().matches("[0-9a-f]{32}"));
+        assertNull(root.parentSpanId());
+    }
+
+    @Test
+    void childSpansLinkToTheirParentsAndRootComesLast() {
+        try (Tracing.Span ignored = Tracing.startTrace("request", null, completed::add)) {
+            try (Tracing.Span redis = Tracing.span("redis GET")) {
+                redis.attribute("db.key", "token_cache");
+                try (Tracing.Span ignoredJson = Tracing.span("json deserialize")) {
+                    Tracing.current().attribute("json.type", "Validation");
+                }
+            }
+            // Um startTrace dentro de um trace aberto só abre um span
+            try (Tracing.Span ignoredNested = Tracing.startTrace("nested", null, completed::add)) {
+                Tracing.span("bcrypt matches").close();
+            }
+        }
+
+        List<Tracing.SpanData> spans = onlyTrace();
+        assertEquals(List.of("json deserialize", "redis GET", "bcrypt matches", "nested", "request"),
+                spans.stream().map(Tracing.SpanData::name).toList());
+        Tracing.SpanData root = spans.get(4);
+        assertEquals(spans.get(1).spanId(), spans.get(0).parentSpanId());
+        assertEquals(root.spanId(), spans.get(1).parentSpanId());
+        assertEquals(spans.get(3).spanId(), spans.get(2).parentSpanId());
+        assertEquals(Map.of("db.key", "token_cache"), spans.get(1).attributes());
+        assertEquals(Map.of("json.type", "Validation"), spans.get(0).attributes());
+        assertTrue(spans.stream().allMatch(span -> span.traceId().equals(root.traceId())));
+        // Fechada a raiz, a thread fica sem trace
+        assertEquals("", Tracing.current().traceId());
+    }
+
+    @Test
+    void outOfOrderCloseReturnsToTheParentOfTheClosedSpan() {
+        try (Tracing.Span ignored = Tracing.startTrace("request", null, completed::add)) {
+            Tracing.Span outer = Tracing.span("outer");
+            Tracing.Span inner = Tracing.span("inner");
+            outer.close();
+            Tracing.span("next").close();
+            inner.close();
+        }
+
+        List<Tracing.SpanData> spans = onlyTrace();
+        Tracing.SpanData root = spans.get(spans.size() - 1);
+        Tracing.SpanData next = spans.stream().filter(span -> span.name().equals("next")).findFirst().orElseThrow();
+        assertEquals(root.spanId(), next.parentSpanId());
+    }
+
+    @Test
+    void errorsAreFlaggedWithTheExceptionType() {
+        try (Tracing.Span ignored = Tracing.startTrace("request", null, completed::add)) {
+            Tracing.span("mongo find").error(new IllegalStateException("fora")).close();
+        }
+
+        Tracing.SpanData failed = onlyTrace().get(0);
+        assertTrue(failed.error());
+        assertEquals(IllegalStateException.class.getName(), failed.attributes().get("exception.type"));
+        assertFalse(onlyTrace().get(1).error());
+    }
+
+    @Test
+    void spansBeyondTheLimitAreCountedOnTheRoot() {
+        int children = Tracing.MAX_SPANS_PER_TRACE + 10;
+        try (Tracing.Span ignored = Tracing.startTrace("request", null, completed::add)) {
+            for (int i = 0; i < children; i++) {
+                Tracing.span("redis GET").close();
+            }
+        }
+
+        List<Tracing.SpanData> spans = onlyTrace();
+        assertEquals(Tracing.MAX_SPANS_PER_TRACE + 1, spans.size());
+        assertEquals(10, spans.get(spans.size() - 1).attributes().get("tracing.dropped_spans"));
+    }
+
+    @Test
+    void outsideATraceSpansAreInert() {
+        Tracing.Span span = Tracing.span("redis GET").attribute("db.key", "x").error(new RuntimeException());
+        span.close();
+
+        assertEquals("", span.traceId());
+        assertEquals("", Tracing.current().traceId());
+        assertTrue(completed.isEmpty());
+    }
+
+    private List<Tracing.SpanData> onlyTrace() {
+        assertEquals(1, completed.size());
+        return completed.get(0);
+    }
+}
@@ -0,0 +1,80 @@
+package com.dhs.platform.security_token_service.config;
+
+import com.dhs.platform.security_token_service.domain.port.in.service.IAuthenticationService;
+import com.dhs.platform.security_token_service.domain.service.RateLimitService;
+import com.dhs.platform.security_token_service.domain.service.TokenCacheService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.actuate.health.Status;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.atMost;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class WarmupRunnerTest {
+
+    private TokenCacheService tokenCacheService;
+    private RateLimitService rateLimitService;
+    private WarmupRunner runner;
+    private WarmupHealthIndicator healthIndicator;
+
+    @BeforeEach
+    void setUp() {
+        tokenCacheService = mock(TokenCacheService.class);
+        rateLimitService = mock(RateLimitService.class);
+        PasswordEncoder passwordEncoder = mock(PasswordEncoder.class);
+        when(passwordEncoder.encode(anyString())).thenReturn("hash");
+
+        runner = new WarmupRunner(mock(IAuthenticationService.class), tokenCacheService, rateLimitService,
+                passwordEncoder, new JacksonConfig().objectMapper());
+        ReflectionTestUtils.setField(runner, "enabled", true);
+        ReflectionTestUtils.setField(runner, "maxDurationMillis", 20_000L);
+        ReflectionTestUtils.setField(runner, "sampleIntervalMillis", 500L);
+        ReflectionTestUtils.setField(runner, "stableCompileMillis", 5L);
+        ReflectionTestUtils.setField(runner, "stableSamples", 3);
+        ReflectionTestUtils.setField(runner, "minIterations", 10_000L);
+        ReflectionTestUtils.setField(runner, "maxIterations", 1_000L);
+        ReflectionTestUtils.setField(runner, "cacheIterationsPerSecond", 20);
+        healthIndicator = new WarmupHealthIndicator(runner);
+    }
+
+    @Test
+    void stopsAtIterationCapAndOnlyReadsSharedCache() {
+        assertEquals(Status.OUT_OF_SERVICE, healthIndicator.health().getStatus());
+
+        runner.run(null);
+
+        WarmupRunner.WarmupResult result = runner.getLastResult();
+        assertEquals("BUDGET", result.reason());
+        assertEquals(1_000, result.iterations());
+
+        long seconds = result.durationMillis() / 1000 + 1;
+        verify(tokenCacheService, atMost((int) (20 * seconds))).isTokenBlacklisted(anyString());
+        verify(tokenCacheService, never()).getOrComputeSerializedValidation(anyString(), any());
+        verify(tokenCacheService, never()).cacheTokenValidation(anyString(), any());
+        verify(tokenCacheService, never()).invalidateTokenCache(anyString());
+        verify(rateLimitService, never()).isRateLimited(anyString());
+        verify(rateLimitService, never()).resetRateLimit(anyString());
+
+        assertEquals(Status.UP, healthIndicator.health().getStatus());
+        assertEquals(1_000L, healthIndicator.health().getDetails().get("iterations"));
+    }
+
+    @Test
+    void redisFailureKeepsWarmupLocal() {
+        when(tokenCacheService.isTokenBlacklisted(anyString())).thenThrow(new IllegalStateException("Redis fora"));
+
+        runner.run(null);
+
+        assertEquals(1_000, runner.getLastResult().iterations());
+        verify(tokenCacheService).isTokenBlacklisted(anyString());
+        assertEquals(Status.UP, healthIndicator.health().getStatus());
+    }
+}
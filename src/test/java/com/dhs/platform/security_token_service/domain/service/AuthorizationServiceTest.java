@@ -0,0 +1,109 @@
+package com.dhs.platform.security_token_service.domain.service;
+
+import com.dhs.platform.security_token_service.adapters.in.http.dto.TokenValidationResponseDTO;
+import com.dhs.platform.security_token_service.domain.model.AuthorizationDecision;
+import com.dhs.platform.security_token_service.domain.model.SerializedValidation;
+import com.dhs.platform.security_token_service.domain.port.in.service.IAuthenticationService;
+import com.dhs.platform.security_token_service.domain.port.out.repository.IClientRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.lang.reflect.Constructor;
+import java.time.LocalDateTime;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class AuthorizationServiceTest {
+
+    private static final String HEADER_A = "Bearer token-a";
+    private static final String HEADER_B = "Bearer token-b";
+    private static final String OPAQUE_TOKEN = "sto_abcdefghijklmnopqrstuv";
+    private static final String[] READ = {"read"};
+
+    private IAuthenticationService authenticationService;
+    private OpaqueTokenService opaqueTokenService;
+    private AuthorizationService authorizationService;
+
+    @BeforeEach
+    void setUp() {
+        authenticationService = mock(IAuthenticationService.class);
+        opaqueTokenService = mock(OpaqueTokenService.class);
+        authorizationService = new AuthorizationService(authenticationService, mock(TokenCacheService.class),
+                opaqueTokenService, new ScopeRegistry(mock(IClientRepository.class)), 1024);
+
+        when(authenticationService.validateToken(HEADER_A)).thenReturn(validReadToken());
+        when(authenticationService.validateToken("Bearer " + OPAQUE_TOKEN)).thenReturn(validReadToken());
+        when(authenticationService.validateToken(HEADER_B)).thenReturn(TokenValidationResponseDTO.builder()
+                .valid(false)
+                .build());
+    }
+
+    @Test
+    void tableHitSkipsFullValidation() {
+        assertEquals(AuthorizationDecision.ALLOW, authorizationService.authorize(HEADER_A, READ));
+        assertEquals(AuthorizationDecision.ALLOW, authorizationService.authorize(HEADER_A, READ));
+
+        verify(authenticationService, times(1)).validateToken(HEADER_A);
+    }
+
+    @Test
+    void fingerprintCollisionDoesNotLendScopes() throws Exception {
+        assertEquals(AuthorizationDecision.ALLOW, authorizationService.authorize(HEADER_A, READ));
+
+        // Colisão forjada: a entrada de A gravada no slot de B com o fingerprint de B
+        AtomicReferenceArray<Object> table = table();
+        Object entryA = table.get(slot(fingerprint(HEADER_A)));
+        long fingerprintB = fingerprint(HEADER_B);
+        Constructor<?> constructor = entryA.getClass().getDeclaredConstructors()[0];
+        constructor.setAccessible(true);
+        table.set(slot(fingerprintB), constructor.newInstance(fingerprintB,
+                ReflectionTestUtils.getField(entryA, "tokenHash"),
+                ReflectionTestUtils.getField(entryA, "scopeMask"),
+                ReflectionTestUtils.getField(entryA, "expiresAt")));
+
+        assertEquals(AuthorizationDecision.INVALID_TOKEN, authorizationService.authorize(HEADER_B, READ));
+        verify(authenticationService).validateToken(HEADER_B);
+    }
+
+    @Test
+    void deletedOpaqueTokenIsRejectedOnTableHit() {
+        when(opaqueTokenService.validate(OPAQUE_TOKEN)).thenReturn(Optional.of(
+                new SerializedValidation(true, "client1", System.currentTimeMillis() + 60_000, null, "{}")));
+        assertEquals(AuthorizationDecision.ALLOW, authorizationService.authorize("Bearer " + OPAQUE_TOKEN, READ));
+        assertEquals(AuthorizationDecision.ALLOW, authorizationService.authorize("Bearer " + OPAQUE_TOKEN, READ));
+
+        // Revogação do cliente: o registro some sem passar pela blacklist
+        when(opaqueTokenService.validate(OPAQUE_TOKEN)).thenReturn(Optional.empty());
+
+        assertEquals(AuthorizationDecision.INVALID_TOKEN, authorizationService.authorize("Bearer " + OPAQUE_TOKEN, READ));
+    }
+
+    private static TokenValidationResponseDTO validReadToken() {
+        return TokenValidationResponseDTO.builder()
+                .valid(true)
+                .scopes(Set.of("read"))
+                .expiresAt(LocalDateTime.now().plusHours(1))
+                .build();
+    }
+
+    @SuppressWarnings("unchecked")
+    private AtomicReferenceArray<Object> table() {
+        return (AtomicReferenceArray<Object>) ReflectionTestUtils.getField(authorizationService, "table");
+    }
+
+    private long fingerprint(String header) {
+        return ReflectionTestUtils.invokeMethod(authorizationService, "fingerprint", header);
+    }
+
+    private int slot(long fingerprint) {
+        return ReflectionTestUtils.invokeMethod(authorizationService, "slot", fingerprint);
+    }
+}
@@ -0,0 +1,73 @@
+package com.dhs.platform.security_token_service.domain.service;
+
+import com.dhs.platform.security_token_service.domain.model.TokenCheck;
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class JwtTokenServicePrecheckTest {
+
+    private static final long NOW = 1_800_000_000_000L;
+    private static final String HEADER = encode("{\"alg\":\"HS256\"}");
+    private static final String SIGNATURE = "c2lnbmF0dXJl";
+
+    @Test
+    void wellFormedTokenWithFutureExpirationIsWorthChecking() {
+        assertEquals(TokenCheck.VALID, precheck("{\"sub\":\"client1\",\"exp\":" + (NOW / 1000 + 60) + "}"));
+        // Sem exp (ou em formato que só o parser completo entende) a decisão fica com o parser
+        assertEquals(TokenCheck.VALID, precheck("{\"sub\":\"client1\"}"));
+        assertEquals(TokenCheck.VALID, precheck("{\"exp\":\"1\"}"));
+        assertEquals(TokenCheck.VALID, precheck("{\"exp\":1.5}"));
+    }
+
+    @Test
+    void pastExpirationIsRejectedWithoutTheParser() {
+        assertEquals(TokenCheck.EXPIRED, precheck("{\"sub\":\"client1\",\"exp\":" + (NOW / 1000 - 1) + "}"));
+        assertEquals(TokenCheck.EXPIRED, precheck("{ \"exp\" :\t" + (NOW / 1000 - 1) + " }"));
+        // Mesma regra do jjwt: expirado só depois do segundo de exp
+        assertEquals(TokenCheck.VALID, precheck("{\"exp\":" + NOW / 1000 + "}"));
+    }
+
+    @Test
+    void expInsideAStringValueIsNotTheClaim() {
+        String payload = "{\"note\":\"\\\"exp\\\":1\",\"exp\":" + (NOW / 1000 + 60) + "}";
+
+        assertEquals(TokenCheck.VALID, precheck(payload));
+    }
+
+    @Test
+    void structuralProblemsAreMalformed() {
+        String payload = encode("{\"sub\":\"client1\"}");
+
+        assertEquals(TokenCheck.MALFORMED, JwtTokenService.precheck(null, NOW));
+        assertEquals(TokenCheck.MALFORMED, JwtTokenService.precheck("", NOW));
+        assertEquals(TokenCheck.MALFORMED, JwtTokenService.precheck(HEADER + "." + payload, NOW));
+        assertEquals(TokenCheck.MALFORMED, JwtTokenService.precheck(HEADER + "." + payload + "." + SIGNATURE + ".x", NOW));
+        assertEquals(TokenCheck.MALFORMED, JwtTokenService.precheck("." + payload + "." + SIGNATURE, NOW));
+        assertEquals(TokenCheck.MALFORMED, JwtTokenService.precheck(HEADER + ".." + SIGNATURE, NOW));
+        assertEquals(TokenCheck.MALFORMED, JwtTokenService.precheck(HEADER + "." + payload + ".", NOW));
+        assertEquals(TokenCheck.MALFORMED, JwtTokenService.precheck(HEADER + "." + payload + ".ab+c", NOW));
+        // Comprimento com resto 1 não existe em Base64 sem padding
+        assertEquals(TokenCheck.MALFORMED, JwtTokenService.precheck(HEADER + "." + payload + ".abcde", NOW));
+        // Payload que não é um objeto JSON
+        assertEquals(TokenCheck.MALFORMED, precheck("[1]"));
+    }
+
+    @Test
+    void oversizedTokenIsMalformed() {
+        String payload = encode("{\"pad\":\"" + "a".repeat(JwtTokenService.MAX_TOKEN_LENGTH) + "\"}");
+
+        assertEquals(TokenCheck.MALFORMED, JwtTokenService.precheck(HEADER + "." + payload + "." + SIGNATURE, NOW));
+    }
+
+    private static TokenCheck precheck(String payloadJson) {
+        return JwtTokenService.precheck(HEADER + "." + encode(payloadJson) + "." + SIGNATURE, NOW);
+    }
+
+    private static String encode(String json) {
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(json.getBytes(StandardCharsets.UTF_8));
+    }
+}
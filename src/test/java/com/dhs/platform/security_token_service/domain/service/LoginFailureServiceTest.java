@@ -0,0 +1,109 @@
+package com.dhs.platform.security_token_service.domain.service;
+
+import com.dhs.platform.security_token_service.adapters.out.memory.InMemoryKeyValueStore;
+import com.dhs.platform.security_token_service.adapters.out.memory.InMemoryLoginFailureAdapter;
+import com.dhs.platform.security_token_service.domain.model.LoginFailureState;
+import com.dhs.platform.security_token_service.domain.port.out.cache.ICacheCircuitBreaker;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class LoginFailureServiceTest {
+
+    private static final String CLIENT_ID = "client1";
+    private static final int FREE_ATTEMPTS = 2;
+
+    private ICacheCircuitBreaker circuitBreaker;
+    private LoginFailureService service;
+
+    @BeforeEach
+    void setUp() {
+        circuitBreaker = mock(ICacheCircuitBreaker.class);
+        when(circuitBreaker.allowRequest()).thenReturn(true);
+        service = new LoginFailureService(new InMemoryLoginFailureAdapter(new InMemoryKeyValueStore(100)),
+                circuitBreaker, true, FREE_ATTEMPTS, 1_000, 60_000, 10, 900, 900, 5_000, 1_000);
+    }
+
+    @Test
+    void concurrentAttemptsCannotAllReachTheSecretCheck() throws Exception {
+        assertEquals(FREE_ATTEMPTS + 1, concurrentReservations(32));
+    }
+
+    @Test
+    void concurrentAttemptsAreAlsoLimitedWithTheCircuitOpen() throws Exception {
+        when(circuitBreaker.allowRequest()).thenReturn(false);
+
+        assertEquals(FREE_ATTEMPTS + 1, concurrentReservations(32));
+    }
+
+    @Test
+    void failurePastFreeAttemptsBlocksTheNextAttempt() {
+        for (int i = 0; i < FREE_ATTEMPTS; i++) {
+            service.recordFailure(CLIENT_ID, service.reserveAttempt(CLIENT_ID));
+        }
+        LoginFailureState attempt = service.reserveAttempt(CLIENT_ID);
+        assertEquals(FREE_ATTEMPTS + 1, attempt.failures());
+        service.recordFailure(CLIENT_ID, attempt);
+
+        LoginFailureService.ClientLockedException locked =
+                assertThrows(LoginFailureService.ClientLockedException.class, () -> service.reserveAttempt(CLIENT_ID));
+        assertTrue(locked.getRetryAfterSeconds() >= 1);
+        // A tentativa recusada não conta
+        assertEquals(FREE_ATTEMPTS + 1, service.getState(CLIENT_ID).failures());
+    }
+
+    @Test
+    void successResetsTheReservedAttempts() {
+        service.recordFailure(CLIENT_ID, service.reserveAttempt(CLIENT_ID));
+        LoginFailureState attempt = service.reserveAttempt(CLIENT_ID);
+        assertEquals(2, attempt.failures());
+
+        service.recordSuccess(CLIENT_ID, attempt);
+
+        assertEquals(LoginFailureState.NONE, service.getState(CLIENT_ID));
+        assertEquals(1, service.reserveAttempt(CLIENT_ID).failures());
+    }
+
+    /**
+     * Quantas de n tentativas simultâneas chegariam ao BCrypt
+     */
+    private int concurrentReservations(int attempts) throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(attempts);
+        try {
+            CountDownLatch start = new CountDownLatch(1);
+            List<Future<Boolean>> results = new ArrayList<>();
+            for (int i = 0; i < attempts; i++) {
+                results.add(executor.submit(() -> {
+                    start.await();
+                    try {
+                        service.reserveAttempt(CLIENT_ID);
+                        return true;
+                    } catch (LoginFailureService.ClientLockedException e) {
+                        return false;
+                    }
+                }));
+            }
+            start.countDown();
+
+            int reserved = 0;
+            for (Future<Boolean> result : results) {
+                reserved += result.get() ? 1 : 0;
+            }
+            return reserved;
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+}
@@ -0,0 +1,137 @@
+package com.dhs.platform.security_token_service.domain.service;
+
+import com.dhs.platform.security_token_service.domain.model.BulkItemResult;
+import com.dhs.platform.security_token_service.domain.model.RevocationEvent;
+import com.dhs.platform.security_token_service.domain.model.RevocationRequest;
+import com.dhs.platform.security_token_service.domain.port.out.cache.CacheUnavailableException;
+import com.dhs.platform.security_token_service.domain.port.out.cache.IRevocationLogRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class RevocationServiceTest {
+
+    private static final Duration DURATION = Duration.ofMinutes(60);
+
+    private IRevocationLogRepository revocationLogRepository;
+    private TokenCacheService tokenCacheService;
+    private OpaqueTokenService opaqueTokenService;
+    private RefreshTokenService refreshTokenService;
+    private RevocationService revocationService;
+
+    @BeforeEach
+    void setUp() {
+        revocationLogRepository = mock(IRevocationLogRepository.class);
+        tokenCacheService = mock(TokenCacheService.class);
+        opaqueTokenService = mock(OpaqueTokenService.class);
+        refreshTokenService = mock(RefreshTokenService.class);
+        revocationService = new RevocationService(revocationLogRepository, tokenCacheService,
+                mock(JwtTokenService.class), opaqueTokenService, refreshTokenService);
+
+        when(revocationLogRepository.appendAll(anyList())).thenAnswer(invocation -> {
+            List<RevocationRequest> requests = invocation.getArgument(0);
+            List<RevocationEvent> events = new ArrayList<>();
+            for (int i = 0; i < requests.size(); i++) {
+                events.add(new RevocationEvent(100 + i, RevocationEvent.Type.TOKEN, "hash", null, 0, 0, 0));
+            }
+            return events;
+        });
+    }
+
+    @Test
+    void blacklistFailureFailsBatchWithoutDeletingOpaqueRecords() {
+        doThrow(new IllegalStateException("Redis fora")).when(tokenCacheService).blacklistTokens(anyList(), any());
+
+        List<BulkItemResult> results = revocationService.revokeTokens(List.of("jwt-1", "sto_abc"), DURATION);
+
+        assertTrue(results.stream().noneMatch(BulkItemResult::success));
+        // O registro opaco continua lá: o token não foi revogado e o resultado diz isso
+        verify(opaqueTokenService, never()).revokeAll(anyList());
+        verify(revocationLogRepository, never()).appendAll(anyList());
+    }
+
+    @Test
+    void unavailableBlacklistFailsSingleRevocation() {
+        doThrow(new CacheUnavailableException("Redis indisponível")).when(tokenCacheService).blacklistToken(any(), any());
+
+        assertThrows(CacheUnavailableException.class, () -> revocationService.revokeToken("jwt-1", DURATION));
+        verify(opaqueTokenService, never()).revoke(any());
+        verify(revocationLogRepository, never()).appendAll(anyList());
+    }
+
+    @Test
+    void opaqueDeletionFailureFailsOnlyOpaqueTokens() {
+        doThrow(new IllegalStateException("Redis fora")).when(opaqueTokenService).revokeAll(anyList());
+
+        List<BulkItemResult> results = revocationService.revokeTokens(
+                Arrays.asList("jwt-1", "sto_abc", "", "jwt-2"), DURATION);
+
+        assertTrue(results.get(0).success());
+        assertEquals(100, results.get(0).seq());
+        assertFalse(results.get(1).success());
+        assertEquals("Token ausente", results.get(2).message());
+        assertTrue(results.get(3).success());
+        assertEquals(101, results.get(3).seq());
+
+        // Só os tokens revogados de fato chegam ao feed
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<List<RevocationRequest>> published = ArgumentCaptor.forClass(List.class);
+        verify(revocationLogRepository).appendAll(published.capture());
+        assertEquals(List.of("jwt-1", "jwt-2"), published.getValue().stream().map(RevocationRequest::token).toList());
+    }
+
+    @Test
+    void refreshRevocationFailureFailsClientBatch() {
+        doThrow(new CacheUnavailableException("Redis indisponível")).when(refreshTokenService).revokeClients(anyList());
+
+        List<BulkItemResult> results = revocationService.revokeClientsTokens(List.of("client1", "client2"));
+
+        assertTrue(results.stream().noneMatch(BulkItemResult::success));
+        verify(revocationLogRepository, never()).appendAll(anyList());
+    }
+
+    @Test
+    void publishFailureStillReportsAppliedRevocations() {
+        when(revocationLogRepository.appendAll(anyList())).thenThrow(new IllegalStateException("Redis fora"));
+
+        List<BulkItemResult> results = revocationService.revokeTokens(List.of("jwt-1", "sto_abc"), DURATION);
+
+        assertTrue(results.stream().allMatch(BulkItemResult::success));
+        assertTrue(results.stream().allMatch(result -> result.seq() == 0));
+        verify(opaqueTokenService).revokeAll(List.of("jwt-1", "sto_abc"));
+    }
+
+    @Test
+    void clientRevocationAlsoRevokesOpaqueAndRefreshTokens() {
+        when(revocationLogRepository.appendClientRevocation("client1"))
+                .thenReturn(new RevocationEvent(7, RevocationEvent.Type.CLIENT, null, "client1", 1, 0, 0));
+
+        revocationService.revokeClientTokens("client1");
+        List<BulkItemResult> results = revocationService.revokeClientsTokens(Arrays.asList("client2", "", "client3"));
+
+        verify(tokenCacheService).invalidateClientToken("client1");
+        verify(opaqueTokenService).revokeClients(List.of("client1"));
+        verify(opaqueTokenService).revokeClients(List.of("client2", "client3"));
+        verify(refreshTokenService).revokeClients(List.of("client1"));
+        verify(refreshTokenService).revokeClients(List.of("client2", "client3"));
+        assertTrue(results.get(0).success());
+        assertFalse(results.get(1).success());
+    }
+}
@@ -0,0 +1,115 @@
+package com.dhs.platform.security_token_service.domain.service;
+
+import com.dhs.platform.security_token_service.domain.port.out.repository.IClientRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class ScopeRegistryTest {
+
+    private IClientRepository clientRepository;
+    private ScopeRegistry registry;
+
+    @BeforeEach
+    void setUp() {
+        clientRepository = mock(IClientRepository.class);
+        registry = new ScopeRegistry(clientRepository);
+    }
+
+    @Test
+    void requiredMaskIsContainedInTokenMask() {
+        long tokenMask = registry.maskOf(Set.of("read", "write", "admin"));
+
+        long readWrite = registry.requiredMask(new String[]{"read", "write"});
+        assertEquals(readWrite, tokenMask & readWrite);
+
+        long readOnlyToken = registry.maskOf(Set.of("read"));
+        assertNotEquals(readWrite, readOnlyToken & readWrite);
+        assertEquals(0, registry.requiredMask(new String[0]));
+    }
+
+    @Test
+    void unregisteredScopeIsUnknownAndNotRegisteredByLookup() {
+        registry.maskOf(Set.of("read"));
+
+        assertEquals(ScopeRegistry.UNKNOWN, registry.requiredMask(new String[]{"read", "billing"}));
+        assertEquals(1, registry.size());
+    }
+
+    @Test
+    void loadsClientScopesInSortedOrder() {
+        when(clientRepository.findAllScopes()).thenReturn(Set.of("write", "admin", "read"));
+
+        registry.loadFromClients();
+
+        // Mesmos clientes, mesmos índices em todas as instâncias
+        assertEquals(1L, registry.requiredMask(new String[]{"admin"}));
+        assertEquals(1L << 1, registry.requiredMask(new String[]{"read"}));
+        assertEquals(1L << 2, registry.requiredMask(new String[]{"write"}));
+    }
+
+    @Test
+    void loadFailureLeavesRegistryUsable() {
+        when(clientRepository.findAllScopes()).thenThrow(new IllegalStateException("MongoDB fora"));
+
+        registry.loadFromClients();
+
+        assertEquals(0, registry.size());
+        assertEquals(1L, registry.maskOf(Set.of("read")));
+    }
+
+    @Test
+    void scopesBeyondCapacityStayOutOfTheMask() {
+        List<String> scopes = new ArrayList<>();
+        for (int i = 0; i < ScopeRegistry.CAPACITY + 5; i++) {
+            scopes.add("scope-" + i);
+        }
+
+        long mask = registry.maskOf(scopes);
+
+        assertEquals(ScopeRegistry.CAPACITY, registry.size());
+        // Bit 63 nunca é usado: nenhuma máscara válida coincide com UNKNOWN
+        assertEquals(Long.MAX_VALUE, mask);
+        assertNotEquals(ScopeRegistry.UNKNOWN, mask);
+        assertEquals(ScopeRegistry.UNKNOWN, registry.requiredMask(new String[]{"scope-" + ScopeRegistry.CAPACITY}));
+    }
+
+    @Test
+    void concurrentRegistrationAssignsDistinctBits() throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        try {
+            List<Future<Long>> masks = new ArrayList<>();
+            for (int i = 0; i < 100; i++) {
+                String scope = "scope-" + i;
+                masks.add(executor.submit(() -> registry.maskOf(Set.of(scope))));
+            }
+
+            long union = 0;
+            int assigned = 0;
+            for (Future<Long> future : masks) {
+                long mask = future.get();
+                if (mask != 0) {
+                    assertEquals(1, Long.bitCount(mask));
+                    assertEquals(0, union & mask);
+                    union |= mask;
+                    assigned++;
+                }
+            }
+            assertEquals(ScopeRegistry.CAPACITY, assigned);
+            assertEquals(Long.MAX_VALUE, union);
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+}
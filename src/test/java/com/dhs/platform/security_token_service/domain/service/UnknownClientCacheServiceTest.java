@@ -0,0 +1,67 @@
+package com.dhs.platform.security_token_service.domain.service;
+
+import com.dhs.platform.security_token_service.domain.port.out.cache.IUnknownClientCacheRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class UnknownClientCacheServiceTest {
+
+    private static final String CLIENT_ID = "01998afa-0000-0000-0000-000000000000";
+
+    private IUnknownClientCacheRepository repository;
+    private UnknownClientCacheService service;
+
+    @BeforeEach
+    void setUp() {
+        repository = mock(IUnknownClientCacheRepository.class);
+        when(repository.getInvalidationMark()).thenReturn(Optional.of("a"));
+        service = new UnknownClientCacheService(repository, true, 60, 1024);
+        service.pollInvalidations();
+    }
+
+    @Test
+    void invalidationOnAnotherNodeClearsLocalEntries() {
+        service.markUnknown(CLIENT_ID);
+        assertTrue(service.isLocallyKnownUnknown(CLIENT_ID));
+
+        when(repository.getInvalidationMark()).thenReturn(Optional.of("b"));
+        service.pollInvalidations();
+
+        assertFalse(service.isLocallyKnownUnknown(CLIENT_ID));
+    }
+
+    @Test
+    void unchangedMarkKeepsLocalEntries() {
+        service.markUnknown(CLIENT_ID);
+        service.pollInvalidations();
+
+        assertTrue(service.isLocallyKnownUnknown(CLIENT_ID));
+    }
+
+    @Test
+    void fingerprintDependsOnTheProcessSeed() {
+        UnknownClientCacheService other = new UnknownClientCacheService(repository, true, 60, 1024);
+
+        // Sem a semente um client ID forjado para colidir bloquearia o cliente real em todo nó
+        long fingerprint = ReflectionTestUtils.invokeMethod(service, "fingerprint", CLIENT_ID);
+        long otherFingerprint = ReflectionTestUtils.invokeMethod(other, "fingerprint", CLIENT_ID);
+        assertNotEquals(fingerprint, otherFingerprint);
+    }
+
+    @Test
+    void localInvalidateRemovesEntry() {
+        service.markUnknown(CLIENT_ID);
+        service.invalidate(CLIENT_ID);
+
+        assertFalse(service.isLocallyKnownUnknown(CLIENT_ID));
+    }
+}
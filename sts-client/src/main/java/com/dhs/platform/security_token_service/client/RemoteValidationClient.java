@@ -0,0 +1,92 @@
+package com.dhs.platform.security_token_service.client;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Base64;
+import java.util.HashSet;
+import java.util.Set;
+
+/**
+ * Fallback para o /api/v1/auth/validate do STS
+ */
+final class RemoteValidationClient {
+
+    private static final Logger log = LoggerFactory.getLogger(RemoteValidationClient.class);
+
+    private final URI validateUri;
+    private final HttpClient httpClient;
+    private final ObjectMapper objectMapper;
+    private final Duration requestTimeout;
+
+    RemoteValidationClient(URI baseUrl, HttpClient httpClient, ObjectMapper objectMapper, Duration requestTimeout) {
+        this.validateUri = baseUrl.resolve("/api/v1/auth/validate");
+        this.httpClient = httpClient;
+        this.objectMapper = objectMapper;
+        this.requestTimeout = requestTimeout;
+    }
+
+    ValidationResult validate(String token) {
+        try {
+            HttpRequest request = HttpRequest.newBuilder(validateUri)
+                    .header("Authorization", "Bearer " + token)
+                    .timeout(requestTimeout)
+                    .GET()
+                    .build();
+            HttpResponse<String> response = httpClient.send(request, HttpResponse.BodyHandlers.ofString());
+
+            if (response.statusCode() != 200 && response.statusCode() != 401) {
+                log.warn("Validação remota retornou status {}", response.statusCode());
+                return ValidationResult.invalid("STS indisponível", ValidationResult.Source.REMOTE);
+            }
+
+            JsonNode body = objectMapper.readTree(response.body());
+            if (!body.path("valid").asBoolean(false)) {
+                return ValidationResult.invalid(body.path("message").asText("Token inválido ou expirado"),
+                        ValidationResult.Source.REMOTE);
+            }
+
+            Set<String> scopes = new HashSet<>();
+            body.path("scopes").forEach(scope -> scopes.add(scope.asText()));
+
+            // iat/exp vêm do próprio JWT (já confirmado pelo STS): datas da resposta não têm fuso
+            JsonNode claims = payload(token);
+            return new ValidationResult(true,
+                    body.path("clientId").asText(null),
+                    body.path("clientName").asText(null),
+                    Set.copyOf(scopes),
+                    epochSeconds(claims, "iat"),
+                    epochSeconds(claims, "exp"),
+                    body.path("message").asText(null),
+                    ValidationResult.Source.REMOTE);
+
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return ValidationResult.invalid("Validação interrompida", ValidationResult.Source.REMOTE);
+        } catch (Exception e) {
+            log.warn("Falha na validação remota: {}", e.getMessage());
+            return ValidationResult.invalid("STS indisponível", ValidationResult.Source.REMOTE);
+        }
+    }
+
+    private JsonNode payload(String token) throws Exception {
+        int start = token.indexOf('.') + 1;
+        int end = token.indexOf('.', start);
+        byte[] json = Base64.getUrlDecoder().decode(token.substring(start, end));
+        return objectMapper.readTree(new String(json, StandardCharsets.UTF_8));
+    }
+
+    private static Instant epochSeconds(JsonNode claims, String name) {
+        JsonNode value = claims.get(name);
+        return value != null && value.canConvertToLong() ? Instant.ofEpochSecond(value.asLong()) : null;
+    }
+}
@@ -0,0 +1,158 @@
+package com.dhs.platform.security_token_service.client;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Sincroniza os eventos de revogação do STS (GET /api/v1/auth/revocations?after=) em segundo plano
+ *
+ * Enquanto a última sincronização bem-sucedida for mais recente que a tolerância
+ * configurada, o status de revogação é considerado conhecido; caso contrário o
+ * validador recorre ao /validate remoto.
+ *
+ * A posição no feed é a sequência do último evento aplicado. Se o STS sinalizar reset
+ * (eventos descartados do log), o cache é limpo e tokens emitidos antes do evento mais
+ * antigo retido passam a ser confirmados no /validate remoto.
+ */
+final class RevocationSync implements AutoCloseable {
+
+    private static final Logger log = LoggerFactory.getLogger(RevocationSync.class);
+
+    private final URI feedUri;
+    private final HttpClient httpClient;
+    private final ObjectMapper objectMapper;
+    private final Duration pollInterval;
+    private final Duration requestTimeout;
+    private final ValidatedTokenCache cache;
+
+    private final ConcurrentHashMap<String, Long> revoked = new ConcurrentHashMap<>();
+    private final ScheduledExecutorService scheduler;
+
+    private volatile long lastSuccessMillis;
+    private volatile long uncertainBeforeMillis;
+    private volatile long afterSeq;
+
+    RevocationSync(URI baseUrl, HttpClient httpClient, ObjectMapper objectMapper, Duration pollInterval,
+                   Duration requestTimeout, ValidatedTokenCache cache) {
+        this.feedUri = baseUrl.resolve("/api/v1/auth/revocations");
+        this.httpClient = httpClient;
+        this.objectMapper = objectMapper;
+        this.pollInterval = pollInterval;
+        this.requestTimeout = requestTimeout;
+        this.cache = cache;
+        this.scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "sts-revocation-sync");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    void start() {
+        scheduler.scheduleWithFixedDelay(this::poll, 0, pollInterval.toMillis(), TimeUnit.MILLISECONDS);
+    }
+
+    boolean isRevoked(String tokenHash) {
+        Long expiresAt = revoked.get(tokenHash);
+        return expiresAt != null && expiresAt > System.currentTimeMillis();
+    }
+
+    boolean isFresh(Duration maxStaleness) {
+        return System.currentTimeMillis() - lastSuccessMillis <= maxStaleness.toMillis();
+    }
+
+    /**
+     * Tokens emitidos antes deste instante podem ter revogações que não chegaram pelo feed
+     */
+    boolean isUncertain(Instant issuedAt) {
+        return issuedAt == null ? uncertainBeforeMillis > 0 : issuedAt.toEpochMilli() < uncertainBeforeMillis;
+    }
+
+    long getLastSequence() {
+        return afterSeq;
+    }
+
+    int size() {
+        return revoked.size();
+    }
+
+    /**
+     * Uma rodada de sincronização; páginas truncadas são consumidas em sequência
+     */
+    void poll() {
+        try {
+            boolean truncated;
+            do {
+                HttpRequest request = HttpRequest.newBuilder(URI.create(feedUri + "?after=" + afterSeq))
+                        .timeout(requestTimeout)
+                        .GET()
+                        .build();
+                HttpResponse<String> response = httpClient.send(request, HttpResponse.BodyHandlers.ofString());
+                if (response.statusCode() != 200) {
+                    log.warn("Feed de revogações retornou status {}", response.statusCode());
+                    return;
+                }
+
+                JsonNode feed = objectMapper.readTree(response.body());
+                if (feed.path("reset").asBoolean(false)) {
+                    log.warn("Feed de revogações sem replay completo a partir da seq {}; cache local descartado", afterSeq);
+                    uncertainBeforeMillis = Math.max(uncertainBeforeMillis,
+                            feed.path("oldestRetainedAt").asLong(System.currentTimeMillis()));
+                    cache.clear();
+                    afterSeq = 0;
+                }
+
+                JsonNode events = feed.path("events");
+                for (JsonNode event : events) {
+                    apply(event);
+                    afterSeq = Math.max(afterSeq, event.path("seq").asLong());
+                }
+
+                truncated = feed.path("truncated").asBoolean(false) && !events.isEmpty();
+            } while (truncated);
+
+            lastSuccessMillis = System.currentTimeMillis();
+            evictExpired();
+
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (Exception e) {
+            log.warn("Falha ao sincronizar revogações do STS: {}", e.getMessage());
+        }
+    }
+
+    private void apply(JsonNode event) {
+        switch (event.path("type").asText()) {
+            case "TOKEN" -> {
+                String tokenHash = event.path("tokenHash").asText();
+                revoked.put(tokenHash, event.path("expiresAt").asLong());
+                cache.remove(tokenHash);
+            }
+            // O STS gera novo token para o cliente; validações em cache são refeitas
+            case "CLIENT" -> cache.removeByClientId(event.path("clientId").asText());
+            default -> log.debug("Evento de revogação desconhecido ignorado: {}", event.path("type").asText());
+        }
+    }
+
+    private void evictExpired() {
+        long now = System.currentTimeMillis();
+        revoked.values().removeIf(expiresAt -> expiresAt <= now);
+    }
+
+    @Override
+    public void close() {
+        scheduler.shutdownNow();
+    }
+}
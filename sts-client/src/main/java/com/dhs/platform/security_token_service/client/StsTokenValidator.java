@@ -0,0 +1,225 @@
+package com.dhs.platform.security_token_service.client;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtException;
+import io.jsonwebtoken.JwtParser;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.security.Keys;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Base64;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Validador de tokens do STS embarcado nos resource servers
+ *
+ * Ordem de decisão para cada token:
+ * 1. revogado (feed de revogações) -> inválido
+ * 2. status de revogação incerto (feed desatualizado) -> /validate remoto
+ * 3. já validado (LRU em memória) -> resultado em cache
+ * 4. kid desconhecido ou ausente (inclusive tokens opacos, sto_...) -> /validate remoto
+ * 5. verificação local da assinatura e expiração, com a mesma lógica do JwtTokenService
+ *
+ * A assinatura é HMAC: o segredo passado em key() também permite emitir tokens válidos para o
+ * STS e para todos os resource servers. Serviços que não devem ter esse poder constroem o
+ * validador sem chaves, e todo JWT segue para o /validate remoto (passo 4).
+ *
+ * Uso:
+ * <pre>
+ * StsTokenValidator validator = StsTokenValidator.builder(URI.create("http://sts:8080"))
+ *         .key(keyId, secret)
+ *         .build();
+ * ValidationResult result = validator.validate(authorizationHeader);
+ * </pre>
+ */
+public final class StsTokenValidator implements AutoCloseable {
+
+    private static final String BEARER_PREFIX = "Bearer ";
+
+    private final Map<String, JwtParser> parsersByKeyId;
+    private final ValidatedTokenCache cache;
+    private final RevocationSync revocationSync;
+    private final RemoteValidationClient remoteValidationClient;
+    private final ObjectMapper objectMapper;
+    private final Duration maxRevocationStaleness;
+
+    private StsTokenValidator(Builder builder) {
+        this.objectMapper = new ObjectMapper();
+        this.maxRevocationStaleness = builder.maxRevocationStaleness;
+        this.cache = new ValidatedTokenCache(builder.cacheSize);
+
+        Map<String, JwtParser> parsers = new HashMap<>();
+        builder.keys.forEach((keyId, secret) -> parsers.put(keyId, Jwts.parser()
+                .verifyWith(Keys.hmacShaKeyFor(secret.getBytes()))
+                .clockSkewSeconds(builder.clockSkew.toSeconds())
+                .build()));
+        this.parsersByKeyId = Map.copyOf(parsers);
+
+        HttpClient httpClient = builder.httpClient != null ? builder.httpClient
+                : HttpClient.newBuilder().connectTimeout(builder.requestTimeout).build();
+        this.remoteValidationClient = new RemoteValidationClient(builder.baseUrl, httpClient, objectMapper,
+                builder.requestTimeout);
+        this.revocationSync = new RevocationSync(builder.baseUrl, httpClient, objectMapper,
+                builder.revocationPollInterval, builder.requestTimeout, cache);
+        this.revocationSync.start();
+    }
+
+    public static Builder builder(URI baseUrl) {
+        return new Builder(baseUrl);
+    }
+
+    /**
+     * Valida um token puro ou um header Authorization ("Bearer ...")
+     */
+    public ValidationResult validate(String token) {
+        if (token == null || token.isBlank()) {
+            return ValidationResult.invalid("Token ausente", ValidationResult.Source.LOCAL);
+        }
+        String jwt = token.startsWith(BEARER_PREFIX) ? token.substring(BEARER_PREFIX.length()) : token;
+        String tokenHash = TokenHashes.sha256(jwt);
+
+        if (revocationSync.isRevoked(tokenHash)) {
+            cache.remove(tokenHash);
+            return ValidationResult.invalid("Token invalidado", ValidationResult.Source.LOCAL);
+        }
+
+        // Sem sincronização recente não há como saber se o token foi revogado
+        if (!revocationSync.isFresh(maxRevocationStaleness)) {
+            return remoteValidationClient.validate(jwt);
+        }
+
+        ValidationResult cached = cache.get(tokenHash);
+        if (cached != null) {
+            return cached.withSource(ValidationResult.Source.CACHE);
+        }
+
+        JwtParser parser = parsersByKeyId.get(keyId(jwt));
+        ValidationResult result = parser != null
+                ? verifyLocally(parser, jwt)
+                : remoteValidationClient.validate(jwt);
+        // Revogações anteriores ao replay disponível no STS não chegaram pelo feed
+        if (result.valid() && result.source() == ValidationResult.Source.LOCAL
+                && revocationSync.isUncertain(result.issuedAt())) {
+            result = remoteValidationClient.validate(jwt);
+        }
+        cache.put(tokenHash, result);
+        return result;
+    }
+
+    private ValidationResult verifyLocally(JwtParser parser, String jwt) {
+        try {
+            Claims claims = parser.parseSignedClaims(jwt).getPayload();
+            List<?> scopes = claims.get("scopes", List.class);
+            return new ValidationResult(true,
+                    claims.getSubject(),
+                    claims.get("client_name", String.class),
+                    scopes != null ? Set.copyOf(scopes.stream().map(String::valueOf).toList()) : Set.of(),
+                    claims.getIssuedAt() != null ? claims.getIssuedAt().toInstant() : null,
+                    claims.getExpiration() != null ? claims.getExpiration().toInstant() : null,
+                    "Token válido",
+                    ValidationResult.Source.LOCAL);
+        } catch (JwtException | IllegalArgumentException e) {
+            return ValidationResult.invalid("Token inválido ou expirado", ValidationResult.Source.LOCAL);
+        }
+    }
+
+    /**
+     * Lê o kid do header sem verificar a assinatura; null se ausente ou malformado
+     */
+    private String keyId(String jwt) {
+        try {
+            int end = jwt.indexOf('.');
+            if (end <= 0) {
+                return null;
+            }
+            byte[] header = Base64.getUrlDecoder().decode(jwt.substring(0, end));
+            JsonNode kid = objectMapper.readTree(new String(header, StandardCharsets.UTF_8)).get("kid");
+            return kid != null ? kid.asText() : null;
+        } catch (Exception e) {
+            return null;
+        }
+    }
+
+    public int getCachedTokenCount() {
+        return cache.size();
+    }
+
+    public int getRevokedTokenCount() {
+        return revocationSync.size();
+    }
+
+    @Override
+    public void close() {
+        revocationSync.close();
+    }
+
+    public static final class Builder {
+
+        private final URI baseUrl;
+        private final Map<String, String> keys = new HashMap<>();
+        private int cacheSize = 10_000;
+        private Duration revocationPollInterval = Duration.ofSeconds(5);
+        private Duration maxRevocationStaleness = Duration.ofSeconds(30);
+        private Duration requestTimeout = Duration.ofSeconds(2);
+        private Duration clockSkew = Duration.ZERO;
+        private HttpClient httpClient;
+
+        private Builder(URI baseUrl) {
+            this.baseUrl = baseUrl;
+        }
+
+        /**
+         * Chave de verificação: kid (jwt.key-id do STS) e o segredo HMAC correspondente.
+         * Pode ser chamado mais de uma vez durante uma rotação de chaves.
+         */
+        public Builder key(String keyId, String secret) {
+            keys.put(keyId, secret);
+            return this;
+        }
+
+        public Builder cacheSize(int cacheSize) {
+            this.cacheSize = cacheSize;
+            return this;
+        }
+
+        public Builder revocationPollInterval(Duration revocationPollInterval) {
+            this.revocationPollInterval = revocationPollInterval;
+            return this;
+        }
+
+        /**
+         * Tempo máximo sem sincronizar revogações antes de recorrer ao /validate remoto
+         */
+        public Builder maxRevocationStaleness(Duration maxRevocationStaleness) {
+            this.maxRevocationStaleness = maxRevocationStaleness;
+            return this;
+        }
+
+        public Builder requestTimeout(Duration requestTimeout) {
+            this.requestTimeout = requestTimeout;
+            return this;
+        }
+
+        public Builder clockSkew(Duration clockSkew) {
+            this.clockSkew = clockSkew;
+            return this;
+        }
+
+        public Builder httpClient(HttpClient httpClient) {
+            this.httpClient = httpClient;
+            return this;
+        }
+
+        public StsTokenValidator build() {
+            return new StsTokenValidator(this);
+        }
+    }
+}
@@ -0,0 +1,24 @@
+package com.dhs.platform.security_token_service.client;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Base64;
+
+/**
+ * Mesmo hash usado pelo STS nas chaves de blacklist e no feed de revogações: SHA-256 em Base64
+ */
+final class TokenHashes {
+
+    private TokenHashes() {
+    }
+
+    static String sha256(String token) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            return Base64.getEncoder().encodeToString(digest.digest(token.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 não disponível", e);
+        }
+    }
+}
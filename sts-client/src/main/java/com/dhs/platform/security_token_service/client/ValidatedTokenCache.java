@@ -0,0 +1,56 @@
+package com.dhs.platform.security_token_service.client;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * LRU em memória de tokens já validados, indexado pelo hash do token
+ * Entradas são descartadas na expiração do token ou ao chegar uma revogação (do token ou do cliente).
+ */
+final class ValidatedTokenCache {
+
+    private final Map<String, ValidationResult> entries;
+
+    ValidatedTokenCache(int maxEntries) {
+        this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, ValidationResult> eldest) {
+                return size() > maxEntries;
+            }
+        };
+    }
+
+    synchronized ValidationResult get(String tokenHash) {
+        ValidationResult result = entries.get(tokenHash);
+        if (result == null) {
+            return null;
+        }
+        if (result.expiresAt() == null || result.expiresAt().toEpochMilli() <= System.currentTimeMillis()) {
+            entries.remove(tokenHash);
+            return null;
+        }
+        return result;
+    }
+
+    synchronized void put(String tokenHash, ValidationResult result) {
+        if (result.valid() && result.expiresAt() != null) {
+            entries.put(tokenHash, result);
+        }
+    }
+
+    synchronized void remove(String tokenHash) {
+        entries.remove(tokenHash);
+    }
+
+    synchronized void removeByClientId(String clientId) {
+        entries.values().removeIf(result -> clientId.equals(result.clientId()));
+    }
+
+    synchronized void clear() {
+        entries.clear();
+    }
+
+    synchronized int size() {
+        return entries.size();
+    }
+}
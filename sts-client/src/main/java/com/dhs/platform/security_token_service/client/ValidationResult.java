@@ -0,0 +1,31 @@
+package com.dhs.platform.security_token_service.client;
+
+import java.time.Instant;
+import java.util.Set;
+
+/**
+ * Resultado da validação de um token
+ *
+ * @param source onde a decisão foi tomada: verificação local, cache em memória ou /validate remoto
+ */
+public record ValidationResult(boolean valid, String clientId, String clientName, Set<String> scopes,
+                               Instant issuedAt, Instant expiresAt, String message, Source source) {
+
+    public enum Source {
+        LOCAL,
+        CACHE,
+        REMOTE
+    }
+
+    static ValidationResult invalid(String message, Source source) {
+        return new ValidationResult(false, null, null, Set.of(), null, null, message, source);
+    }
+
+    public boolean hasScope(String scope) {
+        return scopes != null && scopes.contains(scope);
+    }
+
+    ValidationResult withSource(Source newSource) {
+        return new ValidationResult(valid, clientId, clientName, scopes, issuedAt, expiresAt, message, newSource);
+    }
+}
@@ -0,0 +1,88 @@
+package com.dhs.platform.security_token_service.client;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * STS local para os testes: respostas do feed de revogações em fila e um /validate fixo
+ */
+final class FakeSts implements AutoCloseable {
+
+    private final HttpServer server;
+    private final Deque<String> feedPages = new ArrayDeque<>();
+    private final List<String> feedQueries = new CopyOnWriteArrayList<>();
+    private final AtomicInteger validateCalls = new AtomicInteger();
+    private volatile int feedStatus = 200;
+    private volatile String validateBody = "{\"valid\":false,\"message\":\"Token inválido ou expirado\"}";
+
+    FakeSts() throws IOException {
+        server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        server.createContext("/api/v1/auth/revocations", this::feed);
+        server.createContext("/api/v1/auth/validate", this::validate);
+        server.start();
+    }
+
+    URI baseUrl() {
+        return URI.create("http://127.0.0.1:" + server.getAddress().getPort());
+    }
+
+    /**
+     * Próxima página do feed; sem páginas enfileiradas a resposta é um feed vazio
+     */
+    synchronized void enqueueFeed(String json) {
+        feedPages.add(json);
+    }
+
+    void feedStatus(int status) {
+        this.feedStatus = status;
+    }
+
+    void validateBody(String json) {
+        this.validateBody = json;
+    }
+
+    List<String> feedQueries() {
+        return feedQueries;
+    }
+
+    int validateCalls() {
+        return validateCalls.get();
+    }
+
+    private void feed(HttpExchange exchange) throws IOException {
+        feedQueries.add(exchange.getRequestURI().getQuery());
+        String body;
+        synchronized (this) {
+            body = feedPages.isEmpty() ? "{\"events\":[]}" : feedPages.poll();
+        }
+        respond(exchange, feedStatus, body);
+    }
+
+    private void validate(HttpExchange exchange) throws IOException {
+        validateCalls.incrementAndGet();
+        respond(exchange, 200, validateBody);
+    }
+
+    private static void respond(HttpExchange exchange, int status, String body) throws IOException {
+        byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().add("Content-Type", "application/json");
+        exchange.sendResponseHeaders(status, bytes.length);
+        exchange.getResponseBody().write(bytes);
+        exchange.close();
+    }
+
+    @Override
+    public void close() {
+        server.stop(0);
+    }
+}
@@ -0,0 +1,119 @@
+package com.dhs.platform.security_token_service.client;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.net.http.HttpClient;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class RevocationSyncTest {
+
+    private FakeSts sts;
+    private ValidatedTokenCache cache;
+    private RevocationSync sync;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        sts = new FakeSts();
+        cache = new ValidatedTokenCache(100);
+        // Sem start(): cada rodada é disparada pelo teste
+        sync = new RevocationSync(sts.baseUrl(), HttpClient.newHttpClient(), new ObjectMapper(),
+                Duration.ofSeconds(5), Duration.ofSeconds(2), cache);
+    }
+
+    @AfterEach
+    void tearDown() {
+        sync.close();
+        sts.close();
+    }
+
+    @Test
+    void appliesTokenAndClientRevocations() {
+        long expiresAt = System.currentTimeMillis() + 60_000;
+        cache.put("hash-a", valid("client1"));
+        cache.put("hash-b", valid("client2"));
+        cache.put("hash-c", valid("client3"));
+        sts.enqueueFeed("""
+                {"events":[
+                  {"seq":1,"type":"TOKEN","tokenHash":"hash-a","expiresAt":%d},
+                  {"seq":2,"type":"CLIENT","clientId":"client2"}
+                ]}""".formatted(expiresAt));
+
+        sync.poll();
+
+        assertTrue(sync.isRevoked("hash-a"));
+        assertNull(cache.get("hash-a"));
+        assertNull(cache.get("hash-b"));
+        assertNotNull(cache.get("hash-c"));
+        assertEquals(2, sync.getLastSequence());
+        assertTrue(sync.isFresh(Duration.ofSeconds(1)));
+    }
+
+    @Test
+    void consumesTruncatedPagesInOneRound() {
+        long expiresAt = System.currentTimeMillis() + 60_000;
+        sts.enqueueFeed("""
+                {"truncated":true,"events":[{"seq":1,"type":"TOKEN","tokenHash":"hash-a","expiresAt":%d}]}"""
+                .formatted(expiresAt));
+        sts.enqueueFeed("""
+                {"events":[{"seq":2,"type":"TOKEN","tokenHash":"hash-b","expiresAt":%d}]}"""
+                .formatted(expiresAt));
+
+        sync.poll();
+
+        assertEquals(List.of("after=0", "after=1"), sts.feedQueries());
+        assertTrue(sync.isRevoked("hash-a"));
+        assertTrue(sync.isRevoked("hash-b"));
+    }
+
+    @Test
+    void resetClearsCacheAndMarksOlderTokensUncertain() {
+        long oldestRetainedAt = System.currentTimeMillis() - 1_000;
+        cache.put("hash-a", valid("client1"));
+        sts.enqueueFeed("""
+                {"reset":true,"oldestRetainedAt":%d,"events":[]}""".formatted(oldestRetainedAt));
+
+        sync.poll();
+
+        assertEquals(0, cache.size());
+        assertTrue(sync.isUncertain(Instant.ofEpochMilli(oldestRetainedAt - 1)));
+        assertFalse(sync.isUncertain(Instant.ofEpochMilli(oldestRetainedAt + 1)));
+    }
+
+    @Test
+    void expiredRevocationsAreNotReported() {
+        sts.enqueueFeed("""
+                {"events":[{"seq":1,"type":"TOKEN","tokenHash":"hash-a","expiresAt":%d}]}"""
+                .formatted(System.currentTimeMillis() - 1));
+
+        sync.poll();
+
+        assertFalse(sync.isRevoked("hash-a"));
+        assertEquals(0, sync.size());
+    }
+
+    @Test
+    void failedRoundDoesNotRefreshStatus() {
+        sts.feedStatus(503);
+
+        sync.poll();
+
+        assertFalse(sync.isFresh(Duration.ofSeconds(30)));
+    }
+
+    private static ValidationResult valid(String clientId) {
+        return new ValidationResult(true, clientId, null, Set.of(), Instant.now(), Instant.now().plusSeconds(60),
+                "Token válido", ValidationResult.Source.LOCAL);
+    }
+}
@@ -0,0 +1,140 @@
+package com.dhs.platform.security_token_service.client;
+
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.security.Keys;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Date;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class StsTokenValidatorTest {
+
+    private static final String KEY_ID = "k1";
+    private static final String SECRET = "0123456789abcdef0123456789abcdef0123456789abcdef";
+
+    private FakeSts sts;
+    private StsTokenValidator validator;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        sts = new FakeSts();
+        validator = StsTokenValidator.builder(sts.baseUrl())
+                .key(KEY_ID, SECRET)
+                .revocationPollInterval(Duration.ofMillis(20))
+                .build();
+    }
+
+    @AfterEach
+    void tearDown() {
+        validator.close();
+        sts.close();
+    }
+
+    @Test
+    void verifiesLocallyAndThenServesFromCache() throws Exception {
+        awaitSync();
+        String token = jwt(KEY_ID, SECRET);
+
+        ValidationResult first = validator.validate("Bearer " + token);
+        ValidationResult second = validator.validate(token);
+
+        assertTrue(first.valid());
+        assertEquals(ValidationResult.Source.LOCAL, first.source());
+        assertEquals("client1", first.clientId());
+        assertTrue(first.hasScope("read"));
+        assertEquals(ValidationResult.Source.CACHE, second.source());
+        assertEquals(0, sts.validateCalls());
+    }
+
+    @Test
+    void rejectsTamperedSignatureLocally() throws Exception {
+        awaitSync();
+        String token = jwt(KEY_ID, "ffffffffffffffffffffffffffffffffffffffffffffffff");
+
+        ValidationResult result = validator.validate(token);
+
+        assertFalse(result.valid());
+        assertEquals(ValidationResult.Source.LOCAL, result.source());
+        assertEquals(0, validator.getCachedTokenCount());
+    }
+
+    @Test
+    void revokedTokenIsRejectedAndEvictedFromCache() throws Exception {
+        awaitSync();
+        String token = jwt(KEY_ID, SECRET);
+        assertTrue(validator.validate(token).valid());
+
+        int polled = sts.feedQueries().size();
+        sts.enqueueFeed("""
+                {"events":[{"seq":1,"type":"TOKEN","tokenHash":"%s","expiresAt":%d}]}"""
+                .formatted(TokenHashes.sha256(token), System.currentTimeMillis() + 60_000));
+        awaitPolls(polled + 2);
+
+        ValidationResult result = validator.validate(token);
+        assertFalse(result.valid());
+        assertEquals("Token invalidado", result.message());
+        assertEquals(0, validator.getCachedTokenCount());
+    }
+
+    @Test
+    void unknownKeyIdFallsBackToRemoteValidation() throws Exception {
+        awaitSync();
+        sts.validateBody("{\"valid\":true,\"clientId\":\"client1\",\"scopes\":[\"read\"],\"message\":\"Token válido\"}");
+
+        ValidationResult result = validator.validate(jwt("k2", SECRET));
+
+        assertTrue(result.valid());
+        assertEquals(ValidationResult.Source.REMOTE, result.source());
+        assertEquals(1, sts.validateCalls());
+    }
+
+    @Test
+    void staleRevocationFeedFallsBackToRemoteValidation() {
+        sts.feedStatus(503);
+
+        ValidationResult result = validator.validate(jwt(KEY_ID, SECRET));
+
+        // Com o feed fora, nem um JWT bem assinado é aceito sem consultar o STS
+        assertFalse(result.valid());
+        assertEquals(ValidationResult.Source.REMOTE, result.source());
+        assertEquals(1, sts.validateCalls());
+    }
+
+    /**
+     * A segunda consulta ao feed só sai depois que a primeira rodada terminou com sucesso
+     */
+    private void awaitSync() throws InterruptedException {
+        awaitPolls(2);
+    }
+
+    private void awaitPolls(int count) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 5_000;
+        while (sts.feedQueries().size() < count) {
+            if (System.currentTimeMillis() > deadline) {
+                throw new AssertionError("Feed de revogações não foi consultado " + count + " vezes");
+            }
+            Thread.sleep(10);
+        }
+    }
+
+    private static String jwt(String keyId, String secret) {
+        Instant now = Instant.now();
+        return Jwts.builder()
+                .header().keyId(keyId).and()
+                .subject("client1")
+                .claim("client_name", "Cliente 1")
+                .claim("scopes", List.of("read"))
+                .issuedAt(Date.from(now))
+                .expiration(Date.from(now.plusSeconds(300)))
+                .signWith(Keys.hmacShaKeyFor(secret.getBytes()))
+                .compact();
+    }
+}
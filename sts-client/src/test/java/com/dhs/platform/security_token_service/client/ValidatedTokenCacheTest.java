@@ -0,0 +1,64 @@
+package com.dhs.platform.security_token_service.client;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Instant;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+class ValidatedTokenCacheTest {
+
+    @Test
+    void evictsLeastRecentlyUsedEntry() {
+        ValidatedTokenCache cache = new ValidatedTokenCache(2);
+        cache.put("a", valid("client1", Instant.now().plusSeconds(60)));
+        cache.put("b", valid("client1", Instant.now().plusSeconds(60)));
+
+        cache.get("a");
+        cache.put("c", valid("client1", Instant.now().plusSeconds(60)));
+
+        assertNotNull(cache.get("a"));
+        assertNull(cache.get("b"));
+        assertNotNull(cache.get("c"));
+    }
+
+    @Test
+    void dropsExpiredEntriesOnRead() {
+        ValidatedTokenCache cache = new ValidatedTokenCache(10);
+        cache.put("a", valid("client1", Instant.now().minusSeconds(1)));
+
+        assertNull(cache.get("a"));
+        assertEquals(0, cache.size());
+    }
+
+    @Test
+    void storesOnlyValidResultsWithExpiration() {
+        ValidatedTokenCache cache = new ValidatedTokenCache(10);
+        cache.put("a", ValidationResult.invalid("Token inválido ou expirado", ValidationResult.Source.LOCAL));
+        cache.put("b", valid("client1", null));
+
+        assertEquals(0, cache.size());
+    }
+
+    @Test
+    void removesAllEntriesOfARevokedClient() {
+        ValidatedTokenCache cache = new ValidatedTokenCache(10);
+        cache.put("a", valid("client1", Instant.now().plusSeconds(60)));
+        cache.put("b", valid("client1", Instant.now().plusSeconds(60)));
+        cache.put("c", valid("client2", Instant.now().plusSeconds(60)));
+
+        cache.removeByClientId("client1");
+
+        assertNull(cache.get("a"));
+        assertNull(cache.get("b"));
+        assertNotNull(cache.get("c"));
+    }
+
+    private static ValidationResult valid(String clientId, Instant expiresAt) {
+        return new ValidationResult(true, clientId, null, Set.of(), Instant.now(), expiresAt, "Token válido",
+                ValidationResult.Source.LOCAL);
+    }
+}